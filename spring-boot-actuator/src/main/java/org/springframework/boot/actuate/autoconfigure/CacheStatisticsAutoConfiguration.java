@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.springframework.boot.actuate.cache.EhCacheStatisticsProvider;
 import org.springframework.boot.actuate.cache.HazelcastCacheStatisticsProvider;
 import org.springframework.boot.actuate.cache.InfinispanCacheStatisticsProvider;
 import org.springframework.boot.actuate.cache.JCacheCacheStatisticsProvider;
+import org.springframework.boot.actuate.cache.NearCacheStatisticsProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
@@ -48,6 +49,7 @@ import org.springframework.cache.jcache.JCacheCache;
 import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for {@link CacheStatisticsProvider}
@@ -118,6 +120,17 @@ public class CacheStatisticsAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnClass({ Caffeine.class, RedisCache.class })
+	static class NearCacheStatisticsProviderConfiguration {
+
+		@Bean
+		public NearCacheStatisticsProvider nearCacheStatisticsProvider() {
+			return new NearCacheStatisticsProvider();
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnClass(ConcurrentMapCache.class)
 	static class ConcurrentMapCacheStatisticsConfiguration {
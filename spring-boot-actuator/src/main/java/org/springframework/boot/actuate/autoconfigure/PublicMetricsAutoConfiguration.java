@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,36 +25,49 @@ import javax.sql.DataSource;
 
 import org.apache.catalina.startup.Tomcat;
 
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.cache.CacheStatisticsProvider;
 import org.springframework.boot.actuate.endpoint.CachePublicMetrics;
 import org.springframework.boot.actuate.endpoint.DataSourcePublicMetrics;
+import org.springframework.boot.actuate.endpoint.JmsListenerPublicMetrics;
+import org.springframework.boot.actuate.endpoint.KafkaConsumerPublicMetrics;
 import org.springframework.boot.actuate.endpoint.MetricReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.endpoint.RabbitListenerPublicMetrics;
 import org.springframework.boot.actuate.endpoint.RichGaugeReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.SystemPublicMetrics;
 import org.springframework.boot.actuate.endpoint.TomcatPublicMetrics;
 import org.springframework.boot.actuate.metrics.integration.SpringIntegrationMetricReader;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourceMetricsBeanPostProcessor;
 import org.springframework.boot.actuate.metrics.reader.CompositeMetricReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitListenerConcurrencyManager;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.SearchStrategy;
 import org.springframework.boot.autoconfigure.integration.IntegrationAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.JmsListenerConcurrencyManager;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.config.EnableIntegrationManagement;
 import org.springframework.integration.support.management.IntegrationManagementConfigurer;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for {@link PublicMetrics}.
@@ -69,7 +82,8 @@ import org.springframework.integration.support.management.IntegrationManagementC
 @AutoConfigureBefore(EndpointAutoConfiguration.class)
 @AutoConfigureAfter({ DataSourceAutoConfiguration.class, CacheAutoConfiguration.class,
 		MetricRepositoryAutoConfiguration.class, CacheStatisticsAutoConfiguration.class,
-		IntegrationAutoConfiguration.class })
+		IntegrationAutoConfiguration.class, JmsAutoConfiguration.class,
+		RabbitAutoConfiguration.class, KafkaAutoConfiguration.class })
 public class PublicMetricsAutoConfiguration {
 
 	private final List<MetricReader> metricReaders;
@@ -111,6 +125,12 @@ public class PublicMetricsAutoConfiguration {
 			return new DataSourcePublicMetrics();
 		}
 
+		@Bean
+		@ConditionalOnProperty(prefix = "spring.metrics.datasource", name = "instrument")
+		public static DataSourceMetricsBeanPostProcessor dataSourceMetricsBeanPostProcessor() {
+			return new DataSourceMetricsBeanPostProcessor();
+		}
+
 	}
 
 	@Configuration
@@ -165,4 +185,50 @@ public class PublicMetricsAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnClass(JmsListenerEndpointRegistry.class)
+	@ConditionalOnBean(JmsListenerEndpointRegistry.class)
+	static class JmsListenerMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public JmsListenerPublicMetrics jmsListenerPublicMetrics(
+				JmsListenerEndpointRegistry registry,
+				ObjectProvider<JmsListenerConcurrencyManager> concurrencyManager) {
+			return new JmsListenerPublicMetrics(registry,
+					concurrencyManager.getIfAvailable());
+		}
+
+	}
+
+	@Configuration
+	@ConditionalOnClass(RabbitListenerEndpointRegistry.class)
+	@ConditionalOnBean(RabbitListenerEndpointRegistry.class)
+	static class RabbitListenerMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public RabbitListenerPublicMetrics rabbitListenerPublicMetrics(
+				RabbitListenerEndpointRegistry registry,
+				ObjectProvider<RabbitListenerConcurrencyManager> concurrencyManager) {
+			return new RabbitListenerPublicMetrics(registry,
+					concurrencyManager.getIfAvailable());
+		}
+
+	}
+
+	@Configuration
+	@ConditionalOnClass(KafkaListenerEndpointRegistry.class)
+	@ConditionalOnBean(KafkaListenerEndpointRegistry.class)
+	static class KafkaMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public KafkaConsumerPublicMetrics kafkaConsumerPublicMetrics(
+				KafkaListenerEndpointRegistry registry) {
+			return new KafkaConsumerPublicMetrics(registry);
+		}
+
+	}
+
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.web.client.MetricsClientHttpRequestInterceptor;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} that records the requests made by
+ * {@link RestTemplate RestTemplates} built with the auto-configured
+ * {@link org.springframework.boot.web.client.RestTemplateBuilder RestTemplateBuilder}
+ * with a {@link CounterService} and {@link GaugeService}. Only applied when
+ * {@code endpoints.metrics.rest-template.enabled} is {@code true} since intercepting
+ * requests causes their bodies to be buffered.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+@Configuration
+@ConditionalOnBean({ CounterService.class, GaugeService.class })
+@ConditionalOnClass(RestTemplate.class)
+@AutoConfigureAfter(MetricRepositoryAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "endpoints.metrics.rest-template", name = "enabled")
+public class RestTemplateMetricsAutoConfiguration {
+
+	@Bean
+	public RestTemplateCustomizer metricsRestTemplateCustomizer(
+			CounterService counterService, GaugeService gaugeService) {
+		MetricsClientHttpRequestInterceptor interceptor = new MetricsClientHttpRequestInterceptor(
+				counterService, gaugeService);
+		return (restTemplate) -> {
+			restTemplate.setUriTemplateHandler(interceptor
+					.createUriTemplateHandler(restTemplate.getUriTemplateHandler()));
+			restTemplate.getInterceptors().add(interceptor);
+		};
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.cache;
+
+import java.util.Collection;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.cache.NearCache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * {@link CacheStatisticsProvider} implementation for a {@link NearCache}. In addition to
+ * the overall statistics, hit and miss ratios are provided for the local and remote
+ * tiers using the {@code local.} and {@code remote.} prefixes.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class NearCacheStatisticsProvider implements CacheStatisticsProvider<NearCache> {
+
+	@Override
+	public CacheStatistics getCacheStatistics(CacheManager cacheManager,
+			NearCache cache) {
+		long localHits = cache.getLocalHitCount();
+		long localMisses = cache.getLocalMissCount();
+		long remoteHits = cache.getRemoteHitCount();
+		long remoteMisses = cache.getRemoteMissCount();
+		NearCacheStatistics statistics = new NearCacheStatistics();
+		statistics.setSize(cache.getLocalCache().estimatedSize());
+		statistics.setGetCacheCounts(localHits + remoteHits, remoteMisses);
+		statistics.local.setGetCacheCounts(localHits, localMisses);
+		statistics.remote.setGetCacheCounts(remoteHits, remoteMisses);
+		return statistics;
+	}
+
+	/**
+	 * {@link CacheStatistics} with additional per-tier statistics.
+	 */
+	private static class NearCacheStatistics extends DefaultCacheStatistics {
+
+		private final DefaultCacheStatistics local = new DefaultCacheStatistics();
+
+		private final DefaultCacheStatistics remote = new DefaultCacheStatistics();
+
+		@Override
+		public Collection<Metric<?>> toMetrics(String prefix) {
+			Collection<Metric<?>> metrics = super.toMetrics(prefix);
+			metrics.addAll(this.local.toMetrics(prefix + "local."));
+			metrics.addAll(this.remote.toMetrics(prefix + "remote."));
+			return metrics;
+		}
+
+	}
+
+}
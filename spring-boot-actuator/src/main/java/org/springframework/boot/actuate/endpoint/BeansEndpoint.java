@@ -16,11 +16,16 @@
 
 package org.springframework.boot.actuate.endpoint;
 
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.json.JsonParser;
 import org.springframework.boot.json.JsonParserFactory;
@@ -30,12 +35,19 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.LiveBeansView;
 import org.springframework.core.env.Environment;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
 
 /**
  * Exposes JSON view of Spring beans. If the {@link Environment} contains a key setting
  * the {@link LiveBeansView#MBEAN_DOMAIN_PROPERTY_NAME} then all application contexts in
  * the JVM will be shown (and the corresponding MBeans will be registered per the standard
  * behavior of LiveBeansView). Otherwise only the current application context hierarchy.
+ * <p>
+ * The beans of the current application context hierarchy are described directly from
+ * each {@link ConfigurableListableBeanFactory} and the description is cached until the
+ * context is refreshed or new singletons are registered.
  *
  * @author Dave Syer
  * @author Andy Wilkinson
@@ -44,10 +56,14 @@ import org.springframework.util.Assert;
 public class BeansEndpoint extends AbstractEndpoint<List<Object>>
 		implements ApplicationContextAware {
 
-	private final HierarchyAwareLiveBeansView liveBeansView = new HierarchyAwareLiveBeansView();
+	private final Map<ConfigurableApplicationContext, ContextBeans> contextBeans = new ConcurrentReferenceHashMap<>();
+
+	private final LiveBeansView liveBeansView = new LiveBeansView();
 
 	private final JsonParser parser = JsonParserFactory.getJsonParser();
 
+	private ConfigurableApplicationContext leafContext;
+
 	public BeansEndpoint() {
 		super("beans");
 	}
@@ -56,49 +72,198 @@ public class BeansEndpoint extends AbstractEndpoint<List<Object>>
 	public void setApplicationContext(ApplicationContext context) throws BeansException {
 		if (context.getEnvironment()
 				.getProperty(LiveBeansView.MBEAN_DOMAIN_PROPERTY_NAME) == null) {
-			this.liveBeansView.setLeafContext(context);
+			this.leafContext = asConfigurableContext(context);
 		}
 	}
 
 	@Override
 	public List<Object> invoke() {
-		return this.parser.parseList(this.liveBeansView.getSnapshotAsJson());
+		return invoke(null, null);
 	}
 
-	private static class HierarchyAwareLiveBeansView extends LiveBeansView {
-
-		private ConfigurableApplicationContext leafContext;
+	/**
+	 * Return a view of the beans that are in the given package (or one of its
+	 * sub-packages) and that match the given type.
+	 * @param packageName the package of the bean types to include or {@code null} to
+	 * include beans from any package
+	 * @param type the type of the beans to include or {@code null} to include beans of
+	 * any type
+	 * @return a description of the matching beans of each context
+	 */
+	public List<Object> invoke(String packageName, Class<?> type) {
+		BeanFilter filter = new BeanFilter(packageName, type);
+		if (this.leafContext == null) {
+			return filter
+					.apply(this.parser.parseList(this.liveBeansView.getSnapshotAsJson()));
+		}
+		List<Object> result = new ArrayList<>();
+		ApplicationContext context = this.leafContext;
+		while (context != null) {
+			result.add(filter.apply(getContextBeans(asConfigurableContext(context))));
+			context = context.getParent();
+		}
+		return result;
+	}
 
-		private void setLeafContext(ApplicationContext leafContext) {
-			this.leafContext = asConfigurableContext(leafContext);
+	private ContextBeans getContextBeans(ConfigurableApplicationContext context) {
+		ContextBeans contextBeans = this.contextBeans.get(context);
+		if (contextBeans == null || !contextBeans.isCurrent(context)) {
+			contextBeans = new ContextBeans(context);
+			this.contextBeans.put(context, contextBeans);
 		}
+		return contextBeans;
+	}
+
+	private ConfigurableApplicationContext asConfigurableContext(
+			ApplicationContext applicationContext) {
+		Assert.isTrue(applicationContext instanceof ConfigurableApplicationContext,
+				"'" + applicationContext
+						+ "' does not implement ConfigurableApplicationContext");
+		return (ConfigurableApplicationContext) applicationContext;
+	}
+
+	/**
+	 * Description of the beans of a single context, in the same format as
+	 * {@link LiveBeansView}.
+	 */
+	private static final class ContextBeans {
 
-		@Override
-		public String getSnapshotAsJson() {
-			if (this.leafContext == null) {
-				return super.getSnapshotAsJson();
+		private final long startupDate;
+
+		private final int beanDefinitionCount;
+
+		private final int singletonCount;
+
+		private final String id;
+
+		private final String parentId;
+
+		private final List<Map<String, Object>> beans = new ArrayList<>();
+
+		private final List<Class<?>> types = new ArrayList<>();
+
+		private ContextBeans(ConfigurableApplicationContext context) {
+			ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+			this.startupDate = context.getStartupDate();
+			this.beanDefinitionCount = beanFactory.getBeanDefinitionCount();
+			this.singletonCount = beanFactory.getSingletonCount();
+			this.id = context.getId();
+			this.parentId = (context.getParent() != null ? context.getParent().getId()
+					: null);
+			for (String beanName : beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+				if (isBeanEligible(beanName, definition, beanFactory)) {
+					Class<?> type = beanFactory.getType(beanName);
+					this.beans.add(describeBean(beanName, definition, type, beanFactory));
+					this.types.add(type);
+				}
 			}
-			return generateJson(getContextHierarchy());
 		}
 
-		private ConfigurableApplicationContext asConfigurableContext(
-				ApplicationContext applicationContext) {
-			Assert.isTrue(applicationContext instanceof ConfigurableApplicationContext,
-					"'" + applicationContext
-							+ "' does not implement ConfigurableApplicationContext");
-			return (ConfigurableApplicationContext) applicationContext;
+		private boolean isBeanEligible(String beanName, BeanDefinition definition,
+				ConfigurableListableBeanFactory beanFactory) {
+			return (definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE
+					&& (!definition.isLazyInit()
+							|| beanFactory.containsSingleton(beanName)));
 		}
 
-		private Set<ConfigurableApplicationContext> getContextHierarchy() {
-			Set<ConfigurableApplicationContext> contexts = new LinkedHashSet<>();
-			ApplicationContext context = this.leafContext;
-			while (context != null) {
-				contexts.add(asConfigurableContext(context));
-				context = context.getParent();
+		private Map<String, Object> describeBean(String beanName,
+				BeanDefinition definition, Class<?> type,
+				ConfigurableListableBeanFactory beanFactory) {
+			Map<String, Object> bean = new LinkedHashMap<>();
+			bean.put("bean", beanName);
+			bean.put("aliases", Arrays.asList(beanFactory.getAliases(beanName)));
+			bean.put("scope", StringUtils.hasText(definition.getScope())
+					? definition.getScope() : BeanDefinition.SCOPE_SINGLETON);
+			bean.put("type", (type != null ? type.getName() : null));
+			bean.put("resource", definition.getResourceDescription());
+			bean.put("dependencies",
+					Arrays.asList(beanFactory.getDependenciesForBean(beanName)));
+			return Collections.unmodifiableMap(bean);
+		}
+
+		private boolean isCurrent(ConfigurableApplicationContext context) {
+			ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+			return this.startupDate == context.getStartupDate()
+					&& this.beanDefinitionCount == beanFactory.getBeanDefinitionCount()
+					&& this.singletonCount == beanFactory.getSingletonCount();
+		}
+
+	}
+
+	/**
+	 * Filter applied to the described beans.
+	 */
+	private static final class BeanFilter {
+
+		private final String packagePrefix;
+
+		private final Class<?> type;
+
+		private BeanFilter(String packageName, Class<?> type) {
+			this.packagePrefix = (StringUtils.hasText(packageName) ? packageName + "."
+					: null);
+			this.type = type;
+		}
+
+		private boolean isEmpty() {
+			return this.packagePrefix == null && this.type == null;
+		}
+
+		private Map<String, Object> apply(ContextBeans contextBeans) {
+			List<Map<String, Object>> beans = contextBeans.beans;
+			if (!isEmpty()) {
+				beans = new ArrayList<>();
+				for (int i = 0; i < contextBeans.beans.size(); i++) {
+					Class<?> type = contextBeans.types.get(i);
+					if (type != null && matches(type.getName(), type)) {
+						beans.add(contextBeans.beans.get(i));
+					}
+				}
+			}
+			Map<String, Object> context = new LinkedHashMap<>();
+			context.put("context", contextBeans.id);
+			context.put("parent", contextBeans.parentId);
+			context.put("beans", beans);
+			return context;
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<Object> apply(List<Object> contexts) {
+			if (isEmpty()) {
+				return contexts;
+			}
+			for (Object context : contexts) {
+				Map<String, Object> description = (Map<String, Object>) context;
+				List<Object> beans = new ArrayList<>();
+				for (Object bean : (List<Object>) description.get("beans")) {
+					Object type = ((Map<String, Object>) bean).get("type");
+					if (type instanceof String && matches((String) type, null)) {
+						beans.add(bean);
+					}
+				}
+				description.put("beans", beans);
 			}
 			return contexts;
 		}
 
+		private boolean matches(String typeName, Class<?> type) {
+			if (this.packagePrefix != null && !typeName.startsWith(this.packagePrefix)) {
+				return false;
+			}
+			if (this.type == null) {
+				return true;
+			}
+			if (type == null) {
+				ClassLoader classLoader = this.type.getClassLoader();
+				if (!ClassUtils.isPresent(typeName, classLoader)) {
+					return false;
+				}
+				type = ClassUtils.resolveClassName(typeName, classLoader);
+			}
+			return this.type.isAssignableFrom(type);
+		}
+
 	}
 
 }
@@ -28,6 +28,9 @@ import javax.sql.DataSource;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourceMetrics;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourceMetricsBeanPostProcessor;
+import org.springframework.boot.actuate.metrics.jdbc.Histogram;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProviders;
@@ -36,6 +39,8 @@ import org.springframework.context.annotation.Primary;
 
 /**
  * A {@link PublicMetrics} implementation that provides data source usage statistics.
+ * Connection acquire, hold and pending statistics are also provided for any data source
+ * that has been instrumented by a {@link DataSourceMetricsBeanPostProcessor}.
  *
  * @author Stephane Nicoll
  * @since 1.2.0
@@ -50,8 +55,13 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 	@Autowired
 	private Collection<DataSourcePoolMetadataProvider> providers;
 
+	@Autowired(required = false)
+	private DataSourceMetricsBeanPostProcessor dataSourceMetricsBeanPostProcessor;
+
 	private final Map<String, DataSourcePoolMetadata> metadataByPrefix = new HashMap<>();
 
+	private final Map<String, DataSourceMetrics> dataSourceMetricsByPrefix = new HashMap<>();
+
 	@PostConstruct
 	public void initialize() {
 		DataSource primaryDataSource = getPrimaryDataSource();
@@ -67,7 +77,18 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 			if (poolMetadata != null) {
 				this.metadataByPrefix.put(prefix, poolMetadata);
 			}
+			DataSourceMetrics dataSourceMetrics = getDataSourceMetrics(bean);
+			if (dataSourceMetrics != null) {
+				this.dataSourceMetricsByPrefix.put(prefix, dataSourceMetrics);
+			}
+		}
+	}
+
+	private DataSourceMetrics getDataSourceMetrics(DataSource dataSource) {
+		if (this.dataSourceMetricsBeanPostProcessor == null) {
+			return null;
 		}
+		return this.dataSourceMetricsBeanPostProcessor.getDataSourceMetrics(dataSource);
 	}
 
 	@Override
@@ -81,9 +102,35 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 			addMetric(metrics, prefix + "active", metadata.getActive());
 			addMetric(metrics, prefix + "usage", metadata.getUsage());
 		}
+		for (Map.Entry<String, DataSourceMetrics> entry : this.dataSourceMetricsByPrefix
+				.entrySet()) {
+			String prefix = entry.getKey();
+			prefix = (prefix.endsWith(".") ? prefix : prefix + ".");
+			DataSourceMetrics dataSourceMetrics = entry.getValue();
+			addTimeMetrics(metrics, prefix + "acquire", dataSourceMetrics.getAcquire());
+			addTimeMetrics(metrics, prefix + "hold", dataSourceMetrics.getHold());
+			addMetric(metrics, prefix + "pending", dataSourceMetrics.getPendingCount());
+			addHistogramMetrics(metrics, prefix + "pending",
+					dataSourceMetrics.getPending(), 1);
+		}
 		return metrics;
 	}
 
+	private void addTimeMetrics(Set<Metric<?>> metrics, String name,
+			Histogram histogram) {
+		addHistogramMetrics(metrics, name, histogram, 1000000.0);
+	}
+
+	private void addHistogramMetrics(Set<Metric<?>> metrics, String name,
+			Histogram histogram, double scale) {
+		addMetric(metrics, name + ".count", histogram.getCount());
+		addMetric(metrics, name + ".avg", histogram.getMean() / scale);
+		addMetric(metrics, name + ".max", histogram.getMax() / scale);
+		addMetric(metrics, name + ".p50", histogram.getValueAtPercentile(50) / scale);
+		addMetric(metrics, name + ".p95", histogram.getValueAtPercentile(95) / scale);
+		addMetric(metrics, name + ".p99", histogram.getValueAtPercentile(99) / scale);
+	}
+
 	private <T extends Number> void addMetric(Set<Metric<?>> metrics, String name,
 			T value) {
 		if (value != null) {
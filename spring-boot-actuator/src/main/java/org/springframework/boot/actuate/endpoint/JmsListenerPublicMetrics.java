@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.messaging.AbstractListenerConcurrencyManager;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.MessageListenerContainer;
+
+/**
+ * A {@link PublicMetrics} implementation that provides the number of consumers of JMS
+ * listener containers. As the containers scale between their minimum and maximum
+ * concurrency, {@code jms.listener.<id>.consumers.active} and
+ * {@code jms.listener.<id>.consumers.scheduled} reflect their scaling decisions. When the
+ * containers are scaled by a concurrency policy, the decisions of the policy and the load
+ * it was based on are published as {@code jms.listener.<id>.scaling.*}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class JmsListenerPublicMetrics implements PublicMetrics {
+
+	private final JmsListenerEndpointRegistry registry;
+
+	private final AbstractListenerConcurrencyManager concurrencyManager;
+
+	/**
+	 * Create a new {@link JmsListenerPublicMetrics} instance.
+	 * @param registry the registry holding the listener containers
+	 */
+	public JmsListenerPublicMetrics(JmsListenerEndpointRegistry registry) {
+		this(registry, null);
+	}
+
+	/**
+	 * Create a new {@link JmsListenerPublicMetrics} instance.
+	 * @param registry the registry holding the listener containers
+	 * @param concurrencyManager the manager scaling the listener containers or
+	 * {@code null}
+	 */
+	public JmsListenerPublicMetrics(JmsListenerEndpointRegistry registry,
+			AbstractListenerConcurrencyManager concurrencyManager) {
+		this.registry = registry;
+		this.concurrencyManager = concurrencyManager;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		List<Metric<?>> metrics = new ArrayList<>();
+		for (String id : this.registry.getListenerContainerIds()) {
+			MessageListenerContainer container = this.registry.getListenerContainer(id);
+			if (container instanceof DefaultMessageListenerContainer) {
+				addMetrics(metrics, "jms.listener." + id + ".consumers.",
+						(DefaultMessageListenerContainer) container);
+			}
+		}
+		if (this.concurrencyManager != null) {
+			for (ListenerConcurrencyScaler scaler : this.concurrencyManager.getScalers()
+					.values()) {
+				ListenerScalingMetrics.addMetrics(metrics,
+						"jms.listener." + scaler.getId() + ".scaling.", scaler);
+			}
+		}
+		return metrics;
+	}
+
+	private void addMetrics(List<Metric<?>> metrics, String prefix,
+			DefaultMessageListenerContainer container) {
+		metrics.add(new Metric<>(prefix + "active", container.getActiveConsumerCount()));
+		metrics.add(new Metric<>(prefix + "scheduled",
+				container.getScheduledConsumerCount()));
+		metrics.add(new Metric<>(prefix + "min", container.getConcurrentConsumers()));
+		metrics.add(new Metric<>(prefix + "max", container.getMaxConcurrentConsumers()));
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.common.MetricName;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+/**
+ * A {@link PublicMetrics} implementation that provides statistics for the consumers of
+ * Kafka listener containers. Metrics are named
+ * {@code kafka.consumer.<client-id>.<metric>} and include the consumption rate, fetch
+ * and commit latencies and the current lag of each assigned partition (as
+ * {@code kafka.consumer.<client-id>.records-lag.<topic>-<partition>}). Rates that Kafka
+ * also records for each topic are only included for the consumer as a whole.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class KafkaConsumerPublicMetrics implements PublicMetrics {
+
+	private static final String PREFIX = "kafka.consumer.";
+
+	private static final String RECORDS_LAG = "records-lag";
+
+	private static final String PARTITION_RECORDS_LAG_SUFFIX = "." + RECORDS_LAG;
+
+	private static final String TOPIC_TAG = "topic";
+
+	private static final String PARTITION_TAG = "partition";
+
+	private static final Set<String> CONSUMER_METRICS = Collections
+			.unmodifiableSet(new HashSet<>(Arrays.asList("records-consumed-rate",
+					"bytes-consumed-rate", "records-per-request-avg", "records-lag-max",
+					"fetch-latency-avg", "fetch-rate", "commit-latency-avg",
+					"commit-rate")));
+
+	private final KafkaListenerEndpointRegistry registry;
+
+	/**
+	 * Create a new {@link KafkaConsumerPublicMetrics} instance.
+	 * @param registry the registry holding the listener containers
+	 */
+	public KafkaConsumerPublicMetrics(KafkaListenerEndpointRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		List<Metric<?>> metrics = new ArrayList<>();
+		for (MessageListenerContainer container : this.registry
+				.getListenerContainers()) {
+			Map<String, Map<MetricName, ? extends org.apache.kafka.common.Metric>> consumerMetrics = container
+					.metrics();
+			if (consumerMetrics != null) {
+				consumerMetrics.forEach((clientId, clientMetrics) -> addMetrics(metrics,
+						PREFIX + clientId + ".", clientMetrics));
+			}
+		}
+		return metrics;
+	}
+
+	private void addMetrics(List<Metric<?>> metrics, String prefix,
+			Map<MetricName, ? extends org.apache.kafka.common.Metric> clientMetrics) {
+		clientMetrics.forEach((metricName, metric) -> {
+			String name = getName(metricName);
+			if (name != null) {
+				addMetric(metrics, prefix + name, metric.value());
+			}
+		});
+	}
+
+	private String getName(MetricName metricName) {
+		String name = metricName.name();
+		Map<String, String> tags = metricName.tags();
+		if (CONSUMER_METRICS.contains(name)) {
+			return (tags.containsKey(TOPIC_TAG) ? null : name);
+		}
+		if (name.endsWith(PARTITION_RECORDS_LAG_SUFFIX)) {
+			String partition = name.substring(0,
+					name.length() - PARTITION_RECORDS_LAG_SUFFIX.length());
+			return RECORDS_LAG + "." + partition;
+		}
+		if (RECORDS_LAG.equals(name) && tags.containsKey(TOPIC_TAG)
+				&& tags.containsKey(PARTITION_TAG)) {
+			return RECORDS_LAG + "." + tags.get(TOPIC_TAG) + "-"
+					+ tags.get(PARTITION_TAG);
+		}
+		return null;
+	}
+
+	private void addMetric(List<Metric<?>> metrics, String name, double value) {
+		if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+			metrics.add(new Metric<>(name, value));
+		}
+	}
+
+}
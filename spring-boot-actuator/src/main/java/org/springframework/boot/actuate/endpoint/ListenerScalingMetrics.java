@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+import org.springframework.boot.messaging.ListenerLoad;
+
+/**
+ * Metrics of a {@link ListenerConcurrencyScaler}, shared by the listener public metrics
+ * of each messaging technology.
+ *
+ * @author agent (agent@local)
+ */
+final class ListenerScalingMetrics {
+
+	private ListenerScalingMetrics() {
+	}
+
+	static void addMetrics(List<Metric<?>> metrics, String prefix,
+			ListenerConcurrencyScaler scaler) {
+		metrics.add(new Metric<>(prefix + "consumers", scaler.getConsumers()));
+		metrics.add(new Metric<>(prefix + "up", scaler.getScaleUpCount()));
+		metrics.add(new Metric<>(prefix + "down", scaler.getScaleDownCount()));
+		ListenerLoad load = scaler.getLastLoad();
+		if (load != null) {
+			metrics.add(new Metric<>(prefix + "latency", load.getAverageLatency()));
+			metrics.add(new Metric<>(prefix + "utilization", load.getUtilization()));
+			metrics.add(new Metric<>(prefix + "idle", load.getIdleTime()));
+			if (load.getQueueDepth() >= 0) {
+				metrics.add(new Metric<>(prefix + "queue-depth", load.getQueueDepth()));
+			}
+		}
+	}
+
+}
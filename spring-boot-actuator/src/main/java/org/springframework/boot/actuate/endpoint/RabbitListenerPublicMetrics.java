@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.messaging.AbstractListenerConcurrencyManager;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+
+/**
+ * A {@link PublicMetrics} implementation that provides the number of consumers of
+ * RabbitMQ listener containers. As the containers scale between their minimum and
+ * maximum concurrency, {@code rabbitmq.listener.<id>.consumers.active} reflects their
+ * scaling decisions. When the containers are scaled by a concurrency policy, the
+ * decisions of the policy and the load it was based on are published as
+ * {@code rabbitmq.listener.<id>.scaling.*}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class RabbitListenerPublicMetrics implements PublicMetrics {
+
+	private final RabbitListenerEndpointRegistry registry;
+
+	private final AbstractListenerConcurrencyManager concurrencyManager;
+
+	/**
+	 * Create a new {@link RabbitListenerPublicMetrics} instance.
+	 * @param registry the registry holding the listener containers
+	 */
+	public RabbitListenerPublicMetrics(RabbitListenerEndpointRegistry registry) {
+		this(registry, null);
+	}
+
+	/**
+	 * Create a new {@link RabbitListenerPublicMetrics} instance.
+	 * @param registry the registry holding the listener containers
+	 * @param concurrencyManager the manager scaling the listener containers or
+	 * {@code null}
+	 */
+	public RabbitListenerPublicMetrics(RabbitListenerEndpointRegistry registry,
+			AbstractListenerConcurrencyManager concurrencyManager) {
+		this.registry = registry;
+		this.concurrencyManager = concurrencyManager;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		List<Metric<?>> metrics = new ArrayList<>();
+		for (String id : this.registry.getListenerContainerIds()) {
+			MessageListenerContainer container = this.registry.getListenerContainer(id);
+			if (container instanceof SimpleMessageListenerContainer) {
+				metrics.add(new Metric<>("rabbitmq.listener." + id + ".consumers.active",
+						((SimpleMessageListenerContainer) container)
+								.getActiveConsumerCount()));
+			}
+		}
+		if (this.concurrencyManager != null) {
+			for (ListenerConcurrencyScaler scaler : this.concurrencyManager.getScalers()
+					.values()) {
+				ListenerScalingMetrics.addMetrics(metrics,
+						"rabbitmq.listener." + scaler.getId() + ".scaling.", scaler);
+			}
+		}
+		return metrics;
+	}
+
+}
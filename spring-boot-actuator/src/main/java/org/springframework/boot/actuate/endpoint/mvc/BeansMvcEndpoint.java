@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import org.springframework.boot.actuate.endpoint.BeansEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Adapter to expose {@link BeansEndpoint} as an {@link MvcEndpoint}. The beans can be
+ * filtered using the {@code package} and {@code type} request parameters.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+@ConfigurationProperties(prefix = "endpoints.beans")
+public class BeansMvcEndpoint extends AbstractEndpointMvcAdapter<BeansEndpoint> {
+
+	public BeansMvcEndpoint(BeansEndpoint delegate) {
+		super(delegate);
+	}
+
+	@ActuatorGetMapping
+	@ResponseBody
+	public Object invoke(
+			@RequestParam(name = "package", required = false) String packageName,
+			@RequestParam(required = false) String type) {
+		if (!getDelegate().isEnabled()) {
+			// Shouldn't happen - MVC endpoint shouldn't be registered when delegate's
+			// disabled
+			return getDisabledResponse();
+		}
+		Class<?> beanType = null;
+		if (type != null) {
+			ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+			if (!ClassUtils.isPresent(type, classLoader)) {
+				return ResponseEntity.badRequest().build();
+			}
+			beanType = ClassUtils.resolveClassName(type, classLoader);
+		}
+		return getDelegate().invoke(packageName, beanType);
+	}
+
+}
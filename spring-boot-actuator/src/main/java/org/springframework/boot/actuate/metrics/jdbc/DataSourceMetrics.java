@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Connection statistics recorded for a pooled {@link javax.sql.DataSource}. Times are
+ * recorded in nanoseconds.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see DataSourceMetricsBeanPostProcessor
+ */
+public class DataSourceMetrics {
+
+	private final Histogram acquire = new Histogram();
+
+	private final Histogram hold = new Histogram();
+
+	private final Histogram pending = new Histogram();
+
+	private volatile IntSupplier pendingCount = () -> 0;
+
+	/**
+	 * Return the histogram of the time, in nanoseconds, that callers waited for a
+	 * connection to be acquired. Only recorded for pools that report acquire times.
+	 * @return the acquire histogram
+	 */
+	public Histogram getAcquire() {
+		return this.acquire;
+	}
+
+	/**
+	 * Return the histogram of the time, in nanoseconds, that acquired connections were
+	 * held before being closed.
+	 * @return the hold histogram
+	 */
+	public Histogram getHold() {
+		return this.hold;
+	}
+
+	/**
+	 * Return the histogram of the number of threads that were waiting for a connection,
+	 * sampled each time a connection is acquired.
+	 * @return the pending histogram
+	 */
+	public Histogram getPending() {
+		return this.pending;
+	}
+
+	/**
+	 * Return the number of threads that are currently waiting for a connection.
+	 * @return the number of pending threads
+	 */
+	public int getPendingCount() {
+		return this.pendingCount.getAsInt();
+	}
+
+	void setPendingCount(IntSupplier pendingCount) {
+		this.pendingCount = pendingCount;
+	}
+
+	/**
+	 * Record that a connection has been acquired.
+	 * @param waitTime the time, in nanoseconds, that the caller waited
+	 */
+	void acquired(long waitTime) {
+		this.acquire.record(waitTime);
+	}
+
+	/**
+	 * Record the number of threads that were waiting when a connection was acquired.
+	 * @param pendingCount the number of waiting threads
+	 */
+	void sampledPending(int pendingCount) {
+		this.pending.record(pendingCount);
+	}
+
+	/**
+	 * Record that a connection has been closed.
+	 * @param holdTime the time, in nanoseconds, that the connection was held
+	 */
+	void released(long holdTime) {
+		this.hold.record(holdTime);
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link BeanPostProcessor} that instruments {@link DataSource} beans so that
+ * {@link DataSourceMetrics} are recorded. Instrumentation uses the hooks provided by the
+ * connection pool so that connections are not wrapped: a {@code MetricsTrackerFactory}
+ * is registered with Hikari and a {@link TomcatDataSourceMetricsInterceptor} is added to
+ * the JDBC interceptors of a Tomcat pool. Other data sources are not instrumented.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class DataSourceMetricsBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+	private static final Log logger = LogFactory
+			.getLog(DataSourceMetricsBeanPostProcessor.class);
+
+	private static final boolean hikariPresent = ClassUtils.isPresent(
+			"com.zaxxer.hikari.HikariDataSource",
+			DataSourceMetricsBeanPostProcessor.class.getClassLoader());
+
+	private static final boolean tomcatPresent = ClassUtils.isPresent(
+			"org.apache.tomcat.jdbc.pool.DataSource",
+			DataSourceMetricsBeanPostProcessor.class.getClassLoader());
+
+	private final Map<DataSource, DataSourceMetrics> dataSourceMetrics = new ConcurrentHashMap<>();
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName)
+			throws BeansException {
+		if (bean instanceof DataSource) {
+			DataSourceMetrics metrics = instrument((DataSource) bean);
+			if (metrics != null) {
+				this.dataSourceMetrics.put((DataSource) bean, metrics);
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("Not instrumenting DataSource '" + beanName + "' of type "
+						+ bean.getClass().getName());
+			}
+		}
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName)
+			throws BeansException {
+		return bean;
+	}
+
+	private DataSourceMetrics instrument(DataSource dataSource) {
+		DataSourceMetrics metrics = null;
+		if (hikariPresent) {
+			metrics = HikariDataSourceMetricsTrackerFactory.instrument(dataSource);
+		}
+		if (metrics == null && tomcatPresent) {
+			metrics = TomcatDataSourceMetricsInterceptor.instrument(dataSource);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Return the metrics recorded for the given data source.
+	 * @param dataSource the data source
+	 * @return the metrics or {@code null} if the data source is not instrumented
+	 */
+	public DataSourceMetrics getDataSourceMetrics(DataSource dataSource) {
+		return this.dataSourceMetrics.get(dataSource);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * {@link MetricsTrackerFactory} that records {@link DataSourceMetrics} for a
+ * {@link HikariDataSource} using the callbacks that the pool already makes when a
+ * connection is borrowed and returned.
+ *
+ * @author agent (agent@local)
+ */
+class HikariDataSourceMetricsTrackerFactory implements MetricsTrackerFactory {
+
+	private final DataSourceMetrics metrics;
+
+	HikariDataSourceMetricsTrackerFactory(DataSourceMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		this.metrics.setPendingCount(poolStats::getPendingThreads);
+		return new Tracker(this.metrics, poolStats);
+	}
+
+	/**
+	 * Instrument the given data source if it is a {@link HikariDataSource} that does not
+	 * already have a metrics tracker or registry.
+	 * @param dataSource the data source to instrument
+	 * @return the metrics or {@code null} if the data source was not instrumented
+	 */
+	static DataSourceMetrics instrument(DataSource dataSource) {
+		if (!(dataSource instanceof HikariDataSource)) {
+			return null;
+		}
+		HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+		if (hikariDataSource.getMetricsTrackerFactory() != null
+				|| hikariDataSource.getMetricRegistry() != null) {
+			return null;
+		}
+		DataSourceMetrics metrics = new DataSourceMetrics();
+		hikariDataSource.setMetricsTrackerFactory(
+				new HikariDataSourceMetricsTrackerFactory(metrics));
+		return metrics;
+	}
+
+	/**
+	 * The {@link IMetricsTracker} for a single pool.
+	 */
+	private static class Tracker implements IMetricsTracker {
+
+		private final DataSourceMetrics metrics;
+
+		private final PoolStats poolStats;
+
+		Tracker(DataSourceMetrics metrics, PoolStats poolStats) {
+			this.metrics = metrics;
+			this.poolStats = poolStats;
+		}
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			this.metrics.acquired(elapsedAcquiredNanos);
+			this.metrics.sampledPending(this.poolStats.getPendingThreads());
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+			this.metrics.released(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+		}
+
+	}
+
+}
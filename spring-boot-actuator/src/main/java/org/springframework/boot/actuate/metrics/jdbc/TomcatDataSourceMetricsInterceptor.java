@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.JdbcInterceptor;
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.PooledConnection;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Tomcat {@link JdbcInterceptor} that records {@link DataSourceMetrics} for a Tomcat
+ * {@link DataSource}. The interceptor becomes part of the chain that the pool already
+ * uses for each connection so no additional proxies are created. The pool does not
+ * expose the time that callers wait for a connection so only hold times and the number
+ * of waiting threads are recorded.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class TomcatDataSourceMetricsInterceptor extends JdbcInterceptor {
+
+	private static final Map<PoolConfiguration, DataSourceMetrics> metricsByPool = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	private DataSourceMetrics metrics;
+
+	private long borrowedTime;
+
+	@Override
+	public void reset(ConnectionPool parent, PooledConnection con) {
+		if (parent == null) {
+			this.borrowedTime = 0;
+			return;
+		}
+		if (this.metrics == null) {
+			this.metrics = metricsByPool.get(parent.getPoolProperties());
+		}
+		if (this.metrics != null) {
+			this.metrics.sampledPending(parent.getWaitCount());
+			this.borrowedTime = System.nanoTime();
+		}
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (this.borrowedTime != 0 && compare(CLOSE_VAL, method)) {
+			this.metrics.released(System.nanoTime() - this.borrowedTime);
+			this.borrowedTime = 0;
+		}
+		return super.invoke(proxy, method, args);
+	}
+
+	/**
+	 * Instrument the given data source if it is a Tomcat {@link DataSource} by adding
+	 * this interceptor to its {@link DataSource#getJdbcInterceptors() JDBC
+	 * interceptors}.
+	 * @param candidate the data source to instrument
+	 * @return the metrics or {@code null} if the data source was not instrumented
+	 */
+	static DataSourceMetrics instrument(javax.sql.DataSource candidate) {
+		if (!(candidate instanceof DataSource)) {
+			return null;
+		}
+		DataSource dataSource = (DataSource) candidate;
+		String interceptors = dataSource.getJdbcInterceptors();
+		String name = TomcatDataSourceMetricsInterceptor.class.getName();
+		if (interceptors != null && interceptors.contains(name)) {
+			return null;
+		}
+		DataSourceMetrics metrics = new DataSourceMetrics();
+		metrics.setPendingCount(() -> getWaitCount(dataSource));
+		metricsByPool.put(dataSource.getPoolProperties(), metrics);
+		dataSource.setJdbcInterceptors(StringUtils.hasText(interceptors)
+				? interceptors + ";" + name : name);
+		return metrics;
+	}
+
+	private static int getWaitCount(DataSource dataSource) {
+		ConnectionPool pool = dataSource.getPool();
+		return (pool != null ? pool.getWaitCount() : 0);
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.web.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriTemplateHandler;
+
+/**
+ * {@link ClientHttpRequestInterceptor} that records the requests made by a
+ * {@link org.springframework.web.client.RestTemplate RestTemplate} with a
+ * {@link CounterService} and {@link GaugeService}. Metrics are named after the host
+ * and the URI template of the request rather than the expanded URI so that the number
+ * of metrics remains bounded. For example, requests to
+ * {@code http://example.com/users/{id}} submit their response time to
+ * {@code gauge.client.response.example.com.users.id}, the number of in-flight requests
+ * to {@code gauge.client.active.example.com.users.id} and count each response status in
+ * {@code counter.client.status.<status>.example.com.users.id}. The URI template is only
+ * known when the {@code RestTemplate} uses a
+ * {@link #createUriTemplateHandler(UriTemplateHandler) handler created by this
+ * interceptor}, other requests are recorded as {@code <host>.unknown}.
+ * <p>
+ * Response times include the time spent waiting for a pooled connection so, together
+ * with the number of in-flight requests, they show when a connection pool is exhausted.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class MetricsClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final Log logger = LogFactory
+			.getLog(MetricsClientHttpRequestInterceptor.class);
+
+	private static final String UNKNOWN = "unknown";
+
+	private static final Pattern VARIABLE_PATTERN = Pattern
+			.compile("\\{(.+?)(?::.+)?\\}");
+
+	private final ThreadLocal<ExpandedUriTemplate> uriTemplate = new ThreadLocal<>();
+
+	private final CounterService counterService;
+
+	private final GaugeService gaugeService;
+
+	private final ConcurrentMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+	public MetricsClientHttpRequestInterceptor(CounterService counterService,
+			GaugeService gaugeService) {
+		this.counterService = counterService;
+		this.gaugeService = gaugeService;
+	}
+
+	/**
+	 * Create a {@link UriTemplateHandler} that records the URI template of each request
+	 * before delegating to the given handler.
+	 * @param delegate the handler to delegate to
+	 * @return the recording handler
+	 */
+	public UriTemplateHandler createUriTemplateHandler(UriTemplateHandler delegate) {
+		return new UriTemplateHandler() {
+
+			@Override
+			public URI expand(String uriTemplate, Map<String, ?> uriVariables) {
+				return record(uriTemplate, delegate.expand(uriTemplate, uriVariables));
+			}
+
+			@Override
+			public URI expand(String uriTemplate, Object... uriVariables) {
+				return record(uriTemplate, delegate.expand(uriTemplate, uriVariables));
+			}
+
+			private URI record(String uriTemplate, URI uri) {
+				MetricsClientHttpRequestInterceptor.this.uriTemplate
+						.set(new ExpandedUriTemplate(uriTemplate, uri));
+				return uri;
+			}
+
+		};
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+			ClientHttpRequestExecution execution) throws IOException {
+		String key;
+		try {
+			key = getKey(request, this.uriTemplate.get());
+		}
+		finally {
+			this.uriTemplate.remove();
+		}
+		AtomicInteger active = this.active.computeIfAbsent(key,
+				(k) -> new AtomicInteger());
+		submitToGauge("client.active." + key, active.incrementAndGet());
+		long startTime = System.nanoTime();
+		String status = "error";
+		try {
+			ClientHttpResponse response = execution.execute(request, body);
+			status = String.valueOf(response.getRawStatusCode());
+			return response;
+		}
+		finally {
+			long time = (System.nanoTime() - startTime) / 1000000;
+			submitToGauge("client.response." + key, time);
+			incrementCounter("client.status." + status + "." + key);
+			submitToGauge("client.active." + key, active.decrementAndGet());
+		}
+	}
+
+	private String getKey(HttpRequest request, ExpandedUriTemplate uriTemplate) {
+		URI uri = request.getURI();
+		String host = (uri.getHost() != null ? uri.getHost() : UNKNOWN);
+		if (uri.getPort() != -1) {
+			host += "-" + uri.getPort();
+		}
+		// A template left behind by a request that failed before reaching this
+		// interceptor belongs to another URI and is ignored
+		if (uriTemplate == null || !uriTemplate.uri.equals(uri)) {
+			return host + "." + UNKNOWN;
+		}
+		String path = uriTemplate.template;
+		int schemeEnd = path.indexOf("://");
+		if (schemeEnd != -1) {
+			int authorityEnd = path.indexOf('/', schemeEnd + 3);
+			path = (authorityEnd != -1 ? path.substring(authorityEnd) : "");
+		}
+		path = StringUtils.split(path + "?", "?")[0];
+		path = StringUtils.split(path + "#", "#")[0];
+		path = VARIABLE_PATTERN.matcher(path).replaceAll("$1");
+		path = path.replace(':', '-').replace('/', '.').replaceAll("\\.{2,}", ".");
+		path = StringUtils.trimTrailingCharacter(
+				StringUtils.trimLeadingCharacter(path, '.'), '.');
+		return host + "." + (path.isEmpty() ? "root" : path);
+	}
+
+	private void submitToGauge(String metricName, double value) {
+		try {
+			this.gaugeService.submit(metricName, value);
+		}
+		catch (Exception ex) {
+			logger.warn("Unable to submit gauge metric '" + metricName + "'", ex);
+		}
+	}
+
+	private void incrementCounter(String metricName) {
+		try {
+			this.counterService.increment(metricName);
+		}
+		catch (Exception ex) {
+			logger.warn("Unable to submit counter metric '" + metricName + "'", ex);
+		}
+	}
+
+	/**
+	 * A URI template and the URI that it was expanded to.
+	 */
+	private static final class ExpandedUriTemplate {
+
+		private final String template;
+
+		private final URI uri;
+
+		ExpandedUriTemplate(String template, URI uri) {
+			this.template = template;
+			this.uri = uri;
+		}
+
+	}
+
+}
@@ -38,12 +38,14 @@ import org.springframework.boot.actuate.endpoint.RichGaugeReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.SystemPublicMetrics;
 import org.springframework.boot.actuate.endpoint.TomcatPublicMetrics;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourceMetricsBeanPostProcessor;
 import org.springframework.boot.actuate.metrics.rich.RichGauge;
 import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
 import org.springframework.boot.actuate.servlet.MockServletWebServerFactory;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvidersConfiguration;
+import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
 import org.springframework.cache.CacheManager;
@@ -133,6 +135,36 @@ public class PublicMetricsAutoConfigurationTests {
 		assertMetrics(metrics, "datasource.primary.active", "datasource.primary.usage");
 	}
 
+	@Test
+	public void dataSourceIsNotInstrumentedByDefault() {
+		load(MultipleDataSourcesWithPrimaryConfig.class);
+		assertThat(this.context.getBeansOfType(DataSourceMetricsBeanPostProcessor.class))
+				.isEmpty();
+		assertThat(this.context.getBean("myDataSource",
+				org.apache.tomcat.jdbc.pool.DataSource.class).getJdbcInterceptors())
+						.isNull();
+	}
+
+	@Test
+	public void instrumentedDataSource() throws SQLException {
+		loadWithInstrumentation(MultipleDataSourcesWithPrimaryConfig.class);
+		DataSource dataSource = this.context.getBean("myDataSource", DataSource.class);
+		assertThat(dataSource).isInstanceOf(org.apache.tomcat.jdbc.pool.DataSource.class);
+		dataSource.getConnection().close();
+		PublicMetrics bean = this.context.getBean(DataSourcePublicMetrics.class);
+		Collection<Metric<?>> metrics = bean.metrics();
+		assertMetrics(metrics, "datasource.primary.active", "datasource.primary.usage",
+				"datasource.primary.acquire.count", "datasource.primary.acquire.avg",
+				"datasource.primary.acquire.p99", "datasource.primary.hold.max",
+				"datasource.primary.pending", "datasource.primary.pending.p95",
+				"datasource.commonsDbcp.active");
+		assertHasMetric(metrics, new Metric<>("datasource.primary.hold.count", 1L));
+		assertHasMetric(metrics, new Metric<>("datasource.primary.pending.count", 1L));
+		assertHasMetric(metrics, new Metric<>("datasource.primary.pending", 0));
+		assertThat(metrics).extracting(Metric::getName)
+				.doesNotContain("datasource.commonsDbcp.hold.count");
+	}
+
 	@Test
 	public void multipleDataSources() {
 		load(MultipleDataSourcesConfig.class);
@@ -248,6 +280,18 @@ public class PublicMetricsAutoConfigurationTests {
 		this.context = context;
 	}
 
+	private void loadWithInstrumentation(Class<?>... config) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		TestPropertyValues.of("spring.metrics.datasource.instrument=true")
+				.applyTo(context);
+		context.register(config);
+		context.register(DataSourcePoolMetadataProvidersConfiguration.class,
+				CacheStatisticsAutoConfiguration.class,
+				PublicMetricsAutoConfiguration.class);
+		context.refresh();
+		this.context = context;
+	}
+
 	private void load(Class<?>... config) {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
 		if (config.length > 0) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.metrics.web.client.MetricsClientHttpRequestInterceptor;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RestTemplateMetricsAutoConfiguration}.
+ *
+ * @author agent (agent@local)
+ */
+public class RestTemplateMetricsAutoConfigurationTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void after() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void restTemplatesAreInstrumentedWhenEnabled() {
+		load("endpoints.metrics.rest-template.enabled:true");
+		RestTemplate restTemplate = this.context.getBean(RestTemplateBuilder.class)
+				.build();
+		assertThat(restTemplate.getInterceptors()).hasSize(1);
+		assertThat(restTemplate.getInterceptors().get(0))
+				.isInstanceOf(MetricsClientHttpRequestInterceptor.class);
+	}
+
+	@Test
+	public void restTemplatesAreNotInstrumentedByDefault() {
+		load();
+		assertThat(this.context.getBeansOfType(RestTemplateCustomizer.class)).isEmpty();
+		assertThat(this.context.getBean(RestTemplateBuilder.class).build()
+				.getInterceptors()).isEmpty();
+	}
+
+	private void load(String... environment) {
+		this.context = new AnnotationConfigApplicationContext();
+		TestPropertyValues.of(environment).applyTo(this.context);
+		this.context.register(MetricRepositoryAutoConfiguration.class,
+				RestTemplateMetricsAutoConfiguration.class,
+				RestTemplateAutoConfiguration.class);
+		this.context.refresh();
+	}
+
+}
@@ -45,6 +45,65 @@ public class BeansEndpointTests extends AbstractEndpointTests<BeansEndpoint> {
 		assertThat(result.get(0)).isInstanceOf(Map.class);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void invokeDescribesBeans() throws Exception {
+		Map<String, Object> context = (Map<String, Object>) getEndpointBean().invoke()
+				.get(0);
+		assertThat(context).containsKeys("context", "parent", "beans");
+		Map<String, Object> bean = getBean(context, "endpoint");
+		assertThat(bean).containsOnlyKeys("bean", "aliases", "scope", "type", "resource",
+				"dependencies");
+		assertThat(bean.get("scope")).isEqualTo("singleton");
+		assertThat(bean.get("type")).isEqualTo(BeansEndpoint.class.getName());
+	}
+
+	@Test
+	public void invokeIsCachedUntilContextChanges() throws Exception {
+		BeansEndpoint endpoint = getEndpointBean();
+		List<Object> first = endpoint.invoke();
+		List<Object> second = endpoint.invoke();
+		assertThat(getBeans(second.get(0))).isSameAs(getBeans(first.get(0)));
+		this.context.getBeanFactory().registerSingleton("extra", new Object());
+		List<Object> third = endpoint.invoke();
+		assertThat(getBeans(third.get(0))).isNotSameAs(getBeans(first.get(0)));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void invokeFilteredByType() throws Exception {
+		Map<String, Object> context = (Map<String, Object>) getEndpointBean()
+				.invoke(null, Endpoint.class).get(0);
+		assertThat(getBeans(context)).hasSize(1);
+		assertThat(getBean(context, "endpoint")).isNotNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void invokeFilteredByPackage() throws Exception {
+		Map<String, Object> context = (Map<String, Object>) getEndpointBean()
+				.invoke("org.springframework.boot.actuate", null).get(0);
+		assertThat(getBean(context, "endpoint")).isNotNull();
+		context = (Map<String, Object>) getEndpointBean()
+				.invoke("org.springframework.boot.actuat", null).get(0);
+		assertThat(getBeans(context)).isEmpty();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Object> getBeans(Object context) {
+		return (List<Object>) ((Map<String, Object>) context).get("beans");
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getBean(Map<String, Object> context, String name) {
+		for (Object bean : getBeans(context)) {
+			if (name.equals(((Map<String, Object>) bean).get("bean"))) {
+				return (Map<String, Object>) bean;
+			}
+		}
+		return null;
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
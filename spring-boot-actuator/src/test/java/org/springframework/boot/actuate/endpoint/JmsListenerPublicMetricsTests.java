@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.autoconfigure.PublicMetricsAutoConfiguration;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQAutoConfiguration;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.core.JmsTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link JmsListenerPublicMetrics}.
+ *
+ * @author agent (agent@local)
+ */
+public class JmsListenerPublicMetricsTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void consumerMetrics() {
+		load();
+		Map<String, Number> metrics = metrics();
+		assertThat(metrics).contains(entry("jms.listener.test.consumers.min", 1),
+				entry("jms.listener.test.consumers.max", 4));
+		assertThat(metrics).containsKeys("jms.listener.test.consumers.active",
+				"jms.listener.test.consumers.scheduled");
+	}
+
+	@Test
+	public void consumersAreScaledUpUnderLoad() throws Exception {
+		load("spring.jms.listener.receive-timeout=100");
+		JmsTemplate jmsTemplate = this.context.getBean(JmsTemplate.class);
+		for (int i = 0; i < 20; i++) {
+			jmsTemplate.convertAndSend("test.queue", "message " + i);
+		}
+		assertThat(this.context.getBean(SlowListener.class).latch.await(30,
+				TimeUnit.SECONDS)).isTrue();
+		assertThat(this.context.getBean(SlowListener.class).maxConsumers.get())
+				.isGreaterThan(1);
+	}
+
+	@Test
+	public void consumersAreScaledByPolicyUnderLoad() throws Exception {
+		load("spring.jms.listener.receive-timeout=100",
+				"spring.jms.listener.scaling.enabled=true",
+				"spring.jms.listener.scaling.interval=100",
+				"spring.jms.listener.scaling.scale-up-cooldown=0");
+		JmsTemplate jmsTemplate = this.context.getBean(JmsTemplate.class);
+		for (int i = 0; i < 20; i++) {
+			jmsTemplate.convertAndSend("test.queue", "message " + i);
+		}
+		assertThat(this.context.getBean(SlowListener.class).latch.await(30,
+				TimeUnit.SECONDS)).isTrue();
+		assertThat(this.context.getBean(SlowListener.class).maxConsumers.get())
+				.isGreaterThan(1);
+		Map<String, Number> metrics = metrics();
+		assertThat(metrics.get("jms.listener.test.scaling.up").longValue())
+				.isGreaterThan(0);
+		assertThat(metrics.get("jms.listener.test.scaling.consumers").intValue())
+				.isGreaterThan(1);
+		assertThat(metrics).containsKeys("jms.listener.test.scaling.down",
+				"jms.listener.test.scaling.latency",
+				"jms.listener.test.scaling.utilization",
+				"jms.listener.test.scaling.idle");
+	}
+
+	@Test
+	public void scalingMetricsAreNotPublishedByDefault() {
+		load();
+		assertThat(metrics()).doesNotContainKeys("jms.listener.test.scaling.consumers",
+				"jms.listener.test.scaling.up");
+	}
+
+	private void load(String... environment) {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.register(ListenerConfig.class, ActiveMQAutoConfiguration.class,
+				JmsAutoConfiguration.class, PublicMetricsAutoConfiguration.class);
+		TestPropertyValues.of(environment).applyTo(this.context);
+		this.context.refresh();
+	}
+
+	private Map<String, Number> metrics() {
+		Map<String, Number> result = new HashMap<>();
+		for (Metric<?> metric : this.context.getBean(JmsListenerPublicMetrics.class)
+				.metrics()) {
+			result.put(metric.getName(), metric.getValue());
+		}
+		return result;
+	}
+
+	@Configuration
+	static class ListenerConfig {
+
+		@Bean
+		public SlowListener slowListener(ApplicationContext context) {
+			return new SlowListener(context);
+		}
+
+	}
+
+	static class SlowListener {
+
+		private final ApplicationContext context;
+
+		private final CountDownLatch latch = new CountDownLatch(20);
+
+		private final AtomicInteger maxConsumers = new AtomicInteger();
+
+		SlowListener(ApplicationContext context) {
+			this.context = context;
+		}
+
+		@JmsListener(id = "test", destination = "test.queue", concurrency = "1-4")
+		public void receive(String message) throws InterruptedException {
+			Thread.sleep(100);
+			Number scheduled = this.context.getBean(JmsListenerPublicMetrics.class)
+					.metrics().stream()
+					.filter((metric) -> metric.getName()
+							.equals("jms.listener.test.consumers.scheduled"))
+					.findFirst().get().getValue();
+			this.maxConsumers.accumulateAndGet(scheduled.intValue(), Math::max);
+			this.latch.countDown();
+		}
+
+	}
+
+}
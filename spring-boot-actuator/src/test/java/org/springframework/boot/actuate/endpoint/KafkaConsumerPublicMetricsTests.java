@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.MetricName;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.autoconfigure.PublicMetricsAutoConfiguration;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.rule.KafkaEmbedded;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link KafkaConsumerPublicMetrics}.
+ *
+ * @author agent (agent@local)
+ */
+public class KafkaConsumerPublicMetricsTests {
+
+	private static final String TEST_TOPIC = "kafkaMetricsTopic";
+
+	@ClassRule
+	public static final KafkaEmbedded kafkaEmbedded = new KafkaEmbedded(1, true,
+			TEST_TOPIC);
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void consumerMetrics() {
+		Map<MetricName, org.apache.kafka.common.Metric> clientMetrics = new LinkedHashMap<>();
+		addMetric(clientMetrics, "records-consumed-rate", 12.5);
+		addMetric(clientMetrics, "fetch-latency-avg", 3.0);
+		addMetric(clientMetrics, "commit-latency-avg", Double.NaN);
+		addMetric(clientMetrics, "records-lag-max", Double.NEGATIVE_INFINITY);
+		addMetric(clientMetrics, "connection-count", 1.0);
+		addMetric(clientMetrics, "test-0.records-lag", 5.0);
+		addMetric(clientMetrics, "test-0.records-lag-avg", 4.0);
+		Map<String, String> tags = new HashMap<>();
+		tags.put("topic", "other");
+		tags.put("partition", "1");
+		clientMetrics.put(new MetricName("records-lag", "group", "", tags),
+				metric(7.0));
+		Map<String, String> topicTags = new HashMap<>();
+		topicTags.put("client-id", "client-0");
+		topicTags.put("topic", "test");
+		clientMetrics.put(new MetricName("records-consumed-rate",
+				"consumer-fetch-manager-metrics", "", topicTags), metric(2.5));
+		clientMetrics.put(new MetricName("bytes-consumed-rate",
+				"consumer-fetch-manager-metrics", "", topicTags), metric(100.0));
+		assertThat(new KafkaConsumerPublicMetrics(registry(clientMetrics)).metrics())
+				.extracting("name", "value").containsExactly(
+						tuple("kafka.consumer.client-0.records-consumed-rate", 12.5),
+						tuple("kafka.consumer.client-0.fetch-latency-avg", 3.0),
+						tuple("kafka.consumer.client-0.records-lag.test-0", 5.0),
+						tuple("kafka.consumer.client-0.records-lag.other-1", 7.0));
+	}
+
+	@Test
+	public void noListenerContainers() {
+		KafkaListenerEndpointRegistry registry = mock(
+				KafkaListenerEndpointRegistry.class);
+		given(registry.getListenerContainers()).willReturn(Collections.emptyList());
+		assertThat(new KafkaConsumerPublicMetrics(registry).metrics()).isEmpty();
+	}
+
+	@Test
+	public void consumerMetricsFromEmbeddedBroker() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.register(ListenerConfig.class, KafkaAutoConfiguration.class,
+				PublicMetricsAutoConfiguration.class);
+		TestPropertyValues
+				.of("spring.kafka.bootstrap-servers:"
+						+ kafkaEmbedded.getBrokersAsString(),
+						"spring.kafka.consumer.group-id=metricsGroup",
+						"spring.kafka.consumer.auto-offset-reset=earliest")
+				.applyTo(this.context);
+		this.context.refresh();
+		@SuppressWarnings("unchecked")
+		KafkaTemplate<String, String> template = this.context
+				.getBean(KafkaTemplate.class);
+		template.send(TEST_TOPIC, "foo", "bar");
+		Listener listener = this.context.getBean(Listener.class);
+		assertThat(listener.latch.await(30, TimeUnit.SECONDS)).isTrue();
+		List<String> names = this.context.getBean(KafkaConsumerPublicMetrics.class)
+				.metrics().stream().map(Metric::getName).collect(Collectors.toList());
+		assertThat(names).doesNotHaveDuplicates();
+		assertThat(names.stream()
+				.anyMatch((name) -> name.startsWith("kafka.consumer.")
+						&& name.endsWith(".records-lag." + TEST_TOPIC + "-0")))
+								.isTrue();
+		assertThat(names.stream()
+				.anyMatch((name) -> name.endsWith(".records-consumed-rate"))).isTrue();
+	}
+
+	private KafkaListenerEndpointRegistry registry(
+			Map<MetricName, org.apache.kafka.common.Metric> clientMetrics) {
+		MessageListenerContainer container = mock(MessageListenerContainer.class);
+		given(container.metrics())
+				.willReturn(Collections.singletonMap("client-0", clientMetrics));
+		KafkaListenerEndpointRegistry registry = mock(
+				KafkaListenerEndpointRegistry.class);
+		given(registry.getListenerContainers())
+				.willReturn(Collections.singletonList(container));
+		return registry;
+	}
+
+	private void addMetric(Map<MetricName, org.apache.kafka.common.Metric> metrics,
+			String name, double value) {
+		metrics.put(new MetricName(name, "consumer-fetch-manager-metrics", "",
+				Collections.singletonMap("client-id", "client-0")), metric(value));
+	}
+
+	private org.apache.kafka.common.Metric metric(double value) {
+		org.apache.kafka.common.Metric metric = mock(
+				org.apache.kafka.common.Metric.class);
+		given(metric.value()).willReturn(value);
+		return metric;
+	}
+
+	@Configuration
+	static class ListenerConfig {
+
+		@Bean
+		public Listener listener() {
+			return new Listener();
+		}
+
+	}
+
+	static class Listener {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		@KafkaListener(topics = TEST_TOPIC)
+		public void listen(String value) {
+			this.latch.countDown();
+		}
+
+	}
+
+}
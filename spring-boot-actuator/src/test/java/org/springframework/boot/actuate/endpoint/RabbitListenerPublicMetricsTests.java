@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.messaging.AbstractListenerConcurrencyManager;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link RabbitListenerPublicMetrics}.
+ *
+ * @author agent (agent@local)
+ */
+public class RabbitListenerPublicMetricsTests {
+
+	@Test
+	public void consumerMetrics() {
+		SimpleMessageListenerContainer simple = mock(
+				SimpleMessageListenerContainer.class);
+		given(simple.getActiveConsumerCount()).willReturn(3);
+		DirectMessageListenerContainer direct = mock(
+				DirectMessageListenerContainer.class);
+		RabbitListenerEndpointRegistry registry = mock(
+				RabbitListenerEndpointRegistry.class);
+		given(registry.getListenerContainerIds())
+				.willReturn(new LinkedHashSet<>(Arrays.asList("simple", "direct")));
+		given(registry.getListenerContainer("simple")).willReturn(simple);
+		given(registry.getListenerContainer("direct")).willReturn(direct);
+		Collection<Metric<?>> metrics = new RabbitListenerPublicMetrics(registry)
+				.metrics();
+		assertThat(metrics).hasSize(1);
+		Metric<?> metric = metrics.iterator().next();
+		assertThat(metric.getName()).isEqualTo("rabbitmq.listener.simple.consumers.active");
+		assertThat(metric.getValue()).isEqualTo(3);
+	}
+
+	@Test
+	public void scalingMetrics() {
+		RabbitListenerEndpointRegistry registry = mock(
+				RabbitListenerEndpointRegistry.class);
+		given(registry.getListenerContainerIds()).willReturn(Collections.emptySet());
+		ListenerConcurrencyScaler.Target target = mock(
+				ListenerConcurrencyScaler.Target.class);
+		given(target.isRunning()).willReturn(true);
+		given(target.getQueueDepth()).willReturn(12L);
+		ListenerConcurrencyScaler scaler = new ListenerConcurrencyScaler("simple",
+				target, (load) -> 2, 1, 4);
+		scaler.setScaleUpCooldown(0);
+		scaler.evaluate();
+		AbstractListenerConcurrencyManager manager = mock(
+				AbstractListenerConcurrencyManager.class);
+		given(manager.getScalers())
+				.willReturn(Collections.singletonMap("simple", scaler));
+		Map<String, Object> metrics = new HashMap<>();
+		for (Metric<?> metric : new RabbitListenerPublicMetrics(registry, manager)
+				.metrics()) {
+			metrics.put(metric.getName(), metric.getValue());
+		}
+		assertThat(metrics).contains(
+				entry("rabbitmq.listener.simple.scaling.consumers", 2),
+				entry("rabbitmq.listener.simple.scaling.up", 1L),
+				entry("rabbitmq.listener.simple.scaling.down", 0L),
+				entry("rabbitmq.listener.simple.scaling.queue-depth", 12L));
+		assertThat(metrics).containsKeys("rabbitmq.listener.simple.scaling.latency",
+				"rabbitmq.listener.simple.scaling.utilization",
+				"rabbitmq.listener.simple.scaling.idle");
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.EndpointWebMvcAutoConfiguration;
+import org.springframework.boot.actuate.endpoint.BeansEndpoint;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link BeansMvcEndpoint}.
+ *
+ * @author agent (agent@local)
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = "management.security.enabled=false")
+public class BeansMvcEndpointTests {
+
+	private static final String PATH = "/application/beans";
+
+	@Autowired
+	private WebApplicationContext context;
+
+	private MockMvc mvc;
+
+	@Before
+	public void setUp() {
+		this.context.getBean(BeansEndpoint.class).setEnabled(true);
+		this.mvc = MockMvcBuilders.webAppContextSetup(this.context).build();
+	}
+
+	@Test
+	public void getBeans() throws Exception {
+		this.mvc.perform(get(PATH)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].beans[*].bean", hasItem("endpoint")))
+				.andExpect(jsonPath("$[0].beans[*].bean", hasItem("testBean")));
+	}
+
+	@Test
+	public void getBeansFilteredByType() throws Exception {
+		this.mvc.perform(get(PATH).param("type", TestBean.class.getName()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].beans[*].bean", contains("testBean")));
+	}
+
+	@Test
+	public void getBeansFilteredByPackage() throws Exception {
+		this.mvc.perform(get(PATH).param("package", "org.springframework.boot.actuate"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].beans[*].bean", hasItem("endpoint")))
+				.andExpect(jsonPath("$[0].beans[*].bean", hasItem("testBean")))
+				.andExpect(jsonPath("$[0].beans[*].type",
+						everyItem(startsWith("org.springframework.boot.actuate."))));
+	}
+
+	@Test
+	public void getBeansWithUnknownTypeShouldReturnBadRequest() throws Exception {
+		this.mvc.perform(get(PATH).param("type", "com.example.DoesNotExist"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void getBeansWhenDisabledShouldReturnNotFound() throws Exception {
+		this.context.getBean(BeansEndpoint.class).setEnabled(false);
+		this.mvc.perform(get(PATH)).andExpect(status().isNotFound());
+	}
+
+	@Configuration
+	@Import({ JacksonAutoConfiguration.class,
+			HttpMessageConvertersAutoConfiguration.class,
+			EndpointWebMvcAutoConfiguration.class, WebMvcAutoConfiguration.class })
+	public static class TestConfiguration {
+
+		@Bean
+		public BeansEndpoint endpoint() {
+			return new BeansEndpoint();
+		}
+
+		@Bean
+		public TestBean testBean() {
+			return new TestBean();
+		}
+
+	}
+
+	static class TestBean {
+
+	}
+
+}
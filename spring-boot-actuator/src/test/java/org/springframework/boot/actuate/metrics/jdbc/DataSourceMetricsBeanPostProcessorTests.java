@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link DataSourceMetricsBeanPostProcessor}.
+ *
+ * @author agent (agent@local)
+ */
+public class DataSourceMetricsBeanPostProcessorTests {
+
+	private final DataSourceMetricsBeanPostProcessor postProcessor = new DataSourceMetricsBeanPostProcessor();
+
+	private HikariDataSource hikariDataSource;
+
+	private org.apache.tomcat.jdbc.pool.DataSource tomcatDataSource;
+
+	@After
+	public void close() {
+		if (this.hikariDataSource != null) {
+			this.hikariDataSource.close();
+		}
+		if (this.tomcatDataSource != null) {
+			this.tomcatDataSource.close(true);
+		}
+	}
+
+	@Test
+	public void nonDataSourceBeanIsNotInstrumented() {
+		Object bean = new Object();
+		assertThat(this.postProcessor.postProcessBeforeInitialization(bean, "test"))
+				.isSameAs(bean);
+	}
+
+	@Test
+	public void unsupportedDataSourceIsNotInstrumented() {
+		DataSource dataSource = new SimpleDriverDataSource();
+		assertThat(instrument(dataSource)).isSameAs(dataSource);
+		assertThat(this.postProcessor.getDataSourceMetrics(dataSource)).isNull();
+	}
+
+	@Test
+	public void hikariRecordsAcquireAndHold() throws SQLException {
+		this.hikariDataSource = new HikariDataSource();
+		this.hikariDataSource.setJdbcUrl("jdbc:hsqldb:mem:hikari");
+		this.hikariDataSource.setUsername("sa");
+		assertThat(instrument(this.hikariDataSource)).isSameAs(this.hikariDataSource);
+		DataSourceMetrics metrics = this.postProcessor
+				.getDataSourceMetrics(this.hikariDataSource);
+		Connection connection = this.hikariDataSource.getConnection();
+		assertThat(metrics.getAcquire().getCount()).isEqualTo(1);
+		assertThat(metrics.getPending().getCount()).isEqualTo(1);
+		assertThat(metrics.getPendingCount()).isEqualTo(0);
+		assertThat(metrics.getHold().getCount()).isEqualTo(0);
+		connection.close();
+		connection.close();
+		assertThat(metrics.getHold().getCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void hikariWithExistingMetricsTrackerFactoryIsNotInstrumented() {
+		this.hikariDataSource = new HikariDataSource();
+		MetricsTrackerFactory metricsTrackerFactory = mock(MetricsTrackerFactory.class);
+		this.hikariDataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+		instrument(this.hikariDataSource);
+		assertThat(this.hikariDataSource.getMetricsTrackerFactory())
+				.isSameAs(metricsTrackerFactory);
+		assertThat(this.postProcessor.getDataSourceMetrics(this.hikariDataSource))
+				.isNull();
+	}
+
+	@Test
+	public void tomcatRecordsHold() throws SQLException {
+		this.tomcatDataSource = new org.apache.tomcat.jdbc.pool.DataSource();
+		this.tomcatDataSource.setUrl("jdbc:hsqldb:mem:tomcat");
+		this.tomcatDataSource.setUsername("sa");
+		this.tomcatDataSource.setJdbcInterceptors("ConnectionState");
+		assertThat(instrument(this.tomcatDataSource)).isSameAs(this.tomcatDataSource);
+		assertThat(this.tomcatDataSource.getJdbcInterceptors()).isEqualTo(
+				"ConnectionState;" + TomcatDataSourceMetricsInterceptor.class.getName());
+		DataSourceMetrics metrics = this.postProcessor
+				.getDataSourceMetrics(this.tomcatDataSource);
+		for (int i = 0; i < 2; i++) {
+			Connection connection = this.tomcatDataSource.getConnection();
+			assertThat(metrics.getPending().getCount()).isEqualTo(i + 1);
+			assertThat(metrics.getHold().getCount()).isEqualTo(i);
+			connection.close();
+			connection.close();
+			assertThat(metrics.getHold().getCount()).isEqualTo(i + 1);
+		}
+		assertThat(metrics.getAcquire().getCount()).isEqualTo(0);
+		assertThat(metrics.getPendingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void tomcatIsNotInstrumentedTwice() {
+		this.tomcatDataSource = new org.apache.tomcat.jdbc.pool.DataSource();
+		instrument(this.tomcatDataSource);
+		DataSourceMetrics metrics = this.postProcessor
+				.getDataSourceMetrics(this.tomcatDataSource);
+		instrument(this.tomcatDataSource);
+		assertThat(this.tomcatDataSource.getJdbcInterceptors())
+				.isEqualTo(TomcatDataSourceMetricsInterceptor.class.getName());
+		assertThat(this.postProcessor.getDataSourceMetrics(this.tomcatDataSource))
+				.isSameAs(metrics);
+	}
+
+	private Object instrument(DataSource dataSource) {
+		return this.postProcessor.postProcessBeforeInitialization(dataSource, "test");
+	}
+
+}
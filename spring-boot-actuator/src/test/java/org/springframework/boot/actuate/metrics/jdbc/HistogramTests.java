@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Histogram}.
+ *
+ * @author agent (agent@local)
+ */
+public class HistogramTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final Histogram histogram = new Histogram();
+
+	@Test
+	public void emptyHistogram() {
+		assertThat(this.histogram.getCount()).isEqualTo(0);
+		assertThat(this.histogram.getMax()).isEqualTo(0);
+		assertThat(this.histogram.getMean()).isEqualTo(0);
+		assertThat(this.histogram.getValueAtPercentile(99)).isEqualTo(0);
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		for (int i = 0; i < 8; i++) {
+			this.histogram.record(i);
+		}
+		assertThat(this.histogram.getCount()).isEqualTo(8);
+		assertThat(this.histogram.getMax()).isEqualTo(7);
+		assertThat(this.histogram.getMean()).isEqualTo(3.5);
+		assertThat(this.histogram.getValueAtPercentile(50)).isEqualTo(3);
+		assertThat(this.histogram.getValueAtPercentile(100)).isEqualTo(7);
+	}
+
+	@Test
+	public void percentilesAreWithinBucketPrecision() {
+		for (int i = 1; i <= 1000; i++) {
+			this.histogram.record(i * 1000L);
+		}
+		assertThat(this.histogram.getValueAtPercentile(50)).isBetween(500000L,
+				625000L);
+		assertThat(this.histogram.getValueAtPercentile(99)).isBetween(990000L,
+				1000000L);
+		assertThat(this.histogram.getMax()).isEqualTo(1000000L);
+	}
+
+	@Test
+	public void largeValues() {
+		this.histogram.record(Long.MAX_VALUE);
+		assertThat(this.histogram.getMax()).isEqualTo(Long.MAX_VALUE);
+		assertThat(this.histogram.getValueAtPercentile(50)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void negativeValuesAreRecordedAsZero() {
+		this.histogram.record(-1);
+		assertThat(this.histogram.getCount()).isEqualTo(1);
+		assertThat(this.histogram.getMax()).isEqualTo(0);
+	}
+
+	@Test
+	public void invalidPercentile() {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Percentile must be between 0 and 100");
+		this.histogram.getValueAtPercentile(101);
+	}
+
+}
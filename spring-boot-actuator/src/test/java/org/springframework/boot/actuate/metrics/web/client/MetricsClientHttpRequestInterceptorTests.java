@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.web.client;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Tests for {@link MetricsClientHttpRequestInterceptor}.
+ *
+ * @author agent (agent@local)
+ */
+public class MetricsClientHttpRequestInterceptorTests {
+
+	private final CounterService counterService = mock(CounterService.class);
+
+	private final GaugeService gaugeService = mock(GaugeService.class);
+
+	private final RestTemplate restTemplate = new RestTemplate();
+
+	private MockRestServiceServer server;
+
+	@Before
+	public void setup() {
+		MetricsClientHttpRequestInterceptor interceptor = new MetricsClientHttpRequestInterceptor(
+				this.counterService, this.gaugeService);
+		this.restTemplate.setUriTemplateHandler(interceptor
+				.createUriTemplateHandler(this.restTemplate.getUriTemplateHandler()));
+		this.restTemplate.getInterceptors().add(interceptor);
+		this.server = MockRestServiceServer.bindTo(this.restTemplate).build();
+	}
+
+	@Test
+	public void successfulRequest() {
+		this.server.expect(requestTo("http://example.com/users/42"))
+				.andRespond(withSuccess("hello", MediaType.TEXT_PLAIN));
+		assertThat(this.restTemplate.getForObject("http://example.com/users/{id}",
+				String.class, 42)).isEqualTo("hello");
+		verify(this.gaugeService).submit(eq("client.response.example.com.users.id"),
+				anyDouble());
+		verify(this.counterService)
+				.increment("client.status.200.example.com.users.id");
+		InOrder ordered = inOrder(this.gaugeService);
+		ordered.verify(this.gaugeService).submit("client.active.example.com.users.id",
+				1);
+		ordered.verify(this.gaugeService).submit("client.active.example.com.users.id",
+				0);
+	}
+
+	@Test
+	public void requestsWithSameTemplateShareMetrics() {
+		this.server.expect(requestTo("http://example.com/users/1?page=2"))
+				.andRespond(withSuccess());
+		this.server.expect(requestTo("http://example.com/users/2?page=3"))
+				.andRespond(withSuccess());
+		this.restTemplate.getForObject("http://example.com/users/{id}?page={page}",
+				String.class, 1, 2);
+		this.restTemplate.getForObject("http://example.com/users/{id}?page={page}",
+				String.class, 2, 3);
+		verify(this.counterService, times(2))
+				.increment("client.status.200.example.com.users.id");
+	}
+
+	@Test
+	public void keyIncludesExplicitPort() {
+		this.server.expect(requestTo("http://localhost:8080/test"))
+				.andRespond(withStatus(HttpStatus.NOT_FOUND));
+		try {
+			this.restTemplate.getForObject("http://localhost:8080/test", String.class);
+			fail("Did not throw");
+		}
+		catch (HttpClientErrorException ex) {
+			// Expected
+		}
+		verify(this.counterService).increment("client.status.404.localhost-8080.test");
+	}
+
+	@Test
+	public void requestWithoutTemplateIsUnknown() {
+		this.server.expect(requestTo("http://example.com/users/42"))
+				.andRespond(withSuccess());
+		this.restTemplate.getForObject(URI.create("http://example.com/users/42"),
+				String.class);
+		verify(this.counterService).increment("client.status.200.example.com.unknown");
+	}
+
+	@Test
+	public void requestsToDifferentHostsHaveDifferentMetrics() {
+		this.server.expect(requestTo("http://one.example.com/users/1"))
+				.andRespond(withSuccess());
+		this.server.expect(requestTo("http://two.example.com/users/2"))
+				.andRespond(withSuccess());
+		this.restTemplate.getForObject("http://{host}.example.com/users/{id}",
+				String.class, "one", 1);
+		this.restTemplate.getForObject("http://{host}.example.com/users/{id}",
+				String.class, "two", 2);
+		verify(this.counterService)
+				.increment("client.status.200.one.example.com.users.id");
+		verify(this.counterService)
+				.increment("client.status.200.two.example.com.users.id");
+	}
+
+	@Test
+	public void templateOfAnotherUriIsIgnored() {
+		this.restTemplate.getUriTemplateHandler().expand("http://example.com/other/{id}",
+				1);
+		this.server.expect(requestTo("http://example.com/users/42"))
+				.andRespond(withSuccess());
+		this.restTemplate.getForObject(URI.create("http://example.com/users/42"),
+				String.class);
+		verify(this.counterService).increment("client.status.200.example.com.unknown");
+	}
+
+	@Test
+	public void failedRequest() {
+		this.server.expect(requestTo("http://example.com/test"))
+				.andRespond((request) -> {
+					throw new IOException("Failed");
+				});
+		try {
+			this.restTemplate.getForObject("http://example.com/test", String.class);
+			fail("Did not throw");
+		}
+		catch (ResourceAccessException ex) {
+			// Expected
+		}
+		verify(this.counterService).increment("client.status.error.example.com.test");
+		verify(this.gaugeService).submit("client.active.example.com.test", 0);
+	}
+
+}
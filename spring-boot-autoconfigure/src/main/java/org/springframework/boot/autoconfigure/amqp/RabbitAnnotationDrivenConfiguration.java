@@ -16,17 +16,21 @@
 
 package org.springframework.boot.autoconfigure.amqp;
 
+import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.config.RabbitListenerConfigUtils;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
 import org.springframework.amqp.rabbit.retry.MessageRecoverer;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.messaging.ConcurrencyPolicy;
+import org.springframework.boot.messaging.LatencyAndIdleConcurrencyPolicy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -76,6 +80,38 @@ class RabbitAnnotationDrivenConfiguration {
 		return factory;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.rabbitmq.listener.simple.scaling", name = "enabled")
+	public RabbitListenerConcurrencyManager rabbitListenerConcurrencyManager(
+			RabbitListenerEndpointRegistry registry, ObjectProvider<AmqpAdmin> amqpAdmin,
+			ObjectProvider<ConcurrencyPolicy> concurrencyPolicy) {
+		RabbitProperties.SimpleContainer container = this.properties.getListener()
+				.getSimple();
+		RabbitProperties.ListenerScaling scaling = container.getScaling();
+		RabbitListenerConcurrencyManager manager = new RabbitListenerConcurrencyManager(
+				registry, amqpAdmin.getIfUnique(),
+				concurrencyPolicy.getIfAvailable(() -> createPolicy(scaling)));
+		int minConsumers = (container.getConcurrency() != null
+				? container.getConcurrency() : 1);
+		manager.setMinConsumers(minConsumers);
+		manager.setMaxConsumers(container.getMaxConcurrency() != null
+				? container.getMaxConcurrency() : minConsumers);
+		manager.setInterval(scaling.getInterval());
+		manager.setScaleUpCooldown(scaling.getScaleUpCooldown());
+		manager.setScaleDownCooldown(scaling.getScaleDownCooldown());
+		return manager;
+	}
+
+	private ConcurrencyPolicy createPolicy(RabbitProperties.ListenerScaling scaling) {
+		LatencyAndIdleConcurrencyPolicy policy = new LatencyAndIdleConcurrencyPolicy();
+		policy.setScaleUpUtilization(scaling.getScaleUpUtilization());
+		policy.setScaleDownUtilization(scaling.getScaleDownUtilization());
+		policy.setIdleTimeout(scaling.getIdleTimeout());
+		policy.setQueueDepthPerConsumer(scaling.getQueueDepthPerConsumer());
+		return policy;
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public DirectRabbitListenerContainerFactoryConfigurer directRabbitListenerContainerFactoryConfigurer() {
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.amqp;
+
+import java.util.Properties;
+
+import com.rabbitmq.client.Channel;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.messaging.AbstractListenerConcurrencyManager;
+import org.springframework.boot.messaging.ConcurrencyPolicy;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+
+/**
+ * Scales the consumers of the {@link SimpleMessageListenerContainer RabbitMQ listener
+ * containers} held by a {@link RabbitListenerEndpointRegistry} according to a
+ * {@link ConcurrencyPolicy}. The listener of each container is decorated to measure the
+ * time taken to handle each message and the depth of the container's queues is read
+ * with a passive declaration using an {@link AmqpAdmin}. As a container does not expose
+ * its concurrency, all the containers are scaled within the same
+ * {@link #setMinConsumers(int) minimum} and {@link #setMaxConsumers(int) maximum}
+ * number of consumers.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class RabbitListenerConcurrencyManager
+		extends AbstractListenerConcurrencyManager {
+
+	private final RabbitListenerEndpointRegistry registry;
+
+	private final AmqpAdmin amqpAdmin;
+
+	private int minConsumers = 1;
+
+	private int maxConsumers = 1;
+
+	/**
+	 * Create a new {@link RabbitListenerConcurrencyManager} instance.
+	 * @param registry the registry holding the listener containers
+	 * @param amqpAdmin the admin used to read the depth of the queues or {@code null}
+	 * if the depth is unknown
+	 * @param policy the policy used to decide the number of consumers
+	 */
+	public RabbitListenerConcurrencyManager(RabbitListenerEndpointRegistry registry,
+			AmqpAdmin amqpAdmin, ConcurrencyPolicy policy) {
+		super(policy);
+		this.registry = registry;
+		this.amqpAdmin = amqpAdmin;
+	}
+
+	/**
+	 * Set the minimum number of consumers of each container. Defaults to 1.
+	 * @param minConsumers the minimum number of consumers
+	 */
+	public void setMinConsumers(int minConsumers) {
+		this.minConsumers = minConsumers;
+	}
+
+	/**
+	 * Set the maximum number of consumers of each container. Containers are not scaled
+	 * unless it is greater than the minimum. Defaults to 1.
+	 * @param maxConsumers the maximum number of consumers
+	 */
+	public void setMaxConsumers(int maxConsumers) {
+		this.maxConsumers = maxConsumers;
+	}
+
+	@Override
+	protected void registerScalers() {
+		for (String id : this.registry.getListenerContainerIds()) {
+			MessageListenerContainer container = this.registry.getListenerContainer(id);
+			if (container instanceof SimpleMessageListenerContainer) {
+				registerScaler(id, (SimpleMessageListenerContainer) container);
+			}
+		}
+	}
+
+	private void registerScaler(String id, SimpleMessageListenerContainer container) {
+		ListenerConcurrencyScaler scaler = addScaler(id,
+				new ContainerTarget(container, this.amqpAdmin, this.minConsumers),
+				this.minConsumers, this.maxConsumers);
+		if (scaler == null) {
+			return;
+		}
+		Object listener = container.getMessageListener();
+		if (listener instanceof ChannelAwareMessageListener) {
+			container.setChannelAwareMessageListener(
+					new ScalingChannelAwareMessageListener(
+							(ChannelAwareMessageListener) listener, scaler));
+		}
+		else if (listener instanceof MessageListener) {
+			container.setMessageListener(
+					new ScalingMessageListener((MessageListener) listener, scaler));
+		}
+	}
+
+	/**
+	 * {@link ListenerConcurrencyScaler.Target} for a
+	 * {@link SimpleMessageListenerContainer}. Consumers are started and stopped
+	 * immediately.
+	 */
+	private static class ContainerTarget implements ListenerConcurrencyScaler.Target {
+
+		private final SimpleMessageListenerContainer container;
+
+		private final AmqpAdmin amqpAdmin;
+
+		private int consumers;
+
+		ContainerTarget(SimpleMessageListenerContainer container, AmqpAdmin amqpAdmin,
+				int consumers) {
+			this.container = container;
+			this.amqpAdmin = amqpAdmin;
+			this.consumers = consumers;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.container.isRunning();
+		}
+
+		@Override
+		public void setConsumers(int consumers) {
+			// Keep the maximum equal to the number of consumers so that the container
+			// does not apply its own scaling algorithm
+			if (consumers > this.consumers) {
+				this.container.setMaxConcurrentConsumers(consumers);
+				this.container.setConcurrentConsumers(consumers);
+			}
+			else {
+				this.container.setConcurrentConsumers(consumers);
+				this.container.setMaxConcurrentConsumers(consumers);
+			}
+			this.consumers = consumers;
+		}
+
+		@Override
+		public long getQueueDepth() {
+			if (this.amqpAdmin == null) {
+				return -1;
+			}
+			try {
+				long depth = 0;
+				for (String queueName : this.container.getQueueNames()) {
+					Properties properties = this.amqpAdmin
+							.getQueueProperties(queueName);
+					if (properties == null) {
+						return -1;
+					}
+					depth += ((Number) properties
+							.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue();
+				}
+				return depth;
+			}
+			catch (AmqpException | IllegalStateException ex) {
+				// The depth is unknown while the broker cannot be reached
+				return -1;
+			}
+		}
+
+	}
+
+	/**
+	 * {@link MessageListener} that records the time taken by its delegate.
+	 */
+	private static class ScalingMessageListener implements MessageListener {
+
+		private final MessageListener delegate;
+
+		private final ListenerConcurrencyScaler scaler;
+
+		ScalingMessageListener(MessageListener delegate,
+				ListenerConcurrencyScaler scaler) {
+			this.delegate = delegate;
+			this.scaler = scaler;
+		}
+
+		@Override
+		public void onMessage(Message message) {
+			long start = System.nanoTime();
+			try {
+				this.delegate.onMessage(message);
+			}
+			finally {
+				this.scaler.recordMessage(System.nanoTime() - start);
+			}
+		}
+
+	}
+
+	/**
+	 * {@link ChannelAwareMessageListener} that records the time taken by its delegate.
+	 */
+	private static class ScalingChannelAwareMessageListener
+			implements ChannelAwareMessageListener {
+
+		private final ChannelAwareMessageListener delegate;
+
+		private final ListenerConcurrencyScaler scaler;
+
+		ScalingChannelAwareMessageListener(ChannelAwareMessageListener delegate,
+				ListenerConcurrencyScaler scaler) {
+			this.delegate = delegate;
+			this.scaler = scaler;
+		}
+
+		@Override
+		public void onMessage(Message message, Channel channel) throws Exception {
+			long start = System.nanoTime();
+			try {
+				this.delegate.onMessage(message, channel);
+			}
+			finally {
+				this.scaler.recordMessage(System.nanoTime() - start);
+			}
+		}
+
+	}
+
+}
@@ -607,6 +607,29 @@ public class RabbitProperties {
 		 */
 		private Integer transactionSize;
 
+		/**
+		 * Number of consecutive messages received by a consumer, without a receive
+		 * timeout, before an additional consumer is started.
+		 */
+		private Integer consecutiveActiveTrigger;
+
+		/**
+		 * Number of consecutive receive timeouts of a consumer before it is stopped.
+		 */
+		private Integer consecutiveIdleTrigger;
+
+		/**
+		 * Minimum time in milliseconds between starting additional consumers.
+		 */
+		private Long startConsumerMinInterval;
+
+		/**
+		 * Minimum time in milliseconds between stopping idle consumers.
+		 */
+		private Long stopConsumerMinInterval;
+
+		private final ListenerScaling scaling = new ListenerScaling();
+
 		public Integer getConcurrency() {
 			return this.concurrency;
 		}
@@ -631,6 +654,158 @@ public class RabbitProperties {
 			this.transactionSize = transactionSize;
 		}
 
+		public Integer getConsecutiveActiveTrigger() {
+			return this.consecutiveActiveTrigger;
+		}
+
+		public void setConsecutiveActiveTrigger(Integer consecutiveActiveTrigger) {
+			this.consecutiveActiveTrigger = consecutiveActiveTrigger;
+		}
+
+		public Integer getConsecutiveIdleTrigger() {
+			return this.consecutiveIdleTrigger;
+		}
+
+		public void setConsecutiveIdleTrigger(Integer consecutiveIdleTrigger) {
+			this.consecutiveIdleTrigger = consecutiveIdleTrigger;
+		}
+
+		public Long getStartConsumerMinInterval() {
+			return this.startConsumerMinInterval;
+		}
+
+		public void setStartConsumerMinInterval(Long startConsumerMinInterval) {
+			this.startConsumerMinInterval = startConsumerMinInterval;
+		}
+
+		public Long getStopConsumerMinInterval() {
+			return this.stopConsumerMinInterval;
+		}
+
+		public void setStopConsumerMinInterval(Long stopConsumerMinInterval) {
+			this.stopConsumerMinInterval = stopConsumerMinInterval;
+		}
+
+		public ListenerScaling getScaling() {
+			return this.scaling;
+		}
+
+	}
+
+	/**
+	 * Configuration properties for the scaling of listener containers by a concurrency
+	 * policy.
+	 */
+	public static class ListenerScaling {
+
+		/**
+		 * Enable the scaling of the listener containers between their minimum and maximum
+		 * number of consumers based on the latency and idle time of their listener.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Interval in milliseconds between two scaling decisions.
+		 */
+		private long interval = 5000;
+
+		/**
+		 * Proportion of time spent by the consumers handling messages above which a
+		 * consumer is added.
+		 */
+		private double scaleUpUtilization = 0.8;
+
+		/**
+		 * Proportion of time spent by the consumers handling messages below which a
+		 * consumer is removed.
+		 */
+		private double scaleDownUtilization = 0.3;
+
+		/**
+		 * Time in milliseconds without any message after which a consumer is removed.
+		 */
+		private long idleTimeout = 60000;
+
+		/**
+		 * Minimum time in milliseconds between a change and the addition of a consumer.
+		 */
+		private long scaleUpCooldown = 10000;
+
+		/**
+		 * Minimum time in milliseconds between a change and the removal of a consumer.
+		 */
+		private long scaleDownCooldown = 60000;
+
+		/**
+		 * Number of messages waiting in the queue per consumer above which a consumer is
+		 * added. 0 to ignore the depth of the queue.
+		 */
+		private int queueDepthPerConsumer = 0;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getInterval() {
+			return this.interval;
+		}
+
+		public void setInterval(long interval) {
+			this.interval = interval;
+		}
+
+		public double getScaleUpUtilization() {
+			return this.scaleUpUtilization;
+		}
+
+		public void setScaleUpUtilization(double scaleUpUtilization) {
+			this.scaleUpUtilization = scaleUpUtilization;
+		}
+
+		public double getScaleDownUtilization() {
+			return this.scaleDownUtilization;
+		}
+
+		public void setScaleDownUtilization(double scaleDownUtilization) {
+			this.scaleDownUtilization = scaleDownUtilization;
+		}
+
+		public long getIdleTimeout() {
+			return this.idleTimeout;
+		}
+
+		public void setIdleTimeout(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+
+		public long getScaleUpCooldown() {
+			return this.scaleUpCooldown;
+		}
+
+		public void setScaleUpCooldown(long scaleUpCooldown) {
+			this.scaleUpCooldown = scaleUpCooldown;
+		}
+
+		public long getScaleDownCooldown() {
+			return this.scaleDownCooldown;
+		}
+
+		public void setScaleDownCooldown(long scaleDownCooldown) {
+			this.scaleDownCooldown = scaleDownCooldown;
+		}
+
+		public int getQueueDepthPerConsumer() {
+			return this.queueDepthPerConsumer;
+		}
+
+		public void setQueueDepthPerConsumer(int queueDepthPerConsumer) {
+			this.queueDepthPerConsumer = queueDepthPerConsumer;
+		}
+
 	}
 
 	/**
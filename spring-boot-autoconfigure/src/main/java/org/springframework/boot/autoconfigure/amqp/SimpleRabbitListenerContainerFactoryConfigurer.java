@@ -45,6 +45,18 @@ public final class SimpleRabbitListenerContainerFactoryConfigurer extends
 		if (config.getTransactionSize() != null) {
 			factory.setTxSize(config.getTransactionSize());
 		}
+		if (config.getConsecutiveActiveTrigger() != null) {
+			factory.setConsecutiveActiveTrigger(config.getConsecutiveActiveTrigger());
+		}
+		if (config.getConsecutiveIdleTrigger() != null) {
+			factory.setConsecutiveIdleTrigger(config.getConsecutiveIdleTrigger());
+		}
+		if (config.getStartConsumerMinInterval() != null) {
+			factory.setStartConsumerMinInterval(config.getStartConsumerMinInterval());
+		}
+		if (config.getStopConsumerMinInterval() != null) {
+			factory.setStopConsumerMinInterval(config.getStopConsumerMinInterval());
+		}
 	}
 
 }
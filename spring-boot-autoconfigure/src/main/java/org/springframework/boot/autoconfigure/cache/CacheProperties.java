@@ -55,6 +55,8 @@ public class CacheProperties {
 
 	private final JCache jcache = new JCache();
 
+	private final Near near = new Near();
+
 	public CacheType getType() {
 		return this.type;
 	}
@@ -91,6 +93,10 @@ public class CacheProperties {
 		return this.jcache;
 	}
 
+	public Near getNear() {
+		return this.near;
+	}
+
 	/**
 	 * Resolve the config location if set.
 	 * @param config the config resource
@@ -233,4 +239,89 @@ public class CacheProperties {
 
 	}
 
+	/**
+	 * Near cache (Caffeine in front of Redis) specific cache properties.
+	 */
+	public static class Near {
+
+		/**
+		 * Maximum number of entries that each local cache may contain.
+		 */
+		private long maximumSize = 10000;
+
+		/**
+		 * Local entry time-to-live in milliseconds. Limits how long a stale local entry
+		 * may be used if an invalidation is missed. Set to 0 for local entries that do
+		 * not expire.
+		 */
+		private long timeToLive = 600000;
+
+		/**
+		 * Mechanism used to drop local entries that have been changed by other nodes.
+		 */
+		private Invalidation invalidation = Invalidation.PUB_SUB;
+
+		/**
+		 * Redis channel used to publish invalidations when using pub/sub invalidation.
+		 */
+		private String channel = "spring:cache:invalidation";
+
+		public long getMaximumSize() {
+			return this.maximumSize;
+		}
+
+		public void setMaximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public long getTimeToLive() {
+			return this.timeToLive;
+		}
+
+		public void setTimeToLive(long timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public Invalidation getInvalidation() {
+			return this.invalidation;
+		}
+
+		public void setInvalidation(Invalidation invalidation) {
+			this.invalidation = invalidation;
+		}
+
+		public String getChannel() {
+			return this.channel;
+		}
+
+		public void setChannel(String channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Near cache invalidation mechanisms.
+		 */
+		public enum Invalidation {
+
+			/**
+			 * Publish changes to a Redis channel that all nodes subscribe to.
+			 */
+			PUB_SUB,
+
+			/**
+			 * Listen to Redis keyspace notifications. Requires the
+			 * 'notify-keyspace-events' option to be enabled on the Redis server.
+			 */
+			KEYSPACE,
+
+			/**
+			 * Do not invalidate local entries. Only suitable if entries never change or a
+			 * short time-to-live is set.
+			 */
+			NONE
+
+		}
+
+	}
+
 }
@@ -61,6 +61,12 @@ public enum CacheType {
 	 */
 	REDIS,
 
+	/**
+	 * Redis backed caching with a local Caffeine cache in front of Redis. Must be
+	 * selected explicitly.
+	 */
+	NEAR,
+
 	/**
 	 * Caffeine backed caching.
 	 */
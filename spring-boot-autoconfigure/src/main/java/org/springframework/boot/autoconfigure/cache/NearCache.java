@@ -0,0 +1,232 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * {@link RedisCache} that keeps recently used entries in a local Caffeine cache. Reads
+ * are served from the local cache when possible and fall back to Redis otherwise. Writes
+ * always go to Redis first and are then applied to the local cache (write-through).
+ * Changes are announced through the owning {@link NearCacheManager} so that other nodes
+ * can drop stale local entries.
+ * <p>
+ * Each invalidation increments a generation counter for the affected key. An entry read
+ * from Redis is only kept locally if no invalidation for its key arrived while Redis was
+ * being read so that a late invalidation cannot be overwritten by the value it was meant
+ * to remove.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see NearCacheManager
+ */
+public class NearCache extends RedisCache {
+
+	private static final int GENERATION_STRIPES = 64;
+
+	private final Cache<String, Object> localCache;
+
+	private final NearCacheManager cacheManager;
+
+	private final LongAdder localHits = new LongAdder();
+
+	private final LongAdder localMisses = new LongAdder();
+
+	private final LongAdder remoteHits = new LongAdder();
+
+	private final LongAdder remoteMisses = new LongAdder();
+
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+	private final AtomicLong clearGeneration = new AtomicLong();
+
+	/**
+	 * Create a new {@link NearCache} instance.
+	 * @param name the name of the cache
+	 * @param cacheWriter the writer used to access Redis
+	 * @param cacheConfiguration the Redis cache configuration
+	 * @param localCache the local cache
+	 * @param cacheManager the owning cache manager
+	 */
+	protected NearCache(String name, RedisCacheWriter cacheWriter,
+			RedisCacheConfiguration cacheConfiguration, Cache<String, Object> localCache,
+			NearCacheManager cacheManager) {
+		super(name, cacheWriter, cacheConfiguration);
+		this.localCache = localCache;
+		this.cacheManager = cacheManager;
+	}
+
+	@Override
+	protected Object lookup(Object key) {
+		String cacheKey = createCacheKey(key);
+		Object value = this.localCache.getIfPresent(cacheKey);
+		if (value != null) {
+			this.localHits.increment();
+			return value;
+		}
+		this.localMisses.increment();
+		long generation = getGeneration(cacheKey);
+		value = super.lookup(key);
+		if (value == null) {
+			this.remoteMisses.increment();
+			return null;
+		}
+		this.remoteHits.increment();
+		this.localCache.put(cacheKey, value);
+		if (getGeneration(cacheKey) != generation) {
+			// Invalidated while Redis was being read, the value may be stale
+			this.localCache.invalidate(cacheKey);
+		}
+		return value;
+	}
+
+	private long getGeneration(String cacheKey) {
+		return this.generations.get(getStripe(cacheKey)) + this.clearGeneration.get();
+	}
+
+	private int getStripe(String cacheKey) {
+		return cacheKey.hashCode() & (GENERATION_STRIPES - 1);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object value = this.localCache.asMap().get(createCacheKey(key));
+		if (value != null) {
+			this.localHits.increment();
+			return (T) fromStoreValue(value);
+		}
+		return super.get(key, valueLoader);
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		super.put(key, value);
+		String cacheKey = createCacheKey(key);
+		this.cacheManager.publishEvict(cacheKey);
+		this.generations.incrementAndGet(getStripe(cacheKey));
+		this.localCache.put(cacheKey, toStoreValue(value));
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existing = super.putIfAbsent(key, value);
+		String cacheKey = createCacheKey(key);
+		evictLocal(cacheKey);
+		if (existing == null) {
+			this.cacheManager.publishEvict(cacheKey);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		super.evict(key);
+		String cacheKey = createCacheKey(key);
+		evictLocal(cacheKey);
+		this.cacheManager.publishEvict(cacheKey);
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		clearLocal();
+		this.cacheManager.publishClear(getName());
+	}
+
+	/**
+	 * Remove the entry with the given Redis key from the local cache only.
+	 * @param cacheKey the Redis key of the entry
+	 */
+	void evictLocal(String cacheKey) {
+		this.generations.incrementAndGet(getStripe(cacheKey));
+		this.localCache.invalidate(cacheKey);
+	}
+
+	/**
+	 * Remove all entries from the local cache only.
+	 */
+	void clearLocal() {
+		this.clearGeneration.incrementAndGet();
+		this.localCache.invalidateAll();
+	}
+
+	/**
+	 * Return the Redis key pattern that matches all the entries of this cache.
+	 * @return the key pattern
+	 */
+	String getKeyPattern() {
+		StringBuilder pattern = new StringBuilder();
+		for (char c : createCacheKey("").toCharArray()) {
+			if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+				pattern.append('\\');
+			}
+			pattern.append(c);
+		}
+		return pattern.append('*').toString();
+	}
+
+	/**
+	 * Return the local cache.
+	 * @return the local cache
+	 */
+	public Cache<String, Object> getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the number of lookups that were served by the local cache.
+	 * @return the local hit count
+	 */
+	public long getLocalHitCount() {
+		return this.localHits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that could not be served by the local cache.
+	 * @return the local miss count
+	 */
+	public long getLocalMissCount() {
+		return this.localMisses.sum();
+	}
+
+	/**
+	 * Return the number of local cache misses that were served by Redis.
+	 * @return the remote hit count
+	 */
+	public long getRemoteHitCount() {
+		return this.remoteHits.sum();
+	}
+
+	/**
+	 * Return the number of local cache misses that could not be served by Redis.
+	 * @return the remote miss count
+	 */
+	public long getRemoteMissCount() {
+		return this.remoteMisses.sum();
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.cache.CacheProperties.Near.Invalidation;
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Near cache configuration: a local Caffeine cache in front of Redis.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+@Configuration
+@AutoConfigureAfter(RedisAutoConfiguration.class)
+@ConditionalOnClass({ Caffeine.class, RedisConnectionFactory.class })
+@ConditionalOnBean(RedisConnectionFactory.class)
+@ConditionalOnMissingBean(CacheManager.class)
+@Conditional(CacheCondition.class)
+class NearCacheConfiguration {
+
+	private final CacheProperties cacheProperties;
+
+	private final CacheManagerCustomizers customizerInvoker;
+
+	NearCacheConfiguration(CacheProperties cacheProperties,
+			CacheManagerCustomizers customizerInvoker) {
+		this.cacheProperties = cacheProperties;
+		this.customizerInvoker = customizerInvoker;
+	}
+
+	@Bean
+	public NearCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+		CacheProperties.Near near = this.cacheProperties.getNear();
+		Caffeine<Object, Object> localCacheBuilder = Caffeine.newBuilder()
+				.maximumSize(near.getMaximumSize());
+		if (near.getTimeToLive() > 0) {
+			localCacheBuilder.expireAfterWrite(near.getTimeToLive(),
+					TimeUnit.MILLISECONDS);
+		}
+		List<String> cacheNames = this.cacheProperties.getCacheNames();
+		NearCacheManager cacheManager = new NearCacheManager(redisConnectionFactory,
+				localCacheBuilder, cacheNames.toArray(new String[cacheNames.size()]));
+		if (near.getInvalidation() == Invalidation.PUB_SUB) {
+			cacheManager.setInvalidationChannel(near.getChannel());
+		}
+		return this.customizerInvoker.customize(cacheManager);
+	}
+
+	@Bean
+	@Conditional(InvalidationCondition.class)
+	public RedisMessageListenerContainer nearCacheMessageListenerContainer(
+			RedisConnectionFactory redisConnectionFactory, NearCacheManager cacheManager,
+			ObjectProvider<RedisProperties> redisProperties) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(redisConnectionFactory);
+		CacheProperties.Near near = this.cacheProperties.getNear();
+		if (near.getInvalidation() == Invalidation.PUB_SUB) {
+			container.addMessageListener(cacheManager,
+					new ChannelTopic(near.getChannel()));
+		}
+		else if (near.getInvalidation() == Invalidation.KEYSPACE) {
+			RedisProperties properties = redisProperties.getIfAvailable();
+			cacheManager.listenToKeyspaceNotifications(container,
+					(properties != null ? properties.getDatabase() : 0));
+		}
+		return container;
+	}
+
+	/**
+	 * Condition that matches unless near cache invalidation is disabled.
+	 */
+	static class InvalidationCondition extends SpringBootCondition {
+
+		@Override
+		public ConditionOutcome getMatchOutcome(ConditionContext context,
+				AnnotatedTypeMetadata metadata) {
+			ConditionMessage.Builder message = ConditionMessage
+					.forCondition("Near cache invalidation");
+			Invalidation invalidation = Binder.get(context.getEnvironment())
+					.bind("spring.cache.near.invalidation", Invalidation.class)
+					.orElse(Invalidation.PUB_SUB);
+			if (invalidation == Invalidation.NONE) {
+				return ConditionOutcome.noMatch(message.because("disabled"));
+			}
+			return ConditionOutcome.match(message.because(invalidation.toString()));
+		}
+
+	}
+
+}
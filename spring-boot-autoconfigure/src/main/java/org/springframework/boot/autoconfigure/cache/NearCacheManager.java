@@ -0,0 +1,231 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RedisCacheManager} that creates {@link NearCache near caches}: caches that keep
+ * a bounded local copy of recently used Redis entries.
+ * <p>
+ * Local copies are kept consistent across nodes by invalidation. If an
+ * {@link #setInvalidationChannel(String) invalidation channel} is set, changes are
+ * published to that channel. Registering the manager as a {@link MessageListener} for
+ * the same channel drops local entries that were changed by other nodes. Alternatively,
+ * the manager can {@link #listenToKeyspaceNotifications listen to Redis keyspace
+ * notifications} for the keys of its caches, in which case the Redis server must be
+ * configured to emit them. Keyspace notifications are also received for changes made by
+ * the current node, so its own local entries are dropped and reloaded from Redis on
+ * their next access.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class NearCacheManager extends RedisCacheManager implements MessageListener {
+
+	private static final String KEYSPACE_CHANNEL_PREFIX = "__keyspace@";
+
+	private static final String KEYSPACE_KEY_DELIMITER = "__:";
+
+	private static final char EVICT = 'E';
+
+	private static final char CLEAR = 'C';
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final RedisConnectionFactory connectionFactory;
+
+	private final RedisCacheWriter cacheWriter;
+
+	private final Caffeine<Object, Object> localCacheBuilder;
+
+	private byte[] invalidationChannel;
+
+	private RedisMessageListenerContainer keyspaceListenerContainer;
+
+	private int keyspaceDatabase;
+
+	/**
+	 * Create a new {@link NearCacheManager} instance using the default Redis cache
+	 * configuration.
+	 * @param connectionFactory the Redis connection factory
+	 * @param localCacheBuilder the builder used to create local caches
+	 * @param initialCacheNames the names of the caches to create on startup
+	 */
+	public NearCacheManager(RedisConnectionFactory connectionFactory,
+			Caffeine<Object, Object> localCacheBuilder, String... initialCacheNames) {
+		this(connectionFactory,
+				RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+				RedisCacheConfiguration.defaultCacheConfig(), localCacheBuilder,
+				initialCacheNames);
+	}
+
+	/**
+	 * Create a new {@link NearCacheManager} instance.
+	 * @param connectionFactory the Redis connection factory used to publish
+	 * invalidations
+	 * @param cacheWriter the writer used to access Redis
+	 * @param defaultCacheConfiguration the default Redis cache configuration
+	 * @param localCacheBuilder the builder used to create local caches
+	 * @param initialCacheNames the names of the caches to create on startup
+	 */
+	public NearCacheManager(RedisConnectionFactory connectionFactory,
+			RedisCacheWriter cacheWriter,
+			RedisCacheConfiguration defaultCacheConfiguration,
+			Caffeine<Object, Object> localCacheBuilder, String... initialCacheNames) {
+		super(cacheWriter, defaultCacheConfiguration, initialCacheNames);
+		Assert.notNull(connectionFactory, "ConnectionFactory must not be null");
+		Assert.notNull(localCacheBuilder, "LocalCacheBuilder must not be null");
+		this.connectionFactory = connectionFactory;
+		this.cacheWriter = cacheWriter;
+		this.localCacheBuilder = localCacheBuilder;
+	}
+
+	/**
+	 * Set the Redis channel used to publish cache invalidations or {@code null} if
+	 * invalidations should not be published.
+	 * @param invalidationChannel the invalidation channel
+	 */
+	public void setInvalidationChannel(String invalidationChannel) {
+		this.invalidationChannel = (invalidationChannel != null
+				? invalidationChannel.getBytes(StandardCharsets.UTF_8) : null);
+	}
+
+	/**
+	 * Register this manager with the given container so that local entries are dropped
+	 * when Redis keyspace notifications are received for them. Only the keys of this
+	 * manager's caches in the given database are subscribed to. Caches that are created
+	 * later are subscribed to as they are created.
+	 * @param container the listener container
+	 * @param database the Redis database that holds the cache entries
+	 */
+	public synchronized void listenToKeyspaceNotifications(
+			RedisMessageListenerContainer container, int database) {
+		Assert.notNull(container, "Container must not be null");
+		this.keyspaceListenerContainer = container;
+		this.keyspaceDatabase = database;
+		for (String name : getCacheNames()) {
+			NearCache cache = getNearCache(name);
+			if (cache != null) {
+				listenToKeyspaceNotifications(cache);
+			}
+		}
+	}
+
+	private void listenToKeyspaceNotifications(NearCache cache) {
+		this.keyspaceListenerContainer.addMessageListener(this,
+				new PatternTopic(KEYSPACE_CHANNEL_PREFIX + this.keyspaceDatabase
+						+ KEYSPACE_KEY_DELIMITER + cache.getKeyPattern()));
+	}
+
+	@Override
+	protected synchronized RedisCache createRedisCache(String name,
+			RedisCacheConfiguration cacheConfiguration) {
+		NearCache cache = new NearCache(name, this.cacheWriter,
+				(cacheConfiguration != null ? cacheConfiguration
+						: RedisCacheConfiguration.defaultCacheConfig()),
+				this.localCacheBuilder.build(), this);
+		if (this.keyspaceListenerContainer != null) {
+			listenToKeyspaceNotifications(cache);
+		}
+		return cache;
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+		if (channel.startsWith(KEYSPACE_CHANNEL_PREFIX)) {
+			int index = channel.indexOf(KEYSPACE_KEY_DELIMITER);
+			if (index != -1) {
+				evictLocal(channel.substring(index + KEYSPACE_KEY_DELIMITER.length()));
+			}
+			return;
+		}
+		String[] parts = new String(message.getBody(), StandardCharsets.UTF_8)
+				.split(":", 3);
+		if (parts.length != 3 || parts[0].equals(this.id) || parts[1].length() != 1) {
+			return;
+		}
+		if (parts[1].charAt(0) == EVICT) {
+			evictLocal(parts[2]);
+		}
+		else if (parts[1].charAt(0) == CLEAR) {
+			NearCache cache = getNearCache(parts[2]);
+			if (cache != null) {
+				cache.clearLocal();
+			}
+		}
+	}
+
+	private void evictLocal(String cacheKey) {
+		for (String name : getCacheNames()) {
+			NearCache cache = getNearCache(name);
+			if (cache != null) {
+				cache.evictLocal(cacheKey);
+			}
+		}
+	}
+
+	private NearCache getNearCache(String name) {
+		Cache cache = lookupCache(name);
+		if (cache instanceof TransactionAwareCacheDecorator) {
+			cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+		}
+		return (cache instanceof NearCache ? (NearCache) cache : null);
+	}
+
+	void publishEvict(String cacheKey) {
+		publish(EVICT, cacheKey);
+	}
+
+	void publishClear(String cacheName) {
+		publish(CLEAR, cacheName);
+	}
+
+	private void publish(char type, String payload) {
+		if (this.invalidationChannel == null) {
+			return;
+		}
+		byte[] message = (this.id + ":" + type + ":" + payload)
+				.getBytes(StandardCharsets.UTF_8);
+		RedisConnection connection = this.connectionFactory.getConnection();
+		try {
+			connection.publish(this.invalidationChannel, message);
+		}
+		finally {
+			connection.close();
+		}
+	}
+
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.jdbc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.CannotReadScriptException;
+import org.springframework.jdbc.datasource.init.DatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptException;
+import org.springframework.jdbc.datasource.init.ScriptParseException;
+import org.springframework.jdbc.datasource.init.ScriptStatementFailedException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link DatabasePopulator} that streams statements from SQL scripts rather than loading
+ * each script into memory. Consecutive {@code INSERT} statements can be sent to the
+ * database as a single JDBC batch and statements can be committed at a fixed interval
+ * rather than individually. Batching is not used when errors are ignored so that each
+ * failing statement can be skipped on its own.
+ *
+ * @author agent (agent@local)
+ */
+class BatchingScriptDatabasePopulator implements DatabasePopulator {
+
+	private static final Log logger = LogFactory
+			.getLog(BatchingScriptDatabasePopulator.class);
+
+	private final List<Resource> scripts = new ArrayList<>();
+
+	private String separator = ";";
+
+	private Charset sqlScriptEncoding;
+
+	private boolean continueOnError;
+
+	private int batchSize = 1;
+
+	private int commitInterval;
+
+	void addScript(Resource script) {
+		this.scripts.add(script);
+	}
+
+	void setSeparator(String separator) {
+		this.separator = separator;
+	}
+
+	void setSqlScriptEncoding(Charset sqlScriptEncoding) {
+		this.sqlScriptEncoding = sqlScriptEncoding;
+	}
+
+	void setContinueOnError(boolean continueOnError) {
+		this.continueOnError = continueOnError;
+	}
+
+	void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	void setCommitInterval(int commitInterval) {
+		this.commitInterval = commitInterval;
+	}
+
+	@Override
+	public void populate(Connection connection) throws SQLException, ScriptException {
+		for (Resource script : this.scripts) {
+			EncodedResource resource = new EncodedResource(script,
+					this.sqlScriptEncoding);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing SQL script from " + resource);
+			}
+			long startTime = System.currentTimeMillis();
+			try (StatementReader reader = new StatementReader(resource,
+					this.separator)) {
+				new ScriptExecution(connection, resource).execute(reader);
+			}
+			catch (IOException ex) {
+				throw new CannotReadScriptException(resource, ex);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executed SQL script from " + resource + " in "
+						+ (System.currentTimeMillis() - startTime) + " ms.");
+			}
+		}
+	}
+
+	/**
+	 * The execution of a single script against a {@link Connection}.
+	 */
+	private class ScriptExecution {
+
+		private final Connection connection;
+
+		private final EncodedResource resource;
+
+		private final List<String> batch = new ArrayList<>();
+
+		private int statementNumber;
+
+		private int uncommitted;
+
+		ScriptExecution(Connection connection, EncodedResource resource) {
+			this.connection = connection;
+			this.resource = resource;
+		}
+
+		void execute(StatementReader reader) throws IOException, SQLException {
+			boolean autoCommit = this.connection.getAutoCommit();
+			boolean manualCommit = autoCommit
+					&& BatchingScriptDatabasePopulator.this.commitInterval > 0;
+			if (manualCommit) {
+				this.connection.setAutoCommit(false);
+			}
+			try (Statement statement = this.connection.createStatement()) {
+				String sql;
+				while ((sql = reader.next()) != null) {
+					execute(statement, sql, manualCommit);
+				}
+				executeBatch(statement, manualCommit);
+				if (manualCommit) {
+					this.connection.commit();
+				}
+			}
+			catch (IOException | SQLException | RuntimeException ex) {
+				if (manualCommit) {
+					this.connection.rollback();
+				}
+				throw ex;
+			}
+			finally {
+				if (manualCommit) {
+					this.connection.setAutoCommit(true);
+				}
+			}
+		}
+
+		private void execute(Statement statement, String sql, boolean manualCommit)
+				throws SQLException {
+			this.statementNumber++;
+			if (isBatchable(sql)) {
+				statement.addBatch(sql);
+				this.batch.add(sql);
+				if (this.batch.size() >= BatchingScriptDatabasePopulator.this.batchSize) {
+					executeBatch(statement, manualCommit);
+				}
+				return;
+			}
+			executeBatch(statement, manualCommit);
+			try {
+				statement.execute(sql);
+			}
+			catch (SQLException ex) {
+				if (!BatchingScriptDatabasePopulator.this.continueOnError) {
+					throw new ScriptStatementFailedException(sql, this.statementNumber,
+							this.resource, ex);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug(ScriptStatementFailedException.buildErrorMessage(sql,
+							this.statementNumber, this.resource), ex);
+				}
+			}
+			executed(1, manualCommit);
+		}
+
+		private boolean isBatchable(String sql) {
+			return BatchingScriptDatabasePopulator.this.batchSize > 1
+					&& !BatchingScriptDatabasePopulator.this.continueOnError
+					&& sql.regionMatches(true, 0, "insert", 0, 6);
+		}
+
+		private void executeBatch(Statement statement, boolean manualCommit)
+				throws SQLException {
+			if (this.batch.isEmpty()) {
+				return;
+			}
+			try {
+				statement.executeBatch();
+			}
+			catch (SQLException ex) {
+				int failed = getFailedIndex(ex);
+				int failedStatementNumber = this.statementNumber - this.batch.size()
+						+ failed + 1;
+				throw new ScriptStatementFailedException(this.batch.get(failed),
+						failedStatementNumber, this.resource, ex);
+			}
+			finally {
+				statement.clearBatch();
+			}
+			int size = this.batch.size();
+			this.batch.clear();
+			executed(size, manualCommit);
+		}
+
+		private int getFailedIndex(SQLException ex) {
+			if (ex instanceof BatchUpdateException) {
+				int[] updateCounts = ((BatchUpdateException) ex).getUpdateCounts();
+				if (updateCounts != null) {
+					for (int i = 0; i < updateCounts.length; i++) {
+						if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+							return i;
+						}
+					}
+					if (updateCounts.length < this.batch.size()) {
+						return updateCounts.length;
+					}
+				}
+			}
+			return 0;
+		}
+
+		private void executed(int count, boolean manualCommit) throws SQLException {
+			this.uncommitted += count;
+			int commitInterval = BatchingScriptDatabasePopulator.this.commitInterval;
+			if (manualCommit && this.uncommitted >= commitInterval) {
+				this.connection.commit();
+				this.uncommitted = 0;
+			}
+		}
+
+	}
+
+	/**
+	 * Reads individual statements from a script without loading it into memory.
+	 * Statements are split using the same rules as {@link ScriptUtils}: lines starting
+	 * with {@code --} are ignored, quoted literals, escapes and comments are honored and
+	 * each line is treated as a statement if the script does not contain the separator.
+	 */
+	static class StatementReader implements AutoCloseable {
+
+		private final EncodedResource resource;
+
+		private final String separator;
+
+		private final ScriptReader script;
+
+		private final StringBuilder statement = new StringBuilder();
+
+		private boolean inSingleQuote;
+
+		private boolean inDoubleQuote;
+
+		private boolean inEscape;
+
+		StatementReader(EncodedResource resource, String separator) throws IOException {
+			separator = (separator != null ? separator
+					: ScriptUtils.DEFAULT_STATEMENT_SEPARATOR);
+			this.resource = resource;
+			this.separator = getSeparator(resource, separator);
+			this.script = new ScriptReader(resource.getReader(), separator);
+		}
+
+		private static String getSeparator(EncodedResource resource, String separator)
+				throws IOException {
+			if (ScriptUtils.EOF_STATEMENT_SEPARATOR.equals(separator)
+					|| containsSeparator(resource, separator)) {
+				return separator;
+			}
+			return ScriptUtils.FALLBACK_STATEMENT_SEPARATOR;
+		}
+
+		private static boolean containsSeparator(EncodedResource resource,
+				String separator) throws IOException {
+			try (ScriptReader script = new ScriptReader(resource.getReader(),
+					separator)) {
+				boolean inLiteral = false;
+				int ch;
+				while ((ch = script.peek(0)) != -1) {
+					if (ch == '\'') {
+						inLiteral = !inLiteral;
+					}
+					if (!inLiteral && script.lookingAt(separator)) {
+						return true;
+					}
+					script.skip(1);
+				}
+				return false;
+			}
+		}
+
+		/**
+		 * Return the next statement or {@code null} if the end of the script has been
+		 * reached.
+		 * @return the next statement
+		 * @throws IOException on read error
+		 */
+		String next() throws IOException {
+			this.statement.setLength(0);
+			int ch;
+			while ((ch = this.script.peek(0)) != -1) {
+				if (this.inEscape) {
+					this.inEscape = false;
+				}
+				else if (ch == '\\') {
+					this.inEscape = true;
+				}
+				else {
+					if (!this.inDoubleQuote && ch == '\'') {
+						this.inSingleQuote = !this.inSingleQuote;
+					}
+					else if (!this.inSingleQuote && ch == '"') {
+						this.inDoubleQuote = !this.inDoubleQuote;
+					}
+					if (!this.inSingleQuote && !this.inDoubleQuote) {
+						if (this.script.lookingAt(this.separator)) {
+							this.script.skip(this.separator.length());
+							if (this.statement.length() > 0) {
+								return this.statement.toString();
+							}
+							continue;
+						}
+						if (this.script.lookingAt(ScriptUtils.DEFAULT_COMMENT_PREFIX)) {
+							if (!skipLine()) {
+								break;
+							}
+							continue;
+						}
+						if (this.script
+								.lookingAt(ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER)) {
+							skipBlockComment();
+							continue;
+						}
+						if (ch == ' ' || ch == '\r' || ch == '\n' || ch == '\t') {
+							int length = this.statement.length();
+							if (length == 0 || this.statement.charAt(length - 1) == ' ') {
+								this.script.skip(1);
+								continue;
+							}
+							ch = ' ';
+						}
+					}
+				}
+				this.statement.append((char) ch);
+				this.script.skip(1);
+			}
+			return (StringUtils.hasText(this.statement) ? this.statement.toString()
+					: null);
+		}
+
+		private boolean skipLine() throws IOException {
+			int ch;
+			while ((ch = this.script.peek(0)) != -1) {
+				this.script.skip(1);
+				if (ch == '\n') {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void skipBlockComment() throws IOException {
+			String end = ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER;
+			this.script.skip(1);
+			while (this.script.peek(0) != -1) {
+				if (this.script.lookingAt(end)) {
+					this.script.skip(end.length());
+					return;
+				}
+				this.script.skip(1);
+			}
+			throw new ScriptParseException(
+					"Missing block comment end delimiter: " + end, this.resource);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.script.close();
+		}
+
+	}
+
+	/**
+	 * Provides lookahead over the content of a script with any lines that start with
+	 * {@code --} removed. As with {@link ScriptUtils#readScript}, the trailing whitespace
+	 * of a separator is restored if the last line ends with the rest of the separator.
+	 */
+	private static class ScriptReader implements AutoCloseable {
+
+		private final BufferedReader reader;
+
+		private final String separator;
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		private int position;
+
+		private boolean hasContent;
+
+		private String lastLine = "";
+
+		private boolean finished;
+
+		ScriptReader(Reader reader, String separator) {
+			this.reader = new BufferedReader(reader);
+			this.separator = separator;
+		}
+
+		int peek(int offset) throws IOException {
+			while (this.buffer.length() - this.position <= offset) {
+				if (!readLine()) {
+					return -1;
+				}
+			}
+			return this.buffer.charAt(this.position + offset);
+		}
+
+		boolean lookingAt(String content) throws IOException {
+			for (int i = 0; i < content.length(); i++) {
+				if (peek(i) != content.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void skip(int count) {
+			this.position += count;
+		}
+
+		private boolean readLine() throws IOException {
+			String line = this.reader.readLine();
+			while (line != null && line.startsWith(ScriptUtils.DEFAULT_COMMENT_PREFIX)) {
+				line = this.reader.readLine();
+			}
+			if (line == null) {
+				return finish();
+			}
+			compact();
+			if (this.hasContent) {
+				this.buffer.append('\n');
+			}
+			this.buffer.append(line);
+			this.hasContent = this.hasContent || !line.isEmpty();
+			this.lastLine = line;
+			return true;
+		}
+
+		private boolean finish() {
+			if (this.finished) {
+				return false;
+			}
+			this.finished = true;
+			String trimmed = this.separator.trim();
+			String whitespace = this.separator
+					.substring(StringUtils.trimTrailingWhitespace(this.separator).length());
+			if (whitespace.isEmpty() || !this.lastLine.endsWith(trimmed)) {
+				return false;
+			}
+			compact();
+			this.buffer.append(whitespace);
+			return true;
+		}
+
+		private void compact() {
+			this.buffer.delete(0, this.position);
+			this.position = 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.reader.close();
+		}
+
+	}
+
+}
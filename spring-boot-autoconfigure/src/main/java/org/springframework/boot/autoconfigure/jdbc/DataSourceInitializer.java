@@ -19,6 +19,10 @@ package org.springframework.boot.autoconfigure.jdbc;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
@@ -31,8 +35,10 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.io.Resource;
 import org.springframework.jdbc.config.SortedResourcesFactoryBean;
+import org.springframework.jdbc.datasource.init.DatabasePopulator;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 
 /**
@@ -124,7 +130,7 @@ class DataSourceInitializer implements ApplicationListener<DataSourceInitialized
 				this.properties.getData(), "data");
 		String username = this.properties.getDataUsername();
 		String password = this.properties.getDataPassword();
-		runScripts(scripts, username, password);
+		runScripts(scripts, username, password, this.properties.isParallelData());
 	}
 
 	private List<Resource> getScripts(String propertyName, List<String> resources,
@@ -169,9 +175,73 @@ class DataSourceInitializer implements ApplicationListener<DataSourceInitialized
 	}
 
 	private void runScripts(List<Resource> resources, String username, String password) {
+		runScripts(resources, username, password, false);
+	}
+
+	private void runScripts(List<Resource> resources, String username, String password,
+			boolean parallel) {
 		if (resources.isEmpty()) {
 			return;
 		}
+		DataSource dataSource = this.dataSource;
+		if (StringUtils.hasText(username) && StringUtils.hasText(password)) {
+			dataSource = DataSourceBuilder.create(this.properties.getClassLoader())
+					.driverClassName(this.properties.determineDriverClassName())
+					.url(this.properties.determineUrl()).username(username)
+					.password(password).build();
+		}
+		if (parallel && resources.size() > 1) {
+			runScriptsInParallel(resources, dataSource);
+		}
+		else {
+			DatabasePopulatorUtils.execute(createPopulator(resources), dataSource);
+		}
+	}
+
+	private void runScriptsInParallel(List<Resource> resources, DataSource dataSource) {
+		int threads = Math.min(resources.size(),
+				Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads,
+				new CustomizableThreadFactory("datasource-init-"));
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Resource resource : resources) {
+				DatabasePopulator populator = createPopulator(
+						Collections.singletonList(resource));
+				futures.add(executor.submit(
+						() -> DatabasePopulatorUtils.execute(populator, dataSource)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running SQL scripts", ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException("Unable to run SQL scripts", ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private DatabasePopulator createPopulator(List<Resource> resources) {
+		if (this.properties.getScriptBatchSize() > 0
+				|| this.properties.getScriptCommitInterval() > 0) {
+			BatchingScriptDatabasePopulator populator = new BatchingScriptDatabasePopulator();
+			populator.setContinueOnError(this.properties.isContinueOnError());
+			populator.setSeparator(this.properties.getSeparator());
+			populator.setSqlScriptEncoding(this.properties.getSqlScriptEncoding());
+			populator.setBatchSize(Math.max(this.properties.getScriptBatchSize(), 1));
+			populator.setCommitInterval(this.properties.getScriptCommitInterval());
+			resources.forEach(populator::addScript);
+			return populator;
+		}
 		ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
 		populator.setContinueOnError(this.properties.isContinueOnError());
 		populator.setSeparator(this.properties.getSeparator());
@@ -181,14 +251,7 @@ class DataSourceInitializer implements ApplicationListener<DataSourceInitialized
 		for (Resource resource : resources) {
 			populator.addScript(resource);
 		}
-		DataSource dataSource = this.dataSource;
-		if (StringUtils.hasText(username) && StringUtils.hasText(password)) {
-			dataSource = DataSourceBuilder.create(this.properties.getClassLoader())
-					.driverClassName(this.properties.determineDriverClassName())
-					.url(this.properties.determineUrl()).username(username)
-					.password(password).build();
-		}
-		DatabasePopulatorUtils.execute(populator, dataSource);
+		return populator;
 	}
 
 }
@@ -151,6 +151,25 @@ public class DataSourceProperties
 	 */
 	private Charset sqlScriptEncoding;
 
+	/**
+	 * Number of consecutive INSERT statements in SQL initialization scripts to execute
+	 * as a single JDBC batch. When set, scripts are streamed rather than loaded into
+	 * memory.
+	 */
+	private int scriptBatchSize;
+
+	/**
+	 * Number of statements in SQL initialization scripts to execute between commits.
+	 * When set, scripts are streamed rather than loaded into memory.
+	 */
+	private int scriptCommitInterval;
+
+	/**
+	 * Run data scripts in parallel, each on its own connection. Only suitable when the
+	 * scripts are independent of each other.
+	 */
+	private boolean parallelData = false;
+
 	private EmbeddedDatabaseConnection embeddedDatabaseConnection = EmbeddedDatabaseConnection.NONE;
 
 	private Xa xa = new Xa();
@@ -461,6 +480,30 @@ public class DataSourceProperties
 		this.sqlScriptEncoding = sqlScriptEncoding;
 	}
 
+	public int getScriptBatchSize() {
+		return this.scriptBatchSize;
+	}
+
+	public void setScriptBatchSize(int scriptBatchSize) {
+		this.scriptBatchSize = scriptBatchSize;
+	}
+
+	public int getScriptCommitInterval() {
+		return this.scriptCommitInterval;
+	}
+
+	public void setScriptCommitInterval(int scriptCommitInterval) {
+		this.scriptCommitInterval = scriptCommitInterval;
+	}
+
+	public boolean isParallelData() {
+		return this.parallelData;
+	}
+
+	public void setParallelData(boolean parallelData) {
+		this.parallelData = parallelData;
+	}
+
 	public ClassLoader getClassLoader() {
 		return this.classLoader;
 	}
@@ -108,6 +108,12 @@ public final class DefaultJmsListenerContainerFactoryConfigurer {
 		if (concurrency != null) {
 			factory.setConcurrency(concurrency);
 		}
+		if (listener.getMaxMessagesPerTask() != null) {
+			factory.setMaxMessagesPerTask(listener.getMaxMessagesPerTask());
+		}
+		if (listener.getReceiveTimeout() != null) {
+			factory.setReceiveTimeout(listener.getReceiveTimeout());
+		}
 	}
 
 }
@@ -22,11 +22,15 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnJndi;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.messaging.ConcurrencyPolicy;
+import org.springframework.boot.messaging.LatencyAndIdleConcurrencyPolicy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.annotation.EnableJms;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.jms.config.JmsListenerConfigUtils;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.destination.DestinationResolver;
 import org.springframework.jms.support.destination.JndiDestinationResolver;
@@ -82,6 +86,30 @@ class JmsAnnotationDrivenConfiguration {
 		return factory;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.jms.listener.scaling", name = "enabled")
+	public JmsListenerConcurrencyManager jmsListenerConcurrencyManager(
+			JmsListenerEndpointRegistry registry,
+			ObjectProvider<ConcurrencyPolicy> concurrencyPolicy) {
+		JmsProperties.ListenerScaling scaling = this.properties.getListener()
+				.getScaling();
+		JmsListenerConcurrencyManager manager = new JmsListenerConcurrencyManager(
+				registry, concurrencyPolicy.getIfAvailable(() -> createPolicy(scaling)));
+		manager.setInterval(scaling.getInterval());
+		manager.setScaleUpCooldown(scaling.getScaleUpCooldown());
+		manager.setScaleDownCooldown(scaling.getScaleDownCooldown());
+		return manager;
+	}
+
+	private ConcurrencyPolicy createPolicy(JmsProperties.ListenerScaling scaling) {
+		LatencyAndIdleConcurrencyPolicy policy = new LatencyAndIdleConcurrencyPolicy();
+		policy.setScaleUpUtilization(scaling.getScaleUpUtilization());
+		policy.setScaleDownUtilization(scaling.getScaleDownUtilization());
+		policy.setIdleTimeout(scaling.getIdleTimeout());
+		return policy;
+	}
+
 	@EnableJms
 	@ConditionalOnMissingBean(name = JmsListenerConfigUtils.JMS_LISTENER_ANNOTATION_PROCESSOR_BEAN_NAME)
 	protected static class EnableJmsConfiguration {
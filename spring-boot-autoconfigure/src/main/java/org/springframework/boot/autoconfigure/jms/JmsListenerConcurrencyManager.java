@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.jms;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.springframework.boot.messaging.AbstractListenerConcurrencyManager;
+import org.springframework.boot.messaging.ConcurrencyPolicy;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.MessageListenerContainer;
+import org.springframework.jms.listener.SessionAwareMessageListener;
+
+/**
+ * Scales the consumers of the {@link DefaultMessageListenerContainer JMS listener
+ * containers} held by a {@link JmsListenerEndpointRegistry} according to a
+ * {@link ConcurrencyPolicy}. The listener of each container is decorated to measure the
+ * time taken to handle each message. JMS offers no portable way to find the depth of a
+ * queue so the policy is only given the latency and idle time of the listener.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class JmsListenerConcurrencyManager extends AbstractListenerConcurrencyManager {
+
+	private static final int DEFAULT_MAX_MESSAGES_PER_TASK = 10;
+
+	private final JmsListenerEndpointRegistry registry;
+
+	/**
+	 * Create a new {@link JmsListenerConcurrencyManager} instance.
+	 * @param registry the registry holding the listener containers
+	 * @param policy the policy used to decide the number of consumers
+	 */
+	public JmsListenerConcurrencyManager(JmsListenerEndpointRegistry registry,
+			ConcurrencyPolicy policy) {
+		super(policy);
+		this.registry = registry;
+	}
+
+	@Override
+	protected void registerScalers() {
+		for (String id : this.registry.getListenerContainerIds()) {
+			MessageListenerContainer container = this.registry.getListenerContainer(id);
+			if (container instanceof DefaultMessageListenerContainer) {
+				registerScaler(id, (DefaultMessageListenerContainer) container);
+			}
+		}
+	}
+
+	private void registerScaler(String id, DefaultMessageListenerContainer container) {
+		ListenerConcurrencyScaler scaler = addScaler(id, new ContainerTarget(container),
+				container.getConcurrentConsumers(),
+				container.getMaxConcurrentConsumers());
+		if (scaler == null) {
+			return;
+		}
+		if (container.getMaxMessagesPerTask() <= 0) {
+			// Consumers that loop forever are never released when scaling down
+			container.setMaxMessagesPerTask(DEFAULT_MAX_MESSAGES_PER_TASK);
+		}
+		Object listener = container.getMessageListener();
+		if (listener instanceof SessionAwareMessageListener) {
+			container.setMessageListener(new ScalingSessionAwareMessageListener(
+					(SessionAwareMessageListener<?>) listener, scaler));
+		}
+		else if (listener instanceof MessageListener) {
+			container.setMessageListener(
+					new ScalingMessageListener((MessageListener) listener, scaler));
+		}
+	}
+
+	/**
+	 * {@link ListenerConcurrencyScaler.Target} for a
+	 * {@link DefaultMessageListenerContainer}. The container schedules additional
+	 * consumers as messages arrive and releases surplus consumers once their current task
+	 * completes.
+	 */
+	private static class ContainerTarget implements ListenerConcurrencyScaler.Target {
+
+		private final DefaultMessageListenerContainer container;
+
+		ContainerTarget(DefaultMessageListenerContainer container) {
+			this.container = container;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.container.isRunning();
+		}
+
+		@Override
+		public void setConsumers(int consumers) {
+			this.container.setConcurrentConsumers(consumers);
+			this.container.setMaxConcurrentConsumers(consumers);
+		}
+
+	}
+
+	/**
+	 * {@link MessageListener} that records the time taken by its delegate.
+	 */
+	private static class ScalingMessageListener implements MessageListener {
+
+		private final MessageListener delegate;
+
+		private final ListenerConcurrencyScaler scaler;
+
+		ScalingMessageListener(MessageListener delegate,
+				ListenerConcurrencyScaler scaler) {
+			this.delegate = delegate;
+			this.scaler = scaler;
+		}
+
+		@Override
+		public void onMessage(Message message) {
+			long start = System.nanoTime();
+			try {
+				this.delegate.onMessage(message);
+			}
+			finally {
+				this.scaler.recordMessage(System.nanoTime() - start);
+			}
+		}
+
+	}
+
+	/**
+	 * {@link SessionAwareMessageListener} that records the time taken by its delegate.
+	 */
+	private static class ScalingSessionAwareMessageListener
+			implements SessionAwareMessageListener<Message> {
+
+		private final SessionAwareMessageListener<Message> delegate;
+
+		private final ListenerConcurrencyScaler scaler;
+
+		@SuppressWarnings("unchecked")
+		ScalingSessionAwareMessageListener(SessionAwareMessageListener<?> delegate,
+				ListenerConcurrencyScaler scaler) {
+			this.delegate = (SessionAwareMessageListener<Message>) delegate;
+			this.scaler = scaler;
+		}
+
+		@Override
+		public void onMessage(Message message, Session session) throws JMSException {
+			long start = System.nanoTime();
+			try {
+				this.delegate.onMessage(message, session);
+			}
+			finally {
+				this.scaler.recordMessage(System.nanoTime() - start);
+			}
+		}
+
+	}
+
+}
@@ -90,6 +90,20 @@ public class JmsProperties {
 		 */
 		private Integer maxConcurrency;
 
+		/**
+		 * Maximum number of messages processed by a consumer task before it is
+		 * rescheduled. Allows idle consumers to be released when the load decreases.
+		 */
+		private Integer maxMessagesPerTask;
+
+		/**
+		 * Timeout in milliseconds for each receive attempt. Consumers are considered idle
+		 * when a receive attempt times out.
+		 */
+		private Long receiveTimeout;
+
+		private final ListenerScaling scaling = new ListenerScaling();
+
 		public boolean isAutoStartup() {
 			return this.autoStartup;
 		}
@@ -122,6 +136,26 @@ public class JmsProperties {
 			this.maxConcurrency = maxConcurrency;
 		}
 
+		public Integer getMaxMessagesPerTask() {
+			return this.maxMessagesPerTask;
+		}
+
+		public void setMaxMessagesPerTask(Integer maxMessagesPerTask) {
+			this.maxMessagesPerTask = maxMessagesPerTask;
+		}
+
+		public Long getReceiveTimeout() {
+			return this.receiveTimeout;
+		}
+
+		public void setReceiveTimeout(Long receiveTimeout) {
+			this.receiveTimeout = receiveTimeout;
+		}
+
+		public ListenerScaling getScaling() {
+			return this.scaling;
+		}
+
 		public String formatConcurrency() {
 			if (this.concurrency == null) {
 				return (this.maxConcurrency != null ? "1-" + this.maxConcurrency : null);
@@ -133,6 +167,108 @@ public class JmsProperties {
 
 	}
 
+	/**
+	 * Configuration properties for the scaling of listener containers by a concurrency
+	 * policy.
+	 */
+	public static class ListenerScaling {
+
+		/**
+		 * Enable the scaling of the listener containers between their minimum and maximum
+		 * number of consumers based on the latency and idle time of their listener.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Interval in milliseconds between two scaling decisions.
+		 */
+		private long interval = 5000;
+
+		/**
+		 * Proportion of time spent by the consumers handling messages above which a
+		 * consumer is added.
+		 */
+		private double scaleUpUtilization = 0.8;
+
+		/**
+		 * Proportion of time spent by the consumers handling messages below which a
+		 * consumer is removed.
+		 */
+		private double scaleDownUtilization = 0.3;
+
+		/**
+		 * Time in milliseconds without any message after which a consumer is removed.
+		 */
+		private long idleTimeout = 60000;
+
+		/**
+		 * Minimum time in milliseconds between a change and the addition of a consumer.
+		 */
+		private long scaleUpCooldown = 10000;
+
+		/**
+		 * Minimum time in milliseconds between a change and the removal of a consumer.
+		 */
+		private long scaleDownCooldown = 60000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getInterval() {
+			return this.interval;
+		}
+
+		public void setInterval(long interval) {
+			this.interval = interval;
+		}
+
+		public double getScaleUpUtilization() {
+			return this.scaleUpUtilization;
+		}
+
+		public void setScaleUpUtilization(double scaleUpUtilization) {
+			this.scaleUpUtilization = scaleUpUtilization;
+		}
+
+		public double getScaleDownUtilization() {
+			return this.scaleDownUtilization;
+		}
+
+		public void setScaleDownUtilization(double scaleDownUtilization) {
+			this.scaleDownUtilization = scaleDownUtilization;
+		}
+
+		public long getIdleTimeout() {
+			return this.idleTimeout;
+		}
+
+		public void setIdleTimeout(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+
+		public long getScaleUpCooldown() {
+			return this.scaleUpCooldown;
+		}
+
+		public void setScaleUpCooldown(long scaleUpCooldown) {
+			this.scaleUpCooldown = scaleUpCooldown;
+		}
+
+		public long getScaleDownCooldown() {
+			return this.scaleDownCooldown;
+		}
+
+		public void setScaleDownCooldown(long scaleDownCooldown) {
+			this.scaleDownCooldown = scaleDownCooldown;
+		}
+
+	}
+
 	public static class Template {
 
 		/**
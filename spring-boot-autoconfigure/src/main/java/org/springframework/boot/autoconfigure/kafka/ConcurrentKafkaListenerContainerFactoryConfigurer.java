@@ -65,6 +65,9 @@ public class ConcurrentKafkaListenerContainerFactoryConfigurer {
 		if (container.getPollTimeout() != null) {
 			containerProperties.setPollTimeout(container.getPollTimeout());
 		}
+		if (container.getIdleEventInterval() != null) {
+			containerProperties.setIdleEventInterval(container.getIdleEventInterval());
+		}
 		if (container.getConcurrency() != null) {
 			listenerContainerFactory.setConcurrency(container.getConcurrency());
 		}
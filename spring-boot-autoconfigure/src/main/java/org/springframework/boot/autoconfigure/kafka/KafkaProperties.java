@@ -169,6 +169,11 @@ public class KafkaProperties {
 	public Map<String, Object> buildConsumerProperties() {
 		Map<String, Object> properties = buildCommonProperties();
 		properties.putAll(this.consumer.buildProperties());
+		if (this.listener.getType() == Listener.Type.BATCH
+				&& this.listener.getBatchSize() != null) {
+			properties.putIfAbsent(ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+					this.listener.getBatchSize());
+		}
 		return properties;
 	}
 
@@ -708,6 +713,18 @@ public class KafkaProperties {
 		 */
 		private Long ackTime;
 
+		/**
+		 * Maximum number of records passed to a batch listener in a single invocation.
+		 * Used as the consumer "max.poll.records" unless that is configured explicitly.
+		 */
+		private Integer batchSize;
+
+		/**
+		 * Time in milliseconds without any records being received after which a
+		 * ListenerContainerIdleEvent is published.
+		 */
+		private Long idleEventInterval;
+
 		public Type getType() {
 			return this.type;
 		}
@@ -756,6 +773,22 @@ public class KafkaProperties {
 			this.ackTime = ackTime;
 		}
 
+		public Integer getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(Integer batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Long getIdleEventInterval() {
+			return this.idleEventInterval;
+		}
+
+		public void setIdleEventInterval(Long idleEventInterval) {
+			this.idleEventInterval = idleEventInterval;
+		}
+
 	}
 
 	public static class Ssl {
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.orm.jpa;
+
+/**
+ * Modes that can be used to bootstrap the JPA {@code EntityManagerFactory}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public enum BootstrapMode {
+
+	/**
+	 * Build the EntityManagerFactory synchronously whilst the application context is
+	 * refreshed.
+	 */
+	DEFAULT,
+
+	/**
+	 * Build the EntityManagerFactory on a background thread whilst the rest of the
+	 * application context is refreshed. Injection points receive a proxy that only
+	 * blocks when it is first used.
+	 */
+	BACKGROUND
+
+}
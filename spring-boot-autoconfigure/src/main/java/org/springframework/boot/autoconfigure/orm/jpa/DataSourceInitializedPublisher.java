@@ -16,12 +16,14 @@
 
 package org.springframework.boot.autoconfigure.orm.jpa;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
@@ -31,15 +33,20 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceInitializedEvent;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
 
 /**
  * {@link BeanPostProcessor} used to fire {@link DataSourceInitializedEvent}s. Should only
- * be registered via the inner {@link Registrar} class.
+ * be registered via the inner {@link Registrar} class. When an EntityManagerFactory is
+ * bootstrapped in the background the event is fired on the main thread once all
+ * singletons have been instantiated, waiting for the EntityManagerFactory to be built if
+ * necessary.
  *
  * @author Dave Syer
  * @since 1.1.0
  */
-class DataSourceInitializedPublisher implements BeanPostProcessor {
+class DataSourceInitializedPublisher
+		implements BeanPostProcessor, SmartInitializingSingleton {
 
 	@Autowired
 	private ApplicationContext applicationContext;
@@ -48,6 +55,8 @@ class DataSourceInitializedPublisher implements BeanPostProcessor {
 
 	private JpaProperties properties;
 
+	private final Map<String, AbstractEntityManagerFactoryBean> backgroundBootstrapped = new LinkedHashMap<>();
+
 	@Override
 	public Object postProcessBeforeInitialization(Object bean, String beanName)
 			throws BeansException {
@@ -64,12 +73,28 @@ class DataSourceInitializedPublisher implements BeanPostProcessor {
 		if (bean instanceof JpaProperties) {
 			this.properties = (JpaProperties) bean;
 		}
-		if (bean instanceof EntityManagerFactory) {
+		if (bean instanceof AbstractEntityManagerFactoryBean
+				&& ((AbstractEntityManagerFactoryBean) bean)
+						.getBootstrapExecutor() != null) {
+			this.backgroundBootstrapped.put(beanName,
+					(AbstractEntityManagerFactoryBean) bean);
+		}
+		if (bean instanceof EntityManagerFactory
+				&& !this.backgroundBootstrapped.containsKey(beanName)) {
 			publishEventIfRequired((EntityManagerFactory) bean);
 		}
 		return bean;
 	}
 
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (AbstractEntityManagerFactoryBean factoryBean : this.backgroundBootstrapped
+				.values()) {
+			// Blocks until the background bootstrap has completed
+			publishEventIfRequired(factoryBean.getNativeEntityManagerFactory());
+		}
+	}
+
 	private void publishEventIfRequired(EntityManagerFactory entityManagerFactory) {
 		DataSource dataSource = findDataSource(entityManagerFactory);
 		if (dataSource != null && isInitializingDatabase(dataSource)) {
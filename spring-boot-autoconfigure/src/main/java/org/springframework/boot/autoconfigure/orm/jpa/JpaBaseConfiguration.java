@@ -42,6 +42,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -118,6 +119,10 @@ public abstract class JpaBaseConfiguration implements BeanFactoryAware {
 				jpaVendorAdapter, this.properties.getProperties(),
 				persistenceUnitManager.getIfAvailable());
 		builder.setCallback(getVendorCallback());
+		if (this.properties.getBootstrapMode() == BootstrapMode.BACKGROUND) {
+			builder.setBootstrapExecutor(
+					new SimpleAsyncTaskExecutor("jpa-bootstrap-"));
+		}
 		return builder;
 	}
 
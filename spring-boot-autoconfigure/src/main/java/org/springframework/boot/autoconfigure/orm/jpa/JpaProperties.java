@@ -66,6 +66,13 @@ public class JpaProperties {
 	 */
 	private boolean showSql = false;
 
+	/**
+	 * Mode used to bootstrap the EntityManagerFactory. When set to "background", the
+	 * EntityManagerFactory is built on a separate thread whilst the rest of the
+	 * application context is refreshed.
+	 */
+	private BootstrapMode bootstrapMode = BootstrapMode.DEFAULT;
+
 	private Hibernate hibernate = new Hibernate();
 
 	public Map<String, String> getProperties() {
@@ -108,6 +115,14 @@ public class JpaProperties {
 		this.showSql = showSql;
 	}
 
+	public BootstrapMode getBootstrapMode() {
+		return this.bootstrapMode;
+	}
+
+	public void setBootstrapMode(BootstrapMode bootstrapMode) {
+		this.bootstrapMode = bootstrapMode;
+	}
+
 	public Hibernate getHibernate() {
 		return this.hibernate;
 	}
@@ -346,6 +346,12 @@ public class ServerProperties {
 		 */
 		private File storeDir;
 
+		/**
+		 * Interval in seconds at which modified session data is written to the store
+		 * directory. If 0 or negative, session data is only written on shutdown.
+		 */
+		private int writeBehindInterval;
+
 		private Cookie cookie = new Cookie();
 
 		public Cookie getCookie() {
@@ -384,6 +390,14 @@ public class ServerProperties {
 			this.storeDir = storeDir;
 		}
 
+		public int getWriteBehindInterval() {
+			return this.writeBehindInterval;
+		}
+
+		public void setWriteBehindInterval(int writeBehindInterval) {
+			this.writeBehindInterval = writeBehindInterval;
+		}
+
 		/**
 		 * Cookie properties.
 		 */
@@ -115,6 +115,8 @@ public class DefaultServletWebServerFactoryCustomizer
 		}
 		factory.setPersistSession(this.serverProperties.getSession().isPersistent());
 		factory.setSessionStoreDir(this.serverProperties.getSession().getStoreDir());
+		factory.setSessionWriteBehindInterval(
+				this.serverProperties.getSession().getWriteBehindInterval());
 		if (this.serverProperties.getSsl() != null) {
 			factory.setSsl(this.serverProperties.getSsl());
 		}
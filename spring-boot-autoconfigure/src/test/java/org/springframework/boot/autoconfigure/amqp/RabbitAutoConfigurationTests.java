@@ -45,6 +45,7 @@ import org.springframework.amqp.rabbit.support.ValueExpression;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.boot.messaging.ConcurrencyPolicy;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -293,6 +294,53 @@ public class RabbitAutoConfigurationTests {
 		assertThat(adviceChain).isNull();
 	}
 
+	@Test
+	public void testRabbitListenerConcurrencyManagerNotCreatedByDefault() {
+		load(TestConfiguration.class);
+		assertThat(this.context.getBeansOfType(RabbitListenerConcurrencyManager.class))
+				.isEmpty();
+	}
+
+	@Test
+	public void testRabbitListenerConcurrencyManagerWithCustomSettings() {
+		load(TestConfiguration.class,
+				"spring.rabbitmq.listener.simple.scaling.enabled:true",
+				"spring.rabbitmq.listener.simple.scaling.interval:1000",
+				"spring.rabbitmq.listener.simple.scaling.scaleUpUtilization:0.9",
+				"spring.rabbitmq.listener.simple.scaling.scaleDownUtilization:0.1",
+				"spring.rabbitmq.listener.simple.scaling.idleTimeout:30000",
+				"spring.rabbitmq.listener.simple.scaling.scaleUpCooldown:2000",
+				"spring.rabbitmq.listener.simple.scaling.scaleDownCooldown:20000",
+				"spring.rabbitmq.listener.simple.scaling.queueDepthPerConsumer:50",
+				"spring.rabbitmq.listener.simple.concurrency:2",
+				"spring.rabbitmq.listener.simple.maxConcurrency:6");
+		DirectFieldAccessor manager = new DirectFieldAccessor(
+				this.context.getBean(RabbitListenerConcurrencyManager.class));
+		assertThat(manager.getPropertyValue("amqpAdmin"))
+				.isSameAs(this.context.getBean(AmqpAdmin.class));
+		assertThat(manager.getPropertyValue("minConsumers")).isEqualTo(2);
+		assertThat(manager.getPropertyValue("maxConsumers")).isEqualTo(6);
+		assertThat(manager.getPropertyValue("interval")).isEqualTo(1000L);
+		assertThat(manager.getPropertyValue("scaleUpCooldown")).isEqualTo(2000L);
+		assertThat(manager.getPropertyValue("scaleDownCooldown")).isEqualTo(20000L);
+		DirectFieldAccessor policy = new DirectFieldAccessor(
+				manager.getPropertyValue("policy"));
+		assertThat(policy.getPropertyValue("scaleUpUtilization")).isEqualTo(0.9);
+		assertThat(policy.getPropertyValue("scaleDownUtilization")).isEqualTo(0.1);
+		assertThat(policy.getPropertyValue("idleTimeout")).isEqualTo(30000L);
+		assertThat(policy.getPropertyValue("queueDepthPerConsumer")).isEqualTo(50);
+	}
+
+	@Test
+	public void testRabbitListenerConcurrencyManagerWithCustomPolicy() {
+		load(ConcurrencyPolicyConfiguration.class,
+				"spring.rabbitmq.listener.simple.scaling.enabled:true");
+		assertThat(new DirectFieldAccessor(
+				this.context.getBean(RabbitListenerConcurrencyManager.class))
+						.getPropertyValue("policy")).isSameAs(
+								this.context.getBean(ConcurrencyPolicy.class));
+	}
+
 	@Test
 	public void testSimpleRabbitListenerContainerFactoryWithCustomSettings() {
 		load(new Class<?>[] { MessageConvertersConfiguration.class,
@@ -309,7 +357,11 @@ public class RabbitAutoConfigurationTests {
 				"spring.rabbitmq.listener.simple.prefetch:40",
 				"spring.rabbitmq.listener.simple.defaultRequeueRejected:false",
 				"spring.rabbitmq.listener.simple.idleEventInterval:5",
-				"spring.rabbitmq.listener.simple.transactionSize:20");
+				"spring.rabbitmq.listener.simple.transactionSize:20",
+				"spring.rabbitmq.listener.simple.consecutiveActiveTrigger:3",
+				"spring.rabbitmq.listener.simple.consecutiveIdleTrigger:6",
+				"spring.rabbitmq.listener.simple.startConsumerMinInterval:500",
+				"spring.rabbitmq.listener.simple.stopConsumerMinInterval:30000");
 		SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory = this.context
 				.getBean("rabbitListenerContainerFactory",
 						SimpleRabbitListenerContainerFactory.class);
@@ -317,6 +369,10 @@ public class RabbitAutoConfigurationTests {
 		assertThat(dfa.getPropertyValue("concurrentConsumers")).isEqualTo(5);
 		assertThat(dfa.getPropertyValue("maxConcurrentConsumers")).isEqualTo(10);
 		assertThat(dfa.getPropertyValue("txSize")).isEqualTo(20);
+		assertThat(dfa.getPropertyValue("consecutiveActiveTrigger")).isEqualTo(3);
+		assertThat(dfa.getPropertyValue("consecutiveIdleTrigger")).isEqualTo(6);
+		assertThat(dfa.getPropertyValue("startConsumerMinInterval")).isEqualTo(500L);
+		assertThat(dfa.getPropertyValue("stopConsumerMinInterval")).isEqualTo(30000L);
 		checkCommonProps(dfa);
 	}
 
@@ -589,6 +645,16 @@ public class RabbitAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	protected static class ConcurrencyPolicyConfiguration {
+
+		@Bean
+		public ConcurrencyPolicy concurrencyPolicy() {
+			return (load) -> load.getMaxConsumers();
+		}
+
+	}
+
 	@Configuration
 	@EnableRabbit
 	protected static class EnableRabbitConfiguration {
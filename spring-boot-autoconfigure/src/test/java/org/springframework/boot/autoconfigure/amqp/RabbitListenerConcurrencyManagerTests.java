@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.amqp;
+
+import java.util.Properties;
+
+import com.rabbitmq.client.Channel;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RabbitListenerConcurrencyManager}.
+ *
+ * @author agent (agent@local)
+ */
+public class RabbitListenerConcurrencyManagerTests {
+
+	private final RabbitListenerEndpointRegistry registry = new RabbitListenerEndpointRegistry();
+
+	private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+
+	private RabbitListenerConcurrencyManager manager = new RabbitListenerConcurrencyManager(
+			this.registry, this.amqpAdmin, (load) -> load.getMaxConsumers());
+
+	@After
+	public void stop() {
+		this.manager.stop();
+	}
+
+	@Test
+	public void containerWithFixedConcurrencyIsNotScaled() {
+		register("test", "2-5", mock(MessageListener.class));
+		this.manager.start();
+		assertThat(this.manager.getScalers()).isEmpty();
+		assertThat(this.manager.isRunning()).isFalse();
+	}
+
+	@Test
+	public void containerIsResetToMinimumConsumers() {
+		this.manager.setMinConsumers(2);
+		this.manager.setMaxConsumers(5);
+		SimpleMessageListenerContainer container = register("test", "3-4",
+				mock(MessageListener.class));
+		this.manager.start();
+		assertThat(this.manager.getScalers()).containsOnlyKeys("test");
+		assertThat(this.manager.isRunning()).isTrue();
+		ListenerConcurrencyScaler scaler = this.manager.getScalers().get("test");
+		assertThat(scaler.getConsumers()).isEqualTo(2);
+		DirectFieldAccessor accessor = new DirectFieldAccessor(container);
+		assertThat(accessor.getPropertyValue("concurrentConsumers")).isEqualTo(2);
+		assertThat(accessor.getPropertyValue("maxConcurrentConsumers")).isEqualTo(2);
+	}
+
+	@Test
+	public void queueDepthIsReadWithAmqpAdmin() {
+		this.manager.setMaxConsumers(4);
+		register("test", "1", mock(MessageListener.class));
+		Properties properties = new Properties();
+		properties.put(RabbitAdmin.QUEUE_MESSAGE_COUNT, 7);
+		given(this.amqpAdmin.getQueueProperties("test.queue")).willReturn(properties);
+		this.manager.start();
+		ListenerConcurrencyScaler scaler = this.manager.getScalers().get("test");
+		scaler.evaluate();
+		assertThat(scaler.getLastLoad().getQueueDepth()).isEqualTo(7);
+	}
+
+	@Test
+	public void queueDepthIsUnknownWithoutAmqpAdmin() {
+		this.manager = new RabbitListenerConcurrencyManager(this.registry, null,
+				(load) -> load.getMaxConsumers());
+		this.manager.setMaxConsumers(4);
+		register("test", "1", mock(MessageListener.class));
+		this.manager.start();
+		ListenerConcurrencyScaler scaler = this.manager.getScalers().get("test");
+		scaler.evaluate();
+		assertThat(scaler.getLastLoad().getQueueDepth()).isEqualTo(-1);
+	}
+
+	@Test
+	public void messageListenerRecordsMessages() throws Exception {
+		this.manager.setMaxConsumers(4);
+		MessageListener listener = mock(MessageListener.class);
+		SimpleMessageListenerContainer container = register("test", "1-4", listener);
+		this.manager.start();
+		Message message = new Message(new byte[0], new MessageProperties());
+		((MessageListener) container.getMessageListener()).onMessage(message);
+		verify(listener).onMessage(message);
+		ListenerConcurrencyScaler scaler = this.manager.getScalers().get("test");
+		scaler.evaluate();
+		assertThat(scaler.getLastLoad().getMessageCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void channelAwareMessageListenerRecordsMessages() throws Exception {
+		this.manager.setMaxConsumers(4);
+		ChannelAwareMessageListener listener = mock(ChannelAwareMessageListener.class);
+		SimpleMessageListenerContainer container = register("test", "1-4", listener);
+		this.manager.start();
+		Message message = new Message(new byte[0], new MessageProperties());
+		Channel channel = mock(Channel.class);
+		((ChannelAwareMessageListener) container.getMessageListener())
+				.onMessage(message, channel);
+		verify(listener).onMessage(same(message), any(Channel.class));
+		ListenerConcurrencyScaler scaler = this.manager.getScalers().get("test");
+		scaler.evaluate();
+		assertThat(scaler.getLastLoad().getMessageCount()).isEqualTo(1);
+	}
+
+	private SimpleMessageListenerContainer register(String id, String concurrency,
+			Object listener) {
+		SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+		factory.setConnectionFactory(mock(ConnectionFactory.class));
+		SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+		endpoint.setId(id);
+		endpoint.setQueueNames("test.queue");
+		endpoint.setConcurrency(concurrency);
+		endpoint.setMessageListener((message) -> {
+		});
+		this.registry.registerListenerContainer(endpoint, factory);
+		SimpleMessageListenerContainer container = (SimpleMessageListenerContainer) this.registry
+				.getListenerContainer(id);
+		if (listener instanceof ChannelAwareMessageListener) {
+			container.setChannelAwareMessageListener(
+					(ChannelAwareMessageListener) listener);
+		}
+		else {
+			container.setMessageListener((MessageListener) listener);
+		}
+		return container;
+	}
+
+}
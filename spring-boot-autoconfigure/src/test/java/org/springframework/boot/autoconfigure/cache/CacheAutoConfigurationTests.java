@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.cache.Caching;
 import javax.cache.configuration.CompleteConfiguration;
@@ -54,7 +55,9 @@ import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.autoconfigure.cache.support.MockCachingProvider;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.boot.autoconfigure.hazelcast.HazelcastAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.ApplicationContextTester;
 import org.springframework.boot.test.context.AssertableApplicationContext;
 import org.springframework.boot.test.context.ContextConsumer;
@@ -81,6 +84,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
@@ -324,6 +328,79 @@ public class CacheAutoConfigurationTests {
 				});
 	}
 
+	@Test
+	public void nearCacheExplicit() {
+		this.context.withUserConfiguration(RedisCacheConfiguration.class)
+				.withPropertyValues("spring.cache.type=near",
+						"spring.cache.cacheNames[0]=foo",
+						"spring.cache.cacheNames[1]=bar",
+						"spring.cache.near.maximum-size=100",
+						"spring.cache.near.invalidation=none")
+				.run((loaded) -> {
+					NearCacheManager cacheManager = getCacheManager(loaded,
+							NearCacheManager.class);
+					assertThat(cacheManager.getCacheNames()).containsOnly("foo", "bar");
+					Cache cache = cacheManager.getCache("foo");
+					assertThat(cache).isInstanceOf(NearCache.class);
+					assertThat(((NearCache) cache).getLocalCache().policy().eviction()
+							.get().getMaximum()).isEqualTo(100);
+					assertThat(((NearCache) cache).getLocalCache().policy()
+							.expireAfterWrite().get().getExpiresAfter(TimeUnit.MINUTES))
+									.isEqualTo(10);
+					assertThat(new DirectFieldAccessor(cacheManager)
+							.getPropertyValue("invalidationChannel")).isNull();
+					assertThat(loaded)
+							.doesNotHaveBean(RedisMessageListenerContainer.class);
+				});
+	}
+
+	@Test
+	public void nearCacheWithKeyspaceInvalidation() {
+		this.context
+				.withUserConfiguration(RedisCacheConfiguration.class,
+						RedisPropertiesConfiguration.class)
+				.withPropertyValues("spring.cache.type=near",
+						"spring.cache.cacheNames[0]=foo",
+						"spring.cache.near.invalidation=keyspace",
+						"spring.redis.database=3")
+				.run((loaded) -> {
+					NearCacheManager cacheManager = getCacheManager(loaded,
+							NearCacheManager.class);
+					assertThat(new DirectFieldAccessor(cacheManager)
+							.getPropertyValue("invalidationChannel")).isNull();
+					assertThat(new DirectFieldAccessor(cacheManager)
+							.getPropertyValue("keyspaceDatabase")).isEqualTo(3);
+					assertThat(new DirectFieldAccessor(cacheManager)
+							.getPropertyValue("keyspaceListenerContainer"))
+									.isSameAs(loaded.getBean(
+											RedisMessageListenerContainer.class));
+				});
+	}
+
+	@Test
+	public void nearCacheWithPubSubInvalidation() {
+		this.context.withUserConfiguration(RedisCacheConfiguration.class)
+				.withPropertyValues("spring.cache.type=near",
+						"spring.cache.near.channel=test")
+				.run((loaded) -> {
+					NearCacheManager cacheManager = getCacheManager(loaded,
+							NearCacheManager.class);
+					assertThat((byte[]) new DirectFieldAccessor(cacheManager)
+							.getPropertyValue("invalidationChannel"))
+									.isEqualTo("test".getBytes());
+					assertThat(loaded)
+							.hasSingleBean(RedisMessageListenerContainer.class);
+				});
+	}
+
+	@Test
+	public void nearCacheWithCustomizers() {
+		this.context.withUserConfiguration(RedisCacheAndCustomizersConfiguration.class)
+				.withPropertyValues("spring.cache.type=near",
+						"spring.cache.near.invalidation=none")
+				.run(dunno("allCacheManagerCustomizer", "redisCacheManagerCustomizer"));
+	}
+
 	@Test
 	public void noOpCacheExplicit() {
 		this.context.withUserConfiguration(DefaultCacheConfiguration.class)
@@ -928,6 +1005,12 @@ public class CacheAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	@EnableConfigurationProperties(RedisProperties.class)
+	static class RedisPropertiesConfiguration {
+
+	}
+
 	@Configuration
 	@Import({ RedisCacheConfiguration.class, CacheManagerCustomizersConfiguration.class })
 	static class RedisCacheAndCustomizersConfiguration {
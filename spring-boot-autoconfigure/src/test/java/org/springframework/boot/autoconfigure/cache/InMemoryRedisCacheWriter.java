@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * In-memory {@link RedisCacheWriter} that stands in for a Redis server in tests.
+ *
+ * @author agent (agent@local)
+ */
+class InMemoryRedisCacheWriter implements RedisCacheWriter {
+
+	private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+	private final AtomicInteger getCount = new AtomicInteger();
+
+	private Runnable getListener;
+
+	@Override
+	public void put(String name, byte[] key, byte[] value, Duration ttl) {
+		this.values.put(toString(key), value);
+	}
+
+	@Override
+	public byte[] get(String name, byte[] key) {
+		this.getCount.incrementAndGet();
+		byte[] value = this.values.get(toString(key));
+		if (this.getListener != null) {
+			this.getListener.run();
+		}
+		return value;
+	}
+
+	@Override
+	public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+		return this.values.putIfAbsent(toString(key), value);
+	}
+
+	@Override
+	public void remove(String name, byte[] key) {
+		this.values.remove(toString(key));
+	}
+
+	@Override
+	public void clean(String name, byte[] pattern) {
+		String prefix = toString(pattern);
+		prefix = prefix.substring(0, prefix.length() - 1);
+		for (String key : this.values.keySet()) {
+			if (key.startsWith(prefix)) {
+				this.values.remove(key);
+			}
+		}
+	}
+
+	void setGetListener(Runnable getListener) {
+		this.getListener = getListener;
+	}
+
+	int getGetCount() {
+		return this.getCount.get();
+	}
+
+	private String toString(byte[] bytes) {
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.cache;
+
+import java.nio.charset.StandardCharsets;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link NearCacheManager}.
+ *
+ * @author agent (agent@local)
+ */
+public class NearCacheManagerTests {
+
+	private final RedisConnectionFactory connectionFactory = mock(
+			RedisConnectionFactory.class);
+
+	private final RedisConnection connection = mock(RedisConnection.class);
+
+	private final InMemoryRedisCacheWriter cacheWriter = new InMemoryRedisCacheWriter();
+
+	private NearCacheManager cacheManager;
+
+	@Before
+	public void setup() {
+		given(this.connectionFactory.getConnection()).willReturn(this.connection);
+		this.cacheManager = new NearCacheManager(this.connectionFactory,
+				this.cacheWriter, RedisCacheConfiguration.defaultCacheConfig(),
+				Caffeine.newBuilder(), "foo", "bar");
+		this.cacheManager.afterPropertiesSet();
+	}
+
+	@Test
+	public void initialCachesAreNearCaches() {
+		assertThat(this.cacheManager.getCacheNames()).containsOnly("foo", "bar");
+		assertThat(this.cacheManager.getCache("foo")).isInstanceOf(NearCache.class);
+		assertThat(this.cacheManager.getCache("other")).isInstanceOf(NearCache.class);
+	}
+
+	@Test
+	public void invalidationsAreNotPublishedByDefault() {
+		this.cacheManager.getCache("foo").put("spring", "boot");
+		verify(this.connectionFactory, never()).getConnection();
+	}
+
+	@Test
+	public void putPublishesEvict() {
+		this.cacheManager.setInvalidationChannel("test");
+		this.cacheManager.getCache("foo").put("spring", "boot");
+		String message = getPublishedMessage();
+		assertThat(message).endsWith(":E:foo::spring");
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void clearPublishesClear() {
+		this.cacheManager.setInvalidationChannel("test");
+		this.cacheManager.getCache("foo").clear();
+		assertThat(getPublishedMessage()).endsWith(":C:foo");
+	}
+
+	@Test
+	public void evictMessageFromOtherNodeEvictsLocalEntry() {
+		NearCache cache = (NearCache) this.cacheManager.getCache("foo");
+		cache.put("spring", "boot");
+		this.cacheManager.onMessage(message("test", "other:E:foo::spring"), null);
+		assertThat(cache.getLocalCache().getIfPresent("foo::spring")).isNull();
+		assertThat(cache.get("spring").get()).isEqualTo("boot");
+	}
+
+	@Test
+	public void clearMessageFromOtherNodeClearsLocalEntries() {
+		NearCache cache = (NearCache) this.cacheManager.getCache("foo");
+		cache.put("spring", "boot");
+		this.cacheManager.onMessage(message("test", "other:C:foo"), null);
+		assertThat(cache.getLocalCache().estimatedSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void messageFromCurrentNodeIsIgnored() {
+		this.cacheManager.setInvalidationChannel("test");
+		NearCache cache = (NearCache) this.cacheManager.getCache("foo");
+		cache.put("spring", "boot");
+		this.cacheManager.onMessage(message("test", getPublishedMessage()), null);
+		assertThat(cache.getLocalCache().getIfPresent("foo::spring")).isNotNull();
+	}
+
+	@Test
+	public void keyspaceNotificationEvictsLocalEntry() {
+		NearCache cache = (NearCache) this.cacheManager.getCache("foo");
+		cache.put("spring", "boot");
+		this.cacheManager.onMessage(message("__keyspace@0__:foo::spring", "set"), null);
+		assertThat(cache.getLocalCache().getIfPresent("foo::spring")).isNull();
+	}
+
+	@Test
+	public void keyspaceNotificationsAreSubscribedForCacheKeysOnly() {
+		RedisMessageListenerContainer container = mock(
+				RedisMessageListenerContainer.class);
+		this.cacheManager.listenToKeyspaceNotifications(container, 3);
+		this.cacheManager.getCache("baz*");
+		ArgumentCaptor<Topic> captor = ArgumentCaptor.forClass(Topic.class);
+		verify(container, times(3)).addMessageListener(eq(this.cacheManager),
+				captor.capture());
+		assertThat(captor.getAllValues()).extracting(Topic::getTopic).containsOnly(
+				"__keyspace@3__:foo::*", "__keyspace@3__:bar::*",
+				"__keyspace@3__:baz\\*::*");
+	}
+
+	private String getPublishedMessage() {
+		ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+		verify(this.connection).publish(any(byte[].class), captor.capture());
+		return new String(captor.getValue(), StandardCharsets.UTF_8);
+	}
+
+	private DefaultMessage message(String channel, String body) {
+		return new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
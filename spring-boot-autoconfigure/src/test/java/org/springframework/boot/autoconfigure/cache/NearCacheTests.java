@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link NearCache}.
+ *
+ * @author agent (agent@local)
+ */
+public class NearCacheTests {
+
+	private InMemoryRedisCacheWriter cacheWriter;
+
+	private NearCacheManager cacheManager;
+
+	private NearCache cache;
+
+	@Before
+	public void setup() {
+		this.cacheWriter = new InMemoryRedisCacheWriter();
+		this.cacheManager = createCacheManager(this.cacheWriter);
+		this.cache = (NearCache) this.cacheManager.getCache("test");
+	}
+
+	@Test
+	public void getReadsRemoteOnce() {
+		this.cache.put("spring", "boot");
+		NearCache other = (NearCache) createCacheManager(this.cacheWriter)
+				.getCache("test");
+		assertThat(other.get("spring").get()).isEqualTo("boot");
+		assertThat(other.get("spring").get()).isEqualTo("boot");
+		assertThat(this.cacheWriter.getGetCount()).isEqualTo(1);
+		assertThat(other.getLocalMissCount()).isEqualTo(1);
+		assertThat(other.getLocalHitCount()).isEqualTo(1);
+		assertThat(other.getRemoteHitCount()).isEqualTo(1);
+		assertThat(other.getRemoteMissCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void putWritesThrough() {
+		this.cache.put("spring", "boot");
+		assertThat(this.cache.get("spring").get()).isEqualTo("boot");
+		assertThat(this.cacheWriter.getGetCount()).isEqualTo(0);
+		NearCache other = (NearCache) createCacheManager(this.cacheWriter)
+				.getCache("test");
+		assertThat(other.get("spring").get()).isEqualTo("boot");
+	}
+
+	@Test
+	public void nullValue() {
+		this.cache.put("spring", null);
+		ValueWrapper wrapper = this.cache.get("spring");
+		assertThat(wrapper).isNotNull();
+		assertThat(wrapper.get()).isNull();
+		assertThat(this.cacheWriter.getGetCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void missIsNotCachedLocally() {
+		assertThat(this.cache.get("spring")).isNull();
+		assertThat(this.cache.get("spring")).isNull();
+		assertThat(this.cacheWriter.getGetCount()).isEqualTo(2);
+		assertThat(this.cache.getRemoteMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void invalidationDuringRemoteReadIsNotLost() {
+		this.cache.put("spring", "boot");
+		NearCache other = (NearCache) createCacheManager(this.cacheWriter)
+				.getCache("test");
+		this.cacheWriter.setGetListener(() -> other.evictLocal("test::spring"));
+		assertThat(other.get("spring").get()).isEqualTo("boot");
+		assertThat(other.getLocalCache().getIfPresent("test::spring")).isNull();
+		this.cacheWriter.setGetListener(null);
+		assertThat(other.get("spring").get()).isEqualTo("boot");
+		assertThat(other.getLocalCache().getIfPresent("test::spring")).isNotNull();
+	}
+
+	@Test
+	public void clearDuringRemoteReadIsNotLost() {
+		this.cache.put("spring", "boot");
+		NearCache other = (NearCache) createCacheManager(this.cacheWriter)
+				.getCache("test");
+		this.cacheWriter.setGetListener(other::clearLocal);
+		assertThat(other.get("spring").get()).isEqualTo("boot");
+		assertThat(other.getLocalCache().estimatedSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void getWithValueLoader() {
+		assertThat(this.cache.get("spring", () -> "boot")).isEqualTo("boot");
+		assertThat(this.cache.get("spring", () -> "framework")).isEqualTo("boot");
+		assertThat(this.cacheWriter.getGetCount()).isEqualTo(1);
+		assertThat(this.cache.getLocalHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void putIfAbsent() {
+		this.cache.put("spring", "boot");
+		assertThat(this.cache.putIfAbsent("spring", "framework").get()).isEqualTo("boot");
+		assertThat(this.cache.get("spring").get()).isEqualTo("boot");
+		assertThat(this.cache.putIfAbsent("test", "value")).isNull();
+		assertThat(this.cache.get("test").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void evict() {
+		this.cache.put("spring", "boot");
+		this.cache.evict("spring");
+		assertThat(this.cache.get("spring")).isNull();
+		assertThat(this.cache.getLocalCache().estimatedSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void clear() {
+		this.cache.put("spring", "boot");
+		this.cache.put("test", "value");
+		this.cache.clear();
+		assertThat(this.cache.get("spring")).isNull();
+		assertThat(this.cache.get("test")).isNull();
+	}
+
+	private NearCacheManager createCacheManager(InMemoryRedisCacheWriter cacheWriter) {
+		NearCacheManager cacheManager = new NearCacheManager(
+				mock(RedisConnectionFactory.class), cacheWriter,
+				RedisCacheConfiguration.defaultCacheConfig(), Caffeine.newBuilder());
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.jdbc;
+
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
+
+import org.springframework.boot.autoconfigure.jdbc.BatchingScriptDatabasePopulator.StatementReader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptParseException;
+import org.springframework.jdbc.datasource.init.ScriptStatementFailedException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link BatchingScriptDatabasePopulator}.
+ *
+ * @author agent (agent@local)
+ */
+public class BatchingScriptDatabasePopulatorTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final BatchingScriptDatabasePopulator populator = new BatchingScriptDatabasePopulator();
+
+	private Connection connection;
+
+	private Statement statement;
+
+	@Before
+	public void setup() throws SQLException {
+		this.connection = mock(Connection.class);
+		this.statement = mock(Statement.class);
+		given(this.connection.createStatement()).willReturn(this.statement);
+		given(this.connection.getAutoCommit()).willReturn(true);
+	}
+
+	@Test
+	public void readStatements() throws Exception {
+		assertThat(readStatements("CREATE TABLE FOO (id INTEGER);\n"
+				+ "-- A comment; with a separator\n"
+				+ "INSERT INTO FOO VALUES (1, 'a;b');\n"
+				+ "/* A block; comment */ INSERT INTO FOO VALUES (2, \"c\");\n"
+				+ ";\n" + "INSERT INTO FOO VALUES (3, 'd')")).containsExactly(
+						"CREATE TABLE FOO (id INTEGER)",
+						"INSERT INTO FOO VALUES (1, 'a;b')",
+						"INSERT INTO FOO VALUES (2, \"c\")",
+						"INSERT INTO FOO VALUES (3, 'd')");
+	}
+
+	@Test
+	public void readStatementsWithCustomSeparator() throws Exception {
+		assertThat(readStatements("SELECT 1 GO\nSELECT 2 GO", " GO"))
+				.containsExactly("SELECT 1", "SELECT 2");
+	}
+
+	@Test
+	public void readStatementsWithEscapedQuote() throws Exception {
+		assertThat(readStatements("INSERT INTO FOO VALUES ('a\\';b');SELECT 1"))
+				.containsExactly("INSERT INTO FOO VALUES ('a\\';b')", "SELECT 1");
+	}
+
+	@Test
+	public void readStatementsWithoutSeparatorUsesLines() throws Exception {
+		assertThat(readStatements("SELECT 1\nSELECT 2\n")).containsExactly("SELECT 1",
+				"SELECT 2");
+	}
+
+	@Test
+	public void readStatementsWithEndOfScriptSeparator() throws Exception {
+		assertThat(readStatements("SELECT 1\nSELECT 2\n",
+				ScriptUtils.EOF_STATEMENT_SEPARATOR))
+						.containsExactly("SELECT 1 SELECT 2");
+	}
+
+	@Test
+	public void readStatementsWithUnterminatedBlockComment() throws Exception {
+		this.thrown.expect(ScriptParseException.class);
+		this.thrown.expectMessage("Missing block comment end delimiter");
+		readStatements("SELECT 1; /* comment");
+	}
+
+	@Test
+	public void readStatementsMatchesScriptUtils() throws Exception {
+		assertMatchesScriptUtils("CREATE TABLE FOO (id INTEGER);\n"
+				+ "-- A comment; with a separator\n"
+				+ "INSERT INTO FOO VALUES (1, 'a;b'); -- trailing comment\n"
+				+ "/* A block; comment */ INSERT INTO FOO VALUES (2, \"c;d\");\n"
+				+ "\n\n;\t INSERT INTO FOO\r\n  VALUES (3, 'it''s', 'e\\'f')", ";");
+		assertMatchesScriptUtils("\n\nSELECT 'a;b'\n-- comment\n  SELECT 2\n", ";");
+		assertMatchesScriptUtils("SELECT 1 GO\nSELECT 2 GO\n\nSELECT 3", "GO");
+		assertMatchesScriptUtils("SELECT 1;\nSELECT 2;", ";\n");
+		assertMatchesScriptUtils("SELECT 1 /*/ still a comment */ ; SELECT 2 -- end",
+				";");
+		assertMatchesScriptUtils("SELECT 1;\nSELECT 2",
+				ScriptUtils.EOF_STATEMENT_SEPARATOR);
+	}
+
+	@Test
+	public void failedBatchReportsFailedStatementWhenDriverStops() throws Exception {
+		this.populator.setBatchSize(10);
+		this.populator.addScript(script("CREATE TABLE FOO (id INTEGER);"
+				+ "INSERT INTO FOO VALUES (1);INSERT INTO FOO VALUES (2);"
+				+ "INSERT INTO FOO VALUES (3);"));
+		willThrow(new BatchUpdateException("Failed", new int[] { 1 }))
+				.given(this.statement).executeBatch();
+		this.thrown.expect(ScriptStatementFailedException.class);
+		this.thrown.expectMessage("statement #3");
+		this.thrown.expectMessage("INSERT INTO FOO VALUES (2)");
+		this.populator.populate(this.connection);
+	}
+
+	@Test
+	public void failedBatchReportsFailedStatementWhenDriverContinues()
+			throws Exception {
+		this.populator.setBatchSize(10);
+		this.populator.addScript(script("INSERT INTO FOO VALUES (1);"
+				+ "INSERT INTO FOO VALUES (2);INSERT INTO FOO VALUES (3);"));
+		willThrow(new BatchUpdateException("Failed",
+				new int[] { 1, 1, Statement.EXECUTE_FAILED })).given(this.statement)
+						.executeBatch();
+		this.thrown.expect(ScriptStatementFailedException.class);
+		this.thrown.expectMessage("statement #3");
+		this.thrown.expectMessage("INSERT INTO FOO VALUES (3)");
+		this.populator.populate(this.connection);
+	}
+
+	@Test
+	public void consecutiveInsertsAreBatched() throws Exception {
+		this.populator.setBatchSize(2);
+		this.populator.addScript(script("CREATE TABLE FOO (id INTEGER);"
+				+ "INSERT INTO FOO VALUES (1);INSERT INTO FOO VALUES (2);"
+				+ "INSERT INTO FOO VALUES (3);UPDATE FOO SET id = 4 WHERE id = 3;"));
+		this.populator.populate(this.connection);
+		InOrder ordered = inOrder(this.statement);
+		ordered.verify(this.statement).execute("CREATE TABLE FOO (id INTEGER)");
+		ordered.verify(this.statement).addBatch("INSERT INTO FOO VALUES (1)");
+		ordered.verify(this.statement).addBatch("INSERT INTO FOO VALUES (2)");
+		ordered.verify(this.statement).executeBatch();
+		ordered.verify(this.statement).addBatch("INSERT INTO FOO VALUES (3)");
+		ordered.verify(this.statement).executeBatch();
+		ordered.verify(this.statement).execute("UPDATE FOO SET id = 4 WHERE id = 3");
+		verify(this.statement, never()).execute("INSERT INTO FOO VALUES (1)");
+	}
+
+	@Test
+	public void statementsAreCommittedAtInterval() throws Exception {
+		this.populator.setCommitInterval(2);
+		this.populator.addScript(script("INSERT INTO FOO VALUES (1);"
+				+ "INSERT INTO FOO VALUES (2);INSERT INTO FOO VALUES (3);"));
+		this.populator.populate(this.connection);
+		verify(this.connection).setAutoCommit(false);
+		verify(this.connection, times(2)).commit();
+		verify(this.connection).setAutoCommit(true);
+	}
+
+	@Test
+	public void failedBatchThrowsException() throws Exception {
+		this.populator.setBatchSize(10);
+		this.populator.addScript(script("INSERT INTO FOO VALUES (1);"
+				+ "INSERT INTO FOO VALUES (2);"));
+		willThrow(new SQLException("Failed")).given(this.statement).executeBatch();
+		this.thrown.expect(ScriptStatementFailedException.class);
+		this.thrown.expectMessage("INSERT INTO FOO VALUES (1)");
+		this.populator.populate(this.connection);
+	}
+
+	@Test
+	public void continueOnErrorDoesNotBatch() throws Exception {
+		this.populator.setBatchSize(10);
+		this.populator.setContinueOnError(true);
+		this.populator.addScript(script("INSERT INTO FOO VALUES (1);"
+				+ "INSERT INTO FOO VALUES (2);"));
+		given(this.statement.execute(anyString()))
+				.willThrow(new SQLException("Failed"));
+		this.populator.populate(this.connection);
+		verify(this.statement, times(2)).execute(anyString());
+		verify(this.statement, never()).addBatch(anyString());
+	}
+
+	private ByteArrayResource script(String content) {
+		return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<String> readStatements(String script) throws Exception {
+		return readStatements(script, ";");
+	}
+
+	private void assertMatchesScriptUtils(String script, String separator)
+			throws Exception {
+		EncodedResource resource = new EncodedResource(script(script));
+		String content = ScriptUtils.readScript(
+				new LineNumberReader(new StringReader(script)),
+				ScriptUtils.DEFAULT_COMMENT_PREFIX, separator);
+		String effectiveSeparator = separator;
+		if (!ScriptUtils.EOF_STATEMENT_SEPARATOR.equals(separator)
+				&& !ScriptUtils.containsSqlScriptDelimiters(content, separator)) {
+			effectiveSeparator = ScriptUtils.FALLBACK_STATEMENT_SEPARATOR;
+		}
+		List<String> expected = new ArrayList<>();
+		ScriptUtils.splitSqlScript(resource, content, effectiveSeparator,
+				ScriptUtils.DEFAULT_COMMENT_PREFIX,
+				ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+				ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER, expected);
+		assertThat(readStatements(script, separator)).isEqualTo(expected);
+	}
+
+	private List<String> readStatements(String script, String separator)
+			throws Exception {
+		List<String> statements = new ArrayList<>();
+		try (StatementReader reader = new StatementReader(
+				new EncodedResource(script(script)), separator)) {
+			String sql = reader.next();
+			while (sql != null) {
+				statements.add(sql);
+				sql = reader.next();
+			}
+		}
+		return statements;
+	}
+
+}
@@ -189,6 +189,56 @@ public class DataSourceInitializerTests {
 						.isEqualTo("ばー");
 	}
 
+	@Test
+	public void testDataSourceInitializedWithBatchedScripts() throws Exception {
+		this.context.register(DataSourceAutoConfiguration.class,
+				PropertyPlaceholderAutoConfiguration.class);
+		TestPropertyValues.of("spring.datasource.initialize:true",
+				"spring.datasource.sqlScriptEncoding:UTF-8",
+				"spring.datasource.script-batch-size:10",
+				"spring.datasource.script-commit-interval:1",
+				"spring.datasource.schema:" + ClassUtils
+						.addResourcePathToPackagePath(getClass(), "encoding-schema.sql"),
+				"spring.datasource.data:" + ClassUtils
+						.addResourcePathToPackagePath(getClass(), "encoding-data.sql"))
+				.applyTo(this.context);
+		this.context.refresh();
+		JdbcOperations template = new JdbcTemplate(
+				this.context.getBean(DataSource.class));
+		assertThat(template.queryForObject("SELECT COUNT(*) from BAR", Integer.class))
+				.isEqualTo(2);
+		assertThat(
+				template.queryForObject("SELECT name from BAR WHERE id=2", String.class))
+						.isEqualTo("ばー");
+	}
+
+	@Test
+	public void testDataSourceInitializedWithParallelDataScripts() throws Exception {
+		this.context.register(DataSourceAutoConfiguration.class,
+				PropertyPlaceholderAutoConfiguration.class);
+		TestPropertyValues.of("spring.datasource.initialize:true",
+				"spring.datasource.sqlScriptEncoding:UTF-8",
+				"spring.datasource.parallel-data:true",
+				"spring.datasource.schema:"
+						+ ClassUtils.addResourcePathToPackagePath(getClass(),
+								"schema.sql")
+						+ ","
+						+ ClassUtils.addResourcePathToPackagePath(getClass(),
+								"encoding-schema.sql"),
+				"spring.datasource.data:"
+						+ ClassUtils.addResourcePathToPackagePath(getClass(), "data.sql")
+						+ "," + ClassUtils.addResourcePathToPackagePath(getClass(),
+								"encoding-data.sql"))
+				.applyTo(this.context);
+		this.context.refresh();
+		JdbcOperations template = new JdbcTemplate(
+				this.context.getBean(DataSource.class));
+		assertThat(template.queryForObject("SELECT COUNT(*) from FOO", Integer.class))
+				.isEqualTo(1);
+		assertThat(template.queryForObject("SELECT COUNT(*) from BAR", Integer.class))
+				.isEqualTo(2);
+	}
+
 	@Test
 	public void testInitializationDisabled() throws Exception {
 		this.context.register(DataSourceAutoConfiguration.class,
@@ -28,6 +28,7 @@ import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQAutoConfiguration;
+import org.springframework.boot.messaging.ConcurrencyPolicy;
 import org.springframework.boot.test.context.ApplicationContextTester;
 import org.springframework.boot.test.context.AssertableApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -153,7 +154,9 @@ public class JmsAutoConfigurationTests {
 				.withPropertyValues("spring.jms.listener.autoStartup=false",
 						"spring.jms.listener.acknowledgeMode=client",
 						"spring.jms.listener.concurrency=2",
-						"spring.jms.listener.maxConcurrency=10")
+						"spring.jms.listener.maxConcurrency=10",
+						"spring.jms.listener.maxMessagesPerTask=50",
+						"spring.jms.listener.receiveTimeout=2000")
 				.run(this::testJmsListenerContainerFactoryWithCustomSettings);
 	}
 
@@ -166,6 +169,57 @@ public class JmsAutoConfigurationTests {
 				.isEqualTo(Session.CLIENT_ACKNOWLEDGE);
 		assertThat(container.getConcurrentConsumers()).isEqualTo(2);
 		assertThat(container.getMaxConcurrentConsumers());
+		assertThat(container.getMaxMessagesPerTask()).isEqualTo(50);
+		assertThat(new DirectFieldAccessor(container).getPropertyValue("receiveTimeout"))
+				.isEqualTo(2000L);
+	}
+
+	@Test
+	public void testJmsListenerConcurrencyManagerNotCreatedByDefault() {
+		this.context.withUserConfiguration(EnableJmsConfiguration.class)
+				.run((loaded) -> assertThat(loaded)
+						.doesNotHaveBean(JmsListenerConcurrencyManager.class));
+	}
+
+	@Test
+	public void testJmsListenerConcurrencyManagerWithCustomSettings() {
+		this.context.withUserConfiguration(EnableJmsConfiguration.class)
+				.withPropertyValues("spring.jms.listener.scaling.enabled=true",
+						"spring.jms.listener.scaling.interval=1000",
+						"spring.jms.listener.scaling.scaleUpUtilization=0.9",
+						"spring.jms.listener.scaling.scaleDownUtilization=0.1",
+						"spring.jms.listener.scaling.idleTimeout=30000",
+						"spring.jms.listener.scaling.scaleUpCooldown=2000",
+						"spring.jms.listener.scaling.scaleDownCooldown=20000")
+				.run((loaded) -> {
+					DirectFieldAccessor manager = new DirectFieldAccessor(
+							loaded.getBean(JmsListenerConcurrencyManager.class));
+					assertThat(manager.getPropertyValue("interval")).isEqualTo(1000L);
+					assertThat(manager.getPropertyValue("scaleUpCooldown"))
+							.isEqualTo(2000L);
+					assertThat(manager.getPropertyValue("scaleDownCooldown"))
+							.isEqualTo(20000L);
+					DirectFieldAccessor policy = new DirectFieldAccessor(
+							manager.getPropertyValue("policy"));
+					assertThat(policy.getPropertyValue("scaleUpUtilization"))
+							.isEqualTo(0.9);
+					assertThat(policy.getPropertyValue("scaleDownUtilization"))
+							.isEqualTo(0.1);
+					assertThat(policy.getPropertyValue("idleTimeout"))
+							.isEqualTo(30000L);
+				});
+	}
+
+	@Test
+	public void testJmsListenerConcurrencyManagerWithCustomPolicy() {
+		this.context
+				.withUserConfiguration(ConcurrencyPolicyConfiguration.class,
+						EnableJmsConfiguration.class)
+				.withPropertyValues("spring.jms.listener.scaling.enabled=true")
+				.run((loaded) -> assertThat(new DirectFieldAccessor(
+						loaded.getBean(JmsListenerConcurrencyManager.class))
+								.getPropertyValue("policy"))
+										.isSameAs(loaded.getBean(ConcurrencyPolicy.class)));
 	}
 
 	@Test
@@ -535,6 +589,16 @@ public class JmsAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	protected static class ConcurrencyPolicyConfiguration {
+
+		@Bean
+		public ConcurrencyPolicy concurrencyPolicy() {
+			return (load) -> load.getMaxConsumers();
+		}
+
+	}
+
 	@Configuration
 	protected static class DestinationResolversConfiguration {
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.jms;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.boot.messaging.ListenerConcurrencyScaler;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.SessionAwareMessageListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link JmsListenerConcurrencyManager}.
+ *
+ * @author agent (agent@local)
+ */
+public class JmsListenerConcurrencyManagerTests {
+
+	private final JmsListenerEndpointRegistry registry = new JmsListenerEndpointRegistry();
+
+	private final JmsListenerConcurrencyManager manager = new JmsListenerConcurrencyManager(
+			this.registry, (load) -> load.getMaxConsumers());
+
+	@After
+	public void stop() {
+		this.manager.stop();
+	}
+
+	@Test
+	public void containerWithFixedConcurrencyIsNotScaled() {
+		DefaultMessageListenerContainer container = register("test", "2-2",
+				mock(MessageListener.class));
+		this.manager.start();
+		assertThat(this.manager.getScalers()).isEmpty();
+		assertThat(container.getMaxMessagesPerTask()).isLessThan(0);
+	}
+
+	@Test
+	public void containerIsResetToMinimumConsumers() {
+		DefaultMessageListenerContainer container = register("test", "2-5",
+				mock(MessageListener.class));
+		this.manager.start();
+		assertThat(this.manager.getScalers()).containsOnlyKeys("test");
+		assertThat(container.getConcurrentConsumers()).isEqualTo(2);
+		assertThat(container.getMaxConcurrentConsumers()).isEqualTo(2);
+		assertThat(container.getMaxMessagesPerTask()).isEqualTo(10);
+	}
+
+	@Test
+	public void messageListenerRecordsMessages() {
+		MessageListener listener = mock(MessageListener.class);
+		DefaultMessageListenerContainer container = register("test", "1-4", listener);
+		this.manager.start();
+		Message message = mock(Message.class);
+		((MessageListener) container.getMessageListener()).onMessage(message);
+		verify(listener).onMessage(message);
+		assertRecordedMessages(1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void sessionAwareMessageListenerRecordsMessages() throws Exception {
+		SessionAwareMessageListener<Message> listener = mock(
+				SessionAwareMessageListener.class);
+		DefaultMessageListenerContainer container = register("test", "1-4", listener);
+		this.manager.start();
+		assertThat(container.getMessageListener())
+				.isInstanceOf(SessionAwareMessageListener.class)
+				.isNotInstanceOf(MessageListener.class);
+		Message message = mock(Message.class);
+		Session session = mock(Session.class);
+		((SessionAwareMessageListener<Message>) container.getMessageListener())
+				.onMessage(message, session);
+		verify(listener).onMessage(message, session);
+		assertRecordedMessages(1);
+	}
+
+	private void assertRecordedMessages(int count) {
+		ListenerConcurrencyScaler scaler = this.manager.getScalers().get("test");
+		scaler.evaluate();
+		assertThat(scaler.getLastLoad().getMessageCount()).isEqualTo(count);
+	}
+
+	private DefaultMessageListenerContainer register(String id, String concurrency,
+			Object listener) {
+		DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+		factory.setConnectionFactory(mock(ConnectionFactory.class));
+		factory.setAutoStartup(false);
+		SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+		endpoint.setId(id);
+		endpoint.setDestination("test.queue");
+		endpoint.setConcurrency(concurrency);
+		endpoint.setMessageListener((message) -> {
+		});
+		this.registry.registerListenerContainer(endpoint, factory);
+		DefaultMessageListenerContainer container = (DefaultMessageListenerContainer) this.registry
+				.getListenerContainer(id);
+		container.setMessageListener(listener);
+		return container;
+	}
+
+}
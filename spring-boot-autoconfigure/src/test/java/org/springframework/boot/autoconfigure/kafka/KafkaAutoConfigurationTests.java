@@ -180,6 +180,7 @@ public class KafkaAutoConfigurationTests {
 				"spring.kafka.listener.ack-time=456",
 				"spring.kafka.listener.concurrency=3",
 				"spring.kafka.listener.poll-timeout=2000",
+				"spring.kafka.listener.idle-event-interval=5000",
 				"spring.kafka.listener.type=batch", "spring.kafka.jaas.enabled=true",
 				"spring.kafka.jaas.login-module=foo",
 				"spring.kafka.jaas.control-flag=REQUISITE",
@@ -203,6 +204,8 @@ public class KafkaAutoConfigurationTests {
 		assertThat(dfa.getPropertyValue("concurrency")).isEqualTo(3);
 		assertThat(dfa.getPropertyValue("containerProperties.pollTimeout"))
 				.isEqualTo(2000L);
+		assertThat(dfa.getPropertyValue("containerProperties.idleEventInterval"))
+				.isEqualTo(5000L);
 		assertThat(dfa.getPropertyValue("batchListener")).isEqualTo(true);
 		assertThat(this.context.getBeansOfType(KafkaJaasLoginModuleInitializer.class))
 				.hasSize(1);
@@ -216,6 +219,35 @@ public class KafkaAutoConfigurationTests {
 				.containsExactly(entry("useKeyTab", "true"));
 	}
 
+	@Test
+	public void batchSizeIsUsedAsMaxPollRecords() {
+		load("spring.kafka.listener.type=batch",
+				"spring.kafka.listener.batch-size=250");
+		DefaultKafkaConsumerFactory<?, ?> consumerFactory = this.context
+				.getBean(DefaultKafkaConsumerFactory.class);
+		assertThat(consumerFactory.getConfigurationProperties()
+				.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)).isEqualTo(250);
+	}
+
+	@Test
+	public void batchSizeDoesNotOverrideMaxPollRecords() {
+		load("spring.kafka.listener.type=batch", "spring.kafka.listener.batch-size=250",
+				"spring.kafka.consumer.max-poll-records=100");
+		DefaultKafkaConsumerFactory<?, ?> consumerFactory = this.context
+				.getBean(DefaultKafkaConsumerFactory.class);
+		assertThat(consumerFactory.getConfigurationProperties()
+				.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)).isEqualTo(100);
+	}
+
+	@Test
+	public void batchSizeIsIgnoredForSingleListener() {
+		load("spring.kafka.listener.batch-size=250");
+		DefaultKafkaConsumerFactory<?, ?> consumerFactory = this.context
+				.getBean(DefaultKafkaConsumerFactory.class);
+		assertThat(consumerFactory.getConfigurationProperties())
+				.doesNotContainKey(ConsumerConfig.MAX_POLL_RECORDS_CONFIG);
+	}
+
 	private void load(String... environment) {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
 		ctx.register(KafkaAutoConfiguration.class);
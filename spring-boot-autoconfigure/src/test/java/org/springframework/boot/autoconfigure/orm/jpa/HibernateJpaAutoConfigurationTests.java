@@ -24,6 +24,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -42,10 +43,12 @@ import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.TestAutoConfigurationPackage;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceInitializedEvent;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.test.City;
 import org.springframework.boot.autoconfigure.transaction.jta.JtaAutoConfiguration;
 import org.springframework.boot.orm.jpa.hibernate.SpringJtaPlatform;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -149,6 +152,49 @@ public class HibernateJpaAutoConfigurationTests
 		assertThat(transactionManager.isRollbackOnCommitFailure()).isTrue();
 	}
 
+	@Test
+	public void defaultBootstrapModeBuildsEntityManagerFactorySynchronously() {
+		load();
+		LocalContainerEntityManagerFactoryBean factoryBean = this.context
+				.getBean(LocalContainerEntityManagerFactoryBean.class);
+		assertThat(factoryBean.getBootstrapExecutor()).isNull();
+	}
+
+	@Test
+	public void backgroundBootstrapMode() {
+		load("spring.jpa.bootstrap-mode:background");
+		LocalContainerEntityManagerFactoryBean factoryBean = this.context
+				.getBean(LocalContainerEntityManagerFactoryBean.class);
+		assertThat(factoryBean.getBootstrapExecutor()).isNotNull();
+		EntityManager entityManager = this.context.getBean(EntityManagerFactory.class)
+				.createEntityManager();
+		try {
+			assertThat(entityManager.getMetamodel().entity(City.class)).isNotNull();
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	@Test
+	public void backgroundBootstrapModeRunsDataScriptOnMainThreadDuringRefresh() {
+		load(new Class<?>[] { DataSourceInitializedListenerConfiguration.class }, null,
+				new HideDataScriptClassLoader(), "spring.jpa.bootstrap-mode:background",
+				"spring.jpa.hibernate.ddl-auto:create-drop",
+				"spring.datasource.data:classpath:/city.sql");
+		DataSourceInitializedListenerConfiguration listener = this.context
+				.getBean(DataSourceInitializedListenerConfiguration.class);
+		assertThat(listener.threads).containsExactly(Thread.currentThread());
+		EntityManager entityManager = this.context.getBean(EntityManagerFactory.class)
+				.createEntityManager();
+		try {
+			assertThat(entityManager.find(City.class, 2000L)).isNotNull();
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
 	@Configuration
 	@TestAutoConfigurationPackage(City.class)
 	static class TestInitializedJpaConfiguration {
@@ -169,6 +215,19 @@ public class HibernateJpaAutoConfigurationTests
 
 	}
 
+	@Configuration
+	static class DataSourceInitializedListenerConfiguration
+			implements ApplicationListener<DataSourceInitializedEvent> {
+
+		private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onApplicationEvent(DataSourceInitializedEvent event) {
+			this.threads.add(Thread.currentThread());
+		}
+
+	}
+
 	public static class TestJtaPlatform implements JtaPlatform {
 
 		@Override
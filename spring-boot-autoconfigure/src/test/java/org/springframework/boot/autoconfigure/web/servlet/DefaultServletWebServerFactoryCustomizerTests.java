@@ -526,6 +526,17 @@ public class DefaultServletWebServerFactoryCustomizerTests {
 		verify(factory).setSessionStoreDir(new File("myfolder"));
 	}
 
+	@Test
+	public void sessionWriteBehindInterval() throws Exception {
+		Map<String, String> map = new HashMap<>();
+		map.put("server.session.write-behind-interval", "30");
+		bindProperties(map);
+		UndertowServletWebServerFactory factory = spy(
+				new UndertowServletWebServerFactory());
+		this.customizer.customize(factory);
+		verify(factory).setSessionWriteBehindInterval(30);
+	}
+
 	@Test
 	public void jettyAccessLogCanBeEnabled() {
 		JettyServletWebServerFactory factory = new JettyServletWebServerFactory(0);
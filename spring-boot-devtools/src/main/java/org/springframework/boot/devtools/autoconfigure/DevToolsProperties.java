@@ -98,6 +98,12 @@ public class DevToolsProperties {
 		 */
 		private String triggerFile;
 
+		/**
+		 * Use native file system events, when available, to detect classpath changes
+		 * rather than polling.
+		 */
+		private boolean useNativeEvents = true;
+
 		/**
 		 * Additional paths to watch for changes.
 		 */
@@ -163,6 +169,14 @@ public class DevToolsProperties {
 			this.triggerFile = triggerFile;
 		}
 
+		public boolean isUseNativeEvents() {
+			return this.useNativeEvents;
+		}
+
+		public void setUseNativeEvents(boolean useNativeEvents) {
+			this.useNativeEvents = useNativeEvents;
+		}
+
 		public List<File> getAdditionalPaths() {
 			return this.additionalPaths;
 		}
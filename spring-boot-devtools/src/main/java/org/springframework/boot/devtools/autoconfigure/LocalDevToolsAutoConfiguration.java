@@ -17,6 +17,7 @@
 package org.springframework.boot.devtools.autoconfigure;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.List;
 
@@ -106,12 +107,25 @@ public class LocalDevToolsAutoConfiguration {
 
 		@EventListener
 		public void onClassPathChanged(ClassPathChangedEvent event) {
-			if (event.isRestartRequired()) {
+			if (event.isRestartRequired() && !redefine(event)) {
 				Restarter.getInstance().restart(
 						new FileWatchingFailureHandler(fileSystemWatcherFactory()));
 			}
 		}
 
+		private boolean redefine(ClassPathChangedEvent event) {
+			Restarter restarter = Restarter.getInstance();
+			if (!restarter.isRedefineSupported()) {
+				return false;
+			}
+			try {
+				return restarter.redefine(event.getClassLoaderFiles());
+			}
+			catch (IOException ex) {
+				return false;
+			}
+		}
+
 		@Bean
 		@ConditionalOnMissingBean
 		public ClassPathFileSystemWatcher classPathFileSystemWatcher() {
@@ -151,6 +165,7 @@ public class LocalDevToolsAutoConfiguration {
 			FileSystemWatcher watcher = new FileSystemWatcher(true,
 					restartProperties.getPollInterval(),
 					restartProperties.getQuietPeriod());
+			watcher.setUseNativeEvents(restartProperties.isUseNativeEvents());
 			String triggerFile = restartProperties.getTriggerFile();
 			if (StringUtils.hasLength(triggerFile)) {
 				watcher.setTriggerFilter(new TriggerFileFilter(triggerFile));
@@ -16,11 +16,20 @@
 
 package org.springframework.boot.devtools.classpath;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
+import org.springframework.boot.devtools.filewatch.ChangedFile;
 import org.springframework.boot.devtools.filewatch.ChangedFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
 
 /**
  * {@link ApplicationEvent} containing details of a classpath change.
@@ -31,6 +40,16 @@ import org.springframework.util.Assert;
  */
 public class ClassPathChangedEvent extends ApplicationEvent {
 
+	private static final Map<ChangedFile.Type, ClassLoaderFile.Kind> TYPE_MAPPINGS;
+
+	static {
+		Map<ChangedFile.Type, ClassLoaderFile.Kind> map = new HashMap<>();
+		map.put(ChangedFile.Type.ADD, ClassLoaderFile.Kind.ADDED);
+		map.put(ChangedFile.Type.DELETE, ClassLoaderFile.Kind.DELETED);
+		map.put(ChangedFile.Type.MODIFY, ClassLoaderFile.Kind.MODIFIED);
+		TYPE_MAPPINGS = Collections.unmodifiableMap(map);
+	}
+
 	private final Set<ChangedFiles> changeSet;
 
 	private final boolean restartRequired;
@@ -57,6 +76,35 @@ public class ClassPathChangedEvent extends ApplicationEvent {
 		return this.changeSet;
 	}
 
+	/**
+	 * Return details of the files that changed as {@link ClassLoaderFiles}. The contents
+	 * of added and modified files are read.
+	 * @return the changed files
+	 * @throws IOException if the contents of a file cannot be read
+	 * @since 2.0.0
+	 */
+	public ClassLoaderFiles getClassLoaderFiles() throws IOException {
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		for (ChangedFiles changedFiles : this.changeSet) {
+			String sourceFolder = changedFiles.getSourceFolder().getAbsolutePath();
+			for (ChangedFile changedFile : changedFiles) {
+				files.addFile(sourceFolder, changedFile.getRelativeName(),
+						asClassLoaderFile(changedFile));
+			}
+		}
+		return files;
+	}
+
+	private ClassLoaderFile asClassLoaderFile(ChangedFile changedFile)
+			throws IOException {
+		ClassLoaderFile.Kind kind = TYPE_MAPPINGS.get(changedFile.getType());
+		byte[] bytes = (kind == Kind.DELETED ? null
+				: FileCopyUtils.copyToByteArray(changedFile.getFile()));
+		long lastModified = (kind == Kind.DELETED ? System.currentTimeMillis()
+				: changedFile.getFile().lastModified());
+		return new ClassLoaderFile(kind, lastModified, bytes);
+	}
+
 	/**
 	 * Return if an application restart is required due to the change.
 	 * @return if an application restart is required
@@ -18,15 +18,24 @@ package org.springframework.boot.devtools.filewatch;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.util.Assert;
@@ -61,6 +70,8 @@ public class FileSystemWatcher {
 
 	private FileFilter triggerFilter;
 
+	private boolean useNativeEvents;
+
 	private final Object monitor = new Object();
 
 	/**
@@ -139,6 +150,20 @@ public class FileSystemWatcher {
 		}
 	}
 
+	/**
+	 * Set if native file system events should be used to detect changes. When enabled,
+	 * folders are registered with a {@link WatchService} and only the folders that
+	 * have changed are read again. Folders for which native events are not available
+	 * are polled.
+	 * @param useNativeEvents if native file system events should be used
+	 * @since 2.0.0
+	 */
+	public void setUseNativeEvents(boolean useNativeEvents) {
+		synchronized (this.monitor) {
+			this.useNativeEvents = useNativeEvents;
+		}
+	}
+
 	private void checkNotStarted() {
 		synchronized (this.monitor) {
 			Assert.state(this.watchThread == null, "FileSystemWatcher already started");
@@ -150,13 +175,13 @@ public class FileSystemWatcher {
 	 */
 	public void start() {
 		synchronized (this.monitor) {
+			Map<File, FolderSnapshot> localFolders = new HashMap<>();
+			Watcher watcher = (this.watchThread == null ? createWatcher(localFolders)
+					: null);
 			saveInitialSnapshots();
-			if (this.watchThread == null) {
-				Map<File, FolderSnapshot> localFolders = new HashMap<>();
+			if (watcher != null) {
 				localFolders.putAll(this.folders);
-				this.watchThread = new Thread(new Watcher(this.remainingScans,
-						new ArrayList<>(this.listeners), this.triggerFilter,
-						this.pollInterval, this.quietPeriod, localFolders));
+				this.watchThread = new Thread(watcher);
 				this.watchThread.setName("File Watcher");
 				this.watchThread.setDaemon(this.daemon);
 				this.watchThread.start();
@@ -164,6 +189,17 @@ public class FileSystemWatcher {
 		}
 	}
 
+	private Watcher createWatcher(Map<File, FolderSnapshot> folders) {
+		List<FileChangeListener> listeners = new ArrayList<>(this.listeners);
+		if (this.useNativeEvents) {
+			return new NativeEventsWatcher(this.remainingScans, listeners,
+					this.triggerFilter, this.pollInterval, this.quietPeriod, folders,
+					this.folders.keySet());
+		}
+		return new Watcher(this.remainingScans, listeners, this.triggerFilter,
+				this.pollInterval, this.quietPeriod, folders);
+	}
+
 	private void saveInitialSnapshots() {
 		for (File folder : this.folders.keySet()) {
 			this.folders.put(folder, new FolderSnapshot(folder));
@@ -202,7 +238,7 @@ public class FileSystemWatcher {
 		}
 	}
 
-	private static final class Watcher implements Runnable {
+	private static class Watcher implements Runnable {
 
 		private final AtomicInteger remainingScans;
 
@@ -216,7 +252,7 @@ public class FileSystemWatcher {
 
 		private Map<File, FolderSnapshot> folders;
 
-		private Watcher(AtomicInteger remainingScans, List<FileChangeListener> listeners,
+		Watcher(AtomicInteger remainingScans, List<FileChangeListener> listeners,
 				FileFilter triggerFilter, long pollInterval, long quietPeriod,
 				Map<File, FolderSnapshot> folders) {
 			this.remainingScans = remainingScans;
@@ -244,7 +280,7 @@ public class FileSystemWatcher {
 			}
 		};
 
-		private void scan() throws InterruptedException {
+		void scan() throws InterruptedException {
 			Thread.sleep(this.pollInterval - this.quietPeriod);
 			Map<File, FolderSnapshot> previous;
 			Map<File, FolderSnapshot> current = this.folders;
@@ -259,7 +295,7 @@ public class FileSystemWatcher {
 			}
 		}
 
-		private boolean isDifferent(Map<File, FolderSnapshot> previous,
+		boolean isDifferent(Map<File, FolderSnapshot> previous,
 				Map<File, FolderSnapshot> current) {
 			if (!previous.keySet().equals(current.keySet())) {
 				return true;
@@ -274,15 +310,23 @@ public class FileSystemWatcher {
 			return false;
 		}
 
-		private Map<File, FolderSnapshot> getCurrentSnapshots() {
+		Map<File, FolderSnapshot> getCurrentSnapshots() {
+			return getCurrentSnapshots(this.folders.keySet());
+		}
+
+		Map<File, FolderSnapshot> getCurrentSnapshots(Collection<File> folders) {
 			Map<File, FolderSnapshot> snapshots = new LinkedHashMap<>();
-			for (File folder : this.folders.keySet()) {
+			for (File folder : folders) {
 				snapshots.put(folder, new FolderSnapshot(folder));
 			}
 			return snapshots;
 		}
 
-		private void updateSnapshots(Collection<FolderSnapshot> snapshots) {
+		Map<File, FolderSnapshot> getFolders() {
+			return this.folders;
+		}
+
+		void updateSnapshots(Collection<FolderSnapshot> snapshots) {
 			Map<File, FolderSnapshot> updated = new LinkedHashMap<>();
 			Set<ChangedFiles> changeSet = new LinkedHashSet<>();
 			for (FolderSnapshot snapshot : snapshots) {
@@ -308,4 +352,211 @@ public class FileSystemWatcher {
 
 	}
 
+	/**
+	 * {@link Watcher} that uses a {@link WatchService} to be notified of changes. The
+	 * snapshots are kept up to date from the events that are received by reading only
+	 * the folders that have changed. Source folders that cannot be registered with the
+	 * {@link WatchService} are polled instead. Folders are registered before the initial
+	 * snapshots are taken so that no change can be missed. A source folder that is
+	 * deleted is registered again once it has been recreated.
+	 */
+	private static final class NativeEventsWatcher extends Watcher {
+
+		private static final WatchEvent.Kind<?>[] EVENT_KINDS = {
+				StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_DELETE,
+				StandardWatchEventKinds.ENTRY_MODIFY };
+
+		private final long pollInterval;
+
+		private final long quietPeriod;
+
+		private final Map<File, FolderSnapshot> snapshots = new LinkedHashMap<>();
+
+		private final Map<WatchKey, File> sourceFolders = new HashMap<>();
+
+		private final Set<File> polledFolders = new LinkedHashSet<>();
+
+		private final Set<File> deletedFolders = new LinkedHashSet<>();
+
+		private WatchService watchService;
+
+		private NativeEventsWatcher(AtomicInteger remainingScans,
+				List<FileChangeListener> listeners, FileFilter triggerFilter,
+				long pollInterval, long quietPeriod, Map<File, FolderSnapshot> folders,
+				Set<File> sourceFolders) {
+			super(remainingScans, listeners, triggerFilter, pollInterval, quietPeriod,
+					folders);
+			this.pollInterval = pollInterval;
+			this.quietPeriod = quietPeriod;
+			this.watchService = createWatchService();
+			for (File sourceFolder : sourceFolders) {
+				register(sourceFolder, sourceFolder);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.snapshots.putAll(getFolders());
+				super.run();
+			}
+			finally {
+				closeWatchService();
+			}
+		}
+
+		private WatchService createWatchService() {
+			try {
+				WatchService watchService = FileSystems.getDefault().newWatchService();
+				if (!isPolling(watchService)) {
+					return watchService;
+				}
+				watchService.close();
+			}
+			catch (IOException | UnsupportedOperationException ex) {
+				// Fall back to polling
+			}
+			return null;
+		}
+
+		private boolean isPolling(WatchService watchService) {
+			return watchService.getClass().getName()
+					.equals("sun.nio.fs.PollingWatchService");
+		}
+
+		private void register(File sourceFolder, File folder) {
+			if (this.polledFolders.contains(sourceFolder)) {
+				return;
+			}
+			try {
+				if (this.watchService == null) {
+					throw new IOException("Native file system events are not available");
+				}
+				registerFolder(sourceFolder, folder);
+			}
+			catch (IOException ex) {
+				this.sourceFolders.entrySet().removeIf((entry) -> {
+					if (entry.getValue().equals(sourceFolder)) {
+						entry.getKey().cancel();
+						return true;
+					}
+					return false;
+				});
+				this.polledFolders.add(sourceFolder);
+			}
+		}
+
+		private void registerFolder(File sourceFolder, File folder) throws IOException {
+			WatchKey key = folder.toPath().register(this.watchService, EVENT_KINDS);
+			this.sourceFolders.put(key, sourceFolder);
+			File[] children = folder.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					if (child.isDirectory()) {
+						registerFolder(sourceFolder, child);
+					}
+				}
+			}
+		}
+
+		@Override
+		void scan() throws InterruptedException {
+			Map<File, Set<File>> changedFolders = new LinkedHashMap<>();
+			registerRecreatedFolders(changedFolders);
+			WatchKey key = poll(this.pollInterval);
+			while (key != null) {
+				collectChangedFolders(key, changedFolders);
+				key = poll(this.quietPeriod);
+			}
+			changedFolders.forEach((sourceFolder, folders) -> this.snapshots
+					.put(sourceFolder, this.snapshots.get(sourceFolder).update(folders)));
+			if (!this.polledFolders.isEmpty()) {
+				scanPolledFolders();
+			}
+			Map<File, FolderSnapshot> current = new LinkedHashMap<>(this.snapshots);
+			if (isDifferent(getFolders(), current)) {
+				updateSnapshots(current.values());
+			}
+		}
+
+		private void registerRecreatedFolders(Map<File, Set<File>> changedFolders) {
+			Iterator<File> iterator = this.deletedFolders.iterator();
+			while (iterator.hasNext()) {
+				File sourceFolder = iterator.next();
+				if (sourceFolder.isDirectory()) {
+					iterator.remove();
+					register(sourceFolder, sourceFolder);
+					changedFolders.computeIfAbsent(sourceFolder,
+							(k) -> new LinkedHashSet<>()).add(sourceFolder);
+				}
+			}
+		}
+
+		private WatchKey poll(long timeout) throws InterruptedException {
+			if (this.watchService == null) {
+				Thread.sleep(timeout);
+				return null;
+			}
+			return this.watchService.poll(timeout, TimeUnit.MILLISECONDS);
+		}
+
+		private void collectChangedFolders(WatchKey key,
+				Map<File, Set<File>> changedFolders) {
+			File sourceFolder = this.sourceFolders.get(key);
+			if (sourceFolder != null) {
+				Path folder = (Path) key.watchable();
+				Set<File> changed = changedFolders.computeIfAbsent(sourceFolder,
+						(k) -> new LinkedHashSet<>());
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						changed.add(sourceFolder);
+						register(sourceFolder, sourceFolder);
+					}
+					else {
+						changed.add(folder.toFile());
+						File file = folder.resolve((Path) event.context()).toFile();
+						if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+								&& file.isDirectory()) {
+							register(sourceFolder, file);
+						}
+					}
+				}
+			}
+			if (!key.reset()) {
+				this.sourceFolders.remove(key);
+				if (sourceFolder != null && !sourceFolder.isDirectory()) {
+					this.deletedFolders.add(sourceFolder);
+				}
+			}
+		}
+
+		private void scanPolledFolders() throws InterruptedException {
+			Map<File, FolderSnapshot> previous;
+			Map<File, FolderSnapshot> current = new LinkedHashMap<>();
+			for (File folder : this.polledFolders) {
+				current.put(folder, this.snapshots.get(folder));
+			}
+			do {
+				previous = current;
+				current = getCurrentSnapshots(this.polledFolders);
+				Thread.sleep(this.quietPeriod);
+			}
+			while (isDifferent(previous, current));
+			this.snapshots.putAll(current);
+		}
+
+		private void closeWatchService() {
+			if (this.watchService != null) {
+				try {
+					this.watchService.close();
+				}
+				catch (IOException ex) {
+					// Ignore
+				}
+			}
+		}
+
+	}
+
 }
@@ -19,6 +19,7 @@ package org.springframework.boot.devtools.filewatch;
 import java.io.File;
 import java.io.FileFilter;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -52,7 +53,7 @@ class FolderSnapshot {
 	 */
 	FolderSnapshot(File folder) {
 		Assert.notNull(folder, "Folder must not be null");
-		Assert.isTrue(folder.isDirectory(), "Folder must not be a file");
+		Assert.isTrue(!folder.isFile(), "Folder must not be a file");
 		this.folder = folder;
 		this.time = new Date();
 		Set<FileSnapshot> files = new LinkedHashSet<>();
@@ -60,6 +61,44 @@ class FolderSnapshot {
 		this.files = Collections.unmodifiableSet(files);
 	}
 
+	private FolderSnapshot(File folder, Set<FileSnapshot> files) {
+		this.folder = folder;
+		this.time = new Date();
+		this.files = Collections.unmodifiableSet(files);
+	}
+
+	/**
+	 * Return a new {@link FolderSnapshot} that is updated from this snapshot by only
+	 * reading the given folders again. Files outside of the changed folders are assumed
+	 * to be unchanged.
+	 * @param changedFolders the folders (within the source folder) that have changed
+	 * @return the updated snapshot
+	 */
+	FolderSnapshot update(Collection<File> changedFolders) {
+		Set<FileSnapshot> files = new LinkedHashSet<>();
+		for (FileSnapshot file : this.files) {
+			if (!isContained(file.getFile(), changedFolders)) {
+				files.add(file);
+			}
+		}
+		for (File changedFolder : changedFolders) {
+			if (!isContained(changedFolder, changedFolders)) {
+				collectFiles(changedFolder, files);
+			}
+		}
+		return new FolderSnapshot(this.folder, files);
+	}
+
+	private boolean isContained(File file, Collection<File> folders) {
+		String path = file.getPath();
+		for (File folder : folders) {
+			if (path.startsWith(folder.getPath() + File.separator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private void collectFiles(File source, Set<FileSnapshot> result) {
 		File[] children = source.listFiles();
 		if (children != null) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,16 @@
 
 package org.springframework.boot.devtools.livereload;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,7 +35,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Base64Utils;
 
 /**
- * A {@link LiveReloadServer} connection.
+ * A non-blocking {@link LiveReloadServer} connection. All methods are expected to be
+ * called from the server's event loop thread.
  *
  * @author Phillip Webb
  */
@@ -45,87 +49,171 @@ class Connection {
 
 	public final static String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
 
-	private final Socket socket;
+	private static final byte[] HEADER_END = "\r\n\r\n".getBytes();
 
-	private final ConnectionInputStream inputStream;
+	private static final int BUFFER_SIZE = 4096;
 
-	private final ConnectionOutputStream outputStream;
+	private static final int MAX_BUFFER_SIZE = 128 * 1024;
 
-	private final String header;
+	private static final int MAX_PENDING_WRITE_SIZE = 256 * 1024;
 
-	private volatile boolean webSocket;
+	private final SocketChannel channel;
 
-	private volatile boolean running = true;
+	private final Deque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+
+	private int pendingWriteSize;
+
+	private ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+
+	private SelectionKey key;
+
+	private String header;
+
+	private boolean webSocket;
+
+	private boolean closeWhenWritten;
+
+	private boolean awaitingPong;
+
+	private long lastReadTime = System.currentTimeMillis();
 
 	/**
 	 * Create a new {@link Connection} instance.
-	 * @param socket the source socket
-	 * @param inputStream the socket input stream
-	 * @param outputStream the socket output stream
+	 * @param channel the source socket channel
+	 */
+	Connection(SocketChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Register the connection with the given selector.
+	 * @param selector the selector
 	 * @throws IOException in case of I/O errors
 	 */
-	Connection(Socket socket, InputStream inputStream, OutputStream outputStream)
-			throws IOException {
-		this.socket = socket;
-		this.inputStream = new ConnectionInputStream(inputStream);
-		this.outputStream = new ConnectionOutputStream(outputStream);
-		this.header = this.inputStream.readHeader();
-		logger.debug("Established livereload connection [" + this.header + "]");
+	public void register(Selector selector) throws IOException {
+		this.channel.configureBlocking(false);
+		this.key = this.channel.register(selector, SelectionKey.OP_READ, this);
 	}
 
 	/**
-	 * Run the connection.
-	 * @throws Exception in case of errors
+	 * Read any available data from the channel, processing the HTTP header and any
+	 * complete WebSocket frames.
+	 * @throws IOException in case of I/O errors
 	 */
-	public void run() throws Exception {
+	public void read() throws IOException {
+		if (this.channel.read(this.input) == -1) {
+			throw new IOException("End of stream");
+		}
+		this.lastReadTime = System.currentTimeMillis();
+		this.input.flip();
+		try {
+			if (this.header == null) {
+				readHeader();
+			}
+			while (this.webSocket && isOpen()) {
+				Frame frame = Frame.read(this.input);
+				if (frame == null) {
+					break;
+				}
+				handleWebSocketFrame(frame);
+			}
+		}
+		finally {
+			this.input.compact();
+		}
+		if (!this.input.hasRemaining()) {
+			growInput();
+		}
+	}
+
+	private void readHeader() throws IOException {
+		int headerEnd = indexOf(this.input, HEADER_END);
+		if (headerEnd == -1) {
+			return;
+		}
+		byte[] bytes = new byte[headerEnd - this.input.position()];
+		this.input.get(bytes);
+		this.input.position(this.input.position() + HEADER_END.length);
+		this.header = new String(bytes);
+		logger.debug("Established livereload connection [" + this.header + "]");
 		if (this.header.contains("Upgrade: websocket")
 				&& this.header.contains("Sec-WebSocket-Version: 13")) {
-			runWebSocket(this.header);
+			startWebSocket();
 		}
-		if (this.header.contains("GET /livereload.js")) {
-			this.outputStream.writeHttp(getClass().getResourceAsStream("livereload.js"),
+		else if (this.header.contains("GET /livereload.js")) {
+			ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+			ConnectionOutputStream outputStream = new ConnectionOutputStream(bytesOut);
+			outputStream.writeHttp(getClass().getResourceAsStream("livereload.js"),
 					"text/javascript");
+			this.closeWhenWritten = true;
+			send(ByteBuffer.wrap(bytesOut.toByteArray()));
+		}
+		else {
+			close();
 		}
 	}
 
-	private void runWebSocket(String header) throws Exception {
+	private void startWebSocket() throws IOException {
 		String accept = getWebsocketAcceptResponse();
-		this.outputStream.writeHeaders("HTTP/1.1 101 Switching Protocols",
-				"Upgrade: websocket", "Connection: Upgrade",
-				"Sec-WebSocket-Accept: " + accept);
-		new Frame("{\"command\":\"hello\",\"protocols\":"
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new ConnectionOutputStream(bytes).writeHeaders(
+				"HTTP/1.1 101 Switching Protocols", "Upgrade: websocket",
+				"Connection: Upgrade", "Sec-WebSocket-Accept: " + accept);
+		send(ByteBuffer.wrap(bytes.toByteArray()));
+		send(new Frame("{\"command\":\"hello\",\"protocols\":"
 				+ "[\"http://livereload.com/protocols/official-7\"],"
-				+ "\"serverName\":\"spring-boot\"}").write(this.outputStream);
-		Thread.sleep(100);
+				+ "\"serverName\":\"spring-boot\"}").toByteBuffer());
 		this.webSocket = true;
-		while (this.running) {
-			readWebSocketFrame();
+	}
+
+	private void handleWebSocketFrame(Frame frame) throws IOException {
+		if (frame.getType() == Frame.Type.PING) {
+			send(new Frame(Frame.Type.PONG).toByteBuffer());
+		}
+		else if (frame.getType() == Frame.Type.PONG) {
+			this.awaitingPong = false;
+		}
+		else if (frame.getType() == Frame.Type.CLOSE) {
+			throw new ConnectionClosedException();
+		}
+		else if (frame.getType() == Frame.Type.TEXT) {
+			logger.debug("Received LiveReload text frame " + frame);
+		}
+		else {
+			throw new IOException("Unexpected Frame Type " + frame.getType());
 		}
 	}
 
-	private void readWebSocketFrame() throws IOException {
-		try {
-			Frame frame = Frame.read(this.inputStream);
-			if (frame.getType() == Frame.Type.PING) {
-				writeWebSocketFrame(new Frame(Frame.Type.PONG));
-			}
-			else if (frame.getType() == Frame.Type.CLOSE) {
-				throw new ConnectionClosedException();
-			}
-			else if (frame.getType() == Frame.Type.TEXT) {
-				logger.debug("Received LiveReload text frame " + frame);
-			}
-			else {
-				throw new IOException("Unexpected Frame Type " + frame.getType());
-			}
+	private void growInput() throws IOException {
+		if (this.input.capacity() >= MAX_BUFFER_SIZE) {
+			throw new IOException("LiveReload request too large");
 		}
-		catch (SocketTimeoutException ex) {
-			writeWebSocketFrame(new Frame(Frame.Type.PING));
-			Frame frame = Frame.read(this.inputStream);
-			if (frame.getType() != Frame.Type.PONG) {
-				throw new IllegalStateException("No Pong");
-			}
+		ByteBuffer input = ByteBuffer.allocate(this.input.capacity() * 2);
+		this.input.flip();
+		input.put(this.input);
+		this.input = input;
+	}
+
+	/**
+	 * Check that the connection is still alive, sending a ping if nothing has been
+	 * received for the given timeout.
+	 * @param timeout the idle timeout in milliseconds
+	 * @throws IOException in case of I/O errors
+	 */
+	public void checkIdle(long timeout) throws IOException {
+		long now = System.currentTimeMillis();
+		if (now - this.lastReadTime < timeout) {
+			return;
 		}
+		if (!this.webSocket) {
+			throw new IOException("Timeout waiting for LiveReload request");
+		}
+		if (this.awaitingPong) {
+			throw new IllegalStateException("No Pong");
+		}
+		this.awaitingPong = true;
+		this.lastReadTime = now;
+		send(new Frame(Frame.Type.PING).toByteBuffer());
 	}
 
 	/**
@@ -135,23 +223,62 @@ class Connection {
 	public void triggerReload() throws IOException {
 		if (this.webSocket) {
 			logger.debug("Triggering LiveReload");
-			writeWebSocketFrame(new Frame("{\"command\":\"reload\",\"path\":\"/\"}"));
+			send(new Frame("{\"command\":\"reload\",\"path\":\"/\"}")
+					.toByteBuffer());
 		}
 	}
 
-	private void writeWebSocketFrame(Frame frame) throws IOException {
-		frame.write(this.outputStream);
+	private void send(ByteBuffer buffer) throws IOException {
+		if (this.pendingWriteSize + buffer.remaining() > MAX_PENDING_WRITE_SIZE) {
+			throw new IOException("LiveReload client is not reading");
+		}
+		this.pendingWrites.add(buffer);
+		this.pendingWriteSize += buffer.remaining();
+		write();
 	}
 
-	private String getWebsocketAcceptResponse() throws NoSuchAlgorithmException {
+	/**
+	 * Write as much pending data as possible without blocking.
+	 * @throws IOException in case of I/O errors
+	 */
+	public void write() throws IOException {
+		while (!this.pendingWrites.isEmpty()) {
+			ByteBuffer buffer = this.pendingWrites.peek();
+			this.pendingWriteSize -= this.channel.write(buffer);
+			if (buffer.hasRemaining()) {
+				this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return;
+			}
+			this.pendingWrites.remove();
+		}
+		this.key.interestOps(SelectionKey.OP_READ);
+		if (this.closeWhenWritten) {
+			close();
+		}
+	}
+
+	private String getWebsocketAcceptResponse() throws IOException {
 		Matcher matcher = WEBSOCKET_KEY_PATTERN.matcher(this.header);
 		if (!matcher.find()) {
 			throw new IllegalStateException("No Sec-WebSocket-Key");
 		}
 		String response = matcher.group(1).trim() + WEBSOCKET_GUID;
-		MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
-		messageDigest.update(response.getBytes(), 0, response.length());
-		return Base64Utils.encodeToString(messageDigest.digest());
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			messageDigest.update(response.getBytes(), 0, response.length());
+			return Base64Utils.encodeToString(messageDigest.digest());
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Return if the connection is open.
+	 * @return {@code true} if the connection is open
+	 */
+	public boolean isOpen() {
+		return this.channel.isOpen();
 	}
 
 	/**
@@ -159,8 +286,23 @@ class Connection {
 	 * @throws IOException in case of I/O errors
 	 */
 	public void close() throws IOException {
-		this.running = false;
-		this.socket.close();
+		if (this.key != null) {
+			this.key.cancel();
+		}
+		this.channel.close();
+	}
+
+	private static int indexOf(ByteBuffer buffer, byte[] bytes) {
+		for (int i = buffer.position(); i <= buffer.limit() - bytes.length; i++) {
+			boolean match = true;
+			for (int j = 0; j < bytes.length && match; j++) {
+				match = buffer.get(i + j) == bytes[j];
+			}
+			if (match) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 }
@@ -18,6 +18,7 @@ package org.springframework.boot.devtools.livereload;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.springframework.util.Assert;
 
@@ -70,35 +71,69 @@ class Frame {
 	}
 
 	public void write(OutputStream outputStream) throws IOException {
-		outputStream.write(0x80 | this.type.code);
+		ByteBuffer buffer = toByteBuffer();
+		outputStream.write(buffer.array(), 0, buffer.limit());
+		outputStream.flush();
+	}
+
+	/**
+	 * Encode the frame to a {@link ByteBuffer} that is ready to be written.
+	 * @return the encoded frame
+	 */
+	public ByteBuffer toByteBuffer() {
+		int headerLength = (this.payload.length < 126 ? 2 : 4);
+		ByteBuffer buffer = ByteBuffer.allocate(headerLength + this.payload.length);
+		buffer.put((byte) (0x80 | this.type.code));
 		if (this.payload.length < 126) {
-			outputStream.write(0x00 | (this.payload.length & 0x7F));
+			buffer.put((byte) (0x00 | (this.payload.length & 0x7F)));
 		}
 		else {
-			outputStream.write(0x7E);
-			outputStream.write(this.payload.length >> 8 & 0xFF);
-			outputStream.write(this.payload.length >> 0 & 0xFF);
+			buffer.put((byte) 0x7E);
+			buffer.put((byte) (this.payload.length >> 8 & 0xFF));
+			buffer.put((byte) (this.payload.length >> 0 & 0xFF));
 		}
-		outputStream.write(this.payload);
-		outputStream.flush();
+		buffer.put(this.payload);
+		buffer.flip();
+		return buffer;
 	}
 
-	public static Frame read(ConnectionInputStream inputStream) throws IOException {
-		int firstByte = inputStream.checkedRead();
+	/**
+	 * Read a frame from the given {@link ByteBuffer} without blocking. If the buffer does
+	 * not yet contain a complete frame, {@code null} is returned and the buffer position
+	 * is left unchanged.
+	 * @param buffer the source buffer
+	 * @return the frame or {@code null}
+	 */
+	public static Frame read(ByteBuffer buffer) {
+		int start = buffer.position();
+		if (buffer.remaining() < 2) {
+			return null;
+		}
+		int firstByte = buffer.get(start) & 0xFF;
 		Assert.state((firstByte & 0x80) != 0, "Fragmented frames are not supported");
-		int maskAndLength = inputStream.checkedRead();
+		int maskAndLength = buffer.get(start + 1) & 0xFF;
 		boolean hasMask = (maskAndLength & 0x80) != 0;
 		int length = (maskAndLength & 0x7F);
 		Assert.state(length != 127, "Large frames are not supported");
+		int headerLength = 2;
 		if (length == 126) {
-			length = ((inputStream.checkedRead()) << 8 | inputStream.checkedRead());
+			if (buffer.remaining() < 4) {
+				return null;
+			}
+			length = ((buffer.get(start + 2) & 0xFF) << 8
+					| (buffer.get(start + 3) & 0xFF));
+			headerLength = 4;
+		}
+		if (buffer.remaining() < headerLength + (hasMask ? 4 : 0) + length) {
+			return null;
 		}
+		buffer.position(start + headerLength);
 		byte[] mask = new byte[4];
 		if (hasMask) {
-			inputStream.readFully(mask, 0, mask.length);
+			buffer.get(mask);
 		}
 		byte[] payload = new byte[length];
-		inputStream.readFully(payload, 0, length);
+		buffer.get(payload);
 		if (hasMask) {
 			for (int i = 0; i < payload.length; i++) {
 				payload[i] ^= mask[i % 4];
@@ -17,18 +17,19 @@
 package org.springframework.boot.devtools.livereload;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,7 +37,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Assert;
 
 /**
- * A <a href="http://livereload.com">livereload</a> server.
+ * A <a href="http://livereload.com">livereload</a> server. All connections are handled
+ * by a single non-blocking event loop thread.
  *
  * @author Phillip Webb
  * @since 1.3.0
@@ -51,20 +53,25 @@ public class LiveReloadServer {
 
 	private static final Log logger = LogFactory.getLog(LiveReloadServer.class);
 
-	private static final int READ_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(4);
+	private static final long READ_TIMEOUT = TimeUnit.SECONDS.toMillis(4);
 
-	private final ExecutorService executor = Executors
-			.newCachedThreadPool(new WorkerThreadFactory());
+	private static final long SELECT_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
 
 	private final List<Connection> connections = new ArrayList<>();
 
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
 	private final Object monitor = new Object();
 
 	private final int port;
 
 	private final ThreadFactory threadFactory;
 
-	private ServerSocket serverSocket;
+	private ServerSocketChannel serverChannel;
+
+	private Selector selector;
+
+	private volatile boolean running;
 
 	private Thread listenThread;
 
@@ -119,13 +126,18 @@ public class LiveReloadServer {
 		synchronized (this.monitor) {
 			Assert.state(!isStarted(), "Server already started");
 			logger.debug("Starting live reload server on port " + this.port);
-			this.serverSocket = new ServerSocket(this.port);
-			int localPort = this.serverSocket.getLocalPort();
+			this.selector = Selector.open();
+			this.serverChannel = ServerSocketChannel.open();
+			this.serverChannel.bind(new InetSocketAddress(this.port));
+			this.serverChannel.configureBlocking(false);
+			this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+			int localPort = this.serverChannel.socket().getLocalPort();
+			this.running = true;
 			this.listenThread = this.threadFactory.newThread(new Runnable() {
 
 				@Override
 				public void run() {
-					acceptConnections();
+					runEventLoop();
 				}
 
 			});
@@ -154,178 +166,184 @@ public class LiveReloadServer {
 		return this.port;
 	}
 
-	private void acceptConnections() {
-		do {
-			try {
-				Socket socket = this.serverSocket.accept();
-				socket.setSoTimeout(READ_TIMEOUT);
-				this.executor.execute(new ConnectionHandler(socket));
-			}
-			catch (SocketTimeoutException ex) {
-				// Ignore
-			}
-			catch (Exception ex) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("LiveReload server error", ex);
-				}
-			}
-		}
-		while (!this.serverSocket.isClosed());
-	}
-
-	/**
-	 * Gracefully stop the livereload server.
-	 * @throws IOException in case of I/O errors
-	 */
-	public void stop() throws IOException {
-		synchronized (this.monitor) {
-			if (this.listenThread != null) {
-				closeAllConnections();
+	private void runEventLoop() {
+		try {
+			while (this.running) {
 				try {
-					this.executor.shutdown();
-					this.executor.awaitTermination(1, TimeUnit.MINUTES);
+					this.selector.select(SELECT_TIMEOUT);
+					runTasks();
+					handleSelectedKeys();
+					checkIdleConnections();
 				}
-				catch (InterruptedException ex) {
-					Thread.currentThread().interrupt();
-				}
-				this.serverSocket.close();
-				try {
-					this.listenThread.join();
+				catch (ClosedSelectorException ex) {
+					return;
 				}
-				catch (InterruptedException ex) {
-					Thread.currentThread().interrupt();
+				catch (Exception ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("LiveReload server error", ex);
+					}
 				}
-				this.listenThread = null;
-				this.serverSocket = null;
 			}
 		}
+		finally {
+			closeAll();
+		}
 	}
 
-	private void closeAllConnections() throws IOException {
-		synchronized (this.connections) {
-			for (Connection connection : this.connections) {
-				connection.close();
-			}
+	private void runTasks() {
+		Runnable task = this.tasks.poll();
+		while (task != null) {
+			task.run();
+			task = this.tasks.poll();
 		}
 	}
 
-	/**
-	 * Trigger livereload of all connected clients.
-	 */
-	public void triggerReload() {
-		synchronized (this.monitor) {
-			synchronized (this.connections) {
-				for (Connection connection : this.connections) {
-					try {
-						connection.triggerReload();
-					}
-					catch (Exception ex) {
-						logger.debug("Unable to send reload message", ex);
-					}
-				}
+	private void handleSelectedKeys() throws IOException {
+		Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+		while (keys.hasNext()) {
+			SelectionKey key = keys.next();
+			keys.remove();
+			if (key.isValid() && key.isAcceptable()) {
+				acceptConnection();
+			}
+			else if (key.isValid()) {
+				handleConnection((Connection) key.attachment(), key);
 			}
 		}
 	}
 
-	private void addConnection(Connection connection) {
-		synchronized (this.connections) {
+	private void acceptConnection() throws IOException {
+		SocketChannel channel = this.serverChannel.accept();
+		if (channel != null) {
+			Connection connection = createConnection(channel);
+			connection.register(this.selector);
 			this.connections.add(connection);
 		}
 	}
 
-	private void removeConnection(Connection connection) {
-		synchronized (this.connections) {
-			this.connections.remove(connection);
+	private void handleConnection(Connection connection, SelectionKey key) {
+		try {
+			if (key.isReadable()) {
+				connection.read();
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.write();
+			}
 		}
+		catch (Exception ex) {
+			handleConnectionError(connection, ex);
+		}
+		removeIfClosed(connection);
 	}
 
-	/**
-	 * Factory method used to create the {@link Connection}.
-	 * @param socket the source socket
-	 * @param inputStream the socket input stream
-	 * @param outputStream the socket output stream
-	 * @return a connection
-	 * @throws IOException in case of I/O errors
-	 */
-	protected Connection createConnection(Socket socket, InputStream inputStream,
-			OutputStream outputStream) throws IOException {
-		return new Connection(socket, inputStream, outputStream);
+	private void checkIdleConnections() {
+		for (Connection connection : new ArrayList<>(this.connections)) {
+			try {
+				connection.checkIdle(READ_TIMEOUT);
+			}
+			catch (Exception ex) {
+				handleConnectionError(connection, ex);
+			}
+			removeIfClosed(connection);
+		}
 	}
 
-	/**
-	 * {@link Runnable} to handle a single connection.
-	 *
-	 * @see Connection
-	 */
-	private class ConnectionHandler implements Runnable {
-
-		private final Socket socket;
+	private void handleConnectionError(Connection connection, Exception ex) {
+		if (ex instanceof ConnectionClosedException) {
+			logger.debug("LiveReload connection closed");
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("LiveReload error", ex);
+		}
+		close(connection);
+	}
 
-		private final InputStream inputStream;
+	private void removeIfClosed(Connection connection) {
+		if (!connection.isOpen()) {
+			this.connections.remove(connection);
+		}
+	}
 
-		ConnectionHandler(Socket socket) throws IOException {
-			this.socket = socket;
-			this.inputStream = socket.getInputStream();
+	private void close(Connection connection) {
+		try {
+			connection.close();
+		}
+		catch (IOException ex) {
+			// Ignore
 		}
+	}
 
-		@Override
-		public void run() {
-			try {
-				handle();
-			}
-			catch (ConnectionClosedException ex) {
-				logger.debug("LiveReload connection closed");
-			}
-			catch (Exception ex) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("LiveReload error", ex);
-				}
-			}
+	private void closeAll() {
+		for (Connection connection : this.connections) {
+			close(connection);
 		}
+		this.connections.clear();
+		try {
+			this.serverChannel.close();
+			this.selector.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+	}
 
-		private void handle() throws Exception {
-			try {
-				try (OutputStream outputStream = this.socket.getOutputStream()) {
-					Connection connection = createConnection(this.socket,
-							this.inputStream, outputStream);
-					runConnection(connection);
+	/**
+	 * Gracefully stop the livereload server.
+	 * @throws IOException in case of I/O errors
+	 */
+	public void stop() throws IOException {
+		synchronized (this.monitor) {
+			if (this.listenThread != null) {
+				this.running = false;
+				this.selector.wakeup();
+				try {
+					this.listenThread.join();
 				}
-				finally {
-					this.inputStream.close();
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
 				}
+				this.listenThread = null;
+				this.serverChannel = null;
+				this.selector = null;
+				this.tasks.clear();
 			}
-			finally {
-				this.socket.close();
+		}
+	}
+
+	/**
+	 * Trigger livereload of all connected clients. The reload message is sent
+	 * asynchronously by the event loop thread.
+	 */
+	public void triggerReload() {
+		synchronized (this.monitor) {
+			if (this.listenThread != null) {
+				this.tasks.add(this::reloadConnections);
+				this.selector.wakeup();
 			}
 		}
+	}
 
-		private void runConnection(Connection connection) throws IOException, Exception {
+	private void reloadConnections() {
+		for (Connection connection : new ArrayList<>(this.connections)) {
 			try {
-				addConnection(connection);
-				connection.run();
+				connection.triggerReload();
 			}
-			finally {
-				removeConnection(connection);
+			catch (Exception ex) {
+				logger.debug("Unable to send reload message", ex);
+				close(connection);
 			}
+			removeIfClosed(connection);
 		}
-
 	}
 
 	/**
-	 * {@link ThreadFactory} to create the worker threads.
+	 * Factory method used to create the {@link Connection}.
+	 * @param channel the source socket channel
+	 * @return a connection
+	 * @throws IOException in case of I/O errors
 	 */
-	private static class WorkerThreadFactory implements ThreadFactory {
-
-		private final AtomicInteger threadNumber = new AtomicInteger(1);
-
-		@Override
-		public Thread newThread(Runnable r) {
-			Thread thread = new Thread(r);
-			thread.setDaemon(true);
-			thread.setName("Live Reload #" + this.threadNumber.getAndIncrement());
-			return thread;
-		}
-
+	protected Connection createConnection(SocketChannel channel) throws IOException {
+		return new Connection(channel);
 	}
 
 }
@@ -16,27 +16,19 @@
 
 package org.springframework.boot.devtools.remote.client;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.boot.devtools.classpath.ClassPathChangedEvent;
-import org.springframework.boot.devtools.filewatch.ChangedFile;
-import org.springframework.boot.devtools.filewatch.ChangedFiles;
-import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
-import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesEncoder;
 import org.springframework.context.ApplicationListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -49,7 +41,9 @@ import org.springframework.util.Assert;
 import org.springframework.util.FileCopyUtils;
 
 /**
- * Listens and pushes any classpath updates to a remote endpoint.
+ * Listens and pushes any classpath updates to a remote endpoint. Updates are sent using
+ * a {@link ClassLoaderFilesEncoder} so that files that have not changed since the last
+ * upload are skipped and modified files are sent as a delta where possible.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
@@ -58,22 +52,14 @@ import org.springframework.util.FileCopyUtils;
 public class ClassPathChangeUploader
 		implements ApplicationListener<ClassPathChangedEvent> {
 
-	private static final Map<ChangedFile.Type, ClassLoaderFile.Kind> TYPE_MAPPINGS;
-
-	static {
-		Map<ChangedFile.Type, ClassLoaderFile.Kind> map = new HashMap<>();
-		map.put(ChangedFile.Type.ADD, ClassLoaderFile.Kind.ADDED);
-		map.put(ChangedFile.Type.DELETE, ClassLoaderFile.Kind.DELETED);
-		map.put(ChangedFile.Type.MODIFY, ClassLoaderFile.Kind.MODIFIED);
-		TYPE_MAPPINGS = Collections.unmodifiableMap(map);
-	}
-
 	private static final Log logger = LogFactory.getLog(ClassPathChangeUploader.class);
 
 	private final URI uri;
 
 	private final ClientHttpRequestFactory requestFactory;
 
+	private ClassLoaderFiles uploadedFiles = new ClassLoaderFiles();
+
 	public ClassPathChangeUploader(String url, ClientHttpRequestFactory requestFactory) {
 		Assert.hasLength(url, "URL must not be empty");
 		Assert.notNull(requestFactory, "RequestFactory must not be null");
@@ -92,16 +78,29 @@ public class ClassPathChangeUploader
 	@Override
 	public void onApplicationEvent(ClassPathChangedEvent event) {
 		try {
-			ClassLoaderFiles classLoaderFiles = getClassLoaderFiles(event);
-			byte[] bytes = serialize(classLoaderFiles);
-			performUpload(classLoaderFiles, bytes);
+			ClassLoaderFiles classLoaderFiles = event.getClassLoaderFiles();
+			ClassLoaderFilesEncoder encoder = new ClassLoaderFilesEncoder(
+					this.uploadedFiles);
+			ClassLoaderFiles changes = encoder.getChanges(classLoaderFiles);
+			if (changes.size() == 0) {
+				logger.debug("Skipping upload as no class resources have changed");
+				return;
+			}
+			if (!performUpload(changes, encoder.encode(changes))) {
+				logger.debug("Remote application requested a full upload");
+				this.uploadedFiles = new ClassLoaderFiles();
+				encoder = new ClassLoaderFilesEncoder(this.uploadedFiles);
+				Assert.state(performUpload(changes, encoder.encode(changes)),
+						"Unexpected CONFLICT response uploading class files");
+			}
+			this.uploadedFiles.addAll(changes);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException(ex);
 		}
 	}
 
-	private void performUpload(ClassLoaderFiles classLoaderFiles, byte[] bytes)
+	private boolean performUpload(ClassLoaderFiles classLoaderFiles, byte[] bytes)
 			throws IOException {
 		try {
 			while (true) {
@@ -113,11 +112,14 @@ public class ClassPathChangeUploader
 					headers.setContentLength(bytes.length);
 					FileCopyUtils.copy(bytes, request.getBody());
 					ClientHttpResponse response = request.execute();
+					if (response.getStatusCode() == HttpStatus.CONFLICT) {
+						return false;
+					}
 					Assert.state(response.getStatusCode() == HttpStatus.OK,
 							"Unexpected " + response.getStatusCode()
 									+ " response uploading class files");
 					logUpload(classLoaderFiles);
-					return;
+					return true;
 				}
 				catch (ConnectException ex) {
 					logger.warn("Failed to connect when uploading to " + this.uri
@@ -138,35 +140,4 @@ public class ClassPathChangeUploader
 				"Uploaded " + size + " class " + (size == 1 ? "resource" : "resources"));
 	}
 
-	private byte[] serialize(ClassLoaderFiles classLoaderFiles) throws IOException {
-		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-		ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
-		objectOutputStream.writeObject(classLoaderFiles);
-		objectOutputStream.close();
-		return outputStream.toByteArray();
-	}
-
-	private ClassLoaderFiles getClassLoaderFiles(ClassPathChangedEvent event)
-			throws IOException {
-		ClassLoaderFiles files = new ClassLoaderFiles();
-		for (ChangedFiles changedFiles : event.getChangeSet()) {
-			String sourceFolder = changedFiles.getSourceFolder().getAbsolutePath();
-			for (ChangedFile changedFile : changedFiles) {
-				files.addFile(sourceFolder, changedFile.getRelativeName(),
-						asClassLoaderFile(changedFile));
-			}
-		}
-		return files;
-	}
-
-	private ClassLoaderFile asClassLoaderFile(ChangedFile changedFile)
-			throws IOException {
-		ClassLoaderFile.Kind kind = TYPE_MAPPINGS.get(changedFile.getType());
-		byte[] bytes = (kind == Kind.DELETED ? null
-				: FileCopyUtils.copyToByteArray(changedFile.getFile()));
-		long lastModified = (kind == Kind.DELETED ? System.currentTimeMillis()
-				: changedFile.getFile().lastModified());
-		return new ClassLoaderFile(kind, lastModified, bytes);
-	}
-
 }
@@ -216,6 +216,7 @@ public class RemoteClientConfiguration {
 			FileSystemWatcher watcher = new FileSystemWatcher(true,
 					restartProperties.getPollInterval(),
 					restartProperties.getQuietPeriod());
+			watcher.setUseNativeEvents(restartProperties.isUseNativeEvents());
 			String triggerFile = restartProperties.getTriggerFile();
 			if (StringUtils.hasLength(triggerFile)) {
 				watcher.setTriggerFilter(new TriggerFileFilter(triggerFile));
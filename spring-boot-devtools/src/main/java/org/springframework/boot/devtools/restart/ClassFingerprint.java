@@ -0,0 +1,324 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.FieldVisitor;
+import org.springframework.asm.Handle;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Fingerprint of the parts of a class file that cannot be changed by redefining a loaded
+ * class in-place. Method bodies are not included, with the exception of constructors,
+ * static initializers, {@code @Bean} methods and initialization callbacks
+ * ({@code @PostConstruct} and {@code afterPropertiesSet()}) since those only run when
+ * the application starts.
+ *
+ * @author agent (agent@local)
+ */
+final class ClassFingerprint {
+
+	private static final Set<String> STARTUP_ANNOTATIONS;
+
+	static {
+		Set<String> annotations = new HashSet<>();
+		annotations.add("Lorg/springframework/context/annotation/Bean;");
+		annotations.add("Ljavax/annotation/PostConstruct;");
+		STARTUP_ANNOTATIONS = Collections.unmodifiableSet(annotations);
+	}
+
+	private ClassFingerprint() {
+	}
+
+	/**
+	 * Return the fingerprint of the given class file.
+	 * @param bytes the class file bytes
+	 * @return the fingerprint
+	 */
+	static String get(byte[] bytes) {
+		StringBuilder fingerprint = new StringBuilder();
+		new ClassReader(bytes).accept(new FingerprintClassVisitor(fingerprint),
+				ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		return DigestUtils.md5DigestAsHex(
+				fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void append(StringBuilder fingerprint, Object... values) {
+		for (Object value : values) {
+			fingerprint.append(ObjectUtils.nullSafeToString(value)).append(' ');
+		}
+		fingerprint.append('\n');
+	}
+
+	/**
+	 * {@link ClassVisitor} that records the declaration of the class, its fields and its
+	 * methods.
+	 */
+	private static class FingerprintClassVisitor extends ClassVisitor {
+
+		private final StringBuilder fingerprint;
+
+		FingerprintClassVisitor(StringBuilder fingerprint) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.fingerprint = fingerprint;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature,
+				String superName, String[] interfaces) {
+			append(this.fingerprint, "class", access, name, signature, superName,
+					interfaces);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			append(this.fingerprint, "annotation", desc, visible);
+			return new FingerprintAnnotationVisitor(this.fingerprint);
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String desc,
+				String signature, Object value) {
+			append(this.fingerprint, "field", access, name, desc, signature, value);
+			return new FingerprintFieldVisitor(this.fingerprint);
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc,
+				String signature, String[] exceptions) {
+			append(this.fingerprint, "method", access, name, desc, signature,
+					exceptions);
+			boolean includeCode = name.equals("<init>") || name.equals("<clinit>")
+					|| (name.equals("afterPropertiesSet") && desc.equals("()V"));
+			return new FingerprintMethodVisitor(this.fingerprint, includeCode);
+		}
+
+	}
+
+	/**
+	 * {@link FieldVisitor} that records the annotations of a field.
+	 */
+	private static class FingerprintFieldVisitor extends FieldVisitor {
+
+		private final StringBuilder fingerprint;
+
+		FingerprintFieldVisitor(StringBuilder fingerprint) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.fingerprint = fingerprint;
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			append(this.fingerprint, "annotation", desc, visible);
+			return new FingerprintAnnotationVisitor(this.fingerprint);
+		}
+
+	}
+
+	/**
+	 * {@link MethodVisitor} that records the annotations of a method and, for methods
+	 * that only run when the application starts, its instructions.
+	 */
+	private static class FingerprintMethodVisitor extends MethodVisitor {
+
+		private final StringBuilder fingerprint;
+
+		private final Map<Label, Integer> labels = new HashMap<>();
+
+		private boolean includeCode;
+
+		FingerprintMethodVisitor(StringBuilder fingerprint, boolean includeCode) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.fingerprint = fingerprint;
+			this.includeCode = includeCode;
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotationDefault() {
+			append(this.fingerprint, "default");
+			return new FingerprintAnnotationVisitor(this.fingerprint);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			this.includeCode = this.includeCode || STARTUP_ANNOTATIONS.contains(desc);
+			append(this.fingerprint, "annotation", desc, visible);
+			return new FingerprintAnnotationVisitor(this.fingerprint);
+		}
+
+		@Override
+		public AnnotationVisitor visitParameterAnnotation(int parameter, String desc,
+				boolean visible) {
+			append(this.fingerprint, "parameter-annotation", parameter, desc, visible);
+			return new FingerprintAnnotationVisitor(this.fingerprint);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			appendCode(opcode);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			appendCode(opcode, operand);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			appendCode(opcode, var);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			appendCode(opcode, type);
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+			appendCode(opcode, owner, name, desc);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc,
+				boolean itf) {
+			appendCode(opcode, owner, name, desc, itf);
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String desc, Handle bsm,
+				Object... bsmArgs) {
+			appendCode("indy", name, desc, bsm, Arrays.toString(bsmArgs));
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			appendCode(opcode, getLabel(label));
+		}
+
+		@Override
+		public void visitLabel(Label label) {
+			appendCode("label", getLabel(label));
+		}
+
+		@Override
+		public void visitLdcInsn(Object cst) {
+			appendCode("ldc", cst);
+		}
+
+		@Override
+		public void visitIincInsn(int var, int increment) {
+			appendCode("iinc", var, increment);
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt,
+				Label... labels) {
+			appendCode("tableswitch", min, max, getLabel(dflt), getLabels(labels));
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			appendCode("lookupswitch", getLabel(dflt), keys, getLabels(labels));
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String desc, int dims) {
+			appendCode("multianewarray", desc, dims);
+		}
+
+		@Override
+		public void visitTryCatchBlock(Label start, Label end, Label handler,
+				String type) {
+			appendCode("try", getLabel(start), getLabel(end), getLabel(handler), type);
+		}
+
+		private void appendCode(Object... values) {
+			if (this.includeCode) {
+				append(this.fingerprint, values);
+			}
+		}
+
+		private int[] getLabels(Label[] labels) {
+			int[] result = new int[labels.length];
+			for (int i = 0; i < labels.length; i++) {
+				result[i] = getLabel(labels[i]);
+			}
+			return result;
+		}
+
+		private int getLabel(Label label) {
+			return this.labels.computeIfAbsent(label, (key) -> this.labels.size());
+		}
+
+	}
+
+	/**
+	 * {@link AnnotationVisitor} that records the values of an annotation.
+	 */
+	private static class FingerprintAnnotationVisitor extends AnnotationVisitor {
+
+		private final StringBuilder fingerprint;
+
+		FingerprintAnnotationVisitor(StringBuilder fingerprint) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.fingerprint = fingerprint;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			append(this.fingerprint, name, value);
+		}
+
+		@Override
+		public void visitEnum(String name, String desc, String value) {
+			append(this.fingerprint, name, desc, value);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String desc) {
+			append(this.fingerprint, name, desc);
+			return this;
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			append(this.fingerprint, name, "[");
+			return this;
+		}
+
+		@Override
+		public void visitEnd() {
+			append(this.fingerprint, "end");
+		}
+
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassDefinition;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.ApplicationPid;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
+import org.springframework.boot.devtools.restart.classloader.RestartClassLoader;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Redefines classes that have been loaded by a {@link RestartClassLoader} in-place so
+ * that changes that are limited to method bodies can be applied without restarting the
+ * application. A {@link ClassFingerprint} of each class is recorded when it is loaded so
+ * that changed class files can be compared against the loaded versions.
+ * <p>
+ * The {@link Instrumentation} is obtained by attaching the {@link RedefinitionAgent} to
+ * the running JVM. On Java 9 and later this requires the
+ * {@code jdk.attach.allowAttachSelf} system property to be set.
+ *
+ * @author agent (agent@local)
+ * @see Restarter#redefine(ClassLoaderFiles)
+ */
+final class ClassRedefiner {
+
+	private static final Log logger = LogFactory.getLog(ClassRedefiner.class);
+
+	private static final String VIRTUAL_MACHINE_CLASS = "com.sun.tools.attach.VirtualMachine";
+
+	private static final String CLASS_SUFFIX = ".class";
+
+	private static ClassRedefiner instance;
+
+	private final Instrumentation instrumentation;
+
+	private final Map<ClassLoader, Map<String, String>> fingerprints = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	ClassRedefiner(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+		instrumentation.addTransformer(new FingerprintRecorder());
+	}
+
+	/**
+	 * Attempt to redefine the classes that have been loaded by the given
+	 * {@link ClassLoader} using the given changed files. Changes are only applied when
+	 * all of them can be redefined in-place.
+	 * @param classLoader the class loader of the running application
+	 * @param changedFiles the changed files
+	 * @return {@code true} if the changes were applied or {@code false} if a restart is
+	 * required
+	 */
+	boolean redefine(ClassLoader classLoader, ClassLoaderFiles changedFiles) {
+		Map<String, String> fingerprints = this.fingerprints.get(classLoader);
+		if (fingerprints == null) {
+			return false;
+		}
+		List<ClassDefinition> definitions = new ArrayList<>();
+		for (SourceFolder sourceFolder : changedFiles.getSourceFolders()) {
+			for (Entry<String, ClassLoaderFile> entry : sourceFolder
+					.getFilesEntrySet()) {
+				String name = entry.getKey();
+				ClassLoaderFile file = entry.getValue();
+				if (!name.endsWith(CLASS_SUFFIX) || file.getKind() != Kind.MODIFIED) {
+					return restartRequired(name + " has been added, deleted or is "
+							+ "not a class file");
+				}
+				String className = name
+						.substring(0, name.length() - CLASS_SUFFIX.length())
+						.replace('/', '.');
+				String fingerprint = fingerprints.get(className);
+				if (fingerprint == null) {
+					return restartRequired(className + " has not been loaded");
+				}
+				if (!fingerprint.equals(ClassFingerprint.get(file.getContents()))) {
+					return restartRequired(
+							"the structure of " + className + " has changed");
+				}
+				try {
+					definitions.add(new ClassDefinition(
+							ClassUtils.forName(className, classLoader),
+							file.getContents()));
+				}
+				catch (ClassNotFoundException | LinkageError ex) {
+					return restartRequired(className + " cannot be loaded");
+				}
+			}
+		}
+		try {
+			this.instrumentation.redefineClasses(
+					definitions.toArray(new ClassDefinition[definitions.size()]));
+			return true;
+		}
+		catch (Exception | LinkageError ex) {
+			return restartRequired(ex.toString());
+		}
+	}
+
+	private boolean restartRequired(String reason) {
+		logger.info("Classes cannot be redefined in-place, a restart is required: "
+				+ reason);
+		return false;
+	}
+
+	/**
+	 * Install class redefinition support by attaching the {@link RedefinitionAgent} to
+	 * the running JVM. Has no effect if already installed.
+	 */
+	static synchronized void install() {
+		if (instance == null) {
+			try {
+				Instrumentation instrumentation = attach();
+				if (instrumentation != null
+						&& instrumentation.isRedefineClassesSupported()) {
+					instance = new ClassRedefiner(instrumentation);
+				}
+			}
+			catch (Exception ex) {
+				logger.debug("Unable to attach agent for class redefinition", ex);
+			}
+		}
+	}
+
+	/**
+	 * Return the installed {@link ClassRedefiner}.
+	 * @return the class redefiner or {@code null} if it has not been installed
+	 */
+	static synchronized ClassRedefiner get() {
+		return instance;
+	}
+
+	private static Instrumentation attach() throws Exception {
+		if (RedefinitionAgent.getInstrumentation() == null) {
+			File agentJar = createAgentJar();
+			try {
+				Class<?> virtualMachineClass = getVirtualMachineClass();
+				Object virtualMachine = virtualMachineClass
+						.getMethod("attach", String.class)
+						.invoke(null, new ApplicationPid().toString());
+				try {
+					virtualMachineClass.getMethod("loadAgent", String.class)
+							.invoke(virtualMachine, agentJar.getAbsolutePath());
+				}
+				finally {
+					virtualMachineClass.getMethod("detach").invoke(virtualMachine);
+				}
+			}
+			finally {
+				agentJar.delete();
+			}
+		}
+		// The agent may have been loaded by the system class loader
+		Class<?> agentClass = ClassLoader.getSystemClassLoader()
+				.loadClass(RedefinitionAgent.class.getName());
+		Method method = agentClass.getMethod("getInstrumentation");
+		return (Instrumentation) method.invoke(null);
+	}
+
+	private static File createAgentJar() throws IOException {
+		File file = File.createTempFile("spring-boot-devtools-agent", ".jar");
+		file.deleteOnExit();
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue("Agent-Class", RedefinitionAgent.class.getName());
+		attributes.putValue("Can-Redefine-Classes", "true");
+		String name = ClassUtils.convertClassNameToResourcePath(
+				RedefinitionAgent.class.getName()) + CLASS_SUFFIX;
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file),
+				manifest)) {
+			jar.putNextEntry(new JarEntry(name));
+			try (InputStream content = RedefinitionAgent.class.getClassLoader()
+					.getResourceAsStream(name)) {
+				FileCopyUtils.copy(content, jar);
+			}
+		}
+		return file;
+	}
+
+	private static Class<?> getVirtualMachineClass() throws Exception {
+		if (ClassUtils.isPresent(VIRTUAL_MACHINE_CLASS, null)) {
+			return ClassUtils.forName(VIRTUAL_MACHINE_CLASS, null);
+		}
+		File toolsJar = new File(System.getProperty("java.home"), "../lib/tools.jar");
+		ClassLoader classLoader = new URLClassLoader(
+				new URL[] { toolsJar.toURI().toURL() }, null);
+		return classLoader.loadClass(VIRTUAL_MACHINE_CLASS);
+	}
+
+	/**
+	 * {@link ClassFileTransformer} that records the {@link ClassFingerprint} of classes
+	 * that are loaded or redefined by a {@link RestartClassLoader}.
+	 */
+	private class FingerprintRecorder implements ClassFileTransformer {
+
+		@Override
+		public byte[] transform(ClassLoader loader, String className,
+				Class<?> classBeingRedefined, ProtectionDomain protectionDomain,
+				byte[] classfileBuffer) {
+			if (loader instanceof RestartClassLoader && className != null) {
+				try {
+					String fingerprint = ClassFingerprint.get(classfileBuffer);
+					ClassRedefiner.this.fingerprints
+							.computeIfAbsent(loader, (key) -> new ConcurrentHashMap<>())
+							.put(className.replace('/', '.'), fingerprint);
+				}
+				catch (RuntimeException ex) {
+					// The class won't be redefined
+				}
+			}
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent that is attached to the running JVM to provide the {@link Instrumentation}
+ * used to redefine classes without restarting the application.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see ClassRedefiner
+ */
+public final class RedefinitionAgent {
+
+	private static volatile Instrumentation instrumentation;
+
+	private RedefinitionAgent() {
+	}
+
+	/**
+	 * Entry point used when the agent is attached to a running JVM.
+	 * @param args the agent arguments
+	 * @param instrumentation the instrumentation
+	 */
+	public static void agentmain(String args, Instrumentation instrumentation) {
+		RedefinitionAgent.instrumentation = instrumentation;
+	}
+
+	/**
+	 * Return the {@link Instrumentation} provided when the agent was attached.
+	 * @return the instrumentation or {@code null} if the agent has not been attached
+	 */
+	public static Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+}
@@ -39,6 +39,8 @@ public class RestartApplicationListener
 
 	private static final String ENABLED_PROPERTY = "spring.devtools.restart.enabled";
 
+	private static final String REDEFINE_CLASSES_PROPERTY = "spring.devtools.restart.redefine-classes";
+
 	@Override
 	public void onApplicationEvent(ApplicationEvent event) {
 		if (event instanceof ApplicationStartingEvent) {
@@ -64,6 +66,9 @@ public class RestartApplicationListener
 			String[] args = event.getArgs();
 			DefaultRestartInitializer initializer = new DefaultRestartInitializer();
 			boolean restartOnInitialize = !AgentReloader.isActive();
+			if (restartOnInitialize && Boolean.getBoolean(REDEFINE_CLASSES_PROPERTY)) {
+				ClassRedefiner.install();
+			}
 			Restarter.initialize(args, false, initializer, restartOnInitialize);
 		}
 		else {
@@ -44,6 +44,7 @@ import org.springframework.beans.CachedIntrospectionResults;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.devtools.restart.FailureHandler.Outcome;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFileRepository;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
 import org.springframework.boot.devtools.restart.classloader.RestartClassLoader;
 import org.springframework.boot.logging.DeferredLog;
@@ -121,6 +122,10 @@ public class Restarter {
 
 	private final List<ConfigurableApplicationContext> rootContexts = new CopyOnWriteArrayList<>();
 
+	private volatile ClassLoader currentClassLoader;
+
+	private volatile long lastRestartTime = -1;
+
 	/**
 	 * Internal constructor to create a new {@link Restarter} instance.
 	 * @param thread the source thread
@@ -226,6 +231,16 @@ public class Restarter {
 		this.classLoaderFiles.addAll(classLoaderFiles);
 	}
 
+	/**
+	 * Return the {@link ClassLoaderFiles} that have been added and will be included in
+	 * the next restart.
+	 * @return the class loader files
+	 * @since 2.0.0
+	 */
+	public ClassLoaderFileRepository getClassLoaderFiles() {
+		return this.classLoaderFiles;
+	}
+
 	/**
 	 * Return a {@link ThreadFactory} that can be used to create leak safe threads.
 	 * @return a leak safe thread factory
@@ -255,14 +270,58 @@ public class Restarter {
 
 			@Override
 			public Void call() throws Exception {
+				long startTime = System.currentTimeMillis();
 				Restarter.this.stop();
 				Restarter.this.start(failureHandler);
+				Restarter.this.lastRestartTime = System.currentTimeMillis() - startTime;
 				return null;
 			}
 
 		});
 	}
 
+	/**
+	 * Return if changed classes can be redefined in-place, i.e. if class redefinition
+	 * has been enabled and the application has been started.
+	 * @return {@code true} if classes can be redefined
+	 * @since 2.0.0
+	 * @see #redefine(ClassLoaderFiles)
+	 */
+	public boolean isRedefineSupported() {
+		return this.enabled && ClassRedefiner.get() != null
+				&& this.currentClassLoader != null;
+	}
+
+	/**
+	 * Attempt to apply the given changed files to the running application without a
+	 * restart by redefining the changed classes in-place. Only possible when class
+	 * redefinition has been enabled and when the changes are limited to method bodies.
+	 * @param changedFiles the changed files
+	 * @return {@code true} if the classes were redefined or {@code false} if a restart is
+	 * required
+	 * @since 2.0.0
+	 */
+	public boolean redefine(ClassLoaderFiles changedFiles) {
+		Assert.notNull(changedFiles, "ChangedFiles must not be null");
+		ClassLoader classLoader = this.currentClassLoader;
+		if (!isRedefineSupported()) {
+			return false;
+		}
+		long startTime = System.currentTimeMillis();
+		if (!ClassRedefiner.get().redefine(classLoader, changedFiles)) {
+			return false;
+		}
+		long time = System.currentTimeMillis() - startTime;
+		StringBuilder message = new StringBuilder(
+				"Redefined changed classes in-place in " + time + "ms");
+		if (this.lastRestartTime >= 0) {
+			message.append(", saving " + Math.max(this.lastRestartTime - time, 0)
+					+ "ms compared to the last restart");
+		}
+		this.logger.info(message);
+		return true;
+	}
+
 	/**
 	 * Start the application.
 	 * @param failureHandler a failure handler for application that won't start
@@ -288,6 +347,7 @@ public class Restarter {
 		ClassLoaderFiles updatedFiles = new ClassLoaderFiles(this.classLoaderFiles);
 		ClassLoader classLoader = new RestartClassLoader(parent, urls, updatedFiles,
 				this.logger);
+		this.currentClassLoader = classLoader;
 		if (this.logger.isDebugEnabled()) {
 			this.logger.debug("Starting application " + this.mainClassName + " with URLs "
 					+ Arrays.asList(urls));
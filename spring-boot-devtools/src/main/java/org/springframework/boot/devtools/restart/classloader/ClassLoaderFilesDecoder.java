@@ -0,0 +1,226 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.classloader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.util.Assert;
+
+/**
+ * Decodes {@link ClassLoaderFiles} written by a {@link ClassLoaderFilesEncoder}. Entries
+ * are decoded as they are read from the stream, with any delta encoded content applied
+ * against the base {@link ClassLoaderFileRepository}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see ClassLoaderFilesEncoder
+ */
+public class ClassLoaderFilesDecoder {
+
+	private static final int DIGEST_LENGTH = 16;
+
+	/**
+	 * The maximum ratio by which deflate can compress content.
+	 */
+	private static final int MAX_COMPRESSION_RATIO = 1032;
+
+	private static final int BUFFER_SIZE = 4096;
+
+	private final ClassLoaderFileRepository base;
+
+	/**
+	 * Create a new {@link ClassLoaderFilesDecoder} instance.
+	 * @param base the files previously received that may be used as the base of a delta
+	 */
+	public ClassLoaderFilesDecoder(ClassLoaderFileRepository base) {
+		Assert.notNull(base, "Base must not be null");
+		this.base = base;
+	}
+
+	/**
+	 * Decode {@link ClassLoaderFiles} from the given input stream. A
+	 * {@link MissingBaseException} is thrown if a delta cannot be applied because the
+	 * base does not contain the expected version of the file.
+	 * @param inputStream the source input stream (not closed)
+	 * @return the decoded files
+	 * @throws IOException on IO error
+	 */
+	public ClassLoaderFiles decode(InputStream inputStream) throws IOException {
+		return decode(inputStream, -1);
+	}
+
+	/**
+	 * Decode {@link ClassLoaderFiles} from the given input stream. A
+	 * {@link MissingBaseException} is thrown if a delta cannot be applied because the
+	 * base does not contain the expected version of the file.
+	 * @param inputStream the source input stream (not closed)
+	 * @param contentLength the length of the content or {@code -1} if not known. Used to
+	 * reject lengths that could not be satisfied by the remaining content
+	 * @return the decoded files
+	 * @throws IOException on IO error
+	 */
+	public ClassLoaderFiles decode(InputStream inputStream, long contentLength)
+			throws IOException {
+		Assert.notNull(inputStream, "InputStream must not be null");
+		byte[] header = new byte[ClassLoaderFilesEncoder.HEADER.length];
+		new DataInputStream(inputStream).readFully(header);
+		Assert.state(Arrays.equals(header, ClassLoaderFilesEncoder.HEADER),
+				"Unsupported class loader files format");
+		Inflater inflater = new Inflater();
+		try {
+			DataInputStream input = new DataInputStream(
+					new InflaterInputStream(inputStream, inflater));
+			long maxLength = (contentLength < 0 ? Long.MAX_VALUE
+					: (contentLength - header.length) * MAX_COMPRESSION_RATIO);
+			LongSupplier remaining = () -> maxLength - inflater.getBytesWritten();
+			ClassLoaderFiles files = new ClassLoaderFiles();
+			String folder = null;
+			int type = input.readByte();
+			while (type != ClassLoaderFilesEncoder.END) {
+				if (type == ClassLoaderFilesEncoder.FOLDER) {
+					folder = input.readUTF();
+				}
+				else {
+					Assert.state(type == ClassLoaderFilesEncoder.FILE && folder != null,
+							"Malformed class loader files");
+					String name = input.readUTF();
+					files.addFile(folder, name, readFile(input, name, remaining));
+				}
+				type = input.readByte();
+			}
+			return files;
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private ClassLoaderFile readFile(DataInputStream input, String name,
+			LongSupplier remaining) throws IOException {
+		Kind kind = Kind.values()[input.readByte()];
+		long lastModified = input.readLong();
+		int content = input.readByte();
+		if (content == ClassLoaderFilesEncoder.NO_CONTENT) {
+			return new ClassLoaderFile(kind, lastModified, null);
+		}
+		if (content == ClassLoaderFilesEncoder.FULL_CONTENT) {
+			return new ClassLoaderFile(kind, lastModified,
+					readBytes(input, remaining.getAsLong()));
+		}
+		Assert.state(content == ClassLoaderFilesEncoder.DELTA_CONTENT,
+				"Malformed class loader file '" + name + "'");
+		byte[] baseDigest = readDigest(input);
+		byte[] digest = readDigest(input);
+		byte[] delta = readBytes(input, remaining.getAsLong());
+		byte[] baseContents = getBaseContents(name, baseDigest);
+		byte[] contents = patch(baseContents, delta);
+		Assert.state(Arrays.equals(ClassLoaderFilesEncoder.digest(contents), digest),
+				"Corrupt delta for class loader file '" + name + "'");
+		return new ClassLoaderFile(kind, lastModified, contents);
+	}
+
+	private byte[] getBaseContents(String name, byte[] digest) {
+		ClassLoaderFile file = this.base.getFile(name);
+		byte[] contents = (file != null ? file.getContents() : null);
+		if (contents == null
+				|| !Arrays.equals(ClassLoaderFilesEncoder.digest(contents), digest)) {
+			throw new MissingBaseException(name);
+		}
+		return contents;
+	}
+
+	private byte[] readDigest(DataInputStream input) throws IOException {
+		byte[] digest = new byte[DIGEST_LENGTH];
+		input.readFully(digest);
+		return digest;
+	}
+
+	private static byte[] readBytes(DataInputStream input, long remaining)
+			throws IOException {
+		int length = input.readInt();
+		Assert.state(length >= 0 && length <= remaining,
+				"Malformed content length " + length);
+		// Read in chunks so that memory is only used for content that actually arrives
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+				Math.min(length, BUFFER_SIZE));
+		byte[] buffer = new byte[BUFFER_SIZE];
+		while (bytes.size() < length) {
+			int read = input.read(buffer, 0,
+					Math.min(buffer.length, length - bytes.size()));
+			if (read == -1) {
+				throw new EOFException();
+			}
+			bytes.write(buffer, 0, read);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Apply a delta created by {@link ClassLoaderFilesEncoder#diff(byte[], byte[])} to
+	 * the given source.
+	 * @param source the source bytes
+	 * @param delta the delta
+	 * @return the patched bytes
+	 * @throws IOException on IO error
+	 */
+	static byte[] patch(byte[] source, byte[] delta) throws IOException {
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(delta));
+		ByteArrayOutputStream output = new ByteArrayOutputStream(source.length);
+		int operation = input.readByte();
+		while (operation != ClassLoaderFilesEncoder.END) {
+			if (operation == ClassLoaderFilesEncoder.DELTA_COPY) {
+				int offset = input.readInt();
+				int length = input.readInt();
+				Assert.state(offset >= 0 && length >= 0
+						&& offset + length <= source.length, "Delta copy out of range");
+				output.write(source, offset, length);
+			}
+			else {
+				Assert.state(operation == ClassLoaderFilesEncoder.DELTA_INSERT,
+						"Malformed delta");
+				output.write(readBytes(input, input.available()));
+			}
+			operation = input.readByte();
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * Exception thrown when delta encoded content cannot be decoded because the base does
+	 * not contain the version of the file that the delta was created against. Senders
+	 * should respond by sending the full content again.
+	 */
+	public static class MissingBaseException extends IllegalStateException {
+
+		MissingBaseException(String name) {
+			super("No matching base for delta encoded class loader file '" + name
+					+ "'");
+		}
+
+	}
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.classloader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
+import org.springframework.util.Assert;
+
+/**
+ * Encodes {@link ClassLoaderFiles} using a compact, compressed binary format that can
+ * be read by a {@link ClassLoaderFilesDecoder}. Files are compared against a base
+ * {@link ClassLoaderFileRepository} containing the versions that the receiver is known
+ * to hold so that unchanged files can be skipped and modified files can be sent as a
+ * binary delta.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see ClassLoaderFilesDecoder
+ */
+public class ClassLoaderFilesEncoder {
+
+	static final byte[] HEADER = { 'S', 'B', 'C', 'F', 1 };
+
+	static final int END = 0;
+
+	static final int FOLDER = 1;
+
+	static final int FILE = 2;
+
+	static final int NO_CONTENT = 0;
+
+	static final int FULL_CONTENT = 1;
+
+	static final int DELTA_CONTENT = 2;
+
+	static final int DELTA_COPY = 1;
+
+	static final int DELTA_INSERT = 2;
+
+	private static final int BLOCK_SIZE = 16;
+
+	private final ClassLoaderFileRepository base;
+
+	/**
+	 * Create a new {@link ClassLoaderFilesEncoder} instance.
+	 * @param base the files already held by the receiver
+	 */
+	public ClassLoaderFilesEncoder(ClassLoaderFileRepository base) {
+		Assert.notNull(base, "Base must not be null");
+		this.base = base;
+	}
+
+	/**
+	 * Return the subset of the given files that differ from the base and therefore need
+	 * to be sent.
+	 * @param files the candidate files
+	 * @return the changed files
+	 */
+	public ClassLoaderFiles getChanges(ClassLoaderFiles files) {
+		Assert.notNull(files, "Files must not be null");
+		ClassLoaderFiles changes = new ClassLoaderFiles();
+		for (SourceFolder folder : files.getSourceFolders()) {
+			for (Map.Entry<String, ClassLoaderFile> entry : folder.getFilesEntrySet()) {
+				if (isChanged(entry.getKey(), entry.getValue())) {
+					changes.addFile(folder.getName(), entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		return changes;
+	}
+
+	private boolean isChanged(String name, ClassLoaderFile file) {
+		ClassLoaderFile baseFile = this.base.getFile(name);
+		if (baseFile == null) {
+			return true;
+		}
+		if (file.getKind() == Kind.DELETED || baseFile.getKind() == Kind.DELETED) {
+			return file.getKind() != baseFile.getKind();
+		}
+		return !Arrays.equals(file.getContents(), baseFile.getContents());
+	}
+
+	/**
+	 * Encode the given files to the specified output stream. Callers will usually want
+	 * to encode only the {@link #getChanges(ClassLoaderFiles) changed} files.
+	 * @param files the files to encode
+	 * @param outputStream the destination output stream (not closed)
+	 * @throws IOException on IO error
+	 */
+	public void encode(ClassLoaderFiles files, OutputStream outputStream)
+			throws IOException {
+		Assert.notNull(files, "Files must not be null");
+		Assert.notNull(outputStream, "OutputStream must not be null");
+		outputStream.write(HEADER);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(
+					outputStream, deflater);
+			DataOutputStream output = new DataOutputStream(deflaterOutputStream);
+			for (SourceFolder folder : files.getSourceFolders()) {
+				output.writeByte(FOLDER);
+				output.writeUTF(folder.getName());
+				for (Map.Entry<String, ClassLoaderFile> entry : folder
+						.getFilesEntrySet()) {
+					writeFile(output, entry.getKey(), entry.getValue());
+				}
+			}
+			output.writeByte(END);
+			output.flush();
+			deflaterOutputStream.finish();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Encode the given files to a byte array.
+	 * @param files the files to encode
+	 * @return the encoded bytes
+	 * @throws IOException on IO error
+	 * @see #encode(ClassLoaderFiles, OutputStream)
+	 */
+	public byte[] encode(ClassLoaderFiles files) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		encode(files, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private void writeFile(DataOutputStream output, String name, ClassLoaderFile file)
+			throws IOException {
+		output.writeByte(FILE);
+		output.writeUTF(name);
+		output.writeByte(file.getKind().ordinal());
+		output.writeLong(file.getLastModified());
+		byte[] contents = file.getContents();
+		if (contents == null) {
+			output.writeByte(NO_CONTENT);
+			return;
+		}
+		byte[] delta = getDelta(name, contents);
+		if (delta != null) {
+			output.writeByte(DELTA_CONTENT);
+			output.write(digest(this.base.getFile(name).getContents()));
+			output.write(digest(contents));
+			output.writeInt(delta.length);
+			output.write(delta);
+		}
+		else {
+			output.writeByte(FULL_CONTENT);
+			output.writeInt(contents.length);
+			output.write(contents);
+		}
+	}
+
+	private byte[] getDelta(String name, byte[] contents) throws IOException {
+		ClassLoaderFile baseFile = this.base.getFile(name);
+		if (baseFile == null || baseFile.getContents() == null) {
+			return null;
+		}
+		byte[] delta = diff(baseFile.getContents(), contents);
+		return (delta.length < contents.length ? delta : null);
+	}
+
+	/**
+	 * Create a delta that can be applied to {@code source} to produce {@code target}.
+	 * The delta is a sequence of operations that either copy a range of the source or
+	 * insert literal bytes. Matches are found by indexing fixed size blocks of the
+	 * source and extending any match in both directions.
+	 * @param source the source bytes
+	 * @param target the target bytes
+	 * @return the delta
+	 * @throws IOException on IO error
+	 */
+	static byte[] diff(byte[] source, byte[] target) throws IOException {
+		Map<Integer, Integer> index = new HashMap<>();
+		for (int i = 0; i + BLOCK_SIZE <= source.length; i += BLOCK_SIZE) {
+			index.putIfAbsent(hash(source, i), i);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		int position = 0;
+		int insertStart = 0;
+		while (position + BLOCK_SIZE <= target.length) {
+			Integer offset = index.get(hash(target, position));
+			if (offset != null && matches(source, offset, target, position)) {
+				int length = BLOCK_SIZE;
+				while (offset + length < source.length
+						&& position + length < target.length
+						&& source[offset + length] == target[position + length]) {
+					length++;
+				}
+				int backward = 0;
+				while (position - backward > insertStart && offset - backward > 0
+						&& source[offset - backward - 1] == target[position - backward
+								- 1]) {
+					backward++;
+				}
+				writeInsert(output, target, insertStart, position - backward);
+				output.writeByte(DELTA_COPY);
+				output.writeInt(offset - backward);
+				output.writeInt(length + backward);
+				position += length;
+				insertStart = position;
+			}
+			else {
+				position++;
+			}
+		}
+		writeInsert(output, target, insertStart, target.length);
+		output.writeByte(END);
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeInsert(DataOutputStream output, byte[] target, int start,
+			int end) throws IOException {
+		if (end > start) {
+			output.writeByte(DELTA_INSERT);
+			output.writeInt(end - start);
+			output.write(target, start, end - start);
+		}
+	}
+
+	private static int hash(byte[] bytes, int offset) {
+		int hash = 1;
+		for (int i = offset; i < offset + BLOCK_SIZE; i++) {
+			hash = 31 * hash + bytes[i];
+		}
+		return hash;
+	}
+
+	private static boolean matches(byte[] source, int sourceOffset, byte[] target,
+			int targetOffset) {
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			if (source[sourceOffset + i] != target[targetOffset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static byte[] digest(byte[] bytes) {
+		try {
+			return MessageDigest.getInstance("MD5").digest(bytes);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
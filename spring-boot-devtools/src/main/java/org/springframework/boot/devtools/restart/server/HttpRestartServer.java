@@ -17,12 +17,14 @@
 package org.springframework.boot.devtools.restart.server;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFileRepository;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesDecoder;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesDecoder.MissingBaseException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
@@ -30,7 +32,10 @@ import org.springframework.util.Assert;
 
 /**
  * A HTTP server that can be used to upload updated {@link ClassLoaderFiles} and trigger
- * restarts.
+ * restarts. Accepts content written by a
+ * {@link org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesEncoder}.
+ * A {@link HttpStatus#CONFLICT} response is returned if delta encoded content cannot be
+ * applied.
  *
  * @author Phillip Webb
  * @since 1.3.0
@@ -70,14 +75,19 @@ public class HttpRestartServer {
 	public void handle(ServerHttpRequest request, ServerHttpResponse response)
 			throws IOException {
 		try {
-			Assert.state(request.getHeaders().getContentLength() > 0, "No content");
-			ObjectInputStream objectInputStream = new ObjectInputStream(
-					request.getBody());
-			ClassLoaderFiles files = (ClassLoaderFiles) objectInputStream.readObject();
-			objectInputStream.close();
+			long contentLength = request.getHeaders().getContentLength();
+			Assert.state(contentLength > 0, "No content");
+			ClassLoaderFileRepository base = this.server.getUploadedFiles();
+			ClassLoaderFiles files = new ClassLoaderFilesDecoder(
+					base != null ? base : ClassLoaderFileRepository.NONE)
+							.decode(request.getBody(), contentLength);
 			this.server.updateAndRestart(files);
 			response.setStatusCode(HttpStatus.OK);
 		}
+		catch (MissingBaseException ex) {
+			logger.debug("Requesting full upload: " + ex.getMessage());
+			response.setStatusCode(HttpStatus.CONFLICT);
+		}
 		catch (Exception ex) {
 			logger.warn("Unable to handler restart server HTTP request", ex);
 			response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
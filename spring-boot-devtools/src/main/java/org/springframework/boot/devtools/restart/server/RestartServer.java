@@ -31,6 +31,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.devtools.restart.Restarter;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFileRepository;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
 import org.springframework.util.Assert;
@@ -97,6 +98,16 @@ public class RestartServer {
 		restart(urls, files);
 	}
 
+	/**
+	 * Return the files that have previously been uploaded to the running application.
+	 * Used as the base when decoding files that were sent as a delta.
+	 * @return the previously uploaded files
+	 * @since 2.0.0
+	 */
+	public ClassLoaderFileRepository getUploadedFiles() {
+		return Restarter.getInstance().getClassLoaderFiles();
+	}
+
 	private boolean updateFileSystem(URL url, String name,
 			ClassLoaderFile classLoaderFile) {
 		if (!isFolderUrl(url.toString())) {
@@ -176,7 +187,9 @@ public class RestartServer {
 		Restarter restarter = Restarter.getInstance();
 		restarter.addUrls(urls);
 		restarter.addClassLoaderFiles(files);
-		restarter.restart();
+		if (!restarter.redefine(files)) {
+			restarter.restart();
+		}
 	}
 
 }
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.devtools.tunnel.client;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.ConnectException;
@@ -43,7 +44,9 @@ import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.Assert;
 
 /**
- * {@link TunnelConnection} implementation that uses HTTP to transfer data.
+ * {@link TunnelConnection} implementation that uses HTTP to transfer data. Data written
+ * within a short {@link #setBatchWindow(long) batch window} is combined and sent as a
+ * single payload to reduce the number of HTTP requests.
  *
  * @author Phillip Webb
  * @author Rob Winch
@@ -54,6 +57,8 @@ import org.springframework.util.Assert;
  */
 public class HttpTunnelConnection implements TunnelConnection {
 
+	private static final long DEFAULT_BATCH_WINDOW = 2;
+
 	private static final Log logger = LogFactory.getLog(HttpTunnelConnection.class);
 
 	private final URI uri;
@@ -62,6 +67,8 @@ public class HttpTunnelConnection implements TunnelConnection {
 
 	private final Executor executor;
 
+	private long batchWindow = DEFAULT_BATCH_WINDOW;
+
 	/**
 	 * Create a new {@link HttpTunnelConnection} instance.
 	 * @param url the URL to connect to
@@ -95,6 +102,18 @@ public class HttpTunnelConnection implements TunnelConnection {
 				? Executors.newCachedThreadPool(new TunnelThreadFactory()) : executor);
 	}
 
+	/**
+	 * Set the amount of time to wait for further data before sending a payload. Data
+	 * written within the window is sent in a single HTTP request.
+	 * @param batchWindow the batch window in milliseconds or {@code 0} to send
+	 * immediately
+	 * @since 2.0.0
+	 */
+	public void setBatchWindow(long batchWindow) {
+		Assert.isTrue(batchWindow >= 0, "BatchWindow must not be negative");
+		this.batchWindow = batchWindow;
+	}
+
 	@Override
 	public TunnelChannel open(WritableByteChannel incomingChannel, Closeable closeable)
 			throws Exception {
@@ -117,6 +136,10 @@ public class HttpTunnelConnection implements TunnelConnection {
 
 		private final Closeable closeable;
 
+		private final Object monitor = new Object();
+
+		private ByteArrayOutputStream pendingData;
+
 		private boolean open = true;
 
 		private AtomicLong requestSeq = new AtomicLong();
@@ -144,44 +167,90 @@ public class HttpTunnelConnection implements TunnelConnection {
 		public int write(ByteBuffer src) throws IOException {
 			int size = src.remaining();
 			if (size > 0) {
-				openNewConnection(
-						new HttpTunnelPayload(this.requestSeq.incrementAndGet(), src));
+				boolean sendRequired;
+				synchronized (this.monitor) {
+					sendRequired = (this.pendingData == null);
+					if (sendRequired) {
+						this.pendingData = new ByteArrayOutputStream(size);
+					}
+					byte[] bytes = new byte[size];
+					src.get(bytes);
+					this.pendingData.write(bytes, 0, size);
+				}
+				if (sendRequired) {
+					sendPendingData();
+				}
 			}
 			return size;
 		}
 
-		private void openNewConnection(final HttpTunnelPayload payload) {
+		private void sendPendingData() {
 			HttpTunnelConnection.this.executor.execute(new Runnable() {
 
 				@Override
 				public void run() {
-					try {
-						sendAndReceive(payload);
-					}
-					catch (IOException ex) {
-						if (ex instanceof ConnectException) {
-							logger.warn("Failed to connect to remote application at "
-									+ HttpTunnelConnection.this.uri);
-						}
-						else {
-							logger.trace("Unexpected connection error", ex);
-						}
-						closeQuietly();
-					}
+					waitForBatchWindow();
+					sendAndReceiveQuietly(takePendingPayload());
 				}
 
-				private void closeQuietly() {
-					try {
-						close();
-					}
-					catch (IOException ex) {
-						// Ignore
-					}
+			});
+		}
+
+		private void waitForBatchWindow() {
+			if (HttpTunnelConnection.this.batchWindow > 0) {
+				try {
+					Thread.sleep(HttpTunnelConnection.this.batchWindow);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		private HttpTunnelPayload takePendingPayload() {
+			synchronized (this.monitor) {
+				ByteBuffer data = ByteBuffer.wrap(this.pendingData.toByteArray());
+				this.pendingData = null;
+				return new HttpTunnelPayload(this.requestSeq.incrementAndGet(), data);
+			}
+		}
+
+		private void openNewConnection(final HttpTunnelPayload payload) {
+			HttpTunnelConnection.this.executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					sendAndReceiveQuietly(payload);
 				}
 
 			});
 		}
 
+		private void sendAndReceiveQuietly(HttpTunnelPayload payload) {
+			try {
+				sendAndReceive(payload);
+			}
+			catch (IOException ex) {
+				if (ex instanceof ConnectException) {
+					logger.warn("Failed to connect to remote application at "
+							+ HttpTunnelConnection.this.uri);
+				}
+				else {
+					logger.trace("Unexpected connection error", ex);
+				}
+				closeQuietly();
+			}
+		}
+
+		private void closeQuietly() {
+			try {
+				close();
+			}
+			catch (IOException ex) {
+				// Ignore
+			}
+		}
+
 		private void sendAndReceive(HttpTunnelPayload payload) throws IOException {
 			ClientHttpRequest request = createRequest(payload != null);
 			if (payload != null) {
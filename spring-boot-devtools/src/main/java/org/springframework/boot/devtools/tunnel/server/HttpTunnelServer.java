@@ -21,8 +21,10 @@ import java.net.ConnectException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
@@ -62,7 +64,10 @@ import org.springframework.util.Assert;
  * </pre>
  *
  * Each incoming request is held open to be used to carry the next available response. The
- * server will hold at most two connections open at any given time.
+ * server will hold at most two connections open at any given time. Requests are held
+ * using asynchronous request processing where available, and the server never waits
+ * for a request to become available: any data received from the target server whilst
+ * no request is held is queued and sent as a single payload with the next request.
  * <p>
  * Requests should be made using HTTP GET or POST (depending if there is a payload), with
  * any payload contained in the body. The following response codes can be returned from
@@ -112,6 +117,8 @@ public class HttpTunnelServer {
 
 	private static final long DEFAULT_DISCONNECT_TIMEOUT = 30 * SECONDS;
 
+	private static final int DEFAULT_MAX_PENDING_DATA_SIZE = 1024 * 1024;
+
 	private static final MediaType DISCONNECT_MEDIA_TYPE = new MediaType("application",
 			"x-disconnect");
 
@@ -123,6 +130,8 @@ public class HttpTunnelServer {
 
 	private long disconnectTimeout = DEFAULT_DISCONNECT_TIMEOUT;
 
+	private int maxPendingDataSize = DEFAULT_MAX_PENDING_DATA_SIZE;
+
 	private volatile ServerThread serverThread;
 
 	/**
@@ -207,6 +216,18 @@ public class HttpTunnelServer {
 		this.disconnectTimeout = disconnectTimeout;
 	}
 
+	/**
+	 * Set the maximum number of bytes received from the target server that are held
+	 * whilst waiting for a client connection. Once reached, the target server is not
+	 * read until a client connection has taken the pending data.
+	 * @param maxPendingDataSize the maximum pending data size in bytes
+	 */
+	public void setMaxPendingDataSize(int maxPendingDataSize) {
+		Assert.isTrue(maxPendingDataSize > 0,
+				"MaxPendingDataSize must be a positive value");
+		this.maxPendingDataSize = maxPendingDataSize;
+	}
+
 	/**
 	 * The main server thread used to transfer tunnel traffic.
 	 */
@@ -218,6 +239,10 @@ public class HttpTunnelServer {
 
 		private final HttpTunnelPayloadForwarder payloadForwarder;
 
+		private final List<ByteBuffer> pendingData = new ArrayList<>();
+
+		private int pendingDataSize;
+
 		private boolean closed;
 
 		private AtomicLong responseSeq = new AtomicLong();
@@ -249,37 +274,76 @@ public class HttpTunnelServer {
 			}
 		}
 
-		private void readAndForwardTargetServerData() throws IOException {
+		private void readAndForwardTargetServerData()
+				throws IOException, InterruptedException {
 			while (this.targetServer.isOpen()) {
 				closeStaleHttpConnections();
-				ByteBuffer data = HttpTunnelPayload.getPayloadData(this.targetServer);
-				synchronized (this.httpConnections) {
+				if (hasPendingDataCapacity()) {
+					ByteBuffer data = HttpTunnelPayload
+							.getPayloadData(this.targetServer);
 					if (data != null) {
-						HttpTunnelPayload payload = new HttpTunnelPayload(
-								this.responseSeq.incrementAndGet(), data);
-						payload.logIncoming();
-						HttpConnection connection = getOrWaitForHttpConnection();
-						connection.respond(payload);
+						synchronized (this.httpConnections) {
+							this.pendingData.add(data);
+							this.pendingDataSize += data.remaining();
+							respondWithPendingData();
+						}
 					}
 				}
 			}
 		}
 
-		private HttpConnection getOrWaitForHttpConnection() {
+		/**
+		 * Return if more data can be read from the target server, waiting for pending
+		 * data to be taken by a HTTP connection if it cannot.
+		 * @return {@code true} if there is capacity for more pending data
+		 * @throws InterruptedException if interrupted whilst waiting
+		 */
+		private boolean hasPendingDataCapacity() throws InterruptedException {
 			synchronized (this.httpConnections) {
-				HttpConnection httpConnection = this.httpConnections.pollFirst();
-				while (httpConnection == null) {
-					try {
-						this.httpConnections.wait(HttpTunnelServer.this.longPollTimeout);
-					}
-					catch (InterruptedException ex) {
-						Thread.currentThread().interrupt();
-						closeHttpConnections();
-					}
-					httpConnection = this.httpConnections.pollFirst();
+				if (this.pendingDataSize < HttpTunnelServer.this.maxPendingDataSize) {
+					return true;
 				}
-				return httpConnection;
+				this.httpConnections.wait(HttpTunnelServer.this.longPollTimeout);
+				return false;
+			}
+		}
+
+		/**
+		 * Respond to the oldest waiting HTTP connection with all data that has been
+		 * received from the target server but not yet sent. Must be called whilst holding
+		 * the {@code httpConnections} lock.
+		 * @throws IOException in case of I/O errors
+		 */
+		private void respondWithPendingData() throws IOException {
+			if (this.pendingData.isEmpty()) {
+				return;
+			}
+			HttpConnection connection = this.httpConnections.pollFirst();
+			if (connection != null) {
+				HttpTunnelPayload payload = new HttpTunnelPayload(
+						this.responseSeq.incrementAndGet(), takePendingData());
+				payload.logIncoming();
+				connection.respond(payload);
+				this.httpConnections.notifyAll();
+			}
+		}
+
+		private ByteBuffer takePendingData() {
+			this.pendingDataSize = 0;
+			if (this.pendingData.size() == 1) {
+				return this.pendingData.remove(0);
+			}
+			int size = 0;
+			for (ByteBuffer data : this.pendingData) {
+				size += data.remaining();
+			}
+			ByteBuffer combined = ByteBuffer.allocate(size);
+			for (ByteBuffer data : this.pendingData) {
+				combined.put(data);
 			}
+			this.pendingData.clear();
+			combined.flip();
+			return combined;
 		}
 
 		private void closeStaleHttpConnections() throws IOException {
@@ -344,7 +408,7 @@ public class HttpTunnelServer {
 				}
 				this.lastHttpRequestTime = System.currentTimeMillis();
 				this.httpConnections.addLast(httpConnection);
-				this.httpConnections.notify();
+				respondWithPendingData();
 			}
 			forwardToTargetServer(httpConnection);
 		}
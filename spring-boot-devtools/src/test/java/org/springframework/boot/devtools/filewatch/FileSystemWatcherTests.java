@@ -36,6 +36,7 @@ import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.devtools.filewatch.ChangedFile.Type;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -256,6 +257,27 @@ public class FileSystemWatcherTests {
 		assertThat(actual).isEqualTo(expected);
 	}
 
+	@Test
+	public void deleteAndRecreateSourceFolder() throws Exception {
+		File folder = this.temp.newFolder();
+		File delete = touch(new File(folder, "delete.txt"));
+		this.watcher.addSourceFolder(folder);
+		this.watcher.start();
+		FileSystemUtils.deleteRecursively(folder);
+		waitForChanges(1);
+		File add = touch(new File(folder, "add.txt"));
+		waitForChanges(2);
+		FileCopyUtils.copy("abc".getBytes(), add);
+		waitForChanges(3);
+		this.watcher.stop();
+		assertThat(getChangedFiles(0)).containsExactly(
+				new ChangedFile(folder, delete, Type.DELETE));
+		assertThat(getChangedFiles(1))
+				.containsExactly(new ChangedFile(folder, add, Type.ADD));
+		assertThat(getChangedFiles(2))
+				.containsExactly(new ChangedFile(folder, add, Type.MODIFY));
+	}
+
 	@Test
 	public void withTriggerFilter() throws Exception {
 		File folder = this.temp.newFolder();
@@ -284,7 +306,7 @@ public class FileSystemWatcherTests {
 	}
 
 	private void setupWatcher(long pollingInterval, long quietPeriod) {
-		this.watcher = new FileSystemWatcher(false, pollingInterval, quietPeriod);
+		this.watcher = createWatcher(pollingInterval, quietPeriod);
 		this.watcher.addListener(new FileChangeListener() {
 			@Override
 			public void onChange(Set<ChangedFiles> changeSet) {
@@ -293,6 +315,10 @@ public class FileSystemWatcherTests {
 		});
 	}
 
+	protected FileSystemWatcher createWatcher(long pollingInterval, long quietPeriod) {
+		return new FileSystemWatcher(false, pollingInterval, quietPeriod);
+	}
+
 	private File startWithNewFolder() throws IOException {
 		File folder = this.temp.newFolder();
 		this.watcher.addSourceFolder(folder);
@@ -306,6 +332,20 @@ public class FileSystemWatcherTests {
 		return singleChange.iterator().next();
 	}
 
+	private void waitForChanges(int count) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 5000;
+		while (this.changes.size() < count && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+		assertThat(this.changes).hasSize(count);
+	}
+
+	private Set<ChangedFile> getChangedFiles(int index) {
+		Set<ChangedFiles> changeSet = this.changes.get(index);
+		assertThat(changeSet).hasSize(1);
+		return changeSet.iterator().next().getFiles();
+	}
+
 	private Set<ChangedFiles> getSingleOnChange() {
 		assertThat(this.changes.size()).isEqualTo(1);
 		return this.changes.get(0);
@@ -18,6 +18,7 @@ package org.springframework.boot.devtools.filewatch;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -135,6 +136,30 @@ public class FolderSnapshotTests {
 		assertThat(getChangedFile(changedFiles, newFile).getType()).isEqualTo(Type.ADD);
 	}
 
+	@Test
+	public void updateReadsChangedFolders() throws Exception {
+		File folder1 = new File(this.folder, "folder1");
+		FileCopyUtils.copy("updatedcontent".getBytes(), new File(folder1, "file1"));
+		new File(folder1, "file2").delete();
+		File nested = new File(folder1, "nested");
+		nested.mkdirs();
+		new File(nested, "newfile").createNewFile();
+		FolderSnapshot updatedSnapshot = this.initialSnapshot
+				.update(Collections.singleton(folder1));
+		assertThat(updatedSnapshot).isEqualTo(new FolderSnapshot(this.folder));
+	}
+
+	@Test
+	public void updateDoesNotReadUnchangedFolders() throws Exception {
+		File folder1 = new File(this.folder, "folder1");
+		new File(this.folder, "newfile").createNewFile();
+		FolderSnapshot updatedSnapshot = this.initialSnapshot
+				.update(Collections.singleton(folder1));
+		assertThat(updatedSnapshot).isEqualTo(this.initialSnapshot);
+		updatedSnapshot = updatedSnapshot.update(Collections.singleton(this.folder));
+		assertThat(updatedSnapshot).isEqualTo(new FolderSnapshot(this.folder));
+	}
+
 	private ChangedFile getChangedFile(ChangedFiles changedFiles, File file) {
 		for (ChangedFile changedFile : changedFiles) {
 			if (changedFile.getFile().equals(file)) {
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.livereload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Connection}.
+ *
+ * @author agent (agent@local)
+ */
+public class ConnectionTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private Selector selector;
+
+	private SocketChannel client;
+
+	private SocketChannel server;
+
+	private Connection connection;
+
+	@Before
+	public void setup() throws Exception {
+		this.selector = Selector.open();
+		try (ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
+			serverSocket.bind(new InetSocketAddress("localhost", 0));
+			this.client = SocketChannel.open();
+			this.client.setOption(StandardSocketOptions.SO_RCVBUF, 1024);
+			this.client.connect(serverSocket.getLocalAddress());
+			this.server = serverSocket.accept();
+		}
+		this.server.setOption(StandardSocketOptions.SO_SNDBUF, 1024);
+		this.connection = new Connection(this.server);
+		this.connection.register(this.selector);
+	}
+
+	@After
+	public void close() throws Exception {
+		this.connection.close();
+		this.client.close();
+		this.selector.close();
+	}
+
+	@Test
+	public void readLargeHeader() throws Exception {
+		StringBuilder header = new StringBuilder("GET /livereload.js HTTP/1.1\r\n");
+		for (int i = 0; i < 100; i++) {
+			header.append("x-something-").append(i)
+					.append(": xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\r\n");
+		}
+		sendToServer(header + "\r\n");
+		assertThat(exchange()).startsWith("HTTP/1.1 200 OK");
+	}
+
+	@Test
+	public void slowClientIsDisconnected() throws Exception {
+		sendToServer("GET /livereload HTTP/1.1\r\nUpgrade: websocket\r\n"
+				+ "Sec-WebSocket-Version: 13\r\n"
+				+ "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n\r\n");
+		this.connection.read();
+		this.thrown.expect(IOException.class);
+		this.thrown.expectMessage("LiveReload client is not reading");
+		for (int i = 0; i < 100000; i++) {
+			this.connection.triggerReload();
+		}
+	}
+
+	private void sendToServer(String data) throws Exception {
+		this.client.write(ByteBuffer.wrap(data.getBytes()));
+		Thread.sleep(100);
+	}
+
+	private String exchange() throws IOException {
+		this.client.configureBlocking(false);
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		int read = 0;
+		while (read != -1) {
+			if (this.connection.isOpen()) {
+				this.connection.read();
+				this.connection.write();
+			}
+			read = this.client.read(buffer);
+			buffer.flip();
+			content.write(buffer.array(), 0, buffer.limit());
+			buffer.clear();
+		}
+		return new String(content.toByteArray());
+	}
+
+}
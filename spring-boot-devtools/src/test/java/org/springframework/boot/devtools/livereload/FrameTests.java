@@ -16,8 +16,8 @@
 
 package org.springframework.boot.devtools.livereload;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.junit.Rule;
@@ -91,10 +91,10 @@ public class FrameTests {
 
 	@Test
 	public void readFragmentedNotSupported() throws Exception {
-		byte[] bytes = new byte[] { 0x0F };
+		byte[] bytes = new byte[] { 0x0F, 0x00 };
 		this.thrown.expect(IllegalStateException.class);
 		this.thrown.expectMessage("Fragmented frames are not supported");
-		Frame.read(newConnectionInputStream(bytes));
+		Frame.read(ByteBuffer.wrap(bytes));
 	}
 
 	@Test
@@ -102,13 +102,13 @@ public class FrameTests {
 		byte[] bytes = new byte[] { (byte) 0x80, (byte) 0xFF };
 		this.thrown.expect(IllegalStateException.class);
 		this.thrown.expectMessage("Large frames are not supported");
-		Frame.read(newConnectionInputStream(bytes));
+		Frame.read(ByteBuffer.wrap(bytes));
 	}
 
 	@Test
 	public void readSmallTextFrame() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x81, (byte) 0x02, 0x41, 0x41 };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.TEXT);
 		assertThat(frame.getPayload()).isEqualTo(new byte[] { 0x41, 0x41 });
 	}
@@ -117,7 +117,7 @@ public class FrameTests {
 	public void readMaskedTextFrame() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x81, (byte) 0x82, 0x0F, 0x0F, 0x0F, 0x0F,
 				0x4E, 0x4E };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.TEXT);
 		assertThat(frame.getPayload()).isEqualTo(new byte[] { 0x41, 0x41 });
 	}
@@ -134,7 +134,7 @@ public class FrameTests {
 		bytes[5] = 0x0F;
 		bytes[6] = 0x0F;
 		bytes[7] = 0x0F;
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.TEXT);
 		assertThat(frame.getPayload()).isEqualTo(createString(126).getBytes());
 	}
@@ -142,40 +142,69 @@ public class FrameTests {
 	@Test
 	public void readContinuation() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x80, (byte) 0x00 };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.CONTINUATION);
 	}
 
 	@Test
 	public void readBinary() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x82, (byte) 0x00 };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.BINARY);
 	}
 
 	@Test
 	public void readClose() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x88, (byte) 0x00 };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.CLOSE);
 	}
 
 	@Test
 	public void readPing() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x89, (byte) 0x00 };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.PING);
 	}
 
 	@Test
 	public void readPong() throws Exception {
 		byte[] bytes = new byte[] { (byte) 0x8A, (byte) 0x00 };
-		Frame frame = Frame.read(newConnectionInputStream(bytes));
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
 		assertThat(frame.getType()).isEqualTo(Frame.Type.PONG);
 	}
 
-	private ConnectionInputStream newConnectionInputStream(byte[] bytes) {
-		return new ConnectionInputStream(new ByteArrayInputStream(bytes));
+	@Test
+	public void toByteBuffer() throws Exception {
+		Frame frame = new Frame(createString(126));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		frame.write(bos);
+		ByteBuffer buffer = frame.toByteBuffer();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		assertThat(bytes).isEqualTo(bos.toByteArray());
+	}
+
+	@Test
+	public void readMaskedTextFrameLeavesRemainingBytes() throws Exception {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0x81, (byte) 0x82, 0x0F,
+				0x0F, 0x0F, 0x0F, 0x4E, 0x4E, (byte) 0x89 });
+		Frame frame = Frame.read(buffer);
+		assertThat(frame.getType()).isEqualTo(Frame.Type.TEXT);
+		assertThat(frame.getPayload()).isEqualTo(new byte[] { 0x41, 0x41 });
+		assertThat(buffer.remaining()).isEqualTo(1);
+	}
+
+	@Test
+	public void readIncompleteFrame() throws Exception {
+		byte[] bytes = new Frame(createString(200)).toByteBuffer().array();
+		for (int length = 0; length < bytes.length; length++) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+			assertThat(Frame.read(buffer)).isNull();
+			assertThat(buffer.position()).isEqualTo(0);
+		}
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
+		assertThat(frame.getPayload()).isEqualTo(createString(200).getBytes());
 	}
 
 	private String createString(int length) {
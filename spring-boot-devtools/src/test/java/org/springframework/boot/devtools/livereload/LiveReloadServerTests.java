@@ -17,9 +17,8 @@
 package org.springframework.boot.devtools.livereload;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -90,6 +89,21 @@ public class LiveReloadServerTests {
 		assertThat(handler.getMessages().get(1)).contains("command\":\"reload\"");
 	}
 
+	@Test
+	public void triggerReloadSendsToAllConnections() throws Exception {
+		List<LiveReloadWebSocketHandler> handlers = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			handlers.add(connect());
+		}
+		this.server.triggerReload();
+		Thread.sleep(200);
+		this.server.stop();
+		for (LiveReloadWebSocketHandler handler : handlers) {
+			assertThat(handler.getMessages()).hasSize(2);
+			assertThat(handler.getMessages().get(1)).contains("command\":\"reload\"");
+		}
+	}
+
 	@Test
 	public void pingPong() throws Exception {
 		LiveReloadWebSocketHandler handler = connect();
@@ -164,9 +178,8 @@ public class LiveReloadServerTests {
 		}
 
 		@Override
-		protected Connection createConnection(java.net.Socket socket,
-				InputStream inputStream, OutputStream outputStream) throws IOException {
-			return new MonitoredConnection(socket, inputStream, outputStream);
+		protected Connection createConnection(SocketChannel channel) throws IOException {
+			return new MonitoredConnection(channel);
 		}
 
 		public List<ConnectionClosedException> getClosedExceptions() {
@@ -177,15 +190,14 @@ public class LiveReloadServerTests {
 
 		private class MonitoredConnection extends Connection {
 
-			MonitoredConnection(java.net.Socket socket, InputStream inputStream,
-					OutputStream outputStream) throws IOException {
-				super(socket, inputStream, outputStream);
+			MonitoredConnection(SocketChannel channel) {
+				super(channel);
 			}
 
 			@Override
-			public void run() throws Exception {
+			public void read() throws IOException {
 				try {
-					super.run();
+					super.read();
 				}
 				catch (ConnectionClosedException ex) {
 					ex.printStackTrace();
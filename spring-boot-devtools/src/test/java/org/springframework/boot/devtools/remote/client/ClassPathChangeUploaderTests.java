@@ -19,7 +19,6 @@ package org.springframework.boot.devtools.remote.client;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.net.ConnectException;
 import java.util.Collection;
 import java.util.Iterator;
@@ -38,8 +37,10 @@ import org.springframework.boot.devtools.filewatch.ChangedFile.Type;
 import org.springframework.boot.devtools.filewatch.ChangedFiles;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFileRepository;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesDecoder;
 import org.springframework.boot.devtools.test.MockClientHttpRequestFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.client.MockClientHttpRequest;
@@ -123,9 +124,46 @@ public class ClassPathChangeUploaderTests {
 				this.requestFactory.getExecutedRequests().get(1));
 	}
 
+	@Test
+	public void skipsUnchangedFiles() throws Exception {
+		File sourceFolder = this.temp.newFolder();
+		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
+		this.requestFactory.willRespond(HttpStatus.OK);
+		this.requestFactory.willRespond(HttpStatus.OK);
+		this.uploader.onApplicationEvent(event);
+		this.uploader.onApplicationEvent(event);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(1);
+		createFile(sourceFolder, "File2", "File2Changed");
+		this.uploader.onApplicationEvent(event);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(2);
+		ClassLoaderFiles classLoaderFiles = decode(
+				this.requestFactory.getExecutedRequests().get(1).getBodyAsBytes());
+		assertThat(classLoaderFiles.size()).isEqualTo(1);
+		assertClassFile(classLoaderFiles.getFile("File2"), "File2Changed",
+				Kind.MODIFIED);
+	}
+
+	@Test
+	public void resendsFullContentOnConflict() throws Exception {
+		File sourceFolder = this.temp.newFolder();
+		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
+		this.requestFactory.willRespond(HttpStatus.OK);
+		this.uploader.onApplicationEvent(event);
+		createFile(sourceFolder, "File2",
+				"File2 with some content that has been changed");
+		this.requestFactory.willRespond(HttpStatus.CONFLICT);
+		this.requestFactory.willRespond(HttpStatus.OK);
+		this.uploader.onApplicationEvent(event);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(3);
+		ClassLoaderFiles classLoaderFiles = decode(
+				this.requestFactory.getExecutedRequests().get(2).getBodyAsBytes());
+		assertClassFile(classLoaderFiles.getFile("File2"),
+				"File2 with some content that has been changed", Kind.MODIFIED);
+	}
+
 	private void verifyUploadRequest(File sourceFolder, MockClientHttpRequest request)
-			throws IOException, ClassNotFoundException {
-		ClassLoaderFiles classLoaderFiles = deserialize(request.getBodyAsBytes());
+			throws IOException {
+		ClassLoaderFiles classLoaderFiles = decode(request.getBodyAsBytes());
 		Collection<SourceFolder> sourceFolders = classLoaderFiles.getSourceFolders();
 		assertThat(sourceFolders.size()).isEqualTo(1);
 		SourceFolder classSourceFolder = sourceFolders.iterator().next();
@@ -159,16 +197,19 @@ public class ClassPathChangeUploaderTests {
 	}
 
 	private File createFile(File sourceFolder, String name) throws IOException {
+		return createFile(sourceFolder, name, name);
+	}
+
+	private File createFile(File sourceFolder, String name, String content)
+			throws IOException {
 		File file = new File(sourceFolder, name);
-		FileCopyUtils.copy(name.getBytes(), file);
+		FileCopyUtils.copy(content.getBytes(), file);
 		return file;
 	}
 
-	private ClassLoaderFiles deserialize(byte[] bytes)
-			throws IOException, ClassNotFoundException {
-		ObjectInputStream objectInputStream = new ObjectInputStream(
-				new ByteArrayInputStream(bytes));
-		return (ClassLoaderFiles) objectInputStream.readObject();
+	private ClassLoaderFiles decode(byte[] bytes) throws IOException {
+		return new ClassLoaderFilesDecoder(ClassLoaderFileRepository.NONE)
+				.decode(new ByteArrayInputStream(bytes));
 	}
 
 }
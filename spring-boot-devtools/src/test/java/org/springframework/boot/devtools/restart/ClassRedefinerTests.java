@@ -0,0 +1,252 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart;
+
+import java.lang.instrument.ClassDefinition;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.RestartClassLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Tests for {@link ClassRedefiner}.
+ *
+ * @author agent (agent@local)
+ */
+public class ClassRedefinerTests {
+
+	private static final String CLASS_NAME = "example/Example";
+
+	private static final String FILE_NAME = CLASS_NAME + ".class";
+
+	private final Instrumentation instrumentation = mock(Instrumentation.class);
+
+	private ClassRedefiner redefiner;
+
+	private ClassFileTransformer transformer;
+
+	private RestartClassLoader classLoader;
+
+	private Class<?> loadedClass;
+
+	@Before
+	public void setup() throws Exception {
+		this.redefiner = new ClassRedefiner(this.instrumentation);
+		ArgumentCaptor<ClassFileTransformer> transformer = ArgumentCaptor
+				.forClass(ClassFileTransformer.class);
+		verify(this.instrumentation).addTransformer(transformer.capture());
+		this.transformer = transformer.getValue();
+		byte[] bytes = new ExampleClass().getBytes();
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile(FILE_NAME, new ClassLoaderFile(Kind.ADDED, bytes));
+		this.classLoader = new RestartClassLoader(getClass().getClassLoader(),
+				new URL[0], files);
+		this.loadedClass = this.classLoader.loadClass(CLASS_NAME.replace('/', '.'));
+		this.transformer.transform(this.classLoader, CLASS_NAME, null, null, bytes);
+	}
+
+	@Test
+	public void redefineWhenMethodBodyHasChanged() throws Exception {
+		byte[] bytes = new ExampleClass().withValue(2).getBytes();
+		assertThat(this.redefiner.redefine(this.classLoader, modified(bytes))).isTrue();
+		ArgumentCaptor<ClassDefinition> definition = ArgumentCaptor
+				.forClass(ClassDefinition.class);
+		verify(this.instrumentation).redefineClasses(definition.capture());
+		assertThat(definition.getValue().getDefinitionClass())
+				.isEqualTo(this.loadedClass);
+		assertThat(definition.getValue().getDefinitionClassFile()).isEqualTo(bytes);
+	}
+
+	@Test
+	public void redefineWhenMethodHasBeenAdded() throws Exception {
+		byte[] bytes = new ExampleClass().withAdditionalMethod().getBytes();
+		assertRestartRequired(modified(bytes));
+	}
+
+	@Test
+	public void redefineWhenConstructorHasChanged() throws Exception {
+		byte[] bytes = new ExampleClass().withConstructorValue(2).getBytes();
+		assertRestartRequired(modified(bytes));
+	}
+
+	@Test
+	public void redefineWhenBeanMethodHasChanged() throws Exception {
+		assertRestartRequiredWhenChanged(new ExampleClass()
+				.withMethodAnnotation("Lorg/springframework/context/annotation/Bean;"));
+	}
+
+	@Test
+	public void redefineWhenPostConstructMethodHasChanged() throws Exception {
+		assertRestartRequiredWhenChanged(new ExampleClass()
+				.withMethodAnnotation("Ljavax/annotation/PostConstruct;"));
+	}
+
+	@Test
+	public void redefineWhenAfterPropertiesSetHasChanged() throws Exception {
+		assertRestartRequiredWhenChanged(
+				new ExampleClass().withMethodName("afterPropertiesSet"));
+	}
+
+	@Test
+	public void redefineWhenClassHasNotBeenLoaded() throws Exception {
+		byte[] bytes = new ExampleClass().getBytes();
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("example/Other.class", new ClassLoaderFile(Kind.MODIFIED, bytes));
+		assertRestartRequired(files);
+	}
+
+	@Test
+	public void redefineWhenClassHasBeenDeleted() throws Exception {
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile(FILE_NAME, new ClassLoaderFile(Kind.DELETED, null));
+		assertRestartRequired(files);
+	}
+
+	@Test
+	public void redefineWhenResourceHasChanged() throws Exception {
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("application.properties",
+				new ClassLoaderFile(Kind.MODIFIED, new byte[0]));
+		assertRestartRequired(files);
+	}
+
+	@Test
+	public void redefineWithUnknownClassLoader() throws Exception {
+		byte[] bytes = new ExampleClass().withValue(2).getBytes();
+		RestartClassLoader classLoader = new RestartClassLoader(
+				getClass().getClassLoader(), new URL[0]);
+		assertThat(this.redefiner.redefine(classLoader, modified(bytes))).isFalse();
+		verifyNoMoreInteractions(this.instrumentation);
+	}
+
+	private void assertRestartRequiredWhenChanged(ExampleClass example)
+			throws Exception {
+		byte[] bytes = example.getBytes();
+		this.transformer.transform(this.classLoader, CLASS_NAME, null, null, bytes);
+		assertRestartRequired(modified(example.withValue(2).getBytes()));
+	}
+
+	private void assertRestartRequired(ClassLoaderFiles files) throws Exception {
+		assertThat(this.redefiner.redefine(this.classLoader, files)).isFalse();
+		verifyNoMoreInteractions(this.instrumentation);
+	}
+
+	private ClassLoaderFiles modified(byte[] bytes) {
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile(FILE_NAME, new ClassLoaderFile(Kind.MODIFIED, bytes));
+		return files;
+	}
+
+	/**
+	 * Generates the bytes of variants of an example class.
+	 */
+	private static class ExampleClass implements Opcodes {
+
+		private int value = 1;
+
+		private int constructorValue = 1;
+
+		private boolean additionalMethod;
+
+		private String methodName = "value";
+
+		private String methodAnnotation;
+
+		ExampleClass withValue(int value) {
+			this.value = value;
+			return this;
+		}
+
+		ExampleClass withConstructorValue(int constructorValue) {
+			this.constructorValue = constructorValue;
+			return this;
+		}
+
+		ExampleClass withAdditionalMethod() {
+			this.additionalMethod = true;
+			return this;
+		}
+
+		ExampleClass withMethodName(String methodName) {
+			this.methodName = methodName;
+			return this;
+		}
+
+		ExampleClass withMethodAnnotation(String methodAnnotation) {
+			this.methodAnnotation = methodAnnotation;
+			return this;
+		}
+
+		byte[] getBytes() {
+			ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+			writer.visit(V1_8, ACC_PUBLIC, CLASS_NAME, null, "java/lang/Object", null);
+			writer.visitField(ACC_PRIVATE, "field", "I", null, null).visitEnd();
+			MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V",
+					null, null);
+			constructor.visitCode();
+			constructor.visitVarInsn(ALOAD, 0);
+			constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>",
+					"()V", false);
+			constructor.visitVarInsn(ALOAD, 0);
+			constructor.visitIntInsn(BIPUSH, this.constructorValue);
+			constructor.visitFieldInsn(PUTFIELD, CLASS_NAME, "field", "I");
+			constructor.visitInsn(RETURN);
+			constructor.visitMaxs(0, 0);
+			constructor.visitEnd();
+			MethodVisitor method = writer.visitMethod(ACC_PUBLIC, this.methodName,
+					"()V", null, null);
+			if (this.methodAnnotation != null) {
+				method.visitAnnotation(this.methodAnnotation, true).visitEnd();
+			}
+			method.visitCode();
+			method.visitVarInsn(ALOAD, 0);
+			method.visitIntInsn(BIPUSH, this.value);
+			method.visitFieldInsn(PUTFIELD, CLASS_NAME, "field", "I");
+			method.visitInsn(RETURN);
+			method.visitMaxs(0, 0);
+			method.visitEnd();
+			if (this.additionalMethod) {
+				MethodVisitor additional = writer.visitMethod(ACC_PUBLIC, "other",
+						"()V", null, null);
+				additional.visitCode();
+				additional.visitInsn(RETURN);
+				additional.visitMaxs(0, 0);
+				additional.visitEnd();
+			}
+			writer.visitEnd();
+			return writer.toByteArray();
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.classloader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesDecoder.MissingBaseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassLoaderFilesDecoder}.
+ *
+ * @author agent (agent@local)
+ */
+public class ClassLoaderFilesDecoderTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void baseMustNotBeNull() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Base must not be null");
+		new ClassLoaderFilesDecoder(null);
+	}
+
+	@Test
+	public void decodeEmpty() throws Exception {
+		byte[] encoded = new ClassLoaderFilesEncoder(ClassLoaderFileRepository.NONE)
+				.encode(new ClassLoaderFiles());
+		assertThat(new ClassLoaderFilesDecoder(ClassLoaderFileRepository.NONE)
+				.decode(new ByteArrayInputStream(encoded), encoded.length).size())
+						.isEqualTo(0);
+	}
+
+	@Test
+	public void decodeWhenLengthExceedsContent() throws Exception {
+		byte[] encoded = encodeFileWithLength(Integer.MAX_VALUE);
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("Malformed content length");
+		new ClassLoaderFilesDecoder(ClassLoaderFileRepository.NONE)
+				.decode(new ByteArrayInputStream(encoded), encoded.length);
+	}
+
+	@Test
+	public void decodeWhenContentIsTruncated() throws Exception {
+		byte[] encoded = encodeFileWithLength(Integer.MAX_VALUE);
+		this.thrown.expect(EOFException.class);
+		new ClassLoaderFilesDecoder(ClassLoaderFileRepository.NONE)
+				.decode(new ByteArrayInputStream(encoded));
+	}
+
+	@Test
+	public void decodeUnsupportedFormat() throws Exception {
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("Unsupported class loader files format");
+		new ClassLoaderFilesDecoder(ClassLoaderFileRepository.NONE)
+				.decode(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6 }));
+	}
+
+	@Test
+	public void decodeDeltaWithMissingBase() throws Exception {
+		byte[] encoded = encodeDelta();
+		this.thrown.expect(MissingBaseException.class);
+		this.thrown.expectMessage("'file'");
+		new ClassLoaderFilesDecoder(ClassLoaderFileRepository.NONE)
+				.decode(new ByteArrayInputStream(encoded));
+	}
+
+	@Test
+	public void decodeDeltaWithDifferentBase() throws Exception {
+		byte[] encoded = encodeDelta();
+		ClassLoaderFiles base = new ClassLoaderFiles();
+		base.addFile("file", new ClassLoaderFile(Kind.ADDED, new byte[100]));
+		this.thrown.expect(MissingBaseException.class);
+		new ClassLoaderFilesDecoder(base).decode(new ByteArrayInputStream(encoded));
+	}
+
+	private byte[] encodeFileWithLength(int length) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(ClassLoaderFilesEncoder.HEADER);
+		DataOutputStream output = new DataOutputStream(
+				new DeflaterOutputStream(bytes));
+		output.writeByte(ClassLoaderFilesEncoder.FOLDER);
+		output.writeUTF("folder");
+		output.writeByte(ClassLoaderFilesEncoder.FILE);
+		output.writeUTF("file");
+		output.writeByte(Kind.ADDED.ordinal());
+		output.writeLong(0);
+		output.writeByte(ClassLoaderFilesEncoder.FULL_CONTENT);
+		output.writeInt(length);
+		output.close();
+		return bytes.toByteArray();
+	}
+
+	private byte[] encodeDelta() throws Exception {
+		byte[] contents = new byte[100];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = (byte) i;
+		}
+		ClassLoaderFiles base = new ClassLoaderFiles();
+		base.addFile("file", new ClassLoaderFile(Kind.ADDED, contents.clone()));
+		contents[50] = 0;
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("file", new ClassLoaderFile(Kind.MODIFIED, contents));
+		return new ClassLoaderFilesEncoder(base).encode(files);
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.classloader;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassLoaderFilesEncoder}.
+ *
+ * @author agent (agent@local)
+ */
+public class ClassLoaderFilesEncoderTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void baseMustNotBeNull() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Base must not be null");
+		new ClassLoaderFilesEncoder(null);
+	}
+
+	@Test
+	public void encodeAndDecode() throws Exception {
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("a", "myfile1", new ClassLoaderFile(Kind.ADDED, 1, bytes(100)));
+		files.addFile("a", "myfile2", new ClassLoaderFile(Kind.MODIFIED, 2, bytes(0)));
+		files.addFile("b", "myfile3", new ClassLoaderFile(Kind.DELETED, 3, null));
+		ClassLoaderFiles decoded = roundTrip(ClassLoaderFileRepository.NONE, files);
+		Iterator<SourceFolder> folders = decoded.getSourceFolders().iterator();
+		SourceFolder folder = folders.next();
+		assertThat(folder.getName()).isEqualTo("a");
+		assertThat(folder.getFiles()).hasSize(2);
+		assertThat(folders.next().getName()).isEqualTo("b");
+		assertThat(folders.hasNext()).isFalse();
+		assertThat(decoded.getFile("myfile1").getKind()).isEqualTo(Kind.ADDED);
+		assertThat(decoded.getFile("myfile1").getLastModified()).isEqualTo(1);
+		assertThat(decoded.getFile("myfile1").getContents()).isEqualTo(bytes(100));
+		assertThat(decoded.getFile("myfile2").getContents()).isEmpty();
+		assertThat(decoded.getFile("myfile3").getKind()).isEqualTo(Kind.DELETED);
+		assertThat(decoded.getFile("myfile3").getContents()).isNull();
+	}
+
+	@Test
+	public void getChangesSkipsUnchangedFiles() throws Exception {
+		ClassLoaderFiles base = new ClassLoaderFiles();
+		base.addFile("same", new ClassLoaderFile(Kind.ADDED, bytes(10)));
+		base.addFile("different", new ClassLoaderFile(Kind.ADDED, bytes(10)));
+		base.addFile("deleted", new ClassLoaderFile(Kind.DELETED, null));
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("same", new ClassLoaderFile(Kind.MODIFIED, bytes(10)));
+		files.addFile("different", new ClassLoaderFile(Kind.MODIFIED, bytes(11)));
+		files.addFile("deleted", new ClassLoaderFile(Kind.DELETED, null));
+		files.addFile("new", new ClassLoaderFile(Kind.ADDED, bytes(10)));
+		ClassLoaderFiles changes = new ClassLoaderFilesEncoder(base).getChanges(files);
+		assertThat(changes.size()).isEqualTo(2);
+		assertThat(changes.getFile("different")).isNotNull();
+		assertThat(changes.getFile("new")).isNotNull();
+	}
+
+	@Test
+	public void modifiedFileIsSentAsDelta() throws Exception {
+		byte[] original = bytes(4096);
+		byte[] modified = Arrays.copyOf(original, original.length + 10);
+		modified[10] = (byte) (modified[10] + 1);
+		modified[2000] = (byte) (modified[2000] + 1);
+		ClassLoaderFiles base = new ClassLoaderFiles();
+		base.addFile("file", new ClassLoaderFile(Kind.ADDED, original));
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("file", new ClassLoaderFile(Kind.MODIFIED, modified));
+		byte[] full = new ClassLoaderFilesEncoder(ClassLoaderFileRepository.NONE)
+				.encode(files);
+		byte[] delta = new ClassLoaderFilesEncoder(base).encode(files);
+		assertThat(delta.length).isLessThan(full.length / 10);
+		assertThat(roundTrip(base, files).getFile("file").getContents())
+				.isEqualTo(modified);
+	}
+
+	@Test
+	public void diffAndPatch() throws Exception {
+		Random random = new Random(0);
+		byte[] source = bytes(1000);
+		for (int i = 0; i < 100; i++) {
+			byte[] target = Arrays.copyOfRange(source, random.nextInt(100),
+					900 + random.nextInt(100));
+			target[random.nextInt(target.length)] = (byte) random.nextInt();
+			byte[] delta = ClassLoaderFilesEncoder.diff(source, target);
+			assertThat(ClassLoaderFilesDecoder.patch(source, delta)).isEqualTo(target);
+		}
+		assertThat(ClassLoaderFilesDecoder.patch(source,
+				ClassLoaderFilesEncoder.diff(source, new byte[0]))).isEmpty();
+		assertThat(ClassLoaderFilesDecoder.patch(new byte[0],
+				ClassLoaderFilesEncoder.diff(new byte[0], source))).isEqualTo(source);
+	}
+
+	private ClassLoaderFiles roundTrip(ClassLoaderFileRepository base,
+			ClassLoaderFiles files) throws Exception {
+		byte[] encoded = new ClassLoaderFilesEncoder(base).encode(files);
+		return new ClassLoaderFilesDecoder(base)
+				.decode(new ByteArrayInputStream(encoded));
+	}
+
+	private byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+}
@@ -31,14 +31,20 @@ import org.mockito.MockitoAnnotations;
 
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFileRepository;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesEncoder;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 /**
@@ -80,13 +86,27 @@ public class HttpRestartServerTests {
 	}
 
 	@Test
-	public void sendClassLoaderFiles() throws Exception {
+	public void sendSerializedClassLoaderFiles() throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest();
 		MockHttpServletResponse response = new MockHttpServletResponse();
 		ClassLoaderFiles files = new ClassLoaderFiles();
 		files.addFile("name", new ClassLoaderFile(Kind.ADDED, new byte[0]));
 		byte[] bytes = serialize(files);
 		request.setContent(bytes);
+		this.server.handle(new ServletServerHttpRequest(request),
+				new ServletServerHttpResponse(response));
+		verify(this.delegate, never()).updateAndRestart(any());
+		assertThat(response.getStatus()).isEqualTo(500);
+	}
+
+	@Test
+	public void sendEncodedClassLoaderFiles() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("name", new ClassLoaderFile(Kind.ADDED, new byte[0]));
+		request.setContent(
+				new ClassLoaderFilesEncoder(ClassLoaderFileRepository.NONE).encode(files));
 		this.server.handle(new ServletServerHttpRequest(request),
 				new ServletServerHttpResponse(response));
 		verify(this.delegate).updateAndRestart(this.filesCaptor.capture());
@@ -94,6 +114,43 @@ public class HttpRestartServerTests {
 		assertThat(response.getStatus()).isEqualTo(200);
 	}
 
+	@Test
+	public void sendDeltaEncodedClassLoaderFiles() throws Exception {
+		ClassLoaderFiles base = new ClassLoaderFiles();
+		base.addFile("name", new ClassLoaderFile(Kind.ADDED, new byte[100]));
+		byte[] contents = new byte[100];
+		contents[50] = 1;
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("name", new ClassLoaderFile(Kind.MODIFIED, contents));
+		byte[] encoded = new ClassLoaderFilesEncoder(base).encode(files);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		request.setContent(encoded);
+		given(this.delegate.getUploadedFiles()).willReturn(base);
+		this.server.handle(new ServletServerHttpRequest(request),
+				new ServletServerHttpResponse(response));
+		verify(this.delegate).updateAndRestart(this.filesCaptor.capture());
+		assertThat(this.filesCaptor.getValue().getFile("name").getContents())
+				.isEqualTo(contents);
+		assertThat(response.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	public void sendDeltaWithMissingBase() throws Exception {
+		ClassLoaderFiles base = new ClassLoaderFiles();
+		base.addFile("name", new ClassLoaderFile(Kind.ADDED, new byte[100]));
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("name", new ClassLoaderFile(Kind.MODIFIED, new byte[101]));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		request.setContent(new ClassLoaderFilesEncoder(base).encode(files));
+		this.server.handle(new ServletServerHttpRequest(request),
+				new ServletServerHttpResponse(response));
+		verify(this.delegate).getUploadedFiles();
+		verifyNoMoreInteractions(this.delegate);
+		assertThat(response.getStatus()).isEqualTo(409);
+	}
+
 	@Test
 	public void sendNoContent() throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest();
@@ -112,7 +169,7 @@ public class HttpRestartServerTests {
 		request.setContent(new byte[] { 0, 0, 0 });
 		this.server.handle(new ServletServerHttpRequest(request),
 				new ServletServerHttpResponse(response));
-		verifyZeroInteractions(this.delegate);
+		verify(this.delegate, never()).updateAndRestart(any());
 		assertThat(response.getStatus()).isEqualTo(500);
 	}
 
@@ -23,6 +23,8 @@ import java.net.ConnectException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.junit.Before;
@@ -36,6 +38,7 @@ import org.springframework.boot.devtools.test.MockClientHttpRequestFactory;
 import org.springframework.boot.devtools.tunnel.client.HttpTunnelConnection.TunnelChannel;
 import org.springframework.boot.test.rule.OutputCapture;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -146,6 +149,38 @@ public class HttpTunnelConnectionTests {
 		assertThat(this.requestFactory.getExecutedRequests().size()).isGreaterThan(10);
 	}
 
+	@Test
+	public void writesWithinBatchWindowAreSentTogether() throws Exception {
+		DeferredExecutor executor = new DeferredExecutor();
+		HttpTunnelConnection connection = new HttpTunnelConnection(this.url,
+				this.requestFactory, executor);
+		connection.setBatchWindow(0);
+		TunnelChannel channel = connection.open(this.incomingChannel, this.closeable);
+		write(channel, "1");
+		write(channel, "+");
+		write(channel, "1");
+		assertThat(executor.getTasks()).hasSize(2);
+		this.requestFactory.willRespond(HttpStatus.TOO_MANY_REQUESTS,
+				HttpStatus.TOO_MANY_REQUESTS);
+		executor.runTasks();
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(2);
+		MockClientHttpRequest request = this.requestFactory.getExecutedRequests().get(1);
+		assertThat(request.getBodyAsString()).isEqualTo("1+1");
+		assertThat(request.getHeaders().getFirst("x-seq")).isEqualTo("1");
+		write(channel, "=2");
+		executor.runTasks();
+		request = this.requestFactory.getExecutedRequests().get(2);
+		assertThat(request.getBodyAsString()).isEqualTo("=2");
+		assertThat(request.getHeaders().getFirst("x-seq")).isEqualTo("2");
+	}
+
+	@Test
+	public void batchWindowMustNotBeNegative() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("BatchWindow must not be negative");
+		new HttpTunnelConnection(this.url, this.requestFactory).setBatchWindow(-1);
+	}
+
 	@Test
 	public void serviceUnavailableResponseLogsWarningAndClosesTunnel() throws Exception {
 		this.requestFactory.willRespond(HttpStatus.SERVICE_UNAVAILABLE);
@@ -175,6 +210,29 @@ public class HttpTunnelConnectionTests {
 		return connection.open(this.incomingChannel, this.closeable);
 	}
 
+	private static class DeferredExecutor implements Executor {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		@Override
+		public void execute(Runnable command) {
+			this.tasks.add(command);
+		}
+
+		public List<Runnable> getTasks() {
+			return this.tasks;
+		}
+
+		public void runTasks() {
+			List<Runnable> tasks = new ArrayList<>(this.tasks);
+			this.tasks.clear();
+			for (Runnable task : tasks) {
+				task.run();
+			}
+		}
+
+	}
+
 	private static class CurrentThreadExecutor implements Executor {
 
 		@Override
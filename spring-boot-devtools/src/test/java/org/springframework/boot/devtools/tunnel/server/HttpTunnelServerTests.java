@@ -186,6 +186,52 @@ public class HttpTunnelServerTests {
 		this.server.getServerThread().join();
 	}
 
+	@Test
+	public void dataReceivedWithoutHttpConnectionIsSentWithNextRequest()
+			throws Exception {
+		MockHttpConnection h1 = new MockHttpConnection();
+		this.server.handle(h1);
+		this.serverChannel.send("hello");
+		h1.verifyReceived("hello", 1);
+		this.serverChannel.send("1");
+		this.serverChannel.send("2");
+		this.serverChannel.send("3");
+		Thread.sleep(200);
+		MockHttpConnection h2 = new MockHttpConnection();
+		this.server.handle(h2);
+		h2.verifyReceived("123", 2);
+		this.serverChannel.disconnect();
+		this.server.getServerThread().join();
+	}
+
+	@Test
+	public void targetServerIsNotReadWhenPendingDataIsFull() throws Exception {
+		this.server.setMaxPendingDataSize(4);
+		MockHttpConnection h1 = new MockHttpConnection();
+		this.server.handle(h1);
+		this.serverChannel.send("hello");
+		h1.verifyReceived("hello", 1);
+		this.serverChannel.send("12");
+		this.serverChannel.send("34");
+		this.serverChannel.send("56");
+		Thread.sleep(200);
+		MockHttpConnection h2 = new MockHttpConnection();
+		this.server.handle(h2);
+		h2.verifyReceived("1234", 2);
+		MockHttpConnection h3 = new MockHttpConnection();
+		this.server.handle(h3);
+		h3.verifyReceived("56", 3);
+		this.serverChannel.disconnect();
+		this.server.getServerThread().join();
+	}
+
+	@Test
+	public void maxPendingDataSizeMustBePositive() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("MaxPendingDataSize must be a positive value");
+		this.server.setMaxPendingDataSize(0);
+	}
+
 	@Test
 	public void clientIsAwareOfServerClose() throws Exception {
 		MockHttpConnection h1 = new MockHttpConnection("1", 1);
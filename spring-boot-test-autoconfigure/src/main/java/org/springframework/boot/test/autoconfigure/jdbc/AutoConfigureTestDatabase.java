@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,6 +59,17 @@ public @interface AutoConfigureTestDatabase {
 	 */
 	EmbeddedDatabaseConnection connection() default EmbeddedDatabaseConnection.NONE;
 
+	/**
+	 * If the embedded database should be created from a template. When enabled, the
+	 * first database is migrated as usual and a snapshot of it is taken as soon as Flyway
+	 * or Liquibase has migrated it. Later databases using the same Flyway or Liquibase migration
+	 * scripts are created from the snapshot rather than migrated from scratch. Currently
+	 * only supported with H2.
+	 * @return if the database should be created from a template
+	 */
+	@PropertyMapping(skip = SkipPropertyMapping.ON_DEFAULT_VALUE)
+	boolean template() default false;
+
 	/**
 	 * What the test database can replace.
 	 */
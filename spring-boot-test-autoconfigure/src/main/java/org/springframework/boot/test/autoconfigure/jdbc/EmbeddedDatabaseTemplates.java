@@ -0,0 +1,297 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.autoconfigure.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.context.properties.source.ConfigurationProperty;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.context.properties.source.IterableConfigurationPropertySource;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Templates used to create embedded test databases from a snapshot of a database that
+ * has already been migrated. Snapshots are keyed by a hash of the enabled Flyway and
+ * Liquibase migration scripts and of the {@code flyway.*} and {@code liquibase.*}
+ * properties so that a template is only reused when the migrations have not changed. A snapshot is taken as soon as the migrations have been applied, so it
+ * doesn't contain data added later in the context's startup. Since the migrations
+ * recorded in the snapshot have already been applied, Flyway and Liquibase have nothing
+ * left to do when a context starts.
+ * <p>
+ * Only H2 databases are currently supported, other databases are always migrated from
+ * scratch.
+ *
+ * @author agent (agent@local)
+ */
+final class EmbeddedDatabaseTemplates {
+
+	private static final Log logger = LogFactory.getLog(EmbeddedDatabaseTemplates.class);
+
+	private static final String[] DEFAULT_FLYWAY_LOCATIONS = { "db/migration" };
+
+	private static final String DEFAULT_LIQUIBASE_CHANGE_LOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+	private static final ConfigurationPropertyName[] MIGRATION_PREFIXES = {
+			ConfigurationPropertyName.of("flyway"),
+			ConfigurationPropertyName.of("liquibase") };
+
+	private static final Map<String, List<String>> snapshots = new ConcurrentHashMap<>();
+
+	private static final Map<DataSource, PendingTemplate> pending = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	private EmbeddedDatabaseTemplates() {
+	}
+
+	/**
+	 * Return the key of the template that can be used for a database with the given
+	 * connection or {@code null} if no template can be used.
+	 * @param environment the environment
+	 * @param resourcePatternResolver the resolver used to find migration scripts
+	 * @param connection the embedded database connection
+	 * @return the template key or {@code null}
+	 */
+	static String getKey(Environment environment,
+			ResourcePatternResolver resourcePatternResolver,
+			EmbeddedDatabaseConnection connection) {
+		if (connection != EmbeddedDatabaseConnection.H2) {
+			logger.debug("Embedded database templates are not supported by "
+					+ connection);
+			return null;
+		}
+		try {
+			List<Resource> resources = getMigrationResources(environment,
+					resourcePatternResolver);
+			if (resources.isEmpty()) {
+				logger.debug("No migration scripts found, "
+						+ "embedded database template will not be used");
+				return null;
+			}
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(connection.name().getBytes());
+			digest.update(("flyway.enabled=" + isFlywayEnabled(environment)).getBytes());
+			digest.update(("liquibase.enabled=" + isLiquibaseEnabled(environment))
+					.getBytes());
+			getMigrationSettings(environment).forEach((name, value) -> digest
+					.update((name + "=" + value + "\n").getBytes()));
+			for (Resource resource : resources) {
+				digest.update(resource.getURL().toString().getBytes());
+				try (InputStream inputStream = resource.getInputStream()) {
+					digest.update(StreamUtils.copyToByteArray(inputStream));
+				}
+			}
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest()) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		}
+		catch (IOException | NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(
+					"Unable to create embedded database template key", ex);
+		}
+	}
+
+	private static List<Resource> getMigrationResources(Environment environment,
+			ResourcePatternResolver resourcePatternResolver) throws IOException {
+		List<String> patterns = new ArrayList<>();
+		if (isFlywayEnabled(environment)) {
+			for (String location : environment.getProperty("flyway.locations",
+					String[].class, DEFAULT_FLYWAY_LOCATIONS)) {
+				patterns.add(getFlywayPattern(location.replace("{vendor}", "h2")));
+			}
+		}
+		if (isLiquibaseEnabled(environment)) {
+			String changeLog = environment.getProperty("liquibase.change-log",
+					DEFAULT_LIQUIBASE_CHANGE_LOG);
+			patterns.add(getLiquibasePattern(changeLog));
+		}
+		List<Resource> resources = new ArrayList<>();
+		for (String pattern : patterns) {
+			for (Resource resource : resourcePatternResolver.getResources(pattern)) {
+				if (resource.isReadable()) {
+					resources.add(resource);
+				}
+			}
+		}
+		resources.sort(Comparator.comparing(Resource::getDescription));
+		return resources;
+	}
+
+	private static Map<String, String> getMigrationSettings(Environment environment) {
+		Map<String, String> settings = new TreeMap<>();
+		for (ConfigurationPropertySource source : ConfigurationPropertySources
+				.get(environment)) {
+			if (source instanceof IterableConfigurationPropertySource) {
+				((IterableConfigurationPropertySource) source).stream()
+						.filter(EmbeddedDatabaseTemplates::isMigrationSetting)
+						.forEach((name) -> {
+							ConfigurationProperty property = source
+									.getConfigurationProperty(name);
+							if (property != null) {
+								settings.putIfAbsent(name.toString(),
+										String.valueOf(property.getValue()));
+							}
+						});
+			}
+		}
+		return settings;
+	}
+
+	private static boolean isMigrationSetting(ConfigurationPropertyName name) {
+		for (ConfigurationPropertyName prefix : MIGRATION_PREFIXES) {
+			if (prefix.isAncestorOf(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isFlywayEnabled(Environment environment) {
+		return environment.getProperty("flyway.enabled", Boolean.class, true);
+	}
+
+	private static boolean isLiquibaseEnabled(Environment environment) {
+		return environment.getProperty("liquibase.enabled", Boolean.class, true);
+	}
+
+	private static String getFlywayPattern(String location) {
+		if (location.startsWith("filesystem:")) {
+			return "file:" + location.substring("filesystem:".length()) + "/**";
+		}
+		String path = StringUtils.trimLeadingCharacter(
+				location.startsWith("classpath:")
+						? location.substring("classpath:".length()) : location,
+				'/');
+		return ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + path + "/**";
+	}
+
+	private static String getLiquibasePattern(String changeLog) {
+		String folder = changeLog.substring(0, changeLog.lastIndexOf('/') + 1);
+		if (folder.startsWith("classpath:")) {
+			folder = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+					+ StringUtils.trimLeadingCharacter(
+							folder.substring("classpath:".length()), '/');
+		}
+		return folder + "**";
+	}
+
+	/**
+	 * Apply the template with the given key to a newly created database. If no snapshot
+	 * is available yet, the database is recorded so that a snapshot can be taken once it
+	 * has been migrated.
+	 * @param database the newly created database
+	 * @param key the template key
+	 */
+	static void apply(EmbeddedDatabase database, String key) {
+		List<String> snapshot = snapshots.get(key);
+		if (snapshot == null) {
+			pending.put(database, new PendingTemplate(key));
+			return;
+		}
+		logger.info("Creating embedded database from template " + key);
+		new JdbcTemplate(database)
+				.batchUpdate(snapshot.toArray(new String[snapshot.size()]));
+	}
+
+	/**
+	 * Take snapshots of any databases from the given bean factory that are waiting for a
+	 * template. Called each time a migration has been applied so that the snapshots
+	 * contain the migrated schema but nothing added afterwards.
+	 * @param beanFactory the bean factory containing the migrated databases
+	 */
+	static void snapshot(ListableBeanFactory beanFactory) {
+		for (DataSource dataSource : beanFactory
+				.getBeansOfType(DataSource.class, false, false).values()) {
+			PendingTemplate template = pending.get(dataSource);
+			if (template != null) {
+				template.snapshot = new JdbcTemplate(dataSource)
+						.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+			}
+		}
+	}
+
+	/**
+	 * Save the snapshots taken of databases in the given context so that they can be
+	 * used as templates.
+	 * @param context the refreshed application context
+	 */
+	static void save(ApplicationContext context) {
+		for (DataSource dataSource : context.getBeansOfType(DataSource.class, false,
+				false).values()) {
+			PendingTemplate template = pending.remove(dataSource);
+			if (template != null && template.snapshot != null
+					&& snapshots.putIfAbsent(template.key,
+							Collections.unmodifiableList(template.snapshot)) == null) {
+				logger.info("Saved embedded database template " + template.key + " ("
+						+ template.snapshot.size() + " statements)");
+			}
+		}
+	}
+
+	static void clear() {
+		snapshots.clear();
+		pending.clear();
+	}
+
+	static boolean hasSnapshot(String key) {
+		return snapshots.containsKey(key);
+	}
+
+	/**
+	 * A database waiting for a template and the snapshot taken of it once migrated.
+	 */
+	private static class PendingTemplate {
+
+		private final String key;
+
+		private volatile List<String> snapshot;
+
+		PendingTemplate(String key) {
+			this.key = key;
+		}
+
+	}
+
+}
@@ -16,16 +16,23 @@
 
 package org.springframework.boot.test.autoconfigure.jdbc;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.sql.DataSource;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
@@ -35,15 +42,19 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -76,6 +87,12 @@ public class TestDatabaseAutoConfiguration {
 		return new EmbeddedDataSourceBeanFactoryPostProcessor();
 	}
 
+	@Bean
+	@ConditionalOnProperty(prefix = "spring.test.database", name = "template")
+	public static EmbeddedDatabaseTemplatePostProcessor embeddedDatabaseTemplatePostProcessor() {
+		return new EmbeddedDatabaseTemplatePostProcessor();
+	}
+
 	@Order(Ordered.LOWEST_PRECEDENCE)
 	private static class EmbeddedDataSourceBeanFactoryPostProcessor
 			implements BeanDefinitionRegistryPostProcessor {
@@ -177,6 +194,70 @@ public class TestDatabaseAutoConfiguration {
 
 	}
 
+	/**
+	 * {@link BeanPostProcessor} to snapshot embedded databases as soon as Flyway or
+	 * Liquibase has migrated them. Snapshots are saved as templates once the context has
+	 * been refreshed.
+	 */
+	private static class EmbeddedDatabaseTemplatePostProcessor
+			implements BeanPostProcessor, BeanFactoryAware,
+			ApplicationListener<ContextRefreshedEvent> {
+
+		private static final String[] MIGRATION_BEAN_TYPES = {
+				"org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer",
+				"liquibase.integration.spring.SpringLiquibase" };
+
+		private final List<Class<?>> migrationTypes = new ArrayList<>();
+
+		private ListableBeanFactory beanFactory;
+
+		EmbeddedDatabaseTemplatePostProcessor() {
+			ClassLoader classLoader = getClass().getClassLoader();
+			for (String type : MIGRATION_BEAN_TYPES) {
+				if (ClassUtils.isPresent(type, classLoader)) {
+					this.migrationTypes
+							.add(ClassUtils.resolveClassName(type, classLoader));
+				}
+			}
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+			Assert.isInstanceOf(ListableBeanFactory.class, beanFactory);
+			this.beanFactory = (ListableBeanFactory) beanFactory;
+		}
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName)
+				throws BeansException {
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName)
+				throws BeansException {
+			if (isMigration(bean)) {
+				EmbeddedDatabaseTemplates.snapshot(this.beanFactory);
+			}
+			return bean;
+		}
+
+		private boolean isMigration(Object bean) {
+			for (Class<?> migrationType : this.migrationTypes) {
+				if (migrationType.isInstance(bean)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void onApplicationEvent(ContextRefreshedEvent event) {
+			EmbeddedDatabaseTemplates.save(event.getApplicationContext());
+		}
+
+	}
+
 	private static class EmbeddedDataSourceFactory {
 
 		private final Environment environment;
@@ -197,8 +278,23 @@ public class TestDatabaseAutoConfiguration {
 							+ "you want an embedded database please put a supported one "
 							+ "on the classpath or tune the replace attribute of "
 							+ "@AutoconfigureTestDatabase.");
-			return new EmbeddedDatabaseBuilder().generateUniqueName(true)
-					.setType(connection.getType()).build();
+			EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true).setType(connection.getType()).build();
+			if (this.environment.getProperty("spring.test.database.template",
+					Boolean.class, false)) {
+				applyTemplate(database, connection);
+			}
+			return database;
+		}
+
+		private void applyTemplate(EmbeddedDatabase database,
+				EmbeddedDatabaseConnection connection) {
+			String key = EmbeddedDatabaseTemplates.getKey(this.environment,
+					new PathMatchingResourcePatternResolver(getClass().getClassLoader()),
+					connection);
+			if (key != null) {
+				EmbeddedDatabaseTemplates.apply(database, key);
+			}
 		}
 
 	}
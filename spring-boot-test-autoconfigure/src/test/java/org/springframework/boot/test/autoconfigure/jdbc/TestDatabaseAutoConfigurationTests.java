@@ -16,17 +16,28 @@
 
 package org.springframework.boot.test.autoconfigure.jdbc;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.sql.DataSource;
 
+import org.junit.After;
 import org.junit.Test;
 
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.context.ApplicationContextTester;
+import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,10 +49,19 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class TestDatabaseAutoConfigurationTests {
 
+	private static final String MIGRATION_LOCATIONS = "flyway.locations=classpath:"
+			+ "org/springframework/boot/test/autoconfigure/jdbc/migration";
+
 	private final ApplicationContextTester context = new ApplicationContextTester()
 			.withConfiguration(
 					AutoConfigurations.of(TestDatabaseAutoConfiguration.class));
 
+	@After
+	public void clearTemplates() {
+		EmbeddedDatabaseTemplates.clear();
+		MigrationConfiguration.migrations.set(0);
+	}
+
 	@Test
 	public void replaceWithNoDataSourceAvailable() {
 		this.context
@@ -66,6 +86,113 @@ public class TestDatabaseAutoConfigurationTests {
 				});
 	}
 
+	@Test
+	public void replaceWithTemplateShouldCreateDatabaseFromSnapshot() {
+		ApplicationContextTester context = this.context
+				.withConfiguration(AutoConfigurations.of(FlywayAutoConfiguration.class))
+				.withUserConfiguration(ExistingDataSourceConfiguration.class,
+						MigrationConfiguration.class)
+				.withPropertyValues("spring.test.database.template=true",
+						"spring.test.database.connection=H2", MIGRATION_LOCATIONS);
+		context.run((loaded) -> assertThat(countRows(loaded.getBean(DataSource.class)))
+				.isEqualTo(2));
+		assertThat(MigrationConfiguration.migrations.get()).isEqualTo(1);
+		context.run((loaded) -> {
+			DataSource dataSource = loaded.getBean(DataSource.class);
+			assertThat(countRows(dataSource)).isEqualTo(2);
+			new JdbcTemplate(dataSource).update("insert into example values (3, 'x')");
+		});
+		context.run((loaded) -> assertThat(countRows(loaded.getBean(DataSource.class)))
+				.isEqualTo(2));
+		assertThat(MigrationConfiguration.migrations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void replaceWithTemplateAndUnsupportedDatabaseShouldNotUseSnapshot() {
+		ApplicationContextTester context = this.context
+				.withConfiguration(AutoConfigurations.of(FlywayAutoConfiguration.class))
+				.withUserConfiguration(ExistingDataSourceConfiguration.class,
+						MigrationConfiguration.class)
+				.withPropertyValues("spring.test.database.template=true",
+						"spring.test.database.connection=HSQL", MIGRATION_LOCATIONS);
+		context.run((loaded) -> assertThat(loaded).hasNotFailed());
+		context.run((loaded) -> assertThat(loaded).hasNotFailed());
+		assertThat(MigrationConfiguration.migrations.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void templateKeyWhenNoMigrationScriptsIsNull() {
+		assertThat(getTemplateKey("flyway.locations=classpath:missing")).isNull();
+	}
+
+	@Test
+	public void templateKeyWhenMigrationsAreDisabledIsNull() {
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "flyway.enabled=false"))
+				.isNull();
+	}
+
+	@Test
+	public void templateKeyDependsOnEnabledMigrations() {
+		String key = getTemplateKey(MIGRATION_LOCATIONS);
+		assertThat(key).isNotNull();
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS)).isEqualTo(key);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "liquibase.enabled=false"))
+				.isNotNull().isNotEqualTo(key);
+	}
+
+	@Test
+	public void templateKeyDependsOnMigrationSettings() {
+		String key = getTemplateKey(MIGRATION_LOCATIONS);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "flyway.placeholders.owner=a"))
+				.isNotEqualTo(key);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "flyway.placeholders.owner=a"))
+				.isNotEqualTo(
+						getTemplateKey(MIGRATION_LOCATIONS, "flyway.placeholders.owner=b"));
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "flyway.target=1"))
+				.isNotEqualTo(key);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "flyway.schemas=test"))
+				.isNotEqualTo(key);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "liquibase.contexts=test"))
+				.isNotEqualTo(key);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "liquibase.parameters.a=b"))
+				.isNotEqualTo(key);
+		assertThat(getTemplateKey(MIGRATION_LOCATIONS, "liquibase.default-schema=test"))
+				.isNotEqualTo(key);
+	}
+
+	private String getTemplateKey(String... pairs) {
+		MockEnvironment environment = new MockEnvironment();
+		TestPropertyValues.of(pairs).applyTo(environment);
+		return EmbeddedDatabaseTemplates.getKey(environment,
+				new PathMatchingResourcePatternResolver(),
+				EmbeddedDatabaseConnection.H2);
+	}
+
+	private int countRows(DataSource dataSource) {
+		return new JdbcTemplate(dataSource).queryForObject("select count(*) from example",
+				Integer.class);
+	}
+
+	@Configuration
+	static class MigrationConfiguration {
+
+		static final AtomicInteger migrations = new AtomicInteger();
+
+		@Bean
+		public FlywayMigrationStrategy countingMigrationStrategy() {
+			return (flyway) -> migrations.addAndGet(flyway.migrate());
+		}
+
+		@Bean
+		@DependsOn("flywayInitializer")
+		public InitializingBean dataLoader(DataSource dataSource) {
+			// Not part of the template, so fails if it is loaded again
+			return () -> new JdbcTemplate(dataSource)
+					.update("insert into example values (2, 'loaded')");
+		}
+
+	}
+
 	@Configuration
 	static class ExistingDataSourceConfiguration {
 
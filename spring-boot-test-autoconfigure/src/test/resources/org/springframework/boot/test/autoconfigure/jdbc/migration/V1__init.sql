@@ -0,0 +1,2 @@
+CREATE TABLE example (id INT PRIMARY KEY, name VARCHAR(30));
+INSERT INTO example VALUES (1, 'template');
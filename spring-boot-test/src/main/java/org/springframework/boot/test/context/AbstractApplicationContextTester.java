@@ -21,15 +21,22 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.function.Supplier;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
 import org.springframework.boot.context.annotation.Configurations;
 import org.springframework.boot.context.annotation.UserConfigurations;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigRegistry;
+import org.springframework.context.annotation.AnnotationConfigUtils;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 
@@ -79,6 +86,20 @@ import org.springframework.util.ReflectionUtils;
  *     });
  * }</pre>
  * <p>
+ * Several variations of the same configuration can be checked in one go using
+ * {@link #variants()}. Each variant customizes a copy of this tester and the resulting
+ * contexts are refreshed concurrently:
+ *
+ * <pre class="code">
+ * &#064;Test
+ * public someTest() {
+ *     this.context.variants()
+ *             .add("enabled", (tester) -&gt; tester.withPropertyValues("spring.foo=on"),
+ *                     (loaded) -&gt; assertThat(loaded).hasSingleBean(MyBean.class))
+ *             .add("disabled", (tester) -&gt; tester.withPropertyValues("spring.foo=off"),
+ *                     (loaded) -&gt; assertThat(loaded).doesNotHaveBean(MyBean.class))
+ *             .run();
+ * }</pre>
  *
  * @param <SELF> The "self" type for this tester
  * @param <C> The context type
@@ -96,9 +117,9 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 
 	private final Supplier<C> contextFactory;
 
-	private final TestPropertyValues environmentProperties;
+	private TestPropertyValues environmentProperties;
 
-	private final TestPropertyValues systemProperties;
+	private TestPropertyValues systemProperties;
 
 	private ClassLoader classLoader;
 
@@ -106,6 +127,8 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 
 	private final List<Configurations> configurations = new ArrayList<>();
 
+	private boolean hasSystemProperties;
+
 	/**
 	 * Create a new {@link AbstractApplicationContextTester} instance.
 	 * @param contextFactory the factory used to create the actual context
@@ -117,6 +140,14 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 		this.systemProperties = TestPropertyValues.empty();
 	}
 
+	/**
+	 * Create a new instance of this tester using the specified {@code contextFactory}.
+	 * Used to create the copies that {@link #variants() variants} customize.
+	 * @param contextFactory the factory used to create the actual context
+	 * @return a new tester instance
+	 */
+	protected abstract SELF newInstance(Supplier<C> contextFactory);
+
 	/**
 	 * Add the specified {@link Environment} property pairs. Key-value pairs can be
 	 * specified with colon (":") or equals ("=") separators. Override matching keys that
@@ -157,6 +188,7 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 	 */
 	public SELF withSystemProperties(String... pairs) {
 		Arrays.stream(pairs).forEach(this.systemProperties::and);
+		this.hasSystemProperties = true;
 		return self();
 	}
 
@@ -172,6 +204,7 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 	 */
 	public SELF withSystemProperty(String name, String value) {
 		this.systemProperties.and(name, value);
+		this.hasSystemProperties = true;
 		return self();
 	}
 
@@ -225,6 +258,39 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 		return (SELF) this;
 	}
 
+	/**
+	 * Return a new {@link ContextVariants} that can be used to check several variations
+	 * of the current state of this tester, refreshing the contexts concurrently.
+	 * @return a new {@link ContextVariants} instance
+	 */
+	public ContextVariants<SELF, A> variants() {
+		return new ContextVariants<>(self());
+	}
+
+	/**
+	 * Return a copy of this tester that can be customized independently.
+	 * @return the copy
+	 */
+	SELF copy() {
+		SELF copy = newInstance(this.contextFactory);
+		AbstractApplicationContextTester<SELF, C, A> target = copy;
+		target.environmentProperties = this.environmentProperties.copy();
+		target.systemProperties = this.systemProperties.copy();
+		target.hasSystemProperties = this.hasSystemProperties;
+		target.classLoader = this.classLoader;
+		target.parent = this.parent;
+		target.configurations.addAll(this.configurations);
+		return copy;
+	}
+
+	ClassLoader getClassLoader() {
+		return this.classLoader;
+	}
+
+	boolean hasSystemProperties() {
+		return this.hasSystemProperties;
+	}
+
 	/**
 	 * Create and refresh a new {@link ApplicationContext} based on the current state of
 	 * this loader. The context is consumed by the specified {@code consumer} and closed
@@ -232,8 +298,19 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 	 * @param consumer the consumer of the created {@link ApplicationContext}
 	 */
 	public void run(ContextConsumer<? super A> consumer) {
+		run(consumer, null);
+	}
+
+	/**
+	 * Create and refresh a new {@link ApplicationContext}, optionally using a shared
+	 * {@link MetadataReaderFactory} to parse configuration classes.
+	 * @param consumer the consumer of the created {@link ApplicationContext}
+	 * @param metadataReaderFactory the metadata reader factory or {@code null}
+	 */
+	void run(ContextConsumer<? super A> consumer,
+			MetadataReaderFactory metadataReaderFactory) {
 		this.systemProperties.applyToSystemProperties(() -> {
-			try (A context = createAssertableContext()) {
+			try (A context = createAssertableContext(metadataReaderFactory)) {
 				accept(consumer, context);
 			}
 			return null;
@@ -241,18 +318,22 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 	}
 
 	@SuppressWarnings("unchecked")
-	private A createAssertableContext() {
+	private A createAssertableContext(MetadataReaderFactory metadataReaderFactory) {
 		ResolvableType resolvableType = ResolvableType
 				.forClass(AbstractApplicationContextTester.class, getClass());
 		Class<A> assertType = (Class<A>) resolvableType.resolveGeneric(1);
 		Class<C> contextType = (Class<C>) resolvableType.resolveGeneric(2);
 		return AssertProviderApplicationContext.get(assertType, contextType,
-				this::createAndLoadContext);
+				() -> createAndLoadContext(metadataReaderFactory));
 	}
 
-	private C createAndLoadContext() {
+	private C createAndLoadContext(MetadataReaderFactory metadataReaderFactory) {
 		C context = this.contextFactory.get();
 		try {
+			if (metadataReaderFactory != null) {
+				context.addBeanFactoryPostProcessor(
+						new MetadataReaderFactoryPostProcessor(metadataReaderFactory));
+			}
 			configureContext(context);
 			return context;
 		}
@@ -287,4 +368,35 @@ abstract class AbstractApplicationContextTester<SELF extends AbstractApplication
 		}
 	}
 
+	/**
+	 * {@link BeanDefinitionRegistryPostProcessor} to configure the configuration class
+	 * post processor to use a shared {@link MetadataReaderFactory}.
+	 */
+	private static class MetadataReaderFactoryPostProcessor
+			implements BeanDefinitionRegistryPostProcessor {
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		MetadataReaderFactoryPostProcessor(MetadataReaderFactory metadataReaderFactory) {
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry)
+				throws BeansException {
+			String name = AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME;
+			if (registry.containsBeanDefinition(name)) {
+				BeanDefinition definition = registry.getBeanDefinition(name);
+				definition.getPropertyValues().add("metadataReaderFactory",
+						this.metadataReaderFactory);
+			}
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory)
+				throws BeansException {
+		}
+
+	}
+
 }
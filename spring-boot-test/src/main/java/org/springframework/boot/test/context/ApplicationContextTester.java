@@ -53,4 +53,9 @@ public class ApplicationContextTester extends
 		super(contextFactory);
 	}
 
+	@Override
+	protected ApplicationContextTester newInstance(Supplier<ConfigurableApplicationContext> contextFactory) {
+		return new ApplicationContextTester(contextFactory);
+	}
+
 }
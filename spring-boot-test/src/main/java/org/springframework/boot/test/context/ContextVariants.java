@@ -0,0 +1,213 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.context;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+import org.springframework.boot.type.classreading.ConcurrentReferenceCachingMetadataReaderFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A set of variations of an {@link AbstractApplicationContextTester application context
+ * tester} that are run together. Each variant customizes its own copy of the tester and
+ * the resulting contexts are refreshed concurrently before being passed to the
+ * variant's {@link ContextConsumer}. Configuration class metadata is parsed once and
+ * shared between all the contexts that use the same {@link ClassLoader}.
+ * <p>
+ * Variants that set {@link AbstractApplicationContextTester#withSystemProperty(String,
+ * String) system properties} are run one at a time once all other variants have
+ * completed. Failures are collected and reported together in a single
+ * {@link AssertionError} that names each failed variant.
+ *
+ * @param <T> The tester type
+ * @param <A> The application context assertion provider
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see AbstractApplicationContextTester#variants()
+ */
+public final class ContextVariants<T extends AbstractApplicationContextTester<T, ?, A>, A extends AssertProviderApplicationContext<?>> {
+
+	private final T tester;
+
+	private final List<Variant<T, A>> variants = new ArrayList<>();
+
+	private final Map<ClassLoader, MetadataReaderFactory> metadataReaderFactories = new ConcurrentHashMap<>();
+
+	private int concurrency = Runtime.getRuntime().availableProcessors();
+
+	ContextVariants(T tester) {
+		this.tester = tester;
+	}
+
+	/**
+	 * Add a variant.
+	 * @param description a description of the variant, used when reporting failures
+	 * @param customizer a customizer applied to a copy of the tester
+	 * @param consumer the consumer of the {@link ApplicationContext} created for the
+	 * variant
+	 * @return this instance
+	 */
+	public ContextVariants<T, A> add(String description, UnaryOperator<T> customizer,
+			ContextConsumer<? super A> consumer) {
+		Assert.hasLength(description, "Description must not be empty");
+		Assert.notNull(customizer, "Customizer must not be null");
+		Assert.notNull(consumer, "Consumer must not be null");
+		this.variants.add(new Variant<>(description, customizer, consumer));
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of contexts that are refreshed at the same time. Defaults
+	 * to the number of available processors.
+	 * @param concurrency the maximum number of concurrent contexts
+	 * @return this instance
+	 */
+	public ContextVariants<T, A> withConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		this.concurrency = concurrency;
+		return this;
+	}
+
+	/**
+	 * Create, refresh and consume the context of each variant.
+	 * @throws AssertionError if any variant fails
+	 */
+	public void run() {
+		Map<Variant<T, A>, Throwable> failures = new LinkedHashMap<>();
+		Map<Variant<T, A>, T> serial = new LinkedHashMap<>();
+		Map<Variant<T, A>, Future<?>> concurrent = new LinkedHashMap<>();
+		ExecutorService executor = createExecutor();
+		try {
+			for (Variant<T, A> variant : this.variants) {
+				T tester = variant.customize(this.tester);
+				if (tester.hasSystemProperties()) {
+					serial.put(variant, tester);
+				}
+				else {
+					concurrent.put(variant,
+							executor.submit(() -> run(tester, variant.consumer)));
+				}
+			}
+			concurrent.forEach((variant, future) -> {
+				Throwable failure = getFailure(future);
+				if (failure != null) {
+					failures.put(variant, failure);
+				}
+			});
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		serial.forEach((variant, tester) -> {
+			try {
+				run(tester, variant.consumer);
+			}
+			catch (Throwable ex) {
+				failures.put(variant, ex);
+			}
+		});
+		assertNoFailures(failures);
+	}
+
+	private ExecutorService createExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"context-variant-");
+		threadFactory.setDaemon(true);
+		return Executors.newFixedThreadPool(
+				Math.min(this.concurrency, Math.max(this.variants.size(), 1)),
+				threadFactory);
+	}
+
+	private void run(T tester, ContextConsumer<? super A> consumer) {
+		tester.run(consumer, getMetadataReaderFactory(tester.getClassLoader()));
+	}
+
+	private MetadataReaderFactory getMetadataReaderFactory(ClassLoader classLoader) {
+		ClassLoader key = (classLoader != null ? classLoader
+				: ClassUtils.getDefaultClassLoader());
+		return this.metadataReaderFactories.computeIfAbsent(key,
+				ConcurrentReferenceCachingMetadataReaderFactory::new);
+	}
+
+	private Throwable getFailure(Future<?> future) {
+		try {
+			future.get();
+			return null;
+		}
+		catch (ExecutionException ex) {
+			return ex.getCause();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return ex;
+		}
+	}
+
+	private void assertNoFailures(Map<Variant<T, A>, Throwable> failures) {
+		if (failures.isEmpty()) {
+			return;
+		}
+		StringBuilder message = new StringBuilder();
+		message.append(failures.size()).append(" of ").append(this.variants.size())
+				.append(" context variants failed:");
+		failures.forEach((variant, failure) -> message.append(String
+				.format("%n  %s: %s", variant.description, failure)));
+		AssertionError error = new AssertionError(message.toString());
+		failures.values().forEach(error::addSuppressed);
+		throw error;
+	}
+
+	/**
+	 * A single variant.
+	 */
+	private static class Variant<T extends AbstractApplicationContextTester<T, ?, A>, A extends AssertProviderApplicationContext<?>> {
+
+		private final String description;
+
+		private final UnaryOperator<T> customizer;
+
+		private final ContextConsumer<? super A> consumer;
+
+		Variant(String description, UnaryOperator<T> customizer,
+				ContextConsumer<? super A> consumer) {
+			this.description = description;
+			this.customizer = customizer;
+			this.consumer = consumer;
+		}
+
+		T customize(T tester) {
+			T copy = this.customizer.apply(tester.copy());
+			Assert.state(copy != null, "Customizer must not return null");
+			return copy;
+		}
+
+	}
+
+}
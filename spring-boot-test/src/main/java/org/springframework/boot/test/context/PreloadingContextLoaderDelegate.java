@@ -0,0 +1,235 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.SpringProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.test.context.CacheAwareContextLoaderDelegate;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.test.context.cache.ContextCache;
+import org.springframework.test.context.cache.ContextCacheUtils;
+import org.springframework.test.context.cache.DefaultCacheAwareContextLoaderDelegate;
+
+/**
+ * {@link CacheAwareContextLoaderDelegate} that speculatively loads application contexts
+ * on a bounded pool of background threads so that they are already in the context cache
+ * when the test that needs them runs. Configurations are submitted as test contexts are
+ * built, which means that contexts are preloaded whenever a test runner creates its
+ * tests up-front (for example when using a suite). Enabled by setting the
+ * {@code spring.test.context.preload} Spring or system property to {@code true}.
+ * <p>
+ * Preloading stops when the context cache would exceed its maximum size or when the
+ * used heap is above {@code spring.test.context.preload.memory-threshold} percent of the
+ * maximum heap (default {@code 70}). The number of threads can be set using
+ * {@code spring.test.context.preload.threads} and defaults to half of the available
+ * processors. Contexts that fail to preload are loaded again, as usual, when the test
+ * runs.
+ *
+ * @author agent (agent@local)
+ */
+final class PreloadingContextLoaderDelegate
+		extends DefaultCacheAwareContextLoaderDelegate {
+
+	static final String ENABLED_PROPERTY = "spring.test.context.preload";
+
+	static final String THREADS_PROPERTY = "spring.test.context.preload.threads";
+
+	static final String MEMORY_THRESHOLD_PROPERTY = "spring.test.context.preload.memory-threshold";
+
+	private static final int DEFAULT_MEMORY_THRESHOLD = 70;
+
+	private static final Log logger = LogFactory
+			.getLog(PreloadingContextLoaderDelegate.class);
+
+	private static PreloadingContextLoaderDelegate instance;
+
+	private static final ThreadLocal<Boolean> preloading = new ThreadLocal<>();
+
+	private final Map<MergedContextConfiguration, Future<?>> preloads = new ConcurrentHashMap<>();
+
+	private final AtomicInteger inProgress = new AtomicInteger();
+
+	private final AtomicInteger preloaded = new AtomicInteger();
+
+	private final ExecutorService executor;
+
+	private final int maxCacheSize;
+
+	private final int memoryThreshold;
+
+	PreloadingContextLoaderDelegate(int threads, int maxCacheSize,
+			int memoryThreshold) {
+		this.executor = createExecutor(threads);
+		this.maxCacheSize = maxCacheSize;
+		this.memoryThreshold = memoryThreshold;
+	}
+
+	PreloadingContextLoaderDelegate(ContextCache contextCache, int threads,
+			int maxCacheSize, int memoryThreshold) {
+		super(contextCache);
+		this.executor = createExecutor(threads);
+		this.maxCacheSize = maxCacheSize;
+		this.memoryThreshold = memoryThreshold;
+	}
+
+	private ExecutorService createExecutor(int threads) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"context-preloader-");
+		threadFactory.setDaemon(true);
+		return Executors.newFixedThreadPool(threads, threadFactory);
+	}
+
+	/**
+	 * Submit the given configuration to be loaded in the background if the cache doesn't
+	 * already contain it and the cache size and memory limits allow.
+	 * @param mergedContextConfiguration the configuration to preload
+	 */
+	void preload(MergedContextConfiguration mergedContextConfiguration) {
+		if (getContextCache().contains(mergedContextConfiguration)
+				|| this.preloads.containsKey(mergedContextConfiguration)) {
+			return;
+		}
+		if (getContextCache().size() + this.inProgress.get() >= this.maxCacheSize
+				|| !isWithinMemoryThreshold()) {
+			logger.debug("Skipping context preload due to cache size or memory limits");
+			return;
+		}
+		this.preloads.computeIfAbsent(mergedContextConfiguration, (config) -> {
+			this.inProgress.incrementAndGet();
+			return this.executor.submit(() -> preloadContext(config));
+		});
+	}
+
+	private void preloadContext(MergedContextConfiguration mergedContextConfiguration) {
+		preloading.set(Boolean.TRUE);
+		try {
+			if (isWithinMemoryThreshold()) {
+				long startTime = System.nanoTime();
+				ApplicationContext context = loadContextInternal(
+						mergedContextConfiguration);
+				addToCache(mergedContextConfiguration, context);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Preloaded context in " + TimeUnit.NANOSECONDS
+							.toMillis(System.nanoTime() - startTime) + "ms ["
+							+ this.preloaded.get() + " preloaded] for "
+							+ mergedContextConfiguration);
+				}
+			}
+		}
+		catch (Throwable ex) {
+			logger.debug("Unable to preload context for " + mergedContextConfiguration,
+					ex);
+		}
+		finally {
+			this.inProgress.decrementAndGet();
+			preloading.remove();
+		}
+	}
+
+	private void addToCache(MergedContextConfiguration mergedContextConfiguration,
+			ApplicationContext context) {
+		ContextCache contextCache = getContextCache();
+		synchronized (contextCache) {
+			if (!contextCache.contains(mergedContextConfiguration)) {
+				contextCache.put(mergedContextConfiguration, context);
+				this.preloaded.incrementAndGet();
+				return;
+			}
+		}
+		if (context instanceof ConfigurableApplicationContext) {
+			((ConfigurableApplicationContext) context).close();
+		}
+	}
+
+	@Override
+	public ApplicationContext loadContext(
+			MergedContextConfiguration mergedContextConfiguration) {
+		if (preloading.get() != null) {
+			// Never wait for a preload from a preload thread (i.e. for a parent context)
+			// since it may be queued behind the preload that needs it
+			return super.loadContext(mergedContextConfiguration);
+		}
+		Future<?> preload = this.preloads.remove(mergedContextConfiguration);
+		// Don't wait when called with the cache lock held (i.e. for a parent context)
+		// since the preload thread needs the lock to complete
+		if (preload != null && !Thread.holdsLock(getContextCache())) {
+			awaitPreload(preload);
+		}
+		return super.loadContext(mergedContextConfiguration);
+	}
+
+	private void awaitPreload(Future<?> preload) {
+		try {
+			preload.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException ex) {
+			// Ignore and load as usual
+		}
+	}
+
+	private boolean isWithinMemoryThreshold() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		return used * 100 < runtime.maxMemory() * this.memoryThreshold;
+	}
+
+	/**
+	 * Return if context preloading is enabled.
+	 * @return if preloading is enabled
+	 */
+	static boolean isEnabled() {
+		return SpringProperties.getFlag(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Return the shared {@link PreloadingContextLoaderDelegate} instance.
+	 * @return the shared instance
+	 */
+	static synchronized PreloadingContextLoaderDelegate get() {
+		if (instance == null) {
+			instance = new PreloadingContextLoaderDelegate(
+					getProperty(THREADS_PROPERTY,
+							Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+					ContextCacheUtils.retrieveMaxCacheSize(),
+					getProperty(MEMORY_THRESHOLD_PROPERTY, DEFAULT_MEMORY_THRESHOLD));
+		}
+		return instance;
+	}
+
+	private static int getProperty(String name, int defaultValue) {
+		String value = SpringProperties.getProperty(name);
+		return (value != null ? Integer.parseInt(value.trim()) : defaultValue);
+	}
+
+}
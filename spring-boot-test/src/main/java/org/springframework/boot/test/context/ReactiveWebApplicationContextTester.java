@@ -53,4 +53,9 @@ public final class ReactiveWebApplicationContextTester extends
 		super(contextFactory);
 	}
 
+	@Override
+	protected ReactiveWebApplicationContextTester newInstance(Supplier<ConfigurableReactiveWebApplicationContext> contextFactory) {
+		return new ReactiveWebApplicationContextTester(contextFactory);
+	}
+
 }
@@ -37,6 +37,7 @@ import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.test.context.CacheAwareContextLoaderDelegate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.ContextConfigurationAttributes;
 import org.springframework.test.context.ContextHierarchy;
@@ -64,6 +65,8 @@ import org.springframework.util.ObjectUtils;
  * {@link SpringBootConfiguration @SpringBootConfiguration} when required.</li>
  * <li>Allows custom {@link Environment} {@link #getProperties(Class)} to be defined.</li>
  * <li>Provides support for different {@link WebEnvironment webEnvironment} modes.</li>
+ * <li>Optionally preloads application contexts in the background (see
+ * {@code spring.test.context.preload}).</li>
  * </ul>
  *
  * @author Phillip Webb
@@ -95,6 +98,10 @@ public class SpringBootTestContextBootstrapper extends DefaultTestContextBootstr
 	public TestContext buildTestContext() {
 		TestContext context = super.buildTestContext();
 		verifyConfiguration(context.getTestClass());
+		if (PreloadingContextLoaderDelegate.isEnabled()) {
+			PreloadingContextLoaderDelegate.get()
+					.preload(buildMergedContextConfiguration());
+		}
 		WebEnvironment webEnvironment = getWebEnvironment(context.getTestClass());
 		if (webEnvironment == WebEnvironment.MOCK
 				&& deduceWebApplicationType() == WebApplicationType.SERVLET) {
@@ -106,6 +113,14 @@ public class SpringBootTestContextBootstrapper extends DefaultTestContextBootstr
 		return context;
 	}
 
+	@Override
+	protected CacheAwareContextLoaderDelegate getCacheAwareContextLoaderDelegate() {
+		if (PreloadingContextLoaderDelegate.isEnabled()) {
+			return PreloadingContextLoaderDelegate.get();
+		}
+		return super.getCacheAwareContextLoaderDelegate();
+	}
+
 	@Override
 	protected Set<Class<? extends TestExecutionListener>> getDefaultTestExecutionListenerClasses() {
 		Set<Class<? extends TestExecutionListener>> listeners = super.getDefaultTestExecutionListenerClasses();
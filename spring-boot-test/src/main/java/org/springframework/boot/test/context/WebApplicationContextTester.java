@@ -57,6 +57,11 @@ public final class WebApplicationContextTester extends
 		super(contextFactory);
 	}
 
+	@Override
+	protected WebApplicationContextTester newInstance(Supplier<ConfigurableWebApplicationContext> contextFactory) {
+		return new WebApplicationContextTester(contextFactory);
+	}
+
 	/**
 	 * Decorate the specified {@code contextFactory} to set a {@link MockServletContext}
 	 * on each newly created {@link WebApplicationContext}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ public final class JsonContent<T> implements AssertProvider<JsonContentAssert> {
 
 	private final String json;
 
+	private final ParsedJson parsed;
+
 	/**
 	 * Create a new {@link JsonContent} instance.
 	 * @param resourceLoadClass the source class used to load resources
@@ -50,11 +52,12 @@ public final class JsonContent<T> implements AssertProvider<JsonContentAssert> {
 		this.resourceLoadClass = resourceLoadClass;
 		this.type = type;
 		this.json = json;
+		this.parsed = new ParsedJson(json);
 	}
 
 	@Override
 	public JsonContentAssert assertThat() {
-		return new JsonContentAssert(this.resourceLoadClass, this.json);
+		return new JsonContentAssert(this.resourceLoadClass, null, this.parsed);
 	}
 
 	/**
@@ -32,9 +32,9 @@ import org.assertj.core.api.AbstractObjectAssert;
 import org.assertj.core.api.Assert;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ObjectAssert;
-import org.skyscreamer.jsonassert.JSONCompare;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.comparator.DefaultComparator;
 import org.skyscreamer.jsonassert.comparator.JSONComparator;
 
 import org.springframework.core.io.Resource;
@@ -52,6 +52,8 @@ public class JsonContentAssert extends AbstractAssert<JsonContentAssert, CharSeq
 
 	private final JsonLoader loader;
 
+	private final ParsedJson parsed;
+
 	/**
 	 * Create a new {@link JsonContentAssert} instance that will load resources as UTF-8.
 	 * @param resourceLoadClass the source class used to load resources
@@ -71,8 +73,20 @@ public class JsonContentAssert extends AbstractAssert<JsonContentAssert, CharSeq
 	 */
 	public JsonContentAssert(Class<?> resourceLoadClass, Charset charset,
 			CharSequence json) {
-		super(json, JsonContentAssert.class);
+		this(resourceLoadClass, charset, new ParsedJson(json));
+	}
+
+	/**
+	 * Create a new {@link JsonContentAssert} instance for content that may already have
+	 * been parsed.
+	 * @param resourceLoadClass the source class used to load resources
+	 * @param charset the charset of the JSON resources
+	 * @param parsed the actual JSON content
+	 */
+	JsonContentAssert(Class<?> resourceLoadClass, Charset charset, ParsedJson parsed) {
+		super(parsed.getJson(), JsonContentAssert.class);
 		this.loader = new JsonLoader(resourceLoadClass, charset);
+		this.parsed = parsed;
 	}
 
 	/**
@@ -988,9 +1002,9 @@ public class JsonContentAssert extends AbstractAssert<JsonContentAssert, CharSeq
 			return compareForNull(expectedJson);
 		}
 		try {
-			return JSONCompare.compareJSON(
+			return this.parsed.compare(
 					(expectedJson == null ? null : expectedJson.toString()),
-					this.actual.toString(), compareMode);
+					new DefaultComparator(compareMode));
 		}
 		catch (Exception ex) {
 			if (ex instanceof RuntimeException) {
@@ -1006,9 +1020,9 @@ public class JsonContentAssert extends AbstractAssert<JsonContentAssert, CharSeq
 			return compareForNull(expectedJson);
 		}
 		try {
-			return JSONCompare.compareJSON(
+			return this.parsed.compare(
 					(expectedJson == null ? null : expectedJson.toString()),
-					this.actual.toString(), comparator);
+					comparator);
 		}
 		catch (Exception ex) {
 			if (ex instanceof RuntimeException) {
@@ -1055,7 +1069,7 @@ public class JsonContentAssert extends AbstractAssert<JsonContentAssert, CharSeq
 					(expression == null ? null : expression.toString()),
 					"expression must not be null or empty");
 			this.expression = String.format(expression.toString(), args);
-			this.jsonPath = JsonPath.compile(this.expression);
+			this.jsonPath = ParsedJson.compile(this.expression);
 		}
 
 		public void assertHasEmptyValue() {
@@ -1104,8 +1118,7 @@ public class JsonContentAssert extends AbstractAssert<JsonContentAssert, CharSeq
 
 		public Object getValue(boolean required) {
 			try {
-				CharSequence json = JsonContentAssert.this.actual;
-				return this.jsonPath.read(json == null ? null : json.toString());
+				return JsonContentAssert.this.parsed.read(this.jsonPath);
 			}
 			catch (Exception ex) {
 				if (!required) {
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.json;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONString;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.JSONParser;
+import org.skyscreamer.jsonassert.comparator.JSONComparator;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * JSON content that is parsed lazily and at most once so that it can be the subject of
+ * many {@link JsonContentAssert assertions}. The content is parsed separately for
+ * {@link JsonPath} reads and for {@link JSONCompare} comparisons since each library
+ * uses its own tree model.
+ *
+ * @author agent (agent@local)
+ */
+final class ParsedJson {
+
+	private static final int MAX_CACHED_PATHS = 256;
+
+	private static final Map<String, JsonPath> compiledPaths = Collections
+			.synchronizedMap(new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+					return size() > MAX_CACHED_PATHS;
+				}
+
+			});
+
+	private final CharSequence json;
+
+	private Object document;
+
+	private Object compareDocument;
+
+	ParsedJson(CharSequence json) {
+		this.json = json;
+	}
+
+	/**
+	 * Return the actual JSON content.
+	 * @return the JSON content (may be {@code null})
+	 */
+	CharSequence getJson() {
+		return this.json;
+	}
+
+	/**
+	 * Read the value at the given path from the parsed content. Maps and lists are
+	 * copied so that changes made by the caller don't affect later reads.
+	 * @param jsonPath the path to read
+	 * @return the value
+	 */
+	Object read(JsonPath jsonPath) {
+		return copy(jsonPath.read(getDocument()));
+	}
+
+	private Object copy(Object value) {
+		JsonProvider provider = Configuration.defaultConfiguration().jsonProvider();
+		if (provider.isMap(value)) {
+			Object copy = provider.createMap();
+			for (String key : provider.getPropertyKeys(value)) {
+				provider.setProperty(copy, key, copy(provider.getMapValue(value, key)));
+			}
+			return copy;
+		}
+		if (provider.isArray(value)) {
+			Object copy = provider.createArray();
+			int index = 0;
+			for (Object item : provider.toIterable(value)) {
+				provider.setArrayIndex(copy, index++, copy(item));
+			}
+			return copy;
+		}
+		return value;
+	}
+
+	private Object getDocument() {
+		if (this.document == null) {
+			Assert.isTrue(StringUtils.hasLength(this.json),
+					"json can not be null or empty");
+			this.document = Configuration.defaultConfiguration().jsonProvider()
+					.parse(this.json.toString());
+		}
+		return this.document;
+	}
+
+	/**
+	 * Compare the given expected JSON with the parsed content. Equivalent to
+	 * {@link JSONCompare#compareJSON(String, String, JSONComparator)} but without parsing
+	 * the actual content again.
+	 * @param expectedJson the expected JSON
+	 * @param comparator the comparator to use
+	 * @return the comparison result
+	 * @throws JSONException if the JSON cannot be parsed
+	 */
+	JSONCompareResult compare(String expectedJson, JSONComparator comparator)
+			throws JSONException {
+		Object expected = JSONParser.parseJSON(expectedJson);
+		Object actual = getCompareDocument();
+		if (expected instanceof JSONObject && actual instanceof JSONObject) {
+			return JSONCompare.compareJSON((JSONObject) expected, (JSONObject) actual,
+					comparator);
+		}
+		if (expected instanceof JSONArray && actual instanceof JSONArray) {
+			return JSONCompare.compareJSON((JSONArray) expected, (JSONArray) actual,
+					comparator);
+		}
+		if (expected instanceof JSONString && actual instanceof JSONString) {
+			return JSONCompare.compareJson((JSONString) expected, (JSONString) actual);
+		}
+		return new JSONCompareResult().fail("", expected, actual);
+	}
+
+	private Object getCompareDocument() throws JSONException {
+		if (this.compareDocument == null) {
+			this.compareDocument = JSONParser.parseJSON(this.json.toString());
+		}
+		return this.compareDocument;
+	}
+
+	/**
+	 * Return a compiled {@link JsonPath} for the given expression, reusing a previously
+	 * compiled instance if possible.
+	 * @param expression the path expression
+	 * @return the compiled path
+	 */
+	static JsonPath compile(String expression) {
+		JsonPath jsonPath = compiledPaths.get(expression);
+		if (jsonPath == null) {
+			jsonPath = JsonPath.compile(expression);
+			compiledPaths.put(expression, jsonPath);
+		}
+		return jsonPath;
+	}
+
+}
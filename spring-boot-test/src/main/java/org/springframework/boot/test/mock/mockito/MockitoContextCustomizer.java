@@ -33,14 +33,51 @@ class MockitoContextCustomizer implements ContextCustomizer {
 
 	private final Set<Definition> definitions;
 
+	private final Set<MockDefinition> swappableMocks;
+
+	private final boolean swappable;
+
 	MockitoContextCustomizer(Set<? extends Definition> definitions) {
-		this.definitions = new LinkedHashSet<>(definitions);
+		this(definitions, SwappableMocks.isEnabled());
+	}
+
+	/**
+	 * Create a new {@link MockitoContextCustomizer} instance.
+	 * @param definitions the definitions of the test class
+	 * @param swappableMocks if mock definitions should be registered as
+	 * {@link SwappableMocks swappable mocks} rather than forming part of the context
+	 * cache key
+	 */
+	MockitoContextCustomizer(Set<? extends Definition> definitions,
+			boolean swappableMocks) {
+		this.definitions = new LinkedHashSet<>();
+		this.swappableMocks = new LinkedHashSet<>();
+		this.swappable = swappableMocks;
+		for (Definition definition : definitions) {
+			if (swappableMocks && SwappableMocks.isSwappable(definition)) {
+				// Swappable mocks are installed per test class so they don't form
+				// part of the key
+				this.swappableMocks.add((MockDefinition) definition);
+			}
+			else {
+				this.definitions.add(definition);
+			}
+		}
+		if (swappableMocks) {
+			SwappableMocks.addKnownDefinitions(this.swappableMocks);
+		}
 	}
 
 	@Override
 	public void customizeContext(ConfigurableApplicationContext context,
 			MergedContextConfiguration mergedContextConfiguration) {
 		if (context instanceof BeanDefinitionRegistry) {
+			if (this.swappable) {
+				SwappableMocks swappableMocks = new SwappableMocks(this.swappableMocks);
+				context.getBeanFactory().registerSingleton(SwappableMocks.BEAN_NAME,
+						swappableMocks);
+				context.addApplicationListener(swappableMocks);
+			}
 			MockitoPostProcessor.register((BeanDefinitionRegistry) context,
 					this.definitions);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,7 +33,8 @@ class MockitoContextCustomizerFactory implements ContextCustomizerFactory {
 	public ContextCustomizer createContextCustomizer(Class<?> testClass,
 			List<ContextConfigurationAttributes> configAttributes) {
 		// We gather the explicit mock definitions here since they form part of the
-		// MergedContextConfiguration key. Different mocks need to have a different key.
+		// MergedContextConfiguration key. Different mocks need to have a different key
+		// unless swappable mocks are enabled.
 		DefinitionsParser parser = new DefinitionsParser();
 		parser.parse(testClass);
 		return new MockitoContextCustomizer(parser.getDefinitions());
@@ -19,6 +19,7 @@ package org.springframework.boot.test.mock.mockito;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -84,6 +85,11 @@ public class MockitoPostProcessor extends InstantiationAwareBeanPostProcessorAda
 
 	private static final String BEAN_NAME = MockitoPostProcessor.class.getName();
 
+	private static final String ORIGINAL_BEAN_NAME_SUFFIX = ".original";
+
+	private static final String ORIGINAL_BEAN_ATTRIBUTE = Conventions
+			.getQualifiedAttributeName(MockitoPostProcessor.class, "originalBean");
+
 	private static final String CONFIGURATION_CLASS_ATTRIBUTE = Conventions
 			.getQualifiedAttributeName(ConfigurationClassPostProcessor.class,
 					"configurationClass");
@@ -104,6 +110,8 @@ public class MockitoPostProcessor extends InstantiationAwareBeanPostProcessorAda
 
 	private Map<String, SpyDefinition> spies = new HashMap<>();
 
+	private SwappableMocks swappableMocks;
+
 	/**
 	 * Create a new {@link MockitoPostProcessor} instance with the given initial
 	 * definitions.
@@ -146,6 +154,11 @@ public class MockitoPostProcessor extends InstantiationAwareBeanPostProcessorAda
 			Field field = parser.getField(definition);
 			register(beanFactory, registry, definition, field);
 		}
+		if (beanFactory.containsSingleton(SwappableMocks.BEAN_NAME)) {
+			this.swappableMocks = (SwappableMocks) beanFactory
+					.getSingleton(SwappableMocks.BEAN_NAME);
+			registerSwappableMocks(beanFactory, registry);
+		}
 	}
 
 	private Set<Class<?>> getConfigurationClasses(
@@ -201,6 +214,59 @@ public class MockitoPostProcessor extends InstantiationAwareBeanPostProcessorAda
 		}
 	}
 
+	private void registerSwappableMocks(ConfigurableListableBeanFactory beanFactory,
+			BeanDefinitionRegistry registry) {
+		for (MockDefinition definition : this.swappableMocks.getDefinitions()) {
+			registerSwappableMock(beanFactory, registry, definition);
+		}
+		for (MockDefinition definition : this.swappableMocks
+				.getAdditionalDefinitions()) {
+			if (isReplacingSingleBean(beanFactory, registry, definition)) {
+				registerSwappableMock(beanFactory, registry, definition);
+			}
+		}
+	}
+
+	private boolean isReplacingSingleBean(ConfigurableListableBeanFactory beanFactory,
+			BeanDefinitionRegistry registry, MockDefinition definition) {
+		Set<String> candidates = (StringUtils.hasLength(definition.getName())
+				? Collections.singleton(definition.getName())
+				: findCandidateBeans(beanFactory, definition));
+		if (candidates.size() != 1) {
+			return false;
+		}
+		String candidate = candidates.iterator().next();
+		return registry.containsBeanDefinition(candidate)
+				&& !this.beanNameRegistry.containsValue(candidate);
+	}
+
+	private void registerSwappableMock(ConfigurableListableBeanFactory beanFactory,
+			BeanDefinitionRegistry registry, MockDefinition definition) {
+		RootBeanDefinition beanDefinition = createBeanDefinition(definition);
+		String beanName = getBeanName(beanFactory, registry, definition, beanDefinition);
+		String transformedBeanName = BeanFactoryUtils.transformedBeanName(beanName);
+		beanDefinition.getConstructorArgumentValues().addIndexedArgumentValue(1,
+				beanName);
+		String originalBeanName = null;
+		if (registry.containsBeanDefinition(transformedBeanName)) {
+			BeanDefinition original = registry.getBeanDefinition(transformedBeanName);
+			registry.removeBeanDefinition(transformedBeanName);
+			beanDefinition.setPrimary(original.isPrimary());
+			original.setPrimary(false);
+			original.setAutowireCandidate(false);
+			// Only created if a test class doesn't mock it
+			original.setLazyInit(true);
+			original.setAttribute(ORIGINAL_BEAN_ATTRIBUTE, beanName);
+			originalBeanName = transformedBeanName + ORIGINAL_BEAN_NAME_SUFFIX;
+			registry.registerBeanDefinition(originalBeanName, original);
+		}
+		registry.registerBeanDefinition(transformedBeanName, beanDefinition);
+		Object proxy = this.swappableMocks.createProxy(definition, beanName,
+				beanFactory, originalBeanName);
+		beanFactory.registerSingleton(transformedBeanName, proxy);
+		this.beanNameRegistry.put(definition, beanName);
+	}
+
 	private RootBeanDefinition createBeanDefinition(MockDefinition mockDefinition) {
 		RootBeanDefinition definition = new RootBeanDefinition(
 				mockDefinition.getTypeToMock().resolve());
@@ -282,13 +348,20 @@ public class MockitoPostProcessor extends InstantiationAwareBeanPostProcessorAda
 			}
 		}
 		for (Iterator<String> iterator = beans.iterator(); iterator.hasNext();) {
-			if (isScopedTarget(iterator.next())) {
+			String beanName = iterator.next();
+			if (isScopedTarget(beanName) || isOriginalBean(beanFactory, beanName)) {
 				iterator.remove();
 			}
 		}
 		return beans.toArray(new String[beans.size()]);
 	}
 
+	private boolean isOriginalBean(ConfigurableListableBeanFactory beanFactory,
+			String beanName) {
+		return beanFactory.containsBeanDefinition(beanName) && beanFactory
+				.getBeanDefinition(beanName).getAttribute(ORIGINAL_BEAN_ATTRIBUTE) != null;
+	}
+
 	private boolean isScopedTarget(String beanName) {
 		try {
 			return ScopedProxyUtils.isScopedTarget(beanName);
@@ -390,7 +463,31 @@ public class MockitoPostProcessor extends InstantiationAwareBeanPostProcessorAda
 		}
 	}
 
+	/**
+	 * Install the mocks for the given test class when the context uses
+	 * {@link SwappableMocks swappable mocks}.
+	 * @param testClass the test class
+	 * @param definitions the definitions of the test class
+	 * @return {@code true} if the context can be used by the test class or
+	 * {@code false} if it doesn't contain the required swappable mocks
+	 */
+	boolean installMocks(Class<?> testClass, Set<Definition> definitions) {
+		if (this.swappableMocks == null) {
+			return true;
+		}
+		return this.swappableMocks.install(testClass, definitions);
+	}
+
 	void inject(Field field, Object target, Definition definition) {
+		Object mock = (this.swappableMocks != null
+				? this.swappableMocks.getMock(definition) : null);
+		if (mock != null) {
+			field.setAccessible(true);
+			Assert.state(ReflectionUtils.getField(field, target) == null,
+					"The field " + field + " cannot have an existing value");
+			ReflectionUtils.setField(field, target, mock);
+			return;
+		}
 		String beanName = this.beanNameRegistry.get(definition);
 		Assert.state(StringUtils.hasLength(beanName),
 				"No bean found for definition " + definition);
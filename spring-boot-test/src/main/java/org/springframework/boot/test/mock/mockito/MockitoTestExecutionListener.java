@@ -25,22 +25,36 @@ import org.mockito.Captor;
 import org.mockito.MockitoAnnotations;
 
 import org.springframework.context.ApplicationContext;
+import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.TestExecutionListener;
 import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.ReflectionUtils.FieldCallback;
 
 /**
  * {@link TestExecutionListener} to trigger {@link MockitoAnnotations#initMocks(Object)}
  * when {@link MockBean @MockBean} annotations are used. Primarily to allow {@link Captor}
- * annotations.
+ * annotations. Also installs the mocks for each test class when
+ * {@link SwappableMocks swappable mocks} are enabled.
  *
  * @author Phillip Webb
  * @since 1.4.2
  */
 public class MockitoTestExecutionListener extends AbstractTestExecutionListener {
 
+	@Override
+	public void beforeTestClass(TestContext testContext) throws Exception {
+		if (SwappableMocks.isEnabled()) {
+			// Install early so that a replacement context is created before any
+			// dependencies are injected into the test instance
+			DefinitionsParser parser = new DefinitionsParser();
+			parser.parse(testContext.getTestClass());
+			installMocks(testContext, parser);
+		}
+	}
+
 	@Override
 	public void prepareTestInstance(TestContext testContext) throws Exception {
 		if (hasMockitoAnnotations(testContext)) {
@@ -58,11 +72,30 @@ public class MockitoTestExecutionListener extends AbstractTestExecutionListener
 	private void injectFields(TestContext testContext) {
 		DefinitionsParser parser = new DefinitionsParser();
 		parser.parse(testContext.getTestClass());
+		if (SwappableMocks.isEnabled()) {
+			installMocks(testContext, parser);
+		}
 		if (!parser.getDefinitions().isEmpty()) {
 			injectFields(testContext, parser);
 		}
 	}
 
+	private void installMocks(TestContext testContext, DefinitionsParser parser) {
+		if (!installMocks(testContext, parser.getDefinitions())) {
+			// The shared context was created before the required swappable mocks were
+			// known so we need a new one
+			testContext.markApplicationContextDirty(HierarchyMode.EXHAUSTIVE);
+			Assert.state(installMocks(testContext, parser.getDefinitions()),
+					"Unable to install mocks for " + testContext.getTestClass());
+		}
+	}
+
+	private boolean installMocks(TestContext testContext, Set<Definition> definitions) {
+		MockitoPostProcessor postProcessor = testContext.getApplicationContext()
+				.getBean(MockitoPostProcessor.class);
+		return postProcessor.installMocks(testContext.getTestClass(), definitions);
+	}
+
 	private void injectFields(TestContext testContext, DefinitionsParser parser) {
 		ApplicationContext applicationContext = testContext.getApplicationContext();
 		MockitoPostProcessor postProcessor = applicationContext
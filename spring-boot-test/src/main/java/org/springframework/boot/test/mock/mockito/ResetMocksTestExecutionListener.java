@@ -82,6 +82,15 @@ public class ResetMocksTestExecutionListener extends AbstractTestExecutionListen
 		catch (NoSuchBeanDefinitionException ex) {
 			// Continue
 		}
+		if (beanFactory.containsSingleton(SwappableMocks.BEAN_NAME)) {
+			SwappableMocks swappableMocks = (SwappableMocks) beanFactory
+					.getSingleton(SwappableMocks.BEAN_NAME);
+			for (Object mock : swappableMocks.getMocks()) {
+				if (reset.equals(MockReset.get(mock))) {
+					Mockito.reset(mock);
+				}
+			}
+		}
 		if (applicationContext.getParent() != null) {
 			resetMocks(applicationContext.getParent(), reset);
 		}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.mock.mockito;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.mockito.MockSettings;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.SpringProperties;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Swappable mock beans used when test classes that differ only in their
+ * {@link MockBean @MockBean} definitions should share a cached application context.
+ * Enabled by setting the {@code spring.test.mockito.shared-context} Spring or system
+ * property to {@code true}.
+ * <p>
+ * Each mocked bean is registered as a stub-only Mockito proxy that delegates to a mock
+ * installed for the currently running test class, or to the original bean when the test
+ * class doesn't mock it. Mocks are created and installed once per test class by the
+ * {@link MockitoTestExecutionListener}.
+ *
+ * @author agent (agent@local)
+ * @see MockitoPostProcessor
+ */
+class SwappableMocks implements ApplicationListener<ContextRefreshedEvent> {
+
+	/**
+	 * The property used to enable swappable mocks.
+	 */
+	static final String ENABLED_PROPERTY = "spring.test.mockito.shared-context";
+
+	static final String BEAN_NAME = SwappableMocks.class.getName();
+
+	private static final Log logger = LogFactory.getLog(SwappableMocks.class);
+
+	private static final Map<Slot, MockDefinition> knownDefinitions = Collections
+			.synchronizedMap(new LinkedHashMap<>());
+
+	private static final AtomicInteger contextsCreated = new AtomicInteger();
+
+	private static final AtomicInteger contextsSaved = new AtomicInteger();
+
+	private static final AtomicLong timeSaved = new AtomicLong();
+
+	private final Set<MockDefinition> definitions;
+
+	private final Map<Slot, SwappableAnswer> answers = new LinkedHashMap<>();
+
+	private final Map<Definition, Object> mocks = new LinkedHashMap<>();
+
+	private final Set<Set<Slot>> installedConfigurations = new HashSet<>();
+
+	private final long startTime = System.nanoTime();
+
+	private long startupTime = -1;
+
+	private Class<?> installedTestClass;
+
+	SwappableMocks(Set<MockDefinition> definitions) {
+		this.definitions = Collections.unmodifiableSet(new LinkedHashSet<>(definitions));
+		addKnownDefinitions(definitions);
+	}
+
+	/**
+	 * Return the definitions that must be registered as swappable mocks.
+	 * @return the required definitions
+	 */
+	Set<MockDefinition> getDefinitions() {
+		return this.definitions;
+	}
+
+	/**
+	 * Return definitions previously seen for other test classes that should also be
+	 * registered when they replace an existing bean. Registering them up-front allows
+	 * those test classes to share the context without it needing to be recreated.
+	 * @return the additional definitions
+	 */
+	Set<MockDefinition> getAdditionalDefinitions() {
+		Set<Slot> slots = new HashSet<>();
+		for (MockDefinition definition : this.definitions) {
+			slots.add(new Slot(definition));
+		}
+		Set<MockDefinition> additional = new LinkedHashSet<>();
+		synchronized (knownDefinitions) {
+			for (Map.Entry<Slot, MockDefinition> entry : knownDefinitions.entrySet()) {
+				if (!slots.contains(entry.getKey())) {
+					additional.add(entry.getValue());
+				}
+			}
+		}
+		return additional;
+	}
+
+	/**
+	 * Create a swappable proxy for the given definition. The proxy is a stub-only mock
+	 * that delegates all calls to the currently installed target.
+	 * @param definition the mock definition
+	 * @param beanName the name of the mock bean
+	 * @param beanFactory the bean factory
+	 * @param originalBeanName the name of the bean being replaced or {@code null}
+	 * @return the proxy
+	 */
+	Object createProxy(MockDefinition definition, String beanName,
+			BeanFactory beanFactory, String originalBeanName) {
+		SwappableAnswer answer = new SwappableAnswer(definition, beanName, beanFactory,
+				originalBeanName);
+		this.answers.put(new Slot(definition), answer);
+		MockSettings settings = Mockito.withSettings().stubOnly().defaultAnswer(answer)
+				.name(beanName + " swappable bean");
+		if (!definition.getExtraInterfaces().isEmpty()) {
+			settings.extraInterfaces(
+					definition.getExtraInterfaces().toArray(new Class<?>[] {}));
+		}
+		return Mockito.mock(definition.getTypeToMock().resolve(), settings);
+	}
+
+	/**
+	 * Install mocks for the given test class, replacing any mocks installed for a
+	 * previous test class.
+	 * @param testClass the test class
+	 * @param definitions the definitions of the test class
+	 * @return {@code true} if the mocks were installed or {@code false} if the context
+	 * doesn't contain a swappable bean for every definition
+	 */
+	synchronized boolean install(Class<?> testClass, Set<Definition> definitions) {
+		Map<Slot, MockDefinition> required = new LinkedHashMap<>();
+		for (Definition definition : definitions) {
+			if (isSwappable(definition)) {
+				required.put(new Slot((MockDefinition) definition),
+						(MockDefinition) definition);
+			}
+		}
+		if (!this.answers.keySet().containsAll(required.keySet())) {
+			return false;
+		}
+		if (testClass.equals(this.installedTestClass)) {
+			return true;
+		}
+		this.mocks.clear();
+		for (Map.Entry<Slot, SwappableAnswer> entry : this.answers
+				.entrySet()) {
+			MockDefinition definition = required.get(entry.getKey());
+			SwappableAnswer answer = entry.getValue();
+			Object mock = (definition != null ? answer.createMock(definition) : null);
+			answer.swap(mock);
+			if (mock != null) {
+				this.mocks.put(definition, mock);
+			}
+		}
+		this.installedTestClass = testClass;
+		recordInstall(testClass, required.keySet());
+		return true;
+	}
+
+	private void recordInstall(Class<?> testClass, Set<Slot> slots) {
+		boolean first = this.installedConfigurations.isEmpty();
+		if (this.installedConfigurations.add(slots) && !first) {
+			contextsSaved.incrementAndGet();
+			timeSaved.addAndGet(Math.max(this.startupTime, 0));
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Installed " + this.mocks.size() + " swappable mock(s) for "
+					+ testClass.getName() + " " + getStatistics());
+		}
+	}
+
+	/**
+	 * Return the mock installed for the given definition.
+	 * @param definition the definition
+	 * @return the mock or {@code null}
+	 */
+	synchronized Object getMock(Definition definition) {
+		return this.mocks.get(definition);
+	}
+
+	/**
+	 * Return the mocks installed for the current test class.
+	 * @return the installed mocks
+	 */
+	synchronized Collection<Object> getMocks() {
+		return new ArrayList<>(this.mocks.values());
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (this.startupTime == -1) {
+			this.startupTime = System.nanoTime() - this.startTime;
+			contextsCreated.incrementAndGet();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Created context with " + this.answers.size()
+						+ " swappable mock(s) in "
+						+ TimeUnit.NANOSECONDS.toMillis(this.startupTime) + "ms "
+						+ getStatistics());
+			}
+		}
+	}
+
+	/**
+	 * Record definitions used by a test class so that they can be registered with
+	 * contexts that are created later.
+	 * @param definitions the definitions to add
+	 */
+	static void addKnownDefinitions(Set<MockDefinition> definitions) {
+		for (MockDefinition definition : definitions) {
+			knownDefinitions.putIfAbsent(new Slot(definition), definition);
+		}
+	}
+
+	/**
+	 * Return if the given definition can be registered as a swappable mock.
+	 * {@link FactoryBean} mocks are not supported since the original factory bean
+	 * cannot be renamed.
+	 * @param definition the definition to check
+	 * @return if the definition is swappable
+	 */
+	static boolean isSwappable(Definition definition) {
+		if (!(definition instanceof MockDefinition)) {
+			return false;
+		}
+		Class<?> type = ((MockDefinition) definition).getTypeToMock().resolve();
+		return !FactoryBean.class.isAssignableFrom(type);
+	}
+
+	/**
+	 * Return if swappable mocks are enabled.
+	 * @return if swappable mocks are enabled
+	 */
+	static boolean isEnabled() {
+		return SpringProperties.getFlag(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Return a description of the shared context statistics.
+	 * @return the statistics
+	 */
+	static String getStatistics() {
+		return "[contextsCreated=" + contextsCreated.get() + ", contextsSaved="
+				+ contextsSaved.get() + ", estimatedTimeSaved="
+				+ TimeUnit.NANOSECONDS.toMillis(timeSaved.get()) + "ms]";
+	}
+
+	/**
+	 * The identity of a swappable bean. Mocks with different settings (answers, reset
+	 * or serialization) can be installed into the same slot.
+	 */
+	private static final class Slot {
+
+		private final String name;
+
+		private final ResolvableType typeToMock;
+
+		private final Set<Class<?>> extraInterfaces;
+
+		private final QualifierDefinition qualifier;
+
+		Slot(MockDefinition definition) {
+			this.name = definition.getName();
+			this.typeToMock = definition.getTypeToMock();
+			this.extraInterfaces = definition.getExtraInterfaces();
+			this.qualifier = definition.getQualifier();
+		}
+
+		@Override
+		public int hashCode() {
+			int result = ObjectUtils.nullSafeHashCode(this.name);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.typeToMock);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.extraInterfaces);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(this.qualifier);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			Slot other = (Slot) obj;
+			boolean result = ObjectUtils.nullSafeEquals(this.name, other.name);
+			result = result && ObjectUtils.nullSafeEquals(this.typeToMock,
+					other.typeToMock);
+			result = result && ObjectUtils.nullSafeEquals(this.extraInterfaces,
+					other.extraInterfaces);
+			result = result && ObjectUtils.nullSafeEquals(this.qualifier,
+					other.qualifier);
+			return result;
+		}
+
+	}
+
+	/**
+	 * {@link Answer} that calls the installed mock, falling back to the original bean
+	 * (or a default mock when no bean is being replaced).
+	 */
+	private static class SwappableAnswer implements Answer<Object> {
+
+		private final MockDefinition definition;
+
+		private final String beanName;
+
+		private final BeanFactory beanFactory;
+
+		private final String originalBeanName;
+
+		private volatile Object mock;
+
+		private Object defaultTarget;
+
+		SwappableAnswer(MockDefinition definition, String beanName,
+				BeanFactory beanFactory, String originalBeanName) {
+			this.definition = definition;
+			this.beanName = beanName;
+			this.beanFactory = beanFactory;
+			this.originalBeanName = originalBeanName;
+		}
+
+		Object createMock(MockDefinition definition) {
+			return definition.createMock(this.beanName + " bean");
+		}
+
+		void swap(Object mock) {
+			this.mock = mock;
+		}
+
+		@Override
+		public Object answer(InvocationOnMock invocation) throws Throwable {
+			Object mock = this.mock;
+			Object target = (mock != null ? mock : getDefaultTarget());
+			Method method = invocation.getMethod();
+			ReflectionUtils.makeAccessible(method);
+			try {
+				return method.invoke(target, invocation.getArguments());
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+		private synchronized Object getDefaultTarget() {
+			if (this.defaultTarget == null) {
+				this.defaultTarget = (this.originalBeanName != null
+						? this.beanFactory.getBean(this.originalBeanName)
+						: createMock(this.definition));
+			}
+			return this.defaultTarget;
+		}
+
+	}
+
+}
@@ -97,6 +97,17 @@ public final class TestPropertyValues {
 		return this;
 	}
 
+	/**
+	 * Return a new {@link TestPropertyValues} instance containing a copy of the
+	 * underlying map of properties. Changes made to the copy do not affect this instance.
+	 * @return the new instance
+	 */
+	public TestPropertyValues copy() {
+		TestPropertyValues copy = of();
+		copy.properties.putAll(this.properties);
+		return copy;
+	}
+
 	/**
 	 * Add the properties from the underlying map to the environment owned by an
 	 * {@link ApplicationContext}.
@@ -16,6 +16,9 @@
 
 package org.springframework.boot.test.context;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.UUID;
 
 import com.google.gson.Gson;
@@ -24,10 +27,13 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.boot.context.annotation.UserConfigurations;
+import org.springframework.boot.type.classreading.ConcurrentReferenceCachingMetadataReaderFactory;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.ClassUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -159,6 +165,85 @@ public abstract class AbstractApplicationContextTesterTests<T extends AbstractAp
 				});
 	}
 
+	@Test
+	public void variantsShouldRunEachVariantWithCopyOfTester() throws Exception {
+		T tester = get().withUserConfiguration(FooConfig.class)
+				.withPropertyValues("test.foo=1");
+		tester.variants().add("foo", (copy) -> copy, (loaded) -> {
+			assertThat(loaded).hasBean("foo").doesNotHaveBean("bar");
+			assertThat(loaded.getEnvironment().getProperty("test.foo")).isEqualTo("1");
+		}).add("bar",
+				(copy) -> copy.withUserConfiguration(BarConfig.class)
+						.withPropertyValues("test.foo=2"),
+				(loaded) -> {
+					assertThat(loaded).hasBean("foo").hasBean("bar");
+					assertThat(loaded.getEnvironment().getProperty("test.foo"))
+							.isEqualTo("2");
+				}).run();
+		tester.run((loaded) -> {
+			assertThat(loaded).doesNotHaveBean("bar");
+			assertThat(loaded.getEnvironment().getProperty("test.foo")).isEqualTo("1");
+		});
+	}
+
+	@Test
+	public void variantsShouldShareMetadataReaderFactory() throws Exception {
+		Set<Object> factories = Collections
+				.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+		get().withUserConfiguration(FooConfig.class).variants().withConcurrency(2)
+				.add("one", (copy) -> copy, (loaded) -> factories
+						.add(getMetadataReaderFactory(loaded)))
+				.add("two", (copy) -> copy.withUserConfiguration(BarConfig.class),
+						(loaded) -> factories.add(getMetadataReaderFactory(loaded)))
+				.run();
+		assertThat(factories).hasSize(1).allMatch(
+				ConcurrentReferenceCachingMetadataReaderFactory.class::isInstance);
+	}
+
+	@Test
+	public void variantsWhenFailingShouldReportEachFailedVariant() throws Exception {
+		try {
+			get().variants()
+					.add("failed context",
+							(copy) -> copy.withUserConfiguration(FailingConfig.class),
+							(loaded) -> assertThat(loaded).hasNotFailed())
+					.add("passing", (copy) -> copy, (loaded) -> {
+					}).add("failed assertion", (copy) -> copy,
+							(loaded) -> assertThat(loaded).hasBean("missing"))
+					.run();
+			fail("Did not throw");
+		}
+		catch (AssertionError ex) {
+			assertThat(ex).hasMessageStartingWith("2 of 3 context variants failed:")
+					.hasMessageContaining("failed context: ")
+					.hasMessageContaining("failed assertion: ");
+			assertThat(ex.getMessage()).doesNotContain("passing");
+			assertThat(ex.getSuppressed()).hasSize(2);
+		}
+	}
+
+	@Test
+	public void variantsWithSystemPropertiesShouldSetAndRemoveProperties()
+			throws Exception {
+		String key = "test." + UUID.randomUUID().toString();
+		get().variants()
+				.add("one", (copy) -> copy.withSystemProperties(key + "=one"),
+						(loaded) -> assertThat(System.getProperties())
+								.containsEntry(key, "one"))
+				.add("two", (copy) -> copy.withSystemProperty(key, "two"),
+						(loaded) -> assertThat(System.getProperties())
+								.containsEntry(key, "two"))
+				.run();
+		assertThat(System.getProperties().containsKey(key)).isFalse();
+	}
+
+	private Object getMetadataReaderFactory(A context) {
+		return ReflectionTestUtils.getField(
+				context.getBean(
+						AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME),
+				"metadataReaderFactory");
+	}
+
 	protected abstract T get();
 
 	@Configuration
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.context;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.test.context.cache.ContextCache;
+import org.springframework.test.context.cache.DefaultContextCache;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PreloadingContextLoaderDelegate}.
+ *
+ * @author agent (agent@local)
+ */
+public class PreloadingContextLoaderDelegateTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final ContextCache contextCache = new DefaultContextCache();
+
+	@After
+	public void clearCache() {
+		this.contextCache.clear();
+	}
+
+	@Test
+	public void preloadedContextIsUsed() throws Exception {
+		PreloadingContextLoaderDelegate delegate = new PreloadingContextLoaderDelegate(
+				this.contextCache, 2, 10, 100);
+		MergedContextConfiguration config = createConfig(ExampleConfig.class);
+		delegate.preload(config);
+		ApplicationContext context = delegate.loadContext(config);
+		assertThat(context.getBean("example")).isEqualTo("test");
+		assertThat(this.contextCache.size()).isEqualTo(1);
+		assertThat(this.contextCache.getMissCount()).isEqualTo(0);
+		assertThat(this.contextCache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void multipleContextsArePreloaded() throws Exception {
+		PreloadingContextLoaderDelegate delegate = new PreloadingContextLoaderDelegate(
+				this.contextCache, 2, 10, 100);
+		MergedContextConfiguration config1 = createConfig(ExampleConfig.class);
+		MergedContextConfiguration config2 = createConfig(OtherConfig.class);
+		delegate.preload(config1);
+		delegate.preload(config2);
+		delegate.preload(config1);
+		assertThat(delegate.loadContext(config2).getBean("other")).isEqualTo("other");
+		assertThat(delegate.loadContext(config1).getBean("example")).isEqualTo("test");
+		assertThat(this.contextCache.size()).isEqualTo(2);
+		assertThat(this.contextCache.getMissCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void preloadWhenCacheIsFullDoesNothing() throws Exception {
+		PreloadingContextLoaderDelegate delegate = new PreloadingContextLoaderDelegate(
+				this.contextCache, 2, 0, 100);
+		delegate.preload(createConfig(ExampleConfig.class));
+		Thread.sleep(100);
+		assertThat(this.contextCache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void preloadWhenOverMemoryThresholdDoesNothing() throws Exception {
+		PreloadingContextLoaderDelegate delegate = new PreloadingContextLoaderDelegate(
+				this.contextCache, 2, 10, 0);
+		delegate.preload(createConfig(ExampleConfig.class));
+		Thread.sleep(100);
+		assertThat(this.contextCache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void failedPreloadIsLoadedAgain() throws Exception {
+		PreloadingContextLoaderDelegate delegate = new PreloadingContextLoaderDelegate(
+				this.contextCache, 2, 10, 100);
+		MergedContextConfiguration config = createConfig(FailingConfig.class);
+		delegate.preload(config);
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("Failed to load ApplicationContext");
+		delegate.loadContext(config);
+	}
+
+	@Test(timeout = 30000)
+	public void preloadOfChildContextDoesNotWaitForPreloadOfParent() throws Exception {
+		PreloadingContextLoaderDelegate delegate = new PreloadingContextLoaderDelegate(
+				this.contextCache, 1, 10, 100);
+		MergedContextConfiguration parent = createConfig(ExampleConfig.class);
+		MergedContextConfiguration child = new MergedContextConfiguration(getClass(),
+				null, new Class<?>[] { OtherConfig.class }, null, null, null, null,
+				null, new AnnotationConfigContextLoader(), delegate, parent);
+		// Queue the parent behind the child on the single preload thread
+		delegate.preload(createConfig(BlockingConfig.class));
+		delegate.preload(child);
+		delegate.preload(parent);
+		BlockingConfig.latch.countDown();
+		ApplicationContext context = delegate.loadContext(child);
+		assertThat(context.getBean("other")).isEqualTo("other");
+		assertThat(context.getParent()).isSameAs(delegate.loadContext(parent));
+	}
+
+	private MergedContextConfiguration createConfig(Class<?> configClass) {
+		return new MergedContextConfiguration(getClass(), null,
+				new Class<?>[] { configClass }, null,
+				new AnnotationConfigContextLoader());
+	}
+
+	@Configuration
+	static class ExampleConfig {
+
+		@Bean
+		public String example() {
+			return "test";
+		}
+
+	}
+
+	@Configuration
+	static class OtherConfig {
+
+		@Bean
+		public String other() {
+			return "other";
+		}
+
+	}
+
+	@Configuration
+	static class BlockingConfig {
+
+		static final CountDownLatch latch = new CountDownLatch(1);
+
+		@Bean
+		public String blocking() throws InterruptedException {
+			latch.await();
+			return "blocking";
+		}
+
+	}
+
+	@Configuration
+	static class FailingConfig {
+
+		@Bean
+		public String failing() {
+			throw new IllegalStateException("Failed");
+		}
+
+	}
+
+}
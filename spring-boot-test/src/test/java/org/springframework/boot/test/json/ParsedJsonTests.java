@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.json;
+
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.comparator.DefaultComparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ParsedJson}.
+ *
+ * @author agent (agent@local)
+ */
+public class ParsedJsonTests {
+
+	private static final String JSON = "{\"name\":\"spring\", \"tags\":[\"a\",\"b\"]}";
+
+	private static final DefaultComparator LENIENT = new DefaultComparator(
+			JSONCompareMode.LENIENT);
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void readShouldParseContentOnce() throws Exception {
+		ParsedJson parsed = new ParsedJson(JSON);
+		Object name = parsed.read(ParsedJson.compile("$.name"));
+		assertThat(name).isEqualTo("spring");
+		assertThat(parsed.read(ParsedJson.compile("$.name"))).isSameAs(name);
+		assertThat(parsed.read(ParsedJson.compile("$.tags"))).asList()
+				.containsExactly("a", "b");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readShouldNotExposeParsedContent() throws Exception {
+		ParsedJson parsed = new ParsedJson(JSON);
+		List<Object> tags = (List<Object>) parsed.read(ParsedJson.compile("$.tags"));
+		tags.add("c");
+		Map<String, Object> document = (Map<String, Object>) parsed
+				.read(ParsedJson.compile("$"));
+		((List<Object>) document.get("tags")).clear();
+		document.remove("name");
+		assertThat(parsed.read(ParsedJson.compile("$.tags"))).isNotSameAs(tags).asList()
+				.containsExactly("a", "b");
+		assertThat(parsed.read(ParsedJson.compile("$.name"))).isEqualTo("spring");
+	}
+
+	@Test
+	public void readWhenJsonIsNullShouldThrowException() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		new ParsedJson(null).read(ParsedJson.compile("$.name"));
+	}
+
+	@Test
+	public void compileShouldReuseCompiledPath() throws Exception {
+		assertThat(ParsedJson.compile("$.name")).isSameAs(ParsedJson.compile("$.name"));
+	}
+
+	@Test
+	public void compareObjects() throws Exception {
+		ParsedJson parsed = new ParsedJson(JSON);
+		assertThat(parsed.compare("{\"name\":\"spring\"}", LENIENT).passed()).isTrue();
+		assertThat(parsed.compare("{\"name\":\"boot\"}", LENIENT).failed()).isTrue();
+	}
+
+	@Test
+	public void compareArrays() throws Exception {
+		ParsedJson parsed = new ParsedJson("[1, 2]");
+		assertThat(parsed.compare("[2, 1]", LENIENT).passed()).isTrue();
+		assertThat(parsed.compare("[1, 2, 3]", LENIENT).failed()).isTrue();
+	}
+
+	@Test
+	public void compareDifferentTypesShouldFail() throws Exception {
+		ParsedJson parsed = new ParsedJson("[1, 2]");
+		assertThat(parsed.compare("{\"name\":\"spring\"}", LENIENT).failed()).isTrue();
+	}
+
+	@Test
+	public void compareWhenActualIsInvalidShouldThrowException() throws Exception {
+		this.thrown.expect(JSONException.class);
+		new ParsedJson("{").compare("{}", LENIENT);
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.mock.mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.example.ExampleService;
+import org.springframework.boot.test.mock.mockito.example.ExampleServiceCaller;
+import org.springframework.boot.test.mock.mockito.example.RealExampleService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Integration tests for {@link SwappableMocks} with test classes that mock different
+ * beans.
+ *
+ * @author agent (agent@local)
+ */
+public class SwappableMocksIntegrationTests {
+
+	private static final List<ApplicationContext> contexts = new ArrayList<>();
+
+	@Before
+	public void enableSwappableMocks() {
+		System.setProperty(SwappableMocks.ENABLED_PROPERTY, "true");
+		contexts.clear();
+	}
+
+	@After
+	public void disableSwappableMocks() {
+		System.clearProperty(SwappableMocks.ENABLED_PROPERTY);
+	}
+
+	@Test
+	public void contextIsRecreatedWhenTestClassMocksAnotherBean() {
+		run(MockServiceTestClass.class);
+		run(MockCallerTestClass.class);
+		run(MockServiceAgainTestClass.class);
+		assertThat(contexts).hasSize(3);
+		assertThat(contexts.get(1)).isNotSameAs(contexts.get(0));
+		assertThat(contexts.get(2)).isSameAs(contexts.get(1));
+	}
+
+	private void run(Class<?> testClass) {
+		// Run classes one at a time so that, like a build, the mocks of later classes
+		// aren't known when the context is first created
+		Result result = JUnitCore.runClasses(testClass);
+		assertThat(result.getFailures()).isEmpty();
+		assertThat(result.getRunCount()).isEqualTo(1);
+	}
+
+	@RunWith(SpringRunner.class)
+	@ContextConfiguration(classes = Config.class)
+	public static class MockServiceTestClass {
+
+		@MockBean
+		private ExampleService service;
+
+		@Autowired
+		private ExampleServiceCaller caller;
+
+		@Autowired
+		private ApplicationContext context;
+
+		@Test
+		public void serviceIsMocked() {
+			contexts.add(this.context);
+			given(this.service.greeting()).willReturn("mocked");
+			assertThat(this.caller.sayGreeting()).isEqualTo("I say mocked");
+		}
+
+	}
+
+	@RunWith(SpringRunner.class)
+	@ContextConfiguration(classes = Config.class)
+	public static class MockCallerTestClass {
+
+		@MockBean
+		private ExampleServiceCaller caller;
+
+		@Autowired
+		private ExampleService service;
+
+		@Autowired
+		private ApplicationContext context;
+
+		@Test
+		public void callerIsMockedAndServiceIsReal() {
+			contexts.add(this.context);
+			given(this.caller.sayGreeting()).willReturn("mocked");
+			assertThat(this.caller.sayGreeting()).isEqualTo("mocked");
+			assertThat(this.service.greeting()).isEqualTo("real");
+		}
+
+	}
+
+	@RunWith(SpringRunner.class)
+	@ContextConfiguration(classes = Config.class)
+	public static class MockServiceAgainTestClass {
+
+		@MockBean
+		private ExampleService service;
+
+		@Autowired
+		private ApplicationContext context;
+
+		@Test
+		public void serviceIsMocked() {
+			contexts.add(this.context);
+			given(this.service.greeting()).willReturn("mocked again");
+			assertThat(this.service.greeting()).isEqualTo("mocked again");
+		}
+
+	}
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		public ExampleService exampleService() {
+			return new RealExampleService("real");
+		}
+
+		@Bean
+		public ExampleServiceCaller exampleServiceCaller(ExampleService service) {
+			return new ExampleServiceCaller(service);
+		}
+
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.test.mock.mockito;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.boot.test.mock.mockito.example.ExampleService;
+import org.springframework.boot.test.mock.mockito.example.ExampleServiceCaller;
+import org.springframework.boot.test.mock.mockito.example.RealExampleService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link SwappableMocks}.
+ *
+ * @author agent (agent@local)
+ */
+public class SwappableMocksTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void customizerKeyIgnoresSwappableMocks() {
+		MockitoContextCustomizer c1 = new MockitoContextCustomizer(
+				Collections.<Definition>emptySet(), true);
+		MockitoContextCustomizer c2 = new MockitoContextCustomizer(
+				definitions(MockedService.class), true);
+		assertThat(c1).isEqualTo(c2);
+		assertThat(c1.hashCode()).isEqualTo(c2.hashCode());
+	}
+
+	@Test
+	public void unmockedSwappableBeanDelegatesToOriginal() {
+		load(definitions(MockedService.class));
+		ExampleServiceCaller caller = this.context.getBean(ExampleServiceCaller.class);
+		assertThat(caller.sayGreeting()).isEqualTo("I say real");
+		assertThat(this.context.getBean(ExampleService.class))
+				.isSameAs(caller.getService());
+	}
+
+	@Test
+	public void originalBeanIsCreatedWhenFirstUsed() {
+		load(definitions(MockedService.class));
+		assertThat(this.context.getBeanFactory()
+				.containsSingleton("exampleService.original")).isFalse();
+		this.context.getBean(ExampleServiceCaller.class).sayGreeting();
+		assertThat(this.context.getBeanFactory()
+				.containsSingleton("exampleService.original")).isTrue();
+	}
+
+	@Test
+	public void installReplacesMocksPerTestClass() {
+		load(definitions(MockedService.class));
+		MockitoPostProcessor postProcessor = this.context
+				.getBean(MockitoPostProcessor.class);
+		ExampleServiceCaller caller = this.context.getBean(ExampleServiceCaller.class);
+		Set<Definition> definitions = definitions(MockedService.class);
+		assertThat(postProcessor.installMocks(MockedService.class, definitions))
+				.isTrue();
+		MockedService test = new MockedService();
+		postProcessor.inject(ReflectionUtils.findField(MockedService.class, "service"), test,
+				definitions.iterator().next());
+		given(test.service.greeting()).willReturn("mocked");
+		assertThat(caller.sayGreeting()).isEqualTo("I say mocked");
+		verify(test.service).greeting();
+		assertThat(postProcessor.installMocks(NotMocked.class,
+				Collections.<Definition>emptySet())).isTrue();
+		assertThat(caller.sayGreeting()).isEqualTo("I say real");
+	}
+
+	@Test
+	public void installWhenContextDoesNotContainSlotReturnsFalse() {
+		load(Collections.<Definition>emptySet());
+		MockitoPostProcessor postProcessor = this.context
+				.getBean(MockitoPostProcessor.class);
+		assertThat(postProcessor.installMocks(MockedRunnable.class,
+				definitions(MockedRunnable.class))).isFalse();
+	}
+
+	@Test
+	public void factoryBeanMockIsNotSwappable() throws Exception {
+		MockitoContextCustomizer c1 = new MockitoContextCustomizer(
+				Collections.<Definition>emptySet(), true);
+		MockitoContextCustomizer c2 = new MockitoContextCustomizer(
+				definitions(MockedFactoryBean.class), true);
+		assertThat(c1).isNotEqualTo(c2);
+		load(FactoryBeanConfig.class, definitions(MockedFactoryBean.class));
+		ExampleServiceFactoryBean factoryBean = this.context
+				.getBean(ExampleServiceFactoryBean.class);
+		assertThat(Mockito.mockingDetails(factoryBean).isMock()).isTrue();
+	}
+
+	@Test
+	public void additionalDefinitionsAreRegisteredWhenReplacingExistingBean() {
+		load(definitions(MockedService.class));
+		this.context.close();
+		load(Collections.<Definition>emptySet());
+		MockitoPostProcessor postProcessor = this.context
+				.getBean(MockitoPostProcessor.class);
+		assertThat(postProcessor.installMocks(MockedService.class,
+				definitions(MockedService.class))).isTrue();
+	}
+
+	private Set<Definition> definitions(Class<?> testClass) {
+		DefinitionsParser parser = new DefinitionsParser();
+		parser.parse(testClass);
+		return parser.getDefinitions();
+	}
+
+	private void load(Set<Definition> definitions) {
+		load(Config.class, definitions);
+	}
+
+	private void load(Class<?> config, Set<Definition> definitions) {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.register(config);
+		new MockitoContextCustomizer(definitions, true).customizeContext(this.context,
+				null);
+		this.context.refresh();
+	}
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		public ExampleService exampleService() {
+			return new RealExampleService("real");
+		}
+
+		@Bean
+		public ExampleServiceCaller exampleServiceCaller(ExampleService service) {
+			return new ExampleServiceCaller(service);
+		}
+
+	}
+
+	@Configuration
+	static class FactoryBeanConfig {
+
+		@Bean
+		public ExampleServiceFactoryBean exampleServiceFactoryBean() {
+			return new ExampleServiceFactoryBean();
+		}
+
+	}
+
+	static class ExampleServiceFactoryBean implements FactoryBean<ExampleService> {
+
+		@Override
+		public ExampleService getObject() throws Exception {
+			return new RealExampleService("factory");
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return ExampleService.class;
+		}
+
+		@Override
+		public boolean isSingleton() {
+			return false;
+		}
+
+	}
+
+	static class MockedFactoryBean {
+
+		@MockBean
+		private ExampleServiceFactoryBean factoryBean;
+
+	}
+
+	static class MockedService {
+
+		@MockBean
+		private ExampleService service;
+
+	}
+
+	static class MockedRunnable {
+
+		@MockBean
+		private Runnable runnable;
+
+	}
+
+	static class NotMocked {
+
+	}
+
+}
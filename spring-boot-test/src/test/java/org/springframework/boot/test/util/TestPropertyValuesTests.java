@@ -65,6 +65,18 @@ public class TestPropertyValuesTests {
 		assertThat(this.environment.getProperty("foo.bar")).isEqualTo("baz");
 	}
 
+	@Test
+	public void copyShouldNotShareProperties() throws Exception {
+		TestPropertyValues source = TestPropertyValues.of("foo.bar=baz");
+		TestPropertyValues copy = source.copy().and("foo.bar=bin").and("hello=world");
+		source.applyTo(this.environment);
+		assertThat(this.environment.getProperty("foo.bar")).isEqualTo("baz");
+		assertThat(this.environment.getProperty("hello")).isNull();
+		copy.applyTo(this.environment, Type.MAP, "other");
+		assertThat(this.environment.getPropertySources().get("other")
+				.getProperty("foo.bar")).isEqualTo("bin");
+	}
+
 	@Test
 	public void applyToExistingNameAndDifferentTypeShouldOverrideExistingOne()
 			throws Exception {
@@ -108,11 +108,17 @@ public class ConfigurationMetadataProperty implements Serializable {
 	}
 
 	/**
-	 * A single-line, single-sentence description of this property, if any.
+	 * A single-line, single-sentence description of this property, if any. Unless set
+	 * explicitly, it is extracted from the {@link #getDescription() description} when
+	 * first requested.
 	 * @return the property short description
 	 * @see #getDescription()
 	 */
 	public String getShortDescription() {
+		if (this.shortDescription == null && this.description != null) {
+			this.shortDescription = new DescriptionExtractor()
+					.getShortDescription(this.description);
+		}
 		return this.shortDescription;
 	}
 
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.configurationmetadata;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -44,4 +45,20 @@ public interface ConfigurationMetadataRepository {
 	 */
 	Map<String, ConfigurationMetadataProperty> getAllProperties();
 
+	/**
+	 * Return the properties whose id starts with the specified prefix, indexed by id.
+	 * @param prefix the prefix of the properties to return
+	 * @return the matching configuration meta-data properties
+	 * @since 2.0.0
+	 */
+	default Map<String, ConfigurationMetadataProperty> getProperties(String prefix) {
+		Map<String, ConfigurationMetadataProperty> properties = new HashMap<>();
+		getAllProperties().forEach((id, property) -> {
+			if (id.startsWith(prefix)) {
+				properties.put(id, property);
+			}
+		});
+		return properties;
+	}
+
 }
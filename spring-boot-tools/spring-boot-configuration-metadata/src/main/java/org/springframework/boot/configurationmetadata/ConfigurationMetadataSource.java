@@ -88,6 +88,10 @@ public class ConfigurationMetadataSource implements Serializable {
 	 * @see #getDescription()
 	 */
 	public String getShortDescription() {
+		if (this.shortDescription == null && this.description != null) {
+			this.shortDescription = new DescriptionExtractor()
+					.getShortDescription(this.description);
+		}
 		return this.shortDescription;
 	}
 
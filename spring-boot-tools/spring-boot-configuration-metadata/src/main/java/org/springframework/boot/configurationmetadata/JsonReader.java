@@ -16,9 +16,9 @@
 
 package org.springframework.boot.configurationmetadata;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -35,9 +35,7 @@ import org.json.JSONObject;
  */
 class JsonReader {
 
-	private static final int BUFFER_SIZE = 4096;
-
-	private final DescriptionExtractor descriptionExtractor = new DescriptionExtractor();
+	private static final int BUFFER_SIZE = 16384;
 
 	public RawConfigurationMetadata read(InputStream in, Charset charset)
 			throws IOException {
@@ -105,10 +103,7 @@ class JsonReader {
 		ConfigurationMetadataSource source = new ConfigurationMetadataSource();
 		source.setGroupId(json.getString("name"));
 		source.setType(json.optString("type", null));
-		String description = json.optString("description", null);
-		source.setDescription(description);
-		source.setShortDescription(
-				this.descriptionExtractor.getShortDescription(description));
+		source.setDescription(json.optString("description", null));
 		source.setSourceType(json.optString("sourceType", null));
 		source.setSourceMethod(json.optString("sourceMethod", null));
 		return source;
@@ -118,10 +113,7 @@ class JsonReader {
 		ConfigurationMetadataItem item = new ConfigurationMetadataItem();
 		item.setId(json.getString("name"));
 		item.setType(json.optString("type", null));
-		String description = json.optString("description", null);
-		item.setDescription(description);
-		item.setShortDescription(
-				this.descriptionExtractor.getShortDescription(description));
+		item.setDescription(json.optString("description", null));
 		item.setDefaultValue(readItemValue(json.opt("defaultValue")));
 		item.setDeprecation(parseDeprecation(json));
 		item.setSourceType(json.optString("sourceType", null));
@@ -138,10 +130,7 @@ class JsonReader {
 				JSONObject value = values.getJSONObject(i);
 				ValueHint valueHint = new ValueHint();
 				valueHint.setValue(readItemValue(value.get("value")));
-				String description = value.optString("description", null);
-				valueHint.setDescription(description);
-				valueHint.setShortDescription(
-						this.descriptionExtractor.getShortDescription(description));
+				valueHint.setDescription(value.optString("description", null));
 				hint.getValueHints().add(valueHint);
 			}
 		}
@@ -206,14 +195,13 @@ class JsonReader {
 
 	private JSONObject readJson(InputStream in, Charset charset) throws Exception {
 		try {
-			StringBuilder out = new StringBuilder();
-			InputStreamReader reader = new InputStreamReader(in, charset);
-			char[] buffer = new char[BUFFER_SIZE];
+			ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+			byte[] buffer = new byte[BUFFER_SIZE];
 			int bytesRead = -1;
-			while ((bytesRead = reader.read(buffer)) != -1) {
-				out.append(buffer, 0, bytesRead);
+			while ((bytesRead = in.read(buffer)) != -1) {
+				out.write(buffer, 0, bytesRead);
 			}
-			return new JSONObject(out.toString());
+			return new JSONObject(new String(out.toByteArray(), charset));
 		}
 		finally {
 			in.close();
@@ -21,6 +21,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * The default {@link ConfigurationMetadataRepository} implementation.
@@ -34,6 +36,8 @@ public class SimpleConfigurationMetadataRepository
 
 	private final Map<String, ConfigurationMetadataGroup> allGroups = new HashMap<>();
 
+	private transient volatile SortedMap<String, ConfigurationMetadataProperty> propertiesIndex;
+
 	@Override
 	public Map<String, ConfigurationMetadataGroup> getAllGroups() {
 		return Collections.unmodifiableMap(this.allGroups);
@@ -41,11 +45,25 @@ public class SimpleConfigurationMetadataRepository
 
 	@Override
 	public Map<String, ConfigurationMetadataProperty> getAllProperties() {
-		Map<String, ConfigurationMetadataProperty> properties = new HashMap<>();
-		for (ConfigurationMetadataGroup group : this.allGroups.values()) {
-			properties.putAll(group.getProperties());
+		return Collections.unmodifiableMap(getPropertiesIndex());
+	}
+
+	@Override
+	public Map<String, ConfigurationMetadataProperty> getProperties(String prefix) {
+		return Collections.unmodifiableMap(
+				getPropertiesIndex().subMap(prefix, prefix + Character.MAX_VALUE));
+	}
+
+	private SortedMap<String, ConfigurationMetadataProperty> getPropertiesIndex() {
+		SortedMap<String, ConfigurationMetadataProperty> index = this.propertiesIndex;
+		if (index == null) {
+			index = new TreeMap<>();
+			for (ConfigurationMetadataGroup group : this.allGroups.values()) {
+				index.putAll(group.getProperties());
+			}
+			this.propertiesIndex = index;
 		}
-		return properties;
+		return index;
 	}
 
 	/**
@@ -53,6 +71,7 @@ public class SimpleConfigurationMetadataRepository
 	 * @param sources the sources to add
 	 */
 	public void add(Collection<ConfigurationMetadataSource> sources) {
+		this.propertiesIndex = null;
 		for (ConfigurationMetadataSource source : sources) {
 			String groupId = source.getGroupId();
 			ConfigurationMetadataGroup group = this.allGroups.get(groupId);
@@ -75,6 +94,7 @@ public class SimpleConfigurationMetadataRepository
 	 */
 	public void add(ConfigurationMetadataProperty property,
 			ConfigurationMetadataSource source) {
+		this.propertiesIndex = null;
 		if (source != null) {
 			putIfAbsent(source.getProperties(), property.getId(), property);
 		}
@@ -86,6 +106,7 @@ public class SimpleConfigurationMetadataRepository
 	 * @param repository the repository to include
 	 */
 	public void include(ConfigurationMetadataRepository repository) {
+		this.propertiesIndex = null;
 		for (ConfigurationMetadataGroup group : repository.getAllGroups().values()) {
 			ConfigurationMetadataGroup existingGroup = this.allGroups.get(group.getId());
 			if (existingGroup == null) {
@@ -65,6 +65,10 @@ public class ValueHint implements Serializable {
 	 * @see #getDescription()
 	 */
 	public String getShortDescription() {
+		if (this.shortDescription == null && this.description != null) {
+			this.shortDescription = new DescriptionExtractor()
+					.getShortDescription(this.description);
+		}
 		return this.shortDescription;
 	}
 
@@ -51,6 +51,35 @@ public class ConfigurationMetadataRepositoryJsonBuilderTests
 		}
 	}
 
+	@Test
+	public void propertiesByPrefix() throws IOException {
+		try (InputStream foo = getInputStreamFor("foo");
+				InputStream root = getInputStreamFor("root")) {
+			ConfigurationMetadataRepository repo = ConfigurationMetadataRepositoryJsonBuilder
+					.create(foo, root).build();
+			assertThat(repo.getProperties("spring.foo.")).containsOnlyKeys(
+					"spring.foo.name", "spring.foo.description", "spring.foo.counter");
+			assertThat(repo.getProperties("spring.root")).containsOnlyKeys(
+					"spring.root.name", "spring.root2.name");
+			assertThat(repo.getProperties("spring.root.")).containsOnlyKeys(
+					"spring.root.name");
+			assertThat(repo.getProperties("spring.unknown")).isEmpty();
+		}
+	}
+
+	@Test
+	public void propertiesAreReindexedWhenRepositoryChanges() throws IOException {
+		try (InputStream foo = getInputStreamFor("foo");
+				InputStream bar = getInputStreamFor("bar")) {
+			SimpleConfigurationMetadataRepository repo = (SimpleConfigurationMetadataRepository) ConfigurationMetadataRepositoryJsonBuilder
+					.create(foo).build();
+			assertThat(repo.getProperties("spring.bar.")).isEmpty();
+			repo.include(ConfigurationMetadataRepositoryJsonBuilder.create(bar).build());
+			assertThat(repo.getProperties("spring.bar.")).hasSize(3);
+			assertThat(repo.getAllProperties()).hasSize(6);
+		}
+	}
+
 	@Test
 	public void hintsOnMaps() throws IOException {
 		try (InputStream map = getInputStreamFor("map")) {
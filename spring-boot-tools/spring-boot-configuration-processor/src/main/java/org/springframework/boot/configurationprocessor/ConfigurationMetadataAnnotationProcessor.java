@@ -20,6 +20,7 @@ import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -86,6 +87,8 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 
 	private TypeExcludeFilter typeExcludeFilter = new TypeExcludeFilter();
 
+	private final Set<Element> originatingElements = new LinkedHashSet<>();
+
 	protected String configurationPropertiesAnnotation() {
 		return CONFIGURATION_PROPERTIES_ANNOTATION;
 	}
@@ -123,13 +126,18 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations,
 			RoundEnvironment roundEnv) {
-		this.metadataCollector.processing(roundEnv);
+		Set<Element> rootElements = getRootElementsToProcess(roundEnv);
+		this.metadataCollector.processing(rootElements);
 		Elements elementUtils = this.processingEnv.getElementUtils();
 		TypeElement annotationType = elementUtils
 				.getTypeElement(configurationPropertiesAnnotation());
 		if (annotationType != null) { // Is @ConfigurationProperties available
 			for (Element element : roundEnv.getElementsAnnotatedWith(annotationType)) {
-				processElement(element);
+				Element rootElement = getRootElement(element);
+				if (rootElements.contains(rootElement)) {
+					this.originatingElements.add(rootElement);
+					processElement(element);
+				}
 			}
 		}
 		if (roundEnv.processingOver()) {
@@ -143,6 +151,48 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 		return false;
 	}
 
+	private Set<Element> getRootElementsToProcess(RoundEnvironment roundEnv) {
+		Set<Element> elements = new LinkedHashSet<>();
+		for (Element element : roundEnv.getRootElements()) {
+			if (!isUnchanged(element)) {
+				elements.add(element);
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Return whether the specified root element is known to be unchanged since the
+	 * previous build. Incremental builds may pass unchanged types as class files so that
+	 * they are processed again. Their metadata is kept from the previous build instead
+	 * as descriptions and default values can only be read from source.
+	 * @param element the root element
+	 * @return {@code true} if the element does not need to be processed
+	 */
+	private boolean isUnchanged(Element element) {
+		if (element instanceof TypeElement) {
+			try {
+				return !this.fieldValuesParser.isSourceAvailable((TypeElement) element)
+						&& this.metadataCollector.hasPreviousMetadata(
+								this.typeUtils.getQualifiedName(element));
+			}
+			catch (Exception ex) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	private Element getRootElement(Element element) {
+		Element enclosingElement = element.getEnclosingElement();
+		while (enclosingElement != null
+				&& enclosingElement.getKind() != ElementKind.PACKAGE) {
+			element = enclosingElement;
+			enclosingElement = element.getEnclosingElement();
+		}
+		return element;
+	}
+
 	private void processElement(Element element) {
 		try {
 			AnnotationMirror annotation = getAnnotation(element,
@@ -414,7 +464,8 @@ public class ConfigurationMetadataAnnotationProcessor extends AbstractProcessor
 		ConfigurationMetadata metadata = this.metadataCollector.getMetadata();
 		metadata = mergeAdditionalMetadata(metadata);
 		if (!metadata.getItems().isEmpty()) {
-			this.metadataStore.writeMetadata(metadata);
+			this.metadataStore.writeMetadata(metadata, this.originatingElements
+					.toArray(new Element[this.originatingElements.size()]));
 			return metadata;
 		}
 		return null;
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.configurationprocessor;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -62,11 +63,41 @@ public class MetadataCollector {
 	}
 
 	public void processing(RoundEnvironment roundEnv) {
-		for (Element element : roundEnv.getRootElements()) {
+		processing(roundEnv.getRootElements());
+	}
+
+	/**
+	 * Mark the specified elements as processed in the current build. Metadata from a
+	 * previous build is discarded for processed types.
+	 * @param elements the processed elements
+	 * @since 2.0.0
+	 */
+	public void processing(Collection<? extends Element> elements) {
+		for (Element element : elements) {
 			markAsProcessed(element);
 		}
 	}
 
+	/**
+	 * Return whether metadata from a previous build is available for the specified
+	 * type or any of its nested types.
+	 * @param sourceType the qualified name of the type
+	 * @return {@code true} if previous metadata is available
+	 * @since 2.0.0
+	 */
+	public boolean hasPreviousMetadata(String sourceType) {
+		if (this.previousMetadata != null) {
+			for (ItemMetadata item : this.previousMetadata.getItems()) {
+				String itemSourceType = item.getSourceType();
+				if (itemSourceType != null && (itemSourceType.equals(sourceType)
+						|| itemSourceType.startsWith(sourceType + "$"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	private void markAsProcessed(Element element) {
 		if (element instanceof TypeElement) {
 			this.processedSourceTypes.add(this.typeUtils.getQualifiedName(element));
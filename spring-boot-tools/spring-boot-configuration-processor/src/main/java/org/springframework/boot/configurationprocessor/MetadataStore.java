@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
 import javax.tools.Diagnostic;
 import javax.tools.FileObject;
 import javax.tools.StandardLocation;
@@ -63,8 +64,21 @@ public class MetadataStore {
 	}
 
 	public void writeMetadata(ConfigurationMetadata metadata) throws IOException {
+		writeMetadata(metadata, new Element[0]);
+	}
+
+	/**
+	 * Write the specified metadata, recording the elements it was derived from so that
+	 * incremental builds can track them.
+	 * @param metadata the metadata to write
+	 * @param originatingElements the elements the metadata originates from
+	 * @throws IOException on write error
+	 * @since 2.0.0
+	 */
+	public void writeMetadata(ConfigurationMetadata metadata,
+			Element... originatingElements) throws IOException {
 		if (!metadata.getItems().isEmpty()) {
-			try (OutputStream outputStream = createMetadataResource()
+			try (OutputStream outputStream = createMetadataResource(originatingElements)
 					.openOutputStream()) {
 				new JsonMarshaller().write(metadata, outputStream);
 			}
@@ -99,9 +113,10 @@ public class MetadataStore {
 		return resource;
 	}
 
-	private FileObject createMetadataResource() throws IOException {
-		FileObject resource = this.environment.getFiler()
-				.createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject createMetadataResource(Element... originatingElements)
+			throws IOException {
+		FileObject resource = this.environment.getFiler().createResource(
+				StandardLocation.CLASS_OUTPUT, "", METADATA_PATH, originatingElements);
 		return resource;
 	}
 
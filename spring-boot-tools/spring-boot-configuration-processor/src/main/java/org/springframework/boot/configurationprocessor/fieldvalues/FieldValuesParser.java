@@ -53,4 +53,17 @@ public interface FieldValuesParser {
 	 */
 	Map<String, Object> getFieldValues(TypeElement element) throws Exception;
 
+	/**
+	 * Return whether the source of the given element is available. Field values can
+	 * only be obtained for elements that are being compiled from source and not for
+	 * those loaded from a class file. Returns {@code true} if this cannot be determined.
+	 * @param element the element to inspect
+	 * @return {@code true} if the source of the element is available
+	 * @throws Exception if the source cannot be inspected
+	 * @since 2.0.0
+	 */
+	default boolean isSourceAvailable(TypeElement element) throws Exception {
+		return true;
+	}
+
 }
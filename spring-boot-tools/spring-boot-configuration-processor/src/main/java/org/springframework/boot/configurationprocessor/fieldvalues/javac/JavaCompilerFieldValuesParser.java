@@ -54,6 +54,11 @@ public class JavaCompilerFieldValuesParser implements FieldValuesParser {
 		return Collections.emptyMap();
 	}
 
+	@Override
+	public boolean isSourceAvailable(TypeElement element) throws Exception {
+		return this.trees.getTree(element) != null;
+	}
+
 	/**
 	 * {@link TreeVisitor} to collect fields.
 	 */
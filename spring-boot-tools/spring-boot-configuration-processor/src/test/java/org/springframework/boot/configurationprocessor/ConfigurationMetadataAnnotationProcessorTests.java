@@ -713,6 +713,20 @@ public class ConfigurationMetadataAnnotationProcessorTests {
 		assertThat(metadata).has(Metadata.withProperty("bar.counter"));
 	}
 
+	@Test
+	public void incrementalBuildWithUnchangedTypesFromClassFiles() throws Exception {
+		TestProject project = new TestProject(this.temporaryFolder, FooProperties.class,
+				BarProperties.class);
+		project.fullBuild();
+		ConfigurationMetadata metadata = project.incrementalBuild(
+				new Class<?>[] { BarProperties.class }, FooProperties.class);
+		assertThat(metadata).has(Metadata.withProperty("foo.counter")
+				.fromSource(FooProperties.class)
+				.withDescription("A nice counter description.").withDefaultValue(0));
+		assertThat(metadata).has(
+				Metadata.withProperty("bar.counter").fromSource(BarProperties.class));
+	}
+
 	@Test
 	public void incrementalBuildAnnotationRemoved() throws Exception {
 		TestProject project = new TestProject(this.temporaryFolder, FooProperties.class,
@@ -25,9 +25,11 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -114,6 +116,27 @@ public class TestProject {
 		return processor.getMetadata();
 	}
 
+	/**
+	 * Perform an incremental build that recompiles some types and passes unchanged types
+	 * as class files for annotation processing, as Gradle does for aggregating
+	 * annotation processors.
+	 * @param toRecompile the types to recompile
+	 * @param toReprocess the unchanged types to process again
+	 * @return the resulting metadata
+	 */
+	public ConfigurationMetadata incrementalBuild(Class<?>[] toRecompile,
+			Class<?>... toReprocess) {
+		TestConfigurationMetadataAnnotationProcessor processor = new TestConfigurationMetadataAnnotationProcessor(
+				this.compiler.getOutputLocation());
+		List<String> classNames = new ArrayList<>();
+		for (Class<?> type : toReprocess) {
+			classNames.add(type.getName());
+		}
+		TestCompilationTask task = this.compiler.getTask(classNames, toRecompile);
+		task.call(processor);
+		return processor.getMetadata();
+	}
+
 	private void deleteFolderContents(File outputFolder) {
 		FileSystemUtils.deleteRecursively(outputFolder);
 		outputFolder.mkdirs();
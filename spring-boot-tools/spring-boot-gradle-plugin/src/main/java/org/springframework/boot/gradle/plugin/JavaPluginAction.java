@@ -16,6 +16,7 @@
 
 package org.springframework.boot.gradle.plugin;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.concurrent.Callable;
 
@@ -31,6 +32,7 @@ import org.gradle.api.plugins.JavaPluginConvention;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.compile.JavaCompile;
 
+import org.springframework.boot.gradle.tasks.bundling.BootExploded;
 import org.springframework.boot.gradle.tasks.bundling.BootJar;
 import org.springframework.boot.gradle.tasks.run.BootRun;
 
@@ -58,6 +60,7 @@ final class JavaPluginAction implements PluginApplicationAction {
 		configureBuildTask(project);
 		BootJar bootJar = configureBootJarTask(project);
 		configureArtifactPublication(project, bootJar);
+		configureBootExplodedTask(project);
 		configureBootRunTask(project);
 		configureUtf8Encoding(project);
 	}
@@ -89,6 +92,24 @@ final class JavaPluginAction implements PluginApplicationAction {
 		return bootJar;
 	}
 
+	private void configureBootExplodedTask(Project project) {
+		BootExploded bootExploded = project.getTasks().create(
+				SpringBootPlugin.BOOT_EXPLODED_TASK_NAME, BootExploded.class);
+		bootExploded.setDescription("Assembles an exploded application containing the"
+				+ " main classes and their dependencies.");
+		bootExploded.setGroup(BasePlugin.BUILD_GROUP);
+		bootExploded.setDestinationDir(new File(project.getBuildDir(), "exploded"));
+		bootExploded.classpath((Callable<FileCollection>) () -> {
+			JavaPluginConvention convention = project.getConvention()
+					.getPlugin(JavaPluginConvention.class);
+			SourceSet mainSourceSet = convention.getSourceSets()
+					.getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+			return mainSourceSet.getRuntimeClasspath();
+		});
+		bootExploded.conventionMapping("mainClass",
+				new MainClassConvention(project, bootExploded::getClasspath));
+	}
+
 	private void configureArtifactPublication(Project project, BootJar bootJar) {
 		ArchivePublishArtifact artifact = new ArchivePublishArtifact(bootJar);
 		this.singlePublishedArtifact.addCandidate(artifact);
@@ -26,6 +26,7 @@ import org.gradle.api.artifacts.Configuration;
 import org.gradle.util.GradleVersion;
 
 import org.springframework.boot.gradle.dsl.SpringBootExtension;
+import org.springframework.boot.gradle.tasks.bundling.BootExploded;
 import org.springframework.boot.gradle.tasks.bundling.BootJar;
 import org.springframework.boot.gradle.tasks.bundling.BootWar;
 
@@ -52,6 +53,13 @@ public class SpringBootPlugin implements Plugin<Project> {
 	 */
 	public static final String BOOT_JAR_TASK_NAME = "bootJar";
 
+	/**
+	 * The name of the default {@link BootExploded} task.
+	 *
+	 * @since 2.0.0
+	 */
+	public static final String BOOT_EXPLODED_TASK_NAME = "bootExploded";
+
 	/**
 	 * The name of the default {@link BootWar} task.
 	 *
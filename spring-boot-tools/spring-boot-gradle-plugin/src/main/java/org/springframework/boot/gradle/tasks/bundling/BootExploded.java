@@ -0,0 +1,218 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.gradle.tasks.bundling;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.CopySpec;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.Sync;
+
+/**
+ * A custom {@link Sync} task that produces an exploded Spring Boot application that can
+ * be launched using {@code org.springframework.boot.loader.ExplodedLauncher}. Snapshot
+ * dependencies are placed in {@code BOOT-INF/snapshot-lib} and all other dependencies in
+ * {@code BOOT-INF/lib} so that each directory can be used as a separate layer of a
+ * container image.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class BootExploded extends Sync {
+
+	private static final String LAUNCHER_CLASS_NAME = "org.springframework.boot.loader.ExplodedLauncher";
+
+	private static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+
+	private FileCollection classpath;
+
+	private String mainClass;
+
+	private boolean excludeDevtools = true;
+
+	/**
+	 * Creates a new {@code BootExploded} task.
+	 */
+	public BootExploded() {
+		into("BOOT-INF/lib", classpathFiles(
+				(file) -> isIncludedLibrary(file) && !isSnapshot(file)));
+		into("BOOT-INF/snapshot-lib",
+				classpathFiles((file) -> isIncludedLibrary(file) && isSnapshot(file)));
+		into("BOOT-INF/classes", classpathFiles(File::isDirectory));
+	}
+
+	private Action<CopySpec> classpathFiles(Spec<File> filter) {
+		return (copySpec) -> copySpec
+				.from((Callable<Iterable<File>>) () -> this.classpath == null
+						? Collections.emptyList() : this.classpath.filter(filter));
+	}
+
+	private boolean isIncludedLibrary(File file) {
+		return file.isFile() && !(this.excludeDevtools
+				&& file.getName().startsWith("spring-boot-devtools-"));
+	}
+
+	private boolean isSnapshot(File file) {
+		return file.getName().contains("SNAPSHOT");
+	}
+
+	@Override
+	public void copy() {
+		super.copy();
+		try {
+			writeLoaderClasses();
+			writeManifest();
+			writeClasspathIndex();
+		}
+		catch (IOException ex) {
+			throw new GradleException(
+					"Failed to write launch support to " + getDestinationDir(), ex);
+		}
+	}
+
+	private void writeLoaderClasses() throws IOException {
+		try (ZipInputStream in = new ZipInputStream(getClass()
+				.getResourceAsStream("/META-INF/loader/spring-boot-loader.jar"))) {
+			ZipEntry entry = in.getNextEntry();
+			while (entry != null) {
+				if (entry.getName().endsWith(".class")) {
+					File file = new File(getDestinationDir(), entry.getName());
+					file.getParentFile().mkdirs();
+					Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				entry = in.getNextEntry();
+			}
+		}
+	}
+
+	private void writeManifest() throws IOException {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.putValue("Manifest-Version", "1.0");
+		attributes.putValue("Main-Class", LAUNCHER_CLASS_NAME);
+		if (getMainClass() != null) {
+			attributes.putValue("Start-Class", getMainClass());
+		}
+		attributes.putValue("Spring-Boot-Classes", "BOOT-INF/classes/");
+		attributes.putValue("Spring-Boot-Lib", "BOOT-INF/lib/");
+		File file = new File(getDestinationDir(), "META-INF/MANIFEST.MF");
+		file.getParentFile().mkdirs();
+		try (OutputStream outputStream = new FileOutputStream(file)) {
+			manifest.write(outputStream);
+		}
+	}
+
+	private void writeClasspathIndex() throws IOException {
+		StringBuilder index = new StringBuilder("BOOT-INF/classes/\n");
+		if (this.classpath != null) {
+			for (File file : this.classpath) {
+				if (isIncludedLibrary(file)) {
+					index.append(isSnapshot(file) ? "BOOT-INF/snapshot-lib/"
+							: "BOOT-INF/lib/");
+					index.append(file.getName()).append("\n");
+				}
+			}
+		}
+		Files.write(new File(getDestinationDir(), CLASSPATH_INDEX).toPath(),
+				index.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns the main class of the application.
+	 *
+	 * @return the main class
+	 */
+	@Input
+	@Optional
+	public String getMainClass() {
+		return this.mainClass;
+	}
+
+	/**
+	 * Sets the main class of the application.
+	 *
+	 * @param mainClass the main class of the application
+	 */
+	public void setMainClass(String mainClass) {
+		this.mainClass = mainClass;
+	}
+
+	/**
+	 * Returns the classpath that will be included in the exploded application.
+	 *
+	 * @return the classpath
+	 */
+	@Optional
+	@Classpath
+	public FileCollection getClasspath() {
+		return this.classpath;
+	}
+
+	/**
+	 * Adds files to the classpath to include in the exploded application. The given
+	 * {@code classpath} are evaluated as per {@code Project#files(Object...)}.
+	 *
+	 * @param classpath the additions to the classpath
+	 */
+	public void classpath(Object... classpath) {
+		FileCollection existingClasspath = this.classpath;
+		this.classpath = getProject().files(
+				existingClasspath == null ? Collections.emptyList() : existingClasspath,
+				classpath);
+	}
+
+	/**
+	 * Returns {@code true} if the Devtools jar should be excluded, otherwise
+	 * {@code false}.
+	 *
+	 * @return {@code true} if the Devtools jar should be excluded, or {@code false} if
+	 * not
+	 */
+	@Input
+	public boolean isExcludeDevtools() {
+		return this.excludeDevtools;
+	}
+
+	/**
+	 * Sets whether or not the Devtools jar should be excluded.
+	 *
+	 * @param excludeDevtools {@code true} if the Devtools jar should be excluded, or
+	 * {@code false} if not
+	 */
+	public void setExcludeDevtools(boolean excludeDevtools) {
+		this.excludeDevtools = excludeDevtools;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
+
+/**
+ * {@link JarWriter} that writes entries as files beneath a root directory rather than to
+ * a jar. Nested libraries are copied as they are, using {@link FileChannel#transferTo}
+ * so that the copy can be done by the operating system, and, when the writer is closed,
+ * a class path index listing the classes location followed by each nested library is
+ * written.
+ *
+ * @author agent (agent@local)
+ */
+class ExplodedWriter extends JarWriter {
+
+	static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+
+	private final File root;
+
+	private final List<String> classPath = new ArrayList<>();
+
+	ExplodedWriter(File root, String classesLocation) {
+		this.root = root;
+		if (classesLocation.length() > 0) {
+			this.classPath.add(classesLocation);
+		}
+	}
+
+	@Override
+	public void writeNestedLibrary(String destination, Library library)
+			throws IOException {
+		File file = library.getFile();
+		JarArchiveEntry entry = new JarArchiveEntry(destination + library.getName());
+		entry.setTime(file.lastModified());
+		writeEntry(entry, (outputStream) -> copy(file, outputStream));
+		this.classPath.add(entry.getName());
+	}
+
+	private void copy(File file, OutputStream outputStream) throws IOException {
+		if (!(outputStream instanceof FileOutputStream)) {
+			Files.copy(file.toPath(), outputStream);
+			return;
+		}
+		FileChannel destination = ((FileOutputStream) outputStream).getChannel();
+		try (FileChannel source = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			long size = source.size();
+			long position = 0;
+			while (position < size) {
+				position += source.transferTo(position, size - position, destination);
+			}
+		}
+	}
+
+	@Override
+	public void writeNestedLibraries(List<Library> libraries,
+			Function<Library, String> destinations) throws IOException {
+		for (Library library : libraries) {
+			writeNestedLibrary(destinations.apply(library), library);
+		}
+	}
+
+	@Override
+	void writeToArchive(JarArchiveEntry entry, EntryWriter entryWriter)
+			throws IOException {
+		File file = new File(this.root, entry.getName());
+		if (entry.isDirectory()) {
+			file.mkdirs();
+			return;
+		}
+		file.getParentFile().mkdirs();
+		try (OutputStream outputStream = new FileOutputStream(file)) {
+			if (entryWriter != null) {
+				entryWriter.write(outputStream);
+			}
+		}
+		if (entry.getTime() != -1) {
+			file.setLastModified(entry.getTime());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		StringBuilder index = new StringBuilder();
+		for (String location : this.classPath) {
+			index.append(location).append("\n");
+		}
+		File file = new File(this.root, CLASSPATH_INDEX);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), index.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -30,10 +30,23 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
@@ -58,10 +71,17 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 
 	private static final int BUFFER_SIZE = 32 * 1024;
 
+	private static final int NESTED_LIBRARY_THREADS = Math
+			.min(Runtime.getRuntime().availableProcessors(), 4);
+
+	private static final int NESTED_LIBRARY_PIPELINE_SIZE = NESTED_LIBRARY_THREADS * 2;
+
 	private final JarArchiveOutputStream jarOutput;
 
 	private final Set<String> writtenEntries = new HashSet<>();
 
+	private CrcAndSizeCache crcCache;
+
 	/**
 	 * Create a new {@link JarWriter} instance.
 	 * @param file the file to write
@@ -90,6 +110,25 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 		this.jarOutput.setEncoding("UTF-8");
 	}
 
+	/**
+	 * Create a new {@link JarWriter} for subclasses that write entries to a destination
+	 * other than a jar file.
+	 */
+	JarWriter() {
+		this.jarOutput = null;
+	}
+
+	/**
+	 * Set the file used to cache the CRC and size of nested libraries. Cached values are
+	 * reused for libraries whose size and last modified time are unchanged and the cache
+	 * is saved when the writer is closed.
+	 * @param crcCacheFile the cache file or {@code null} if no cache should be used
+	 */
+	void setCrcCacheFile(File crcCacheFile) {
+		this.crcCache = (crcCacheFile != null ? CrcAndSizeCache.load(crcCacheFile)
+				: null);
+	}
+
 	private void setExecutableFilePermission(File file) {
 		try {
 			Path path = file.toPath();
@@ -174,14 +213,96 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	public void writeNestedLibrary(String destination, Library library)
 			throws IOException {
+		writeNestedLibrary(createNestedLibraryEntry(destination, library), library);
+	}
+
+	/**
+	 * Write the given nested libraries, in order. The entry details of each library,
+	 * including the CRC and size that are required for stored entries, are prepared
+	 * ahead of the write by a bounded number of background threads so that they can be
+	 * calculated whilst earlier libraries are being written. When a
+	 * {@link #setCrcCacheFile(File) CRC cache} is used, the CRC and size of unchanged
+	 * libraries are taken from the cache rather than calculated.
+	 * @param libraries the libraries to write
+	 * @param destinations function that provides the destination of a library
+	 * @throws IOException if the write fails
+	 */
+	public void writeNestedLibraries(List<Library> libraries,
+			Function<Library, String> destinations) throws IOException {
+		if (libraries.size() <= 1) {
+			for (Library library : libraries) {
+				writeNestedLibrary(destinations.apply(library), library);
+			}
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(NESTED_LIBRARY_THREADS,
+				(runnable) -> {
+					Thread thread = new Thread(runnable, "nested-library-writer");
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			Deque<Future<JarArchiveEntry>> pending = new ArrayDeque<>();
+			Iterator<Library> toPrepare = libraries.iterator();
+			for (Library library : libraries) {
+				while (pending.size() < NESTED_LIBRARY_PIPELINE_SIZE
+						&& toPrepare.hasNext()) {
+					Library next = toPrepare.next();
+					String destination = destinations.apply(next);
+					pending.add(executor
+							.submit(() -> createNestedLibraryEntry(destination, next)));
+				}
+				writeNestedLibrary(getNestedLibraryEntry(pending.poll()), library);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private JarArchiveEntry getNestedLibraryEntry(Future<JarArchiveEntry> future)
+			throws IOException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted whilst preparing nested library", ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	private JarArchiveEntry createNestedLibraryEntry(String destination,
+			Library library) throws IOException {
 		File file = library.getFile();
 		JarArchiveEntry entry = new JarArchiveEntry(destination + library.getName());
 		entry.setTime(getNestedLibraryTime(file));
 		if (library.isUnpackRequired()) {
 			entry.setComment("UNPACK:" + FileUtils.sha1Hash(file));
 		}
-		new CrcAndSize(file).setupStoredEntry(entry);
-		writeEntry(entry, new InputStreamEntryWriter(new FileInputStream(file), true));
+		CrcAndSize crcAndSize = (this.crcCache != null ? this.crcCache.get(file)
+				: new CrcAndSize(file));
+		crcAndSize.setupStoredEntry(entry);
+		return entry;
+	}
+
+	private void writeNestedLibrary(JarArchiveEntry entry, Library library)
+			throws IOException {
+		try {
+			writeEntry(entry, new InputStreamEntryWriter(
+					new FileInputStream(library.getFile()), true));
+		}
+		catch (IOException ex) {
+			if (this.crcCache != null) {
+				this.crcCache.remove(library.getFile());
+			}
+			throw ex;
+		}
 	}
 
 	private long getNestedLibraryTime(File file) {
@@ -242,7 +363,14 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	@Override
 	public void close() throws IOException {
-		this.jarOutput.close();
+		try {
+			this.jarOutput.close();
+		}
+		finally {
+			if (this.crcCache != null) {
+				this.crcCache.save();
+			}
+		}
 	}
 
 	/**
@@ -252,7 +380,7 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 * @param entryWriter the entry writer or {@code null} if there is no content
 	 * @throws IOException in case of I/O errors
 	 */
-	private void writeEntry(JarArchiveEntry entry, EntryWriter entryWriter)
+	void writeEntry(JarArchiveEntry entry, EntryWriter entryWriter)
 			throws IOException {
 		String parent = entry.getName();
 		if (parent.endsWith("/")) {
@@ -270,18 +398,29 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 		}
 
 		if (this.writtenEntries.add(entry.getName())) {
-			this.jarOutput.putArchiveEntry(entry);
-			if (entryWriter != null) {
-				entryWriter.write(this.jarOutput);
-			}
-			this.jarOutput.closeArchiveEntry();
+			writeToArchive(entry, entryWriter);
 		}
 	}
 
+	/**
+	 * Write an entry that has not previously been written.
+	 * @param entry the entry to write
+	 * @param entryWriter the entry writer or {@code null} if there is no content
+	 * @throws IOException in case of I/O errors
+	 */
+	void writeToArchive(JarArchiveEntry entry, EntryWriter entryWriter)
+			throws IOException {
+		this.jarOutput.putArchiveEntry(entry);
+		if (entryWriter != null) {
+			entryWriter.write(this.jarOutput);
+		}
+		this.jarOutput.closeArchiveEntry();
+	}
+
 	/**
 	 * Interface used to write jar entry date.
 	 */
-	private interface EntryWriter {
+	interface EntryWriter {
 
 		/**
 		 * Write entry data to the specified output stream.
@@ -376,10 +515,15 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 	 */
 	private static class CrcAndSize {
 
-		private final CRC32 crc = new CRC32();
+		private long crc;
 
 		private long size;
 
+		CrcAndSize(long crc, long size) {
+			this.crc = crc;
+			this.size = size;
+		}
+
 		CrcAndSize(File file) throws IOException {
 			FileInputStream inputStream = new FileInputStream(file);
 			try {
@@ -395,23 +539,97 @@ public class JarWriter implements LoaderClassesWriter, AutoCloseable {
 		}
 
 		private void load(InputStream inputStream) throws IOException {
+			CRC32 crc = new CRC32();
 			byte[] buffer = new byte[BUFFER_SIZE];
 			int bytesRead = -1;
 			while ((bytesRead = inputStream.read(buffer)) != -1) {
-				this.crc.update(buffer, 0, bytesRead);
+				crc.update(buffer, 0, bytesRead);
 				this.size += bytesRead;
 			}
+			this.crc = crc.getValue();
 		}
 
 		public void setupStoredEntry(JarArchiveEntry entry) {
 			entry.setSize(this.size);
 			entry.setCompressedSize(this.size);
-			entry.setCrc(this.crc.getValue());
+			entry.setCrc(this.crc);
 			entry.setMethod(ZipEntry.STORED);
 		}
 
 	}
 
+	/**
+	 * Cache of the {@link CrcAndSize} of nested library files that is persisted to a
+	 * file. Each entry is keyed by the absolute path of the library and is only used
+	 * whilst the size and last modified time of the file are unchanged. Only the entries
+	 * of libraries that were written are saved so the cache never holds more entries than
+	 * the archive has libraries.
+	 */
+	private static final class CrcAndSizeCache {
+
+		private final File file;
+
+		private final Map<String, String> previousEntries = new HashMap<>();
+
+		private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+		private CrcAndSizeCache(File file) {
+			this.file = file;
+		}
+
+		private CrcAndSize get(File library) throws IOException {
+			String path = library.getAbsolutePath();
+			long size = library.length();
+			String key = size + ";" + library.lastModified() + ";";
+			String entry = this.previousEntries.get(path);
+			if (entry != null && entry.startsWith(key)) {
+				try {
+					CrcAndSize crcAndSize = new CrcAndSize(
+							Long.parseLong(entry.substring(key.length())), size);
+					this.entries.put(path, entry);
+					return crcAndSize;
+				}
+				catch (NumberFormatException ex) {
+					// Ignore and calculate the CRC again
+				}
+			}
+			CrcAndSize crcAndSize = new CrcAndSize(library);
+			this.entries.put(path, key + crcAndSize.crc);
+			return crcAndSize;
+		}
+
+		private void remove(File library) {
+			this.entries.remove(library.getAbsolutePath());
+		}
+
+		private void save() throws IOException {
+			Properties properties = new Properties();
+			properties.putAll(this.entries);
+			this.file.getAbsoluteFile().getParentFile().mkdirs();
+			try (OutputStream outputStream = new FileOutputStream(this.file)) {
+				properties.store(outputStream, null);
+			}
+		}
+
+		static CrcAndSizeCache load(File file) {
+			CrcAndSizeCache cache = new CrcAndSizeCache(file);
+			if (file.isFile()) {
+				Properties properties = new Properties();
+				try (InputStream inputStream = new FileInputStream(file)) {
+					properties.load(inputStream);
+					for (String name : properties.stringPropertyNames()) {
+						cache.previousEntries.put(name, properties.getProperty(name));
+					}
+				}
+				catch (IOException | IllegalArgumentException ex) {
+					cache.previousEntries.clear();
+				}
+			}
+			return cache;
+		}
+
+	}
+
 	/**
 	 * An {@code EntryTransformer} enables the transformation of {@link JarEntry jar
 	 * entries} during the writing process.
@@ -98,6 +98,28 @@ public final class Layouts {
 
 	}
 
+	/**
+	 * Exploded layout, intended for use with {@link Repackager#explode}. Snapshot
+	 * dependencies are kept apart from other, less frequently changing, dependencies so
+	 * that each group can form a separate layer when building a container image.
+	 */
+	public static class Exploded extends Jar {
+
+		@Override
+		public String getLauncherClassName() {
+			return "org.springframework.boot.loader.ExplodedLauncher";
+		}
+
+		@Override
+		public String getLibraryDestination(String libraryName, LibraryScope scope) {
+			if (libraryName.contains("SNAPSHOT")) {
+				return "BOOT-INF/snapshot-lib/";
+			}
+			return "BOOT-INF/lib/";
+		}
+
+	}
+
 	/**
 	 * No layout.
 	 */
@@ -16,12 +16,15 @@
 
 package org.springframework.boot.loader.tools;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,10 +32,20 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -42,10 +55,14 @@ import org.springframework.asm.ClassVisitor;
 import org.springframework.asm.MethodVisitor;
 import org.springframework.asm.Opcodes;
 import org.springframework.asm.Type;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Finds any class with a {@code public static main} method by performing a breadth first
- * search.
+ * search. Class files are analyzed in parallel and those whose constant pool does not
+ * contain the name and descriptor of a {@code main} method are skipped without being
+ * fully parsed.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
@@ -61,6 +78,9 @@ public abstract class MainClassFinder {
 
 	private static final String MAIN_METHOD_NAME = "main";
 
+	private static final int ANALYSIS_WINDOW_SIZE = ForkJoinPool.getCommonPoolParallelism()
+			* 4;
+
 	private static final FileFilter CLASS_FILE_FILTER = new FileFilter() {
 		@Override
 		public boolean accept(File file) {
@@ -117,6 +137,27 @@ public abstract class MainClassFinder {
 		return callback.getMainClassName();
 	}
 
+	/**
+	 * Find a single main class from the given {@code rootFolder}. A main class annotated
+	 * with an annotation with the given {@code annotationName} will be preferred over a
+	 * main class with no such annotation. The results of analyzing each class file are
+	 * stored in the given {@code cacheFile} and reused for files whose last modified time
+	 * has not changed.
+	 * @param rootFolder the root folder to search
+	 * @param annotationName the name of the annotation that may be present on the main
+	 * class
+	 * @param cacheFile the file used to cache the analysis of class files
+	 * @return the main class or {@code null}
+	 * @throws IOException if the folder cannot be read
+	 * @since 2.0.0
+	 */
+	public static String findSingleMainClass(File rootFolder, String annotationName,
+			File cacheFile) throws IOException {
+		SingleMainClassCallback callback = new SingleMainClassCallback(annotationName);
+		MainClassFinder.doWithMainClasses(rootFolder, cacheFile, callback);
+		return callback.getMainClassName();
+	}
+
 	/**
 	 * Perform the given callback operation on all main classes from the given root
 	 * folder.
@@ -128,6 +169,22 @@ public abstract class MainClassFinder {
 	 */
 	static <T> T doWithMainClasses(File rootFolder, MainClassCallback<T> callback)
 			throws IOException {
+		return doWithMainClasses(rootFolder, null, callback);
+	}
+
+	/**
+	 * Perform the given callback operation on all main classes from the given root
+	 * folder. Class files are analyzed in parallel but the callback is always invoked in
+	 * the same order.
+	 * @param <T> the result type
+	 * @param rootFolder the root folder
+	 * @param cacheFile an optional file used to cache the analysis of class files
+	 * @param callback the callback
+	 * @return the first callback result or {@code null}
+	 * @throws IOException in case of I/O errors
+	 */
+	static <T> T doWithMainClasses(File rootFolder, File cacheFile,
+			MainClassCallback<T> callback) throws IOException {
 		if (!rootFolder.exists()) {
 			return null; // nothing to do
 		}
@@ -136,30 +193,21 @@ public abstract class MainClassFinder {
 					"Invalid root folder '" + rootFolder + "'");
 		}
 		String prefix = rootFolder.getAbsolutePath() + "/";
-		Deque<File> stack = new ArrayDeque<>();
-		stack.push(rootFolder);
-		while (!stack.isEmpty()) {
-			File file = stack.pop();
-			if (file.isFile()) {
-				try (InputStream inputStream = new FileInputStream(file)) {
-					ClassDescriptor classDescriptor = createClassDescriptor(inputStream);
-					if (classDescriptor != null && classDescriptor.isMainMethodFound()) {
-						String className = convertToClassName(file.getAbsolutePath(),
-								prefix);
-						T result = callback.doWith(new MainClass(className,
-								classDescriptor.getAnnotationNames()));
-						if (result != null) {
-							return result;
-						}
-					}
-				}
-			}
-			if (file.isDirectory()) {
-				pushAllSorted(stack, file.listFiles(PACKAGE_FOLDER_FILTER));
-				pushAllSorted(stack, file.listFiles(CLASS_FILE_FILTER));
-			}
+		ClassDescriptorCache cache = (cacheFile == null ? null
+				: ClassDescriptorCache.load(cacheFile));
+		T result = doWithMainClasses(new ClassFileIterator(rootFolder),
+				(file) -> convertToClassName(file.getAbsolutePath(), prefix),
+				(file, className) -> (cache == null ? createClassDescriptor(file)
+						: cache.get(className, file)),
+				callback);
+		if (cache != null) {
+			cache.save(cacheFile);
 		}
-		return null;
+		return result;
+	}
+
+	private static ClassDescriptor createClassDescriptor(File file) throws IOException {
+		return createClassDescriptor(Files.readAllBytes(file.toPath()));
 	}
 
 	private static void pushAllSorted(Deque<File> stack, File[] files) {
@@ -235,22 +283,59 @@ public abstract class MainClassFinder {
 			MainClassCallback<T> callback) throws IOException {
 		List<JarEntry> classEntries = getClassEntries(jarFile, classesLocation);
 		Collections.sort(classEntries, new ClassEntryComparator());
-		for (JarEntry entry : classEntries) {
-			try (InputStream inputStream = new BufferedInputStream(
-					jarFile.getInputStream(entry))) {
-				ClassDescriptor classDescriptor = createClassDescriptor(inputStream);
+		return doWithMainClasses(classEntries.iterator(),
+				(entry) -> convertToClassName(entry.getName(), classesLocation),
+				(entry, className) -> createClassDescriptor(jarFile, entry), callback);
+	}
+
+	private static ClassDescriptor createClassDescriptor(JarFile jarFile, JarEntry entry)
+			throws IOException {
+		try (InputStream inputStream = jarFile.getInputStream(entry)) {
+			return createClassDescriptor(FileCopyUtils.copyToByteArray(inputStream));
+		}
+	}
+
+	/**
+	 * Perform the given callback operation on the main classes of the given sources. The
+	 * sources are analyzed in parallel using the common {@link ForkJoinPool}, a bounded
+	 * number of sources ahead of the one that is being passed to the callback, so that
+	 * the callback is always invoked in the same order and no further sources are read
+	 * once it has returned a result. Sources that cannot be read are skipped.
+	 * @param <S> the source type
+	 * @param <T> the result type
+	 * @param sources the sources
+	 * @param classNames function used to get the class name of a source
+	 * @param factory factory used to create the descriptor for a single source
+	 * @param callback the callback
+	 * @return the first callback result or {@code null}
+	 */
+	private static <S, T> T doWithMainClasses(Iterator<S> sources,
+			Function<S, String> classNames, ClassDescriptorFactory<S> factory,
+			MainClassCallback<T> callback) {
+		Deque<PendingClassDescriptor<S>> pending = new ArrayDeque<>();
+		try {
+			while (sources.hasNext() || !pending.isEmpty()) {
+				while (pending.size() < ANALYSIS_WINDOW_SIZE && sources.hasNext()) {
+					pending.add(new PendingClassDescriptor<>(sources.next(), classNames,
+							factory));
+				}
+				PendingClassDescriptor<S> next = pending.poll();
+				ClassDescriptor classDescriptor = next.get();
 				if (classDescriptor != null && classDescriptor.isMainMethodFound()) {
-					String className = convertToClassName(entry.getName(),
-							classesLocation);
-					T result = callback.doWith(new MainClass(className,
+					T result = callback.doWith(new MainClass(next.className,
 							classDescriptor.getAnnotationNames()));
 					if (result != null) {
 						return result;
 					}
 				}
 			}
+			return null;
+		}
+		finally {
+			for (PendingClassDescriptor<S> remaining : pending) {
+				remaining.future.cancel(false);
+			}
 		}
-		return null;
 	}
 
 	private static String convertToClassName(String name, String prefix) {
@@ -278,16 +363,14 @@ public abstract class MainClassFinder {
 		return classEntries;
 	}
 
-	private static ClassDescriptor createClassDescriptor(InputStream inputStream) {
-		try {
-			ClassReader classReader = new ClassReader(inputStream);
-			ClassDescriptor classDescriptor = new ClassDescriptor();
-			classReader.accept(classDescriptor, ClassReader.SKIP_CODE);
-			return classDescriptor;
-		}
-		catch (IOException ex) {
-			return null;
+	private static ClassDescriptor createClassDescriptor(byte[] bytes) {
+		if (!ClassFileConstantPool.mayContainMainMethod(bytes)) {
+			return new ClassDescriptor(false, Collections.emptySet());
 		}
+		ClassReader classReader = new ClassReader(bytes);
+		ClassDescriptor classDescriptor = new ClassDescriptor();
+		classReader.accept(classDescriptor, ClassReader.SKIP_CODE);
+		return classDescriptor;
 	}
 
 	private static class ClassEntryComparator implements Comparator<JarEntry> {
@@ -319,6 +402,12 @@ public abstract class MainClassFinder {
 			super(Opcodes.ASM4);
 		}
 
+		ClassDescriptor(boolean mainMethodFound, Set<String> annotationNames) {
+			this();
+			this.mainMethodFound = mainMethodFound;
+			this.annotationNames.addAll(annotationNames);
+		}
+
 		@Override
 		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
 			this.annotationNames.add(Type.getType(desc).getClassName());
@@ -355,6 +444,278 @@ public abstract class MainClassFinder {
 
 	}
 
+	/**
+	 * A {@link ClassDescriptor} that is being created in the background.
+	 *
+	 * @param <S> the source type
+	 */
+	private static final class PendingClassDescriptor<S> {
+
+		private final String className;
+
+		private final CompletableFuture<ClassDescriptor> future;
+
+		PendingClassDescriptor(S source, Function<S, String> classNames,
+				ClassDescriptorFactory<S> factory) {
+			this.className = classNames.apply(source);
+			this.future = CompletableFuture.supplyAsync(() -> {
+				try {
+					return factory.create(source, this.className);
+				}
+				catch (IOException ex) {
+					return null;
+				}
+			});
+		}
+
+		ClassDescriptor get() {
+			try {
+				return this.future.join();
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+
+	}
+
+	/**
+	 * {@link Iterator} that lazily walks a folder, returning the class files of each
+	 * folder before those of its sub-folders.
+	 */
+	private static final class ClassFileIterator implements Iterator<File> {
+
+		private final Deque<File> stack = new ArrayDeque<>();
+
+		private File next;
+
+		ClassFileIterator(File rootFolder) {
+			this.stack.push(rootFolder);
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null && !this.stack.isEmpty()) {
+				File file = this.stack.pop();
+				if (file.isFile()) {
+					this.next = file;
+				}
+				if (file.isDirectory()) {
+					pushAllSorted(this.stack, file.listFiles(PACKAGE_FOLDER_FILTER));
+					pushAllSorted(this.stack, file.listFiles(CLASS_FILE_FILTER));
+				}
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public File next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			File next = this.next;
+			this.next = null;
+			return next;
+		}
+
+	}
+
+	/**
+	 * Factory used to create a {@link ClassDescriptor} from a source.
+	 *
+	 * @param <S> the source type
+	 */
+	@FunctionalInterface
+	private interface ClassDescriptorFactory<S> {
+
+		ClassDescriptor create(S source, String className) throws IOException;
+
+	}
+
+	/**
+	 * Minimal reader of the constant pool of a class file, used to cheaply rule out
+	 * classes that cannot declare a {@code main} method before they are fully parsed.
+	 */
+	private static final class ClassFileConstantPool {
+
+		private static final byte[] MAIN_NAME = MAIN_METHOD_NAME
+				.getBytes(StandardCharsets.UTF_8);
+
+		private static final byte[] MAIN_DESCRIPTOR = MAIN_METHOD_TYPE.getDescriptor()
+				.getBytes(StandardCharsets.UTF_8);
+
+		private ClassFileConstantPool() {
+		}
+
+		/**
+		 * Return if the constant pool of the given class file contains both the name and
+		 * the descriptor of a {@code main} method. Returns {@code true} if the class file
+		 * cannot be read so that it is always fully parsed.
+		 * @param bytes the class file bytes
+		 * @return if the class may contain a {@code main} method
+		 */
+		static boolean mayContainMainMethod(byte[] bytes) {
+			if (bytes.length < 10 || readInt(bytes, 0) != 0xCAFEBABE) {
+				return true;
+			}
+			boolean name = false;
+			boolean descriptor = false;
+			int count = readUnsignedShort(bytes, 8);
+			int offset = 10;
+			for (int i = 1; i < count; i++) {
+				if (offset >= bytes.length) {
+					return true;
+				}
+				int tag = bytes[offset];
+				if (tag == 1) {
+					int length = readUnsignedShort(bytes, offset + 1);
+					name = name || matches(bytes, offset + 3, length, MAIN_NAME);
+					descriptor = descriptor
+							|| matches(bytes, offset + 3, length, MAIN_DESCRIPTOR);
+					if (name && descriptor) {
+						return true;
+					}
+					offset += 3 + length;
+				}
+				else {
+					int size = getEntrySize(tag);
+					if (size == -1) {
+						return true;
+					}
+					offset += 1 + size;
+					if (tag == 5 || tag == 6) {
+						i++;
+					}
+				}
+			}
+			return false;
+		}
+
+		private static int getEntrySize(int tag) {
+			switch (tag) {
+			case 7: // Class
+			case 8: // String
+			case 16: // MethodType
+			case 19: // Module
+			case 20: // Package
+				return 2;
+			case 15: // MethodHandle
+				return 3;
+			case 3: // Integer
+			case 4: // Float
+			case 9: // Fieldref
+			case 10: // Methodref
+			case 11: // InterfaceMethodref
+			case 12: // NameAndType
+			case 17: // Dynamic
+			case 18: // InvokeDynamic
+				return 4;
+			case 5: // Long
+			case 6: // Double
+				return 8;
+			default:
+				return -1;
+			}
+		}
+
+		private static boolean matches(byte[] bytes, int offset, int length,
+				byte[] expected) {
+			if (length != expected.length || offset + length > bytes.length) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (bytes[offset + i] != expected[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int readUnsignedShort(byte[] bytes, int offset) {
+			return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+		}
+
+		private static int readInt(byte[] bytes, int offset) {
+			return (readUnsignedShort(bytes, offset) << 16)
+					| readUnsignedShort(bytes, offset + 2);
+		}
+
+	}
+
+	/**
+	 * Cache of {@link ClassDescriptor ClassDescriptors} that is persisted to a file. Each
+	 * entry is keyed by class name and is only used whilst the last modified time of the
+	 * class file is unchanged. Only the entries of classes that were requested are saved
+	 * so that entries for deleted classes do not accumulate.
+	 */
+	private static final class ClassDescriptorCache {
+
+		private final Map<String, String> previousEntries = new HashMap<>();
+
+		private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+		private ClassDescriptor get(String className, File file) throws IOException {
+			String key = Long.toString(file.lastModified()) + ";";
+			String entry = this.previousEntries.get(className);
+			if (entry != null && entry.startsWith(key)) {
+				this.entries.put(className, entry);
+				return fromEntry(entry.substring(key.length()));
+			}
+			ClassDescriptor classDescriptor = createClassDescriptor(file);
+			if (classDescriptor != null) {
+				this.entries.put(className, key + toEntry(classDescriptor));
+			}
+			return classDescriptor;
+		}
+
+		private ClassDescriptor fromEntry(String entry) {
+			if (entry.isEmpty()) {
+				return new ClassDescriptor(false, Collections.emptySet());
+			}
+			Set<String> annotationNames = new LinkedHashSet<>(Arrays.asList(
+					StringUtils.commaDelimitedListToStringArray(entry.substring(1))));
+			return new ClassDescriptor(true, annotationNames);
+		}
+
+		private String toEntry(ClassDescriptor classDescriptor) {
+			if (!classDescriptor.isMainMethodFound()) {
+				return "";
+			}
+			return "+" + StringUtils
+					.collectionToCommaDelimitedString(classDescriptor.getAnnotationNames());
+		}
+
+		private void save(File file) throws IOException {
+			Properties properties = new Properties();
+			properties.putAll(this.entries);
+			file.getAbsoluteFile().getParentFile().mkdirs();
+			try (OutputStream outputStream = new FileOutputStream(file)) {
+				properties.store(outputStream, null);
+			}
+		}
+
+		static ClassDescriptorCache load(File file) {
+			ClassDescriptorCache cache = new ClassDescriptorCache();
+			if (file.isFile()) {
+				Properties properties = new Properties();
+				try (InputStream inputStream = new FileInputStream(file)) {
+					properties.load(inputStream);
+					for (String name : properties.stringPropertyNames()) {
+						cache.previousEntries.put(name, properties.getProperty(name));
+					}
+				}
+				catch (IOException | IllegalArgumentException ex) {
+					cache.previousEntries.clear();
+				}
+			}
+			return cache;
+		}
+
+	}
+
 	/**
 	 * Callback for handling {@link MainClass MainClasses}.
 	 *
@@ -33,6 +33,7 @@ import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
 import org.springframework.boot.loader.tools.JarWriter.EntryTransformer;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -73,6 +74,8 @@ public class Repackager {
 
 	private LayoutFactory layoutFactory;
 
+	private File crcCacheFile;
+
 	public Repackager(File source) {
 		this(source, null);
 	}
@@ -133,6 +136,17 @@ public class Repackager {
 		this.layoutFactory = layoutFactory;
 	}
 
+	/**
+	 * Sets the file used to cache the CRC and size of nested libraries between builds.
+	 * Cached values are reused for libraries whose size and last modified time have not
+	 * changed so that they don't have to be read to calculate their CRC.
+	 * @param crcCacheFile the cache file or {@code null} if no cache should be used
+	 * @since 2.0.0
+	 */
+	public void setCrcCacheFile(File crcCacheFile) {
+		this.crcCacheFile = crcCacheFile;
+	}
+
 	/**
 	 * Repackage the source file so that it can be run using '{@literal java -jar}'.
 	 * @param libraries the libraries required to run the archive
@@ -186,7 +200,8 @@ public class Repackager {
 		destination.delete();
 		try {
 			try (JarFile jarFileSource = new JarFile(workingSource)) {
-				repackage(jarFileSource, destination, libraries, launchScript);
+				repackage(jarFileSource, destination, libraries, launchScript,
+						this.layout);
 			}
 		}
 		finally {
@@ -196,6 +211,50 @@ public class Repackager {
 		}
 	}
 
+	/**
+	 * Write an exploded form of the source archive to the given destination directory.
+	 * Unless a specific layout has been set, {@link Layouts.Exploded} is used. In
+	 * addition to the application classes, nested libraries and loader classes, a class
+	 * path index is written so that the result can be launched without nested jar
+	 * support. The destination must either be empty or contain a previously exploded
+	 * archive, which is replaced.
+	 * @param destination the destination directory
+	 * @param libraries the libraries required to run the archive
+	 * @throws IOException if the archive cannot be exploded
+	 * @since 2.0.0
+	 */
+	public void explode(File destination, Libraries libraries) throws IOException {
+		if (destination == null || destination.isFile()) {
+			throw new IllegalArgumentException("Invalid destination");
+		}
+		if (libraries == null) {
+			throw new IllegalArgumentException("Libraries must not be null");
+		}
+		Layout layout = (this.layout != null ? this.layout : new Layouts.Exploded());
+		if (alreadyRepackaged()) {
+			throw new IllegalStateException(
+					"Unable to explode '" + this.source + "' as it has been repackaged");
+		}
+		clearExplodedDestination(destination);
+		try (JarFile jarFileSource = new JarFile(this.source);
+				ExplodedWriter writer = new ExplodedWriter(destination,
+						getBootClassesLocation(layout))) {
+			repackage(jarFileSource, writer, libraries, layout);
+		}
+	}
+
+	private void clearExplodedDestination(File destination) {
+		String[] contents = destination.list();
+		if (contents != null && contents.length > 0) {
+			if (!new File(destination, ExplodedWriter.CLASSPATH_INDEX).isFile()) {
+				throw new IllegalStateException("Unable to explode into '" + destination
+						+ "' as it is not empty and does not contain an exploded archive");
+			}
+			FileSystemUtils.deleteRecursively(destination);
+		}
+		destination.mkdirs();
+	}
+
 	private LayoutFactory getLayoutFactory() {
 		if (this.layoutFactory != null) {
 			return this.layoutFactory;
@@ -226,67 +285,80 @@ public class Repackager {
 	}
 
 	private void repackage(JarFile sourceJar, File destination, Libraries libraries,
-			LaunchScript launchScript) throws IOException {
+			LaunchScript launchScript, Layout layout) throws IOException {
 		try (JarWriter writer = new JarWriter(destination, launchScript)) {
-			final List<Library> unpackLibraries = new ArrayList<>();
-			final List<Library> standardLibraries = new ArrayList<>();
-			libraries.doWithLibraries(new LibraryCallback() {
-
-				@Override
-				public void library(Library library) throws IOException {
-					File file = library.getFile();
-					if (isZip(file)) {
-						if (library.isUnpackRequired()) {
-							unpackLibraries.add(library);
-						}
-						else {
-							standardLibraries.add(library);
-						}
+			writer.setCrcCacheFile(this.crcCacheFile);
+			repackage(sourceJar, writer, libraries, layout);
+		}
+	}
+
+	private void repackage(JarFile sourceJar, JarWriter writer, Libraries libraries,
+			Layout layout) throws IOException {
+		final List<Library> unpackLibraries = new ArrayList<>();
+		final List<Library> standardLibraries = new ArrayList<>();
+		libraries.doWithLibraries(new LibraryCallback() {
+
+			@Override
+			public void library(Library library) throws IOException {
+				File file = library.getFile();
+				if (isZip(file)) {
+					if (library.isUnpackRequired()) {
+						unpackLibraries.add(library);
+					}
+					else {
+						standardLibraries.add(library);
 					}
 				}
+			}
 
-			});
-			repackage(sourceJar, writer, unpackLibraries, standardLibraries);
-		}
+		});
+		repackage(sourceJar, writer, unpackLibraries, standardLibraries, layout);
 	}
 
 	private void repackage(JarFile sourceJar, JarWriter writer,
-			final List<Library> unpackLibraries, final List<Library> standardLibraries)
-					throws IOException {
-		writer.writeManifest(buildManifest(sourceJar));
+			final List<Library> unpackLibraries, final List<Library> standardLibraries,
+			Layout layout) throws IOException {
+		writer.writeManifest(buildManifest(sourceJar, layout));
 		Set<String> seen = new HashSet<>();
-		writeNestedLibraries(unpackLibraries, seen, writer);
-		if (this.layout instanceof RepackagingLayout) {
+		writeNestedLibraries(unpackLibraries, seen, writer, layout);
+		if (layout instanceof RepackagingLayout) {
 			writer.writeEntries(sourceJar, new RenamingEntryTransformer(
-					((RepackagingLayout) this.layout).getRepackagedClassesLocation()));
+					((RepackagingLayout) layout).getRepackagedClassesLocation()));
 		}
 		else {
 			writer.writeEntries(sourceJar);
 		}
-		writeNestedLibraries(standardLibraries, seen, writer);
-		writeLoaderClasses(writer);
+		writeNestedLibraries(standardLibraries, seen, writer, layout);
+		writeLoaderClasses(writer, layout);
 	}
 
 	private void writeNestedLibraries(List<Library> libraries, Set<String> alreadySeen,
-			JarWriter writer) throws IOException {
+			JarWriter writer, Layout layout) throws IOException {
+		List<Library> nestedLibraries = new ArrayList<>(libraries.size());
 		for (Library library : libraries) {
-			String destination = Repackager.this.layout
-					.getLibraryDestination(library.getName(), library.getScope());
+			String destination = getDestination(library, layout);
 			if (destination != null) {
 				if (!alreadySeen.add(destination + library.getName())) {
 					throw new IllegalStateException(
 							"Duplicate library " + library.getName());
 				}
-				writer.writeNestedLibrary(destination, library);
+				nestedLibraries.add(library);
 			}
 		}
+		writer.writeNestedLibraries(nestedLibraries,
+				(library) -> getDestination(library, layout));
+	}
+
+	private String getDestination(Library library, Layout layout) {
+		return layout.getLibraryDestination(library.getName(), library.getScope());
 	}
 
-	private void writeLoaderClasses(JarWriter writer) throws IOException {
-		if (this.layout instanceof CustomLoaderLayout) {
-			((CustomLoaderLayout) this.layout).writeLoadedClasses(writer);
+	private void writeLoaderClasses(JarWriter writer, Layout layout)
+			throws IOException {
+		if (layout instanceof CustomLoaderLayout) {
+			((CustomLoaderLayout) layout).writeLoadedClasses(writer);
 		}
-		else if (this.layout.isExecutable()) {
+		else if (layout.isExecutable()) {
 			writer.writeLoaderClasses();
 		}
 	}
@@ -311,7 +383,7 @@ public class Repackager {
 		return true;
 	}
 
-	private Manifest buildManifest(JarFile source) throws IOException {
+	private Manifest buildManifest(JarFile source, Layout layout) throws IOException {
 		Manifest manifest = source.getManifest();
 		if (manifest == null) {
 			manifest = new Manifest();
@@ -323,9 +395,9 @@ public class Repackager {
 			startClass = manifest.getMainAttributes().getValue(MAIN_CLASS_ATTRIBUTE);
 		}
 		if (startClass == null) {
-			startClass = findMainMethodWithTimeoutWarning(source);
+			startClass = findMainMethodWithTimeoutWarning(source, layout);
 		}
-		String launcherClassName = this.layout.getLauncherClassName();
+		String launcherClassName = layout.getLauncherClassName();
 		if (launcherClassName != null) {
 			manifest.getMainAttributes().putValue(MAIN_CLASS_ATTRIBUTE,
 					launcherClassName);
@@ -340,19 +412,25 @@ public class Repackager {
 		String bootVersion = getClass().getPackage().getImplementationVersion();
 		manifest.getMainAttributes().putValue(BOOT_VERSION_ATTRIBUTE, bootVersion);
 		manifest.getMainAttributes().putValue(BOOT_CLASSES_ATTRIBUTE,
-				(this.layout instanceof RepackagingLayout)
-						? ((RepackagingLayout) this.layout).getRepackagedClassesLocation()
-						: this.layout.getClassesLocation());
-		String lib = this.layout.getLibraryDestination("", LibraryScope.COMPILE);
+				getBootClassesLocation(layout));
+		String lib = layout.getLibraryDestination("", LibraryScope.COMPILE);
 		if (StringUtils.hasLength(lib)) {
 			manifest.getMainAttributes().putValue(BOOT_LIB_ATTRIBUTE, lib);
 		}
 		return manifest;
 	}
 
-	private String findMainMethodWithTimeoutWarning(JarFile source) throws IOException {
+	private String getBootClassesLocation(Layout layout) {
+		return (layout instanceof RepackagingLayout
+				? ((RepackagingLayout) layout).getRepackagedClassesLocation()
+				: layout.getClassesLocation());
+	}
+
+	private String findMainMethodWithTimeoutWarning(JarFile source, Layout layout)
+			throws IOException {
 		long startTime = System.currentTimeMillis();
-		String mainMethod = findMainMethod(source);
+		String mainMethod = (layout == this.layout ? findMainMethod(source)
+				: findMainMethod(source, layout));
 		long duration = System.currentTimeMillis() - startTime;
 		if (duration > FIND_WARNING_TIMEOUT) {
 			for (MainClassTimeoutWarningListener listener : this.mainClassTimeoutListeners) {
@@ -363,8 +441,12 @@ public class Repackager {
 	}
 
 	protected String findMainMethod(JarFile source) throws IOException {
-		return MainClassFinder.findSingleMainClass(source,
-				this.layout.getClassesLocation(), SPRING_BOOT_APPLICATION_CLASS_NAME);
+		return findMainMethod(source, this.layout);
+	}
+
+	private String findMainMethod(JarFile source, Layout layout) throws IOException {
+		return MainClassFinder.findSingleMainClass(source, layout.getClassesLocation(),
+				SPRING_BOOT_APPLICATION_CLASS_NAME);
 	}
 
 	private void renameFile(File file, File dest) {
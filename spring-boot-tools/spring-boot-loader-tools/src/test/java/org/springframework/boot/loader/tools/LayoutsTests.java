@@ -73,6 +73,19 @@ public class LayoutsTests {
 				.isEqualTo("BOOT-INF/lib/");
 	}
 
+	@Test
+	public void explodedLayout() throws Exception {
+		Layout layout = new Layouts.Exploded();
+		assertThat(layout.getLauncherClassName())
+				.isEqualTo("org.springframework.boot.loader.ExplodedLauncher");
+		assertThat(layout.getLibraryDestination("lib-1.0.0.jar", LibraryScope.COMPILE))
+				.isEqualTo("BOOT-INF/lib/");
+		assertThat(layout.getLibraryDestination("lib-1.0.0-SNAPSHOT.jar",
+				LibraryScope.COMPILE)).isEqualTo("BOOT-INF/snapshot-lib/");
+		assertThat(layout.getLibraryDestination("lib-1.0.0-SNAPSHOT.jar",
+				LibraryScope.RUNTIME)).isEqualTo("BOOT-INF/snapshot-lib/");
+	}
+
 	@Test
 	public void warLayout() throws Exception {
 		Layout layout = new Layouts.War();
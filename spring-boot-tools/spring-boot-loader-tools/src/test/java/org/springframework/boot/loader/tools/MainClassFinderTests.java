@@ -16,9 +16,14 @@
 
 package org.springframework.boot.loader.tools;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -176,6 +181,110 @@ public class MainClassFinderTests {
 		assertThat(callback.getClassNames().toString()).isEqualTo("[a.b.G, a.b.c.D]");
 	}
 
+	@Test
+	public void doWithFolderMainMethodsUsesCacheWhilstFileIsUnchanged()
+			throws Exception {
+		this.testJarFile.addClass("a/b/c/D.class", ClassWithMainMethod.class);
+		this.testJarFile.addClass("a/b/E.class", ClassWithoutMainMethod.class);
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "main-class.cache");
+		ClassNameCollector callback = new ClassNameCollector();
+		MainClassFinder.doWithMainClasses(this.testJarFile.getJarSource(), cacheFile,
+				callback);
+		assertThat(callback.getClassNames()).containsExactly("a.b.c.D");
+		assertThat(cacheFile).isFile();
+		File classFile = new File(this.testJarFile.getJarSource(), "a/b/E.class");
+		long lastModified = classFile.lastModified();
+		this.testJarFile.addClass("a/b/E.class", ClassWithMainMethod.class);
+		classFile.setLastModified(lastModified);
+		callback = new ClassNameCollector();
+		MainClassFinder.doWithMainClasses(this.testJarFile.getJarSource(), cacheFile,
+				callback);
+		assertThat(callback.getClassNames()).containsExactly("a.b.c.D");
+		classFile.setLastModified(lastModified - 10000);
+		callback = new ClassNameCollector();
+		MainClassFinder.doWithMainClasses(this.testJarFile.getJarSource(), cacheFile,
+				callback);
+		assertThat(callback.getClassNames()).containsExactly("a.b.E", "a.b.c.D");
+	}
+
+	@Test
+	public void findSingleFolderSearchWithCache() throws Exception {
+		this.testJarFile.addClass("a/B.class", ClassWithMainMethod.class);
+		this.testJarFile.addClass("a/b/c/E.class", AnnotatedClassWithMainMethod.class);
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "main-class.cache");
+		for (int i = 0; i < 2; i++) {
+			String mainClass = MainClassFinder.findSingleMainClass(
+					this.testJarFile.getJarSource(),
+					"org.springframework.boot.loader.tools.sample.SomeApplication",
+					cacheFile);
+			assertThat(mainClass).isEqualTo("a.b.c.E");
+		}
+	}
+
+	@Test
+	public void findMainClassInFolderWithManyClasses() throws Exception {
+		for (int i = 0; i < 200; i++) {
+			this.testJarFile.addClass("a/b/C" + i + ".class",
+					ClassWithoutMainMethod.class);
+		}
+		this.testJarFile.addClass("a/b/c/D.class", ClassWithMainMethod.class);
+		String actual = MainClassFinder
+				.findSingleMainClass(this.testJarFile.getJarSource());
+		assertThat(actual).isEqualTo("a.b.c.D");
+	}
+
+	@Test
+	public void findMainClassInJarStopsReadingOnceFound() throws Exception {
+		this.testJarFile.addClass("A.class", ClassWithMainMethod.class);
+		for (int i = 0; i < 500; i++) {
+			this.testJarFile.addClass("a/b/C" + i + ".class",
+					ClassWithoutMainMethod.class);
+		}
+		try (CountingJarFile jarFile = new CountingJarFile(this.testJarFile.getFile())) {
+			String actual = MainClassFinder.findMainClass(jarFile, "");
+			assertThat(actual).isEqualTo("A");
+			assertThat(jarFile.reads.get()).isLessThan(500);
+		}
+	}
+
+	@Test
+	public void findSingleJarSearchSkipsUnreadableEntries() throws Exception {
+		this.testJarFile.addClass("a/B.class", ClassWithMainMethod.class);
+		this.testJarFile.addClass("a/b/c/D.class", ClassWithMainMethod.class);
+		try (CountingJarFile jarFile = new CountingJarFile(this.testJarFile.getFile(),
+				"a/B.class")) {
+			String actual = MainClassFinder.findSingleMainClass(jarFile, "");
+			assertThat(actual).isEqualTo("a.b.c.D");
+		}
+	}
+
+	private static class CountingJarFile extends JarFile {
+
+		private final AtomicInteger reads = new AtomicInteger();
+
+		private final String unreadable;
+
+		CountingJarFile(File file) throws IOException {
+			this(file, null);
+		}
+
+		CountingJarFile(File file, String unreadable) throws IOException {
+			super(file);
+			this.unreadable = unreadable;
+		}
+
+		@Override
+		public InputStream getInputStream(ZipEntry entry)
+				throws IOException {
+			this.reads.incrementAndGet();
+			if (entry.getName().equals(this.unreadable)) {
+				throw new IOException("Unreadable " + entry.getName());
+			}
+			return super.getInputStream(entry);
+		}
+
+	}
+
 	private static class ClassNameCollector implements MainClassCallback<Object> {
 
 		private final List<String> classNames = new ArrayList<>();
@@ -18,16 +18,25 @@ package org.springframework.boot.loader.tools;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -43,6 +52,7 @@ import org.springframework.boot.loader.tools.sample.ClassWithoutMainMethod;
 import org.springframework.util.FileCopyUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
@@ -468,6 +478,221 @@ public class RepackagerTests {
 		}
 	}
 
+	@Test
+	public void librariesAreWrittenInOrder() throws Exception {
+		final List<File> libraries = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+			libJar.addClass("a/b/C" + i + ".class", ClassWithoutMainMethod.class);
+			libraries.add(libJar.getFile());
+		}
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		new Repackager(file).repackage(new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				for (File library : libraries) {
+					callback.library(new Library(library, LibraryScope.COMPILE));
+				}
+			}
+		});
+		List<String> names = new ArrayList<>();
+		try (JarFile jarFile = new JarFile(file)) {
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				if (entry.getName().startsWith("BOOT-INF/lib/")
+						&& !entry.isDirectory()) {
+					names.add(entry.getName());
+					assertThat(entry.getCrc()).isEqualTo(crc(jarFile, entry));
+				}
+			}
+		}
+		assertThat(names).hasSize(20);
+		for (int i = 0; i < names.size(); i++) {
+			assertThat(names.get(i))
+					.isEqualTo("BOOT-INF/lib/" + libraries.get(i).getName());
+		}
+	}
+
+	@Test
+	public void repackagingAfterLibraryIsModifiedWritesCurrentCrc() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		final File libJarFile = libJar.getFile();
+		libJarFile.setLastModified(JAN_1_1980);
+		Libraries libraries = new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(new Library(libJarFile, LibraryScope.COMPILE));
+			}
+		};
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		new Repackager(this.testJarFile.getFile()).repackage(libraries);
+		libJar.addClass("a/b/D.class", ClassWithoutMainMethod.class);
+		FileCopyUtils.copy(libJar.getFile(), libJarFile);
+		libJarFile.setLastModified(JAN_1_1985);
+		File file = this.testJarFile.getFile();
+		new Repackager(file).repackage(libraries);
+		try (JarFile jarFile = new JarFile(file)) {
+			JarEntry entry = jarFile.getJarEntry("BOOT-INF/lib/" + libJarFile.getName());
+			assertThat(entry.getSize()).isEqualTo(libJarFile.length());
+			assertThat(entry.getCrc()).isEqualTo(crc(jarFile, entry));
+		}
+	}
+
+	@Test
+	public void repackagingWithCrcCacheFileStoresCrcOfLibraries() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		final File libJarFile = libJar.getFile();
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "crc.cache");
+		Properties stale = new Properties();
+		stale.setProperty("/missing.jar", "1;1;1");
+		try (OutputStream outputStream = new FileOutputStream(cacheFile)) {
+			stale.store(outputStream, null);
+		}
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setCrcCacheFile(cacheFile);
+		repackager.repackage(new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(new Library(libJarFile, LibraryScope.COMPILE));
+			}
+		});
+		Properties cache = new Properties();
+		try (InputStream inputStream = new FileInputStream(cacheFile)) {
+			cache.load(inputStream);
+		}
+		try (JarFile jarFile = new JarFile(file)) {
+			JarEntry entry = jarFile.getJarEntry("BOOT-INF/lib/" + libJarFile.getName());
+			assertThat(cache).containsOnlyKeys(libJarFile.getAbsolutePath());
+			assertThat(cache.getProperty(libJarFile.getAbsolutePath()))
+					.isEqualTo(libJarFile.length() + ";" + libJarFile.lastModified()
+							+ ";" + crc(jarFile, entry));
+		}
+	}
+
+	@Test
+	public void repackagingWithCrcCacheFileUsesCachedCrcOfUnchangedLibraries()
+			throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		final File libJarFile = libJar.getFile();
+		Libraries libraries = new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(new Library(libJarFile, LibraryScope.COMPILE));
+			}
+		};
+		File cacheFile = new File(this.temporaryFolder.getRoot(), "crc.cache");
+		Properties cache = new Properties();
+		cache.setProperty(libJarFile.getAbsolutePath(),
+				libJarFile.length() + ";" + libJarFile.lastModified() + ";1");
+		try (OutputStream outputStream = new FileOutputStream(cacheFile)) {
+			cache.store(outputStream, null);
+		}
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setBackupSource(false);
+		repackager.setCrcCacheFile(cacheFile);
+		try {
+			repackager.repackage(this.temporaryFolder.newFile("first.jar"), libraries);
+			fail("Did not use the cached CRC");
+		}
+		catch (ZipException ex) {
+			assertThat(ex.getMessage()).contains("CRC");
+		}
+		repackager.repackage(this.temporaryFolder.newFile("second.jar"), libraries);
+	}
+
+	@Test
+	public void explode() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		final File libJarFile = libJar.getFile();
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		File destination = this.temporaryFolder.newFolder();
+		new Repackager(file).explode(destination, new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(new Library("release-1.0.0.jar", libJarFile,
+						LibraryScope.COMPILE, false));
+				callback.library(new Library("snapshot-1.0.0-SNAPSHOT.jar", libJarFile,
+						LibraryScope.COMPILE, false));
+			}
+		});
+		assertThat(new File(destination, "BOOT-INF/classes/a/b/C.class")).isFile();
+		byte[] libJarContent = FileCopyUtils.copyToByteArray(libJarFile);
+		assertThat(new File(destination, "BOOT-INF/lib/release-1.0.0.jar"))
+				.hasBinaryContent(libJarContent);
+		assertThat(new File(destination,
+				"BOOT-INF/snapshot-lib/snapshot-1.0.0-SNAPSHOT.jar"))
+						.hasBinaryContent(libJarContent);
+		assertThat(new File(destination,
+				"org/springframework/boot/loader/ExplodedLauncher.class")).isFile();
+		assertThat(new File(destination, "BOOT-INF/classpath.idx")).hasContent(
+				"BOOT-INF/classes/\nBOOT-INF/lib/release-1.0.0.jar\n"
+						+ "BOOT-INF/snapshot-lib/snapshot-1.0.0-SNAPSHOT.jar");
+		Manifest manifest;
+		try (InputStream inputStream = new FileInputStream(
+				new File(destination, "META-INF/MANIFEST.MF"))) {
+			manifest = new Manifest(inputStream);
+		}
+		assertThat(manifest.getMainAttributes().getValue("Main-Class"))
+				.isEqualTo("org.springframework.boot.loader.ExplodedLauncher");
+		assertThat(manifest.getMainAttributes().getValue("Start-Class"))
+				.isEqualTo("a.b.C");
+	}
+
+	@Test
+	public void explodeRemovesExistingContent() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File destination = this.temporaryFolder.newFolder();
+		new Repackager(this.testJarFile.getFile()).explode(destination, NO_LIBRARIES);
+		File stale = new File(destination, "BOOT-INF/lib/stale.jar");
+		stale.getParentFile().mkdirs();
+		stale.createNewFile();
+		new Repackager(this.testJarFile.getFile()).explode(destination, NO_LIBRARIES);
+		assertThat(stale).doesNotExist();
+		assertThat(new File(destination, "BOOT-INF/classpath.idx"))
+				.hasContent("BOOT-INF/classes/");
+	}
+
+	@Test
+	public void explodeWhenDestinationIsNotAnExplodedArchiveShouldFail()
+			throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File destination = this.temporaryFolder.newFolder();
+		File existing = new File(destination, "existing.txt");
+		existing.createNewFile();
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("is not empty");
+		try {
+			new Repackager(this.testJarFile.getFile()).explode(destination,
+					NO_LIBRARIES);
+		}
+		finally {
+			assertThat(existing).exists();
+		}
+	}
+
+	@Test
+	public void explodeDoesNotChangeLayoutOfLaterRepackage() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.explode(this.temporaryFolder.newFolder(), NO_LIBRARIES);
+		repackager.repackage(NO_LIBRARIES);
+		Manifest manifest = getManifest(file);
+		assertThat(manifest.getMainAttributes().getValue("Main-Class"))
+				.isEqualTo("org.springframework.boot.loader.JarLauncher");
+	}
+
 	@Test
 	public void addLauncherScript() throws Exception {
 		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
@@ -630,6 +855,12 @@ public class RepackagerTests {
 		}
 	}
 
+	private long crc(JarFile jarFile, JarEntry entry) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(FileCopyUtils.copyToByteArray(jarFile.getInputStream(entry)));
+		return crc.getValue();
+	}
+
 	private Manifest getManifest(File file) throws IOException {
 		try (JarFile jarFile = new JarFile(file)) {
 			return jarFile.getManifest();
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Manifest;
+
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.ExplodedArchive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+
+/**
+ * {@link Launcher} for exploded archives that include a precomputed class path index.
+ * Each line of the {@code BOOT-INF/classpath.idx} file is a location, relative to the
+ * root of the archive, that should be added to the class path. Since the archive is
+ * already exploded and all dependencies are regular jar files, the class path is built
+ * directly from the index without any nested jar support.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class ExplodedLauncher extends Launcher {
+
+	static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+
+	private final File root;
+
+	public ExplodedLauncher() {
+		try {
+			Archive archive = createArchive();
+			if (!(archive instanceof ExplodedArchive)) {
+				throw new IllegalStateException(
+						"ExplodedLauncher can only be used with an exploded archive");
+			}
+			this.root = new File(archive.getUrl().toURI());
+		}
+		catch (IllegalStateException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	protected ExplodedLauncher(File root) {
+		this.root = root;
+	}
+
+	@Override
+	protected void launch(String[] args) throws Exception {
+		List<URL> urls = getClassPathUrls();
+		ClassLoader classLoader = createClassLoader(urls.toArray(new URL[urls.size()]));
+		launch(args, getMainClass(), classLoader);
+	}
+
+	@Override
+	protected ClassLoader createClassLoader(URL[] urls) throws Exception {
+		return new URLClassLoader(urls, getClass().getClassLoader());
+	}
+
+	@Override
+	protected String getMainClass() throws Exception {
+		File manifestFile = new File(this.root, "META-INF/MANIFEST.MF");
+		String mainClass = null;
+		if (manifestFile.isFile()) {
+			try (FileInputStream inputStream = new FileInputStream(manifestFile)) {
+				mainClass = new Manifest(inputStream).getMainAttributes()
+						.getValue("Start-Class");
+			}
+		}
+		if (mainClass == null) {
+			throw new IllegalStateException(
+					"No 'Start-Class' manifest entry specified in " + this.root);
+		}
+		return mainClass;
+	}
+
+	@Override
+	protected List<Archive> getClassPathArchives() throws Exception {
+		List<Archive> archives = new ArrayList<>();
+		for (File file : getClassPathFiles()) {
+			archives.add(file.isDirectory() ? new ExplodedArchive(file, false)
+					: new JarFileArchive(file));
+		}
+		return archives;
+	}
+
+	/**
+	 * Return the URLs of the class path entries listed in the class path index.
+	 * @return the class path URLs
+	 * @throws IOException if the class path index cannot be read
+	 */
+	protected List<URL> getClassPathUrls() throws IOException {
+		List<URL> urls = new ArrayList<>();
+		for (File file : getClassPathFiles()) {
+			urls.add(file.toURI().toURL());
+		}
+		return urls;
+	}
+
+	private List<File> getClassPathFiles() throws IOException {
+		File index = new File(this.root, CLASSPATH_INDEX);
+		if (!index.isFile()) {
+			throw new IllegalStateException("No class path index found at " + index);
+		}
+		List<File> files = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(index), StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			while (line != null) {
+				line = line.trim();
+				if (line.length() > 0) {
+					files.add(new File(this.root, line));
+				}
+				line = reader.readLine();
+			}
+		}
+		return files;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new ExplodedLauncher().launch(args);
+	}
+
+}
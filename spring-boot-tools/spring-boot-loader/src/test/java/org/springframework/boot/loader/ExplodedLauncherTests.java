@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.Manifest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExplodedLauncher}.
+ *
+ * @author agent (agent@local)
+ */
+public class ExplodedLauncherTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void classPathUrlsAreReadFromIndexInOrder() throws Exception {
+		File root = this.temp.newFolder();
+		writeIndex(root, "BOOT-INF/classes/\nBOOT-INF/lib/b.jar\n\n"
+				+ "BOOT-INF/snapshot-lib/a.jar\n");
+		ExplodedLauncher launcher = new ExplodedLauncher(root);
+		assertThat(launcher.getClassPathUrls()).containsExactly(
+				new File(root, "BOOT-INF/classes").toURI().toURL(),
+				new File(root, "BOOT-INF/lib/b.jar").toURI().toURL(),
+				new File(root, "BOOT-INF/snapshot-lib/a.jar").toURI().toURL());
+	}
+
+	@Test
+	public void classLoaderDoesNotUseNestedJarSupport() throws Exception {
+		ExplodedLauncher launcher = new ExplodedLauncher(this.temp.newFolder());
+		ClassLoader classLoader = launcher.createClassLoader(new URL[0]);
+		assertThat(classLoader).isExactlyInstanceOf(URLClassLoader.class);
+	}
+
+	@Test
+	public void missingIndex() throws Exception {
+		ExplodedLauncher launcher = new ExplodedLauncher(this.temp.newFolder());
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("No class path index found");
+		launcher.getClassPathUrls();
+	}
+
+	@Test
+	public void mainClassIsReadFromManifest() throws Exception {
+		File root = this.temp.newFolder();
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+		manifest.getMainAttributes().putValue("Start-Class", "com.example.Main");
+		new File(root, "META-INF").mkdirs();
+		try (FileOutputStream outputStream = new FileOutputStream(
+				new File(root, "META-INF/MANIFEST.MF"))) {
+			manifest.write(outputStream);
+		}
+		assertThat(new ExplodedLauncher(root).getMainClass())
+				.isEqualTo("com.example.Main");
+	}
+
+	@Test
+	public void missingMainClass() throws Exception {
+		ExplodedLauncher launcher = new ExplodedLauncher(this.temp.newFolder());
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("No 'Start-Class' manifest entry");
+		launcher.getMainClass();
+	}
+
+	private void writeIndex(File root, String content) throws IOException {
+		File index = new File(root, ExplodedLauncher.CLASSPATH_INDEX);
+		index.getParentFile().mkdirs();
+		FileCopyUtils.copy(content.getBytes(StandardCharsets.UTF_8), index);
+	}
+
+}
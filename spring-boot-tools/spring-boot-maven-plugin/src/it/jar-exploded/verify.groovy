@@ -0,0 +1,14 @@
+import java.io.*;
+import java.util.jar.*;
+
+File exploded = new File( basedir, "target/jar-exploded-0.0.1.BUILD-SNAPSHOT" )
+assert new File( exploded, "BOOT-INF/classes/org/test/SampleApplication.class" ).isFile()
+assert new File( exploded, "org/springframework/boot/loader/ExplodedLauncher.class" ).isFile()
+assert new File( exploded, "BOOT-INF/lib" ).list().any { it.startsWith("spring-context-") }
+List<String> index = new File( exploded, "BOOT-INF/classpath.idx" ).readLines()
+assert index[0] == "BOOT-INF/classes/"
+assert index.any { it.startsWith("BOOT-INF/lib/spring-context-") }
+assert !index.any { it.contains("servlet-api") }
+Manifest manifest = new Manifest(new FileInputStream(new File( exploded, "META-INF/MANIFEST.MF" )))
+assert manifest.mainAttributes.getValue("Main-Class") == "org.springframework.boot.loader.ExplodedLauncher"
+assert manifest.mainAttributes.getValue("Start-Class") == "some.random.Main"
@@ -53,6 +53,8 @@ public abstract class AbstractRunMojo extends AbstractDependencyFilterMojo {
 
 	private static final String SPRING_BOOT_APPLICATION_CLASS_NAME = "org.springframework.boot.autoconfigure.SpringBootApplication";
 
+	private static final String MAIN_CLASS_CACHE = "spring-boot-main-class.cache";
+
 	/**
 	 * The Maven project.
 	 * @since 1.0
@@ -349,7 +351,8 @@ public abstract class AbstractRunMojo extends AbstractDependencyFilterMojo {
 		if (mainClass == null) {
 			try {
 				mainClass = MainClassFinder.findSingleMainClass(this.classesDirectory,
-						SPRING_BOOT_APPLICATION_CLASS_NAME);
+						SPRING_BOOT_APPLICATION_CLASS_NAME, new File(
+								this.project.getBuild().getDirectory(), MAIN_CLASS_CACHE));
 			}
 			catch (IOException ex) {
 				throw new MojoExecutionException(ex.getMessage(), ex);
@@ -58,6 +58,8 @@ import org.springframework.boot.loader.tools.Repackager.MainClassTimeoutWarningL
 @Mojo(name = "repackage", defaultPhase = LifecyclePhase.PACKAGE, requiresProject = true, threadSafe = true, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, requiresDependencyCollection = ResolutionScope.COMPILE_PLUS_RUNTIME)
 public class RepackageMojo extends AbstractDependencyFilterMojo {
 
+	private static final String CRC_CACHE = "spring-boot-repackage-crc.cache";
+
 	/**
 	 * The Maven project.
 	 * @since 1.0
@@ -123,8 +125,9 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 
 	/**
 	 * The type of archive (which corresponds to how the dependencies are laid out inside
-	 * it). Possible values are JAR, WAR, ZIP, DIR, NONE. Defaults to a guess based on the
-	 * archive type.
+	 * it). Possible values are JAR, WAR, ZIP, DIR, EXPLODED, NONE. Defaults to a guess
+	 * based on the archive type. The EXPLODED layout writes an unpacked directory,
+	 * rather than an archive, alongside the original artifact.
 	 * @since 1.0
 	 */
 	@Parameter
@@ -207,12 +210,16 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 
 	private void repackage() throws MojoExecutionException {
 		File source = this.project.getArtifact().getFile();
-		File target = getTargetFile();
 		Repackager repackager = getRepackager(source);
 		Set<Artifact> artifacts = filterDependencies(this.project.getArtifacts(),
 				getFilters(getAdditionalFilters()));
 		Libraries libraries = new ArtifactsLibraries(artifacts, this.requiresUnpack,
 				getLog());
+		if (this.layout == LayoutType.EXPLODED) {
+			explode(repackager, libraries);
+			return;
+		}
+		File target = getTargetFile();
 		try {
 			LaunchScript launchScript = getLaunchScript();
 			repackager.repackage(target, libraries, launchScript);
@@ -223,23 +230,41 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 		updateArtifact(source, target, repackager.getBackupFile());
 	}
 
-	private File getTargetFile() {
-		String classifier = (this.classifier == null ? "" : this.classifier.trim());
-		if (classifier.length() > 0 && !classifier.startsWith("-")) {
-			classifier = "-" + classifier;
+	private void explode(Repackager repackager, Libraries libraries)
+			throws MojoExecutionException {
+		File target = new File(this.outputDirectory, this.finalName + getClassifier());
+		getLog().info("Exploding to " + target);
+		try {
+			repackager.explode(target, libraries);
+		}
+		catch (IOException ex) {
+			throw new MojoExecutionException(ex.getMessage(), ex);
 		}
+	}
+
+	private File getTargetFile() {
 		if (!this.outputDirectory.exists()) {
 			this.outputDirectory.mkdirs();
 		}
-		return new File(this.outputDirectory, this.finalName + classifier + "."
+		return new File(this.outputDirectory, this.finalName + getClassifier() + "."
 				+ this.project.getArtifact().getArtifactHandler().getExtension());
 	}
 
+	private String getClassifier() {
+		String classifier = (this.classifier == null ? "" : this.classifier.trim());
+		if (classifier.length() > 0 && !classifier.startsWith("-")) {
+			classifier = "-" + classifier;
+		}
+		return classifier;
+	}
+
 	private Repackager getRepackager(File source) {
 		Repackager repackager = new Repackager(source, this.layoutFactory);
 		repackager.addMainClassTimeoutWarningListener(
 				new LoggingMainClassTimeoutWarningListener());
 		repackager.setMainClass(this.mainClass);
+		repackager.setCrcCacheFile(
+				new File(this.project.getBuild().getDirectory(), CRC_CACHE));
 		if (this.layout != null) {
 			getLog().info("Layout: " + this.layout);
 			repackager.setLayout(this.layout.layout());
@@ -348,6 +373,11 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 		 */
 		DIR(new Layouts.Expanded()),
 
+		/**
+		 * Exploded Layout.
+		 */
+		EXPLODED(new Layouts.Exploded()),
+
 		/**
 		 * No Layout.
 		 */
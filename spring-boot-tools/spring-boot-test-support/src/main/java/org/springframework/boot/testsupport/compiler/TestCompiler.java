@@ -76,10 +76,21 @@ public class TestCompiler {
 		return getTask(javaFileObjects);
 	}
 
+	public TestCompilationTask getTask(Collection<String> classNames,
+			Class<?>... types) {
+		Iterable<? extends JavaFileObject> javaFileObjects = getJavaFileObjects(types);
+		return getTask(classNames, javaFileObjects);
+	}
+
 	private TestCompilationTask getTask(
 			Iterable<? extends JavaFileObject> javaFileObjects) {
+		return getTask(null, javaFileObjects);
+	}
+
+	private TestCompilationTask getTask(Collection<String> classNames,
+			Iterable<? extends JavaFileObject> javaFileObjects) {
 		return new TestCompilationTask(this.compiler.getTask(null, this.fileManager, null,
-				null, null, javaFileObjects));
+				null, classNames, javaFileObjects));
 	}
 
 	public File getOutputLocation() {
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Base class for components that periodically evaluate a {@link ConcurrencyPolicy}
+ * against the listener containers of a messaging technology. Scalers are registered
+ * once, just before the containers are started, and are then evaluated at a fixed
+ * {@link #setInterval(long) interval} until the application context is stopped.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public abstract class AbstractListenerConcurrencyManager implements SmartLifecycle {
+
+	private static final Log logger = LogFactory
+			.getLog(AbstractListenerConcurrencyManager.class);
+
+	private final ConcurrencyPolicy policy;
+
+	private final Map<String, ListenerConcurrencyScaler> scalers = Collections
+			.synchronizedMap(new LinkedHashMap<>());
+
+	private final Object monitor = new Object();
+
+	private long interval = 5000;
+
+	private long scaleUpCooldown = 10000;
+
+	private long scaleDownCooldown = 60000;
+
+	private boolean registered;
+
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Create a new {@link AbstractListenerConcurrencyManager} instance.
+	 * @param policy the policy used to decide the number of consumers
+	 */
+	protected AbstractListenerConcurrencyManager(ConcurrencyPolicy policy) {
+		Assert.notNull(policy, "Policy must not be null");
+		this.policy = policy;
+	}
+
+	/**
+	 * Set the interval in milliseconds between two evaluations of the policy. Defaults
+	 * to five seconds.
+	 * @param interval the evaluation interval
+	 */
+	public void setInterval(long interval) {
+		Assert.isTrue(interval > 0, "Interval must be greater than 0");
+		this.interval = interval;
+	}
+
+	/**
+	 * Set the minimum time in milliseconds between a change and the addition of a
+	 * consumer. Defaults to ten seconds.
+	 * @param scaleUpCooldown the scale up cool-down
+	 */
+	public void setScaleUpCooldown(long scaleUpCooldown) {
+		this.scaleUpCooldown = scaleUpCooldown;
+	}
+
+	/**
+	 * Set the minimum time in milliseconds between a change and the removal of a
+	 * consumer. Defaults to one minute.
+	 * @param scaleDownCooldown the scale down cool-down
+	 */
+	public void setScaleDownCooldown(long scaleDownCooldown) {
+		this.scaleDownCooldown = scaleDownCooldown;
+	}
+
+	/**
+	 * Return the scalers of the listener containers, keyed by container id.
+	 * @return the scalers
+	 */
+	public Map<String, ListenerConcurrencyScaler> getScalers() {
+		synchronized (this.scalers) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(this.scalers));
+		}
+	}
+
+	/**
+	 * Register a scaler for each listener container using
+	 * {@link #addScaler(String, ListenerConcurrencyScaler.Target, int, int)}.
+	 */
+	protected abstract void registerScalers();
+
+	/**
+	 * Add a scaler for the given listener container. The container is reset to its
+	 * minimum number of consumers and is then only scaled by the policy. Containers
+	 * whose maximum number of consumers is not greater than their minimum are ignored.
+	 * @param id the id of the container
+	 * @param target the container
+	 * @param minConsumers the minimum number of consumers
+	 * @param maxConsumers the maximum number of consumers
+	 * @return the scaler or {@code null} if the container cannot be scaled
+	 */
+	protected final ListenerConcurrencyScaler addScaler(String id,
+			ListenerConcurrencyScaler.Target target, int minConsumers,
+			int maxConsumers) {
+		if (maxConsumers <= minConsumers) {
+			logger.debug("Listener container '" + id + "' has a fixed number of "
+					+ "consumers, it will not be scaled");
+			return null;
+		}
+		ListenerConcurrencyScaler scaler = new ListenerConcurrencyScaler(id, target,
+				this.policy, minConsumers, maxConsumers);
+		scaler.setScaleUpCooldown(this.scaleUpCooldown);
+		scaler.setScaleDownCooldown(this.scaleDownCooldown);
+		target.setConsumers(minConsumers);
+		this.scalers.put(id, scaler);
+		return scaler;
+	}
+
+	/**
+	 * Evaluate the scaler of every listener container.
+	 */
+	public void evaluate() {
+		for (ListenerConcurrencyScaler scaler : getScalers().values()) {
+			try {
+				scaler.evaluate();
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Unable to scale listener container '" + scaler.getId()
+						+ "'", ex);
+			}
+		}
+	}
+
+	@Override
+	public void start() {
+		synchronized (this.monitor) {
+			if (!this.registered) {
+				registerScalers();
+				this.registered = true;
+			}
+			if (this.executor == null && !this.scalers.isEmpty()) {
+				CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+						"listener-scaling-");
+				threadFactory.setDaemon(true);
+				this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+				this.executor.scheduleWithFixedDelay(this::evaluate, this.interval,
+						this.interval, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this.monitor) {
+			if (this.executor != null) {
+				this.executor.shutdownNow();
+				this.executor = null;
+			}
+		}
+	}
+
+	@Override
+	public void stop(Runnable callback) {
+		stop();
+		callback.run();
+	}
+
+	@Override
+	public boolean isRunning() {
+		synchronized (this.monitor) {
+			return this.executor != null;
+		}
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		return true;
+	}
+
+	/**
+	 * Return the phase of this manager, just before the phase of the listener endpoint
+	 * registries so that the scalers are registered before the containers start.
+	 * @return the phase
+	 */
+	@Override
+	public int getPhase() {
+		return Integer.MAX_VALUE - 1;
+	}
+
+}
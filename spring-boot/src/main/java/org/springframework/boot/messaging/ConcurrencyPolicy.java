@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+/**
+ * Strategy used to decide how many consumers a message listener container should use
+ * based on its recent {@link ListenerLoad load}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see LatencyAndIdleConcurrencyPolicy
+ * @see ListenerConcurrencyScaler
+ */
+@FunctionalInterface
+public interface ConcurrencyPolicy {
+
+	/**
+	 * Return the number of consumers that the container should use. Values outside of
+	 * the minimum and maximum number of consumers of the load are adjusted accordingly.
+	 * @param load the load of the container
+	 * @return the desired number of consumers
+	 */
+	int getConsumers(ListenerLoad load);
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ConcurrencyPolicy} that adds a consumer when the existing consumers spend
+ * most of their time handling messages, or when the queue holds more messages than they
+ * can keep up with, and removes a consumer when they are mostly idle.
+ * <p>
+ * The utilization of the consumers is derived from the number of messages handled and
+ * their average latency. A short pause keeps the current consumers, a consumer is only
+ * removed once no message has been handled for the {@link #setIdleTimeout(long) idle
+ * timeout}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class LatencyAndIdleConcurrencyPolicy implements ConcurrencyPolicy {
+
+	private double scaleUpUtilization = 0.8;
+
+	private double scaleDownUtilization = 0.3;
+
+	private long idleTimeout = 60000;
+
+	private int queueDepthPerConsumer = 0;
+
+	/**
+	 * Set the utilization above which a consumer is added. Defaults to {@code 0.8}.
+	 * @param scaleUpUtilization the utilization above which a consumer is added
+	 */
+	public void setScaleUpUtilization(double scaleUpUtilization) {
+		Assert.isTrue(scaleUpUtilization > 0,
+				"ScaleUpUtilization must be greater than 0");
+		this.scaleUpUtilization = scaleUpUtilization;
+	}
+
+	/**
+	 * Set the utilization below which a consumer is removed. Defaults to {@code 0.3}.
+	 * @param scaleDownUtilization the utilization below which a consumer is removed
+	 */
+	public void setScaleDownUtilization(double scaleDownUtilization) {
+		Assert.isTrue(scaleDownUtilization >= 0,
+				"ScaleDownUtilization must not be negative");
+		this.scaleDownUtilization = scaleDownUtilization;
+	}
+
+	/**
+	 * Set the time in milliseconds without any message after which a consumer is
+	 * removed. Defaults to one minute.
+	 * @param idleTimeout the idle timeout
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Set the number of waiting messages per consumer above which a consumer is added or
+	 * {@code 0} to ignore the depth of the queue. Defaults to {@code 0}.
+	 * @param queueDepthPerConsumer the number of waiting messages per consumer
+	 */
+	public void setQueueDepthPerConsumer(int queueDepthPerConsumer) {
+		Assert.isTrue(queueDepthPerConsumer >= 0,
+				"QueueDepthPerConsumer must not be negative");
+		this.queueDepthPerConsumer = queueDepthPerConsumer;
+	}
+
+	@Override
+	public int getConsumers(ListenerLoad load) {
+		int consumers = load.getConsumers();
+		if (isBacklogged(load) || load.getUtilization() >= this.scaleUpUtilization) {
+			return consumers + 1;
+		}
+		if (load.getIdleTime() >= this.idleTimeout) {
+			return consumers - 1;
+		}
+		if (load.getMessageCount() > 0 && load.getQueueDepth() <= 0
+				&& load.getUtilization() <= this.scaleDownUtilization) {
+			return consumers - 1;
+		}
+		return consumers;
+	}
+
+	private boolean isBacklogged(ListenerLoad load) {
+		return (this.queueDepthPerConsumer > 0 && load.getQueueDepth() > (long) load
+				.getConsumers() * this.queueDepthPerConsumer);
+	}
+
+}
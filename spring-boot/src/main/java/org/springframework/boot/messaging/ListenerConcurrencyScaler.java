@@ -0,0 +1,248 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * Scales the consumers of a single message listener container according to a
+ * {@link ConcurrencyPolicy}. The time taken to handle each message is
+ * {@link #recordMessage(long) recorded} by the container's listener and the policy is
+ * consulted each time the scaler is {@link #evaluate() evaluated}. A cool-down window
+ * prevents consecutive changes from happening too quickly.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class ListenerConcurrencyScaler {
+
+	private static final Log logger = LogFactory.getLog(ListenerConcurrencyScaler.class);
+
+	private final String id;
+
+	private final Target target;
+
+	private final ConcurrencyPolicy policy;
+
+	private final int minConsumers;
+
+	private final int maxConsumers;
+
+	private final LongSupplier clock;
+
+	private final AtomicLong messageCount = new AtomicLong();
+
+	private final AtomicLong totalLatency = new AtomicLong();
+
+	private final AtomicLong scaleUpCount = new AtomicLong();
+
+	private final AtomicLong scaleDownCount = new AtomicLong();
+
+	private long scaleUpCooldown = 10000;
+
+	private long scaleDownCooldown = 60000;
+
+	private volatile long lastMessageTime;
+
+	private volatile int consumers;
+
+	private volatile ListenerLoad lastLoad;
+
+	private long lastEvaluationTime;
+
+	private long lastChangeTime;
+
+	/**
+	 * Create a new {@link ListenerConcurrencyScaler} instance.
+	 * @param id the id of the listener container
+	 * @param target the target container
+	 * @param policy the policy used to decide the number of consumers
+	 * @param minConsumers the minimum number of consumers
+	 * @param maxConsumers the maximum number of consumers
+	 */
+	public ListenerConcurrencyScaler(String id, Target target, ConcurrencyPolicy policy,
+			int minConsumers, int maxConsumers) {
+		this(id, target, policy, minConsumers, maxConsumers, System::currentTimeMillis);
+	}
+
+	ListenerConcurrencyScaler(String id, Target target, ConcurrencyPolicy policy,
+			int minConsumers, int maxConsumers, LongSupplier clock) {
+		Assert.notNull(target, "Target must not be null");
+		Assert.notNull(policy, "Policy must not be null");
+		Assert.isTrue(minConsumers > 0, "MinConsumers must be greater than 0");
+		Assert.isTrue(maxConsumers >= minConsumers,
+				"MaxConsumers must not be less than MinConsumers");
+		this.id = id;
+		this.target = target;
+		this.policy = policy;
+		this.minConsumers = minConsumers;
+		this.maxConsumers = maxConsumers;
+		this.clock = clock;
+		this.consumers = minConsumers;
+		this.lastMessageTime = clock.getAsLong();
+		this.lastEvaluationTime = this.lastMessageTime;
+		this.lastChangeTime = this.lastMessageTime;
+	}
+
+	/**
+	 * Set the minimum time in milliseconds between a change and the addition of a
+	 * consumer. Defaults to ten seconds.
+	 * @param scaleUpCooldown the scale up cool-down
+	 */
+	public void setScaleUpCooldown(long scaleUpCooldown) {
+		this.scaleUpCooldown = scaleUpCooldown;
+	}
+
+	/**
+	 * Set the minimum time in milliseconds between a change and the removal of a
+	 * consumer. Defaults to one minute.
+	 * @param scaleDownCooldown the scale down cool-down
+	 */
+	public void setScaleDownCooldown(long scaleDownCooldown) {
+		this.scaleDownCooldown = scaleDownCooldown;
+	}
+
+	/**
+	 * Record that a message has been handled.
+	 * @param latency the time taken to handle the message in nanoseconds
+	 */
+	public void recordMessage(long latency) {
+		this.messageCount.incrementAndGet();
+		this.totalLatency.addAndGet(latency);
+		this.lastMessageTime = this.clock.getAsLong();
+	}
+
+	/**
+	 * Measure the load of the container since the last evaluation and apply the number
+	 * of consumers decided by the policy, unless the container is not running or the
+	 * change happens within the cool-down window.
+	 * @return the number of consumers
+	 */
+	public synchronized int evaluate() {
+		long now = this.clock.getAsLong();
+		long count = this.messageCount.getAndSet(0);
+		long latency = this.totalLatency.getAndSet(0);
+		ListenerLoad load = new ListenerLoad(this.consumers, this.minConsumers,
+				this.maxConsumers, now - this.lastEvaluationTime, count,
+				(count > 0 ? (double) latency / count / TimeUnit.MILLISECONDS.toNanos(1)
+						: 0),
+				now - this.lastMessageTime, this.target.getQueueDepth());
+		this.lastEvaluationTime = now;
+		this.lastLoad = load;
+		if (!this.target.isRunning()) {
+			return this.consumers;
+		}
+		int consumers = Math.max(this.minConsumers,
+				Math.min(this.maxConsumers, this.policy.getConsumers(load)));
+		if (consumers > this.consumers
+				&& now - this.lastChangeTime >= this.scaleUpCooldown) {
+			this.scaleUpCount.incrementAndGet();
+			apply(consumers, now, load);
+		}
+		else if (consumers < this.consumers
+				&& now - this.lastChangeTime >= this.scaleDownCooldown) {
+			this.scaleDownCount.incrementAndGet();
+			apply(consumers, now, load);
+		}
+		return this.consumers;
+	}
+
+	private void apply(int consumers, long now, ListenerLoad load) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Scaling listener container '" + this.id + "' from "
+					+ this.consumers + " to " + consumers + " consumers (" + load + ")");
+		}
+		this.target.setConsumers(consumers);
+		this.consumers = consumers;
+		this.lastChangeTime = now;
+	}
+
+	/**
+	 * Return the id of the listener container.
+	 * @return the id
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Return the number of consumers last applied to the container.
+	 * @return the number of consumers
+	 */
+	public int getConsumers() {
+		return this.consumers;
+	}
+
+	/**
+	 * Return the number of times a consumer has been added.
+	 * @return the scale up count
+	 */
+	public long getScaleUpCount() {
+		return this.scaleUpCount.get();
+	}
+
+	/**
+	 * Return the number of times a consumer has been removed.
+	 * @return the scale down count
+	 */
+	public long getScaleDownCount() {
+		return this.scaleDownCount.get();
+	}
+
+	/**
+	 * Return the load measured by the last evaluation.
+	 * @return the last load or {@code null} if the scaler has not been evaluated yet
+	 */
+	public ListenerLoad getLastLoad() {
+		return this.lastLoad;
+	}
+
+	/**
+	 * The message listener container that is scaled.
+	 */
+	public interface Target {
+
+		/**
+		 * Return whether the container is running.
+		 * @return {@code true} if the container is running
+		 */
+		boolean isRunning();
+
+		/**
+		 * Change the number of consumers of the container.
+		 * @param consumers the number of consumers
+		 */
+		void setConsumers(int consumers);
+
+		/**
+		 * Return the number of messages waiting to be consumed.
+		 * @return the queue depth or {@code -1} if unknown
+		 */
+		default long getQueueDepth() {
+			return -1;
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+/**
+ * The load of a message listener container measured over a single evaluation interval.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ * @see ConcurrencyPolicy
+ */
+public final class ListenerLoad {
+
+	private final int consumers;
+
+	private final int minConsumers;
+
+	private final int maxConsumers;
+
+	private final long interval;
+
+	private final long messageCount;
+
+	private final double averageLatency;
+
+	private final long idleTime;
+
+	private final long queueDepth;
+
+	/**
+	 * Create a new {@link ListenerLoad} instance.
+	 * @param consumers the current number of consumers
+	 * @param minConsumers the minimum number of consumers
+	 * @param maxConsumers the maximum number of consumers
+	 * @param interval the length of the interval in milliseconds
+	 * @param messageCount the number of messages handled during the interval
+	 * @param averageLatency the average time in milliseconds taken by the listener to
+	 * handle a message during the interval
+	 * @param idleTime the time in milliseconds since the last message was handled
+	 * @param queueDepth the number of messages waiting to be consumed or {@code -1} if
+	 * unknown
+	 */
+	public ListenerLoad(int consumers, int minConsumers, int maxConsumers,
+			long interval, long messageCount, double averageLatency, long idleTime,
+			long queueDepth) {
+		this.consumers = consumers;
+		this.minConsumers = minConsumers;
+		this.maxConsumers = maxConsumers;
+		this.interval = interval;
+		this.messageCount = messageCount;
+		this.averageLatency = averageLatency;
+		this.idleTime = idleTime;
+		this.queueDepth = queueDepth;
+	}
+
+	/**
+	 * Return the current number of consumers.
+	 * @return the number of consumers
+	 */
+	public int getConsumers() {
+		return this.consumers;
+	}
+
+	/**
+	 * Return the minimum number of consumers.
+	 * @return the minimum number of consumers
+	 */
+	public int getMinConsumers() {
+		return this.minConsumers;
+	}
+
+	/**
+	 * Return the maximum number of consumers.
+	 * @return the maximum number of consumers
+	 */
+	public int getMaxConsumers() {
+		return this.maxConsumers;
+	}
+
+	/**
+	 * Return the length of the interval in milliseconds.
+	 * @return the interval
+	 */
+	public long getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Return the number of messages handled during the interval.
+	 * @return the message count
+	 */
+	public long getMessageCount() {
+		return this.messageCount;
+	}
+
+	/**
+	 * Return the average time in milliseconds taken by the listener to handle a message
+	 * during the interval.
+	 * @return the average latency or {@code 0} if no message was handled
+	 */
+	public double getAverageLatency() {
+		return this.averageLatency;
+	}
+
+	/**
+	 * Return the time in milliseconds since the last message was handled.
+	 * @return the idle time
+	 */
+	public long getIdleTime() {
+		return this.idleTime;
+	}
+
+	/**
+	 * Return the number of messages waiting to be consumed.
+	 * @return the queue depth or {@code -1} if unknown
+	 */
+	public long getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/**
+	 * Return the proportion of the interval that the consumers spent handling messages.
+	 * A value close to {@code 1} indicates that all consumers were busy.
+	 * @return the utilization of the consumers
+	 */
+	public double getUtilization() {
+		if (this.interval <= 0 || this.consumers <= 0) {
+			return 0;
+		}
+		return (this.messageCount * this.averageLatency)
+				/ (this.interval * this.consumers);
+	}
+
+	@Override
+	public String toString() {
+		return "consumers=" + this.consumers + ", messages=" + this.messageCount
+				+ ", latency=" + this.averageLatency + "ms, idle=" + this.idleTime
+				+ "ms, queueDepth=" + this.queueDepth;
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.Set;
 
 import javax.sql.DataSource;
 
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.persistenceunit.PersistenceUnitManager;
@@ -55,6 +56,8 @@ public class EntityManagerFactoryBuilder {
 
 	private EntityManagerFactoryBeanCallback callback;
 
+	private AsyncTaskExecutor bootstrapExecutor;
+
 	/**
 	 * Create a new instance passing in the common pieces that will be shared if multiple
 	 * EntityManagerFactory instances are created.
@@ -100,6 +103,19 @@ public class EntityManagerFactoryBuilder {
 		this.callback = callback;
 	}
 
+	/**
+	 * Configure the bootstrap executor to be used by the
+	 * {@link LocalContainerEntityManagerFactoryBean}. When set, the native
+	 * EntityManagerFactory is built in the background and callers only block when the
+	 * EntityManagerFactory is first used.
+	 * @param bootstrapExecutor the executor
+	 * @since 2.0.0
+	 * @see LocalContainerEntityManagerFactoryBean#setBootstrapExecutor(AsyncTaskExecutor)
+	 */
+	public void setBootstrapExecutor(AsyncTaskExecutor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
 	/**
 	 * A fluent builder for a LocalContainerEntityManagerFactoryBean.
 	 */
@@ -208,6 +224,10 @@ public class EntityManagerFactoryBuilder {
 				entityManagerFactoryBean
 						.setPersistenceUnitRootLocation(rootLocation.toString());
 			}
+			if (EntityManagerFactoryBuilder.this.bootstrapExecutor != null) {
+				entityManagerFactoryBean.setBootstrapExecutor(
+						EntityManagerFactoryBuilder.this.bootstrapExecutor);
+			}
 			if (EntityManagerFactoryBuilder.this.callback != null) {
 				EntityManagerFactoryBuilder.this.callback
 						.execute(entityManagerFactoryBean);
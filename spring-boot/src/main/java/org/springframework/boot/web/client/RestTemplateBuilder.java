@@ -27,11 +27,30 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.client.support.BasicAuthorizationInterceptor;
 import org.springframework.http.converter.HttpMessageConverter;
@@ -62,14 +81,17 @@ import org.springframework.web.util.UriTemplateHandler;
  */
 public class RestTemplateBuilder {
 
+	private static final String HTTP_COMPONENTS_REQUEST_FACTORY = "org.springframework.http.client.HttpComponentsClientHttpRequestFactory";
+
+	private static final String OK_HTTP3_REQUEST_FACTORY = "org.springframework.http.client.OkHttp3ClientHttpRequestFactory";
+
 	private static final Map<String, String> REQUEST_FACTORY_CANDIDATES;
 
 	static {
 		Map<String, String> candidates = new LinkedHashMap<>();
 		candidates.put("org.apache.http.client.HttpClient",
-				"org.springframework.http.client.HttpComponentsClientHttpRequestFactory");
-		candidates.put("okhttp3.OkHttpClient",
-				"org.springframework.http.client.OkHttp3ClientHttpRequestFactory");
+				HTTP_COMPONENTS_REQUEST_FACTORY);
+		candidates.put("okhttp3.OkHttpClient", OK_HTTP3_REQUEST_FACTORY);
 		candidates.put("com.squareup.okhttp.OkHttpClient",
 				"org.springframework.http.client.OkHttpClientHttpRequestFactory");
 		REQUEST_FACTORY_CANDIDATES = Collections.unmodifiableMap(candidates);
@@ -95,6 +117,8 @@ public class RestTemplateBuilder {
 
 	private final Set<ClientHttpRequestInterceptor> interceptors;
 
+	private final ConnectionPoolSettings connectionPool;
+
 	/**
 	 * Create a new {@link RestTemplateBuilder} instance.
 	 * @param customizers any {@link RestTemplateCustomizer RestTemplateCustomizers} that
@@ -113,6 +137,7 @@ public class RestTemplateBuilder {
 				.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(customizers)));
 		this.requestFactoryCustomizers = Collections.<RequestFactoryCustomizer>emptySet();
 		this.interceptors = Collections.<ClientHttpRequestInterceptor>emptySet();
+		this.connectionPool = null;
 	}
 
 	private RestTemplateBuilder(boolean detectRequestFactory, String rootUri,
@@ -122,7 +147,8 @@ public class RestTemplateBuilder {
 			BasicAuthorizationInterceptor basicAuthorization,
 			Set<RestTemplateCustomizer> restTemplateCustomizers,
 			Set<RequestFactoryCustomizer> requestFactoryCustomizers,
-			Set<ClientHttpRequestInterceptor> interceptors) {
+			Set<ClientHttpRequestInterceptor> interceptors,
+			ConnectionPoolSettings connectionPool) {
 		super();
 		this.detectRequestFactory = detectRequestFactory;
 		this.rootUri = rootUri;
@@ -134,6 +160,7 @@ public class RestTemplateBuilder {
 		this.restTemplateCustomizers = restTemplateCustomizers;
 		this.requestFactoryCustomizers = requestFactoryCustomizers;
 		this.interceptors = interceptors;
+		this.connectionPool = connectionPool;
 	}
 
 	/**
@@ -147,7 +174,7 @@ public class RestTemplateBuilder {
 		return new RestTemplateBuilder(detectRequestFactory, this.rootUri,
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -160,7 +187,7 @@ public class RestTemplateBuilder {
 		return new RestTemplateBuilder(this.detectRequestFactory, rootUri,
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -193,7 +220,7 @@ public class RestTemplateBuilder {
 						new LinkedHashSet<HttpMessageConverter<?>>(messageConverters)),
 				this.requestFactory, this.uriTemplateHandler, this.errorHandler,
 				this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -223,7 +250,7 @@ public class RestTemplateBuilder {
 				append(this.messageConverters, messageConverters), this.requestFactory,
 				this.uriTemplateHandler, this.errorHandler, this.basicAuthorization,
 				this.restTemplateCustomizers, this.requestFactoryCustomizers,
-				this.interceptors);
+				this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -239,7 +266,7 @@ public class RestTemplateBuilder {
 						new LinkedHashSet<>(new RestTemplate().getMessageConverters())),
 				this.requestFactory, this.uriTemplateHandler, this.errorHandler,
 				this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -273,7 +300,8 @@ public class RestTemplateBuilder {
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
 				this.requestFactoryCustomizers,
-				Collections.unmodifiableSet(new LinkedHashSet<>(interceptors)));
+				Collections.unmodifiableSet(new LinkedHashSet<>(interceptors)),
+				this.connectionPool);
 	}
 
 	/**
@@ -304,7 +332,8 @@ public class RestTemplateBuilder {
 		return new RestTemplateBuilder(this.detectRequestFactory, this.rootUri,
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, append(this.interceptors, interceptors));
+				this.requestFactoryCustomizers, append(this.interceptors, interceptors),
+				this.connectionPool);
 	}
 
 	/**
@@ -342,7 +371,7 @@ public class RestTemplateBuilder {
 		return new RestTemplateBuilder(this.detectRequestFactory, this.rootUri,
 				this.messageConverters, requestFactory, this.uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -356,7 +385,7 @@ public class RestTemplateBuilder {
 		return new RestTemplateBuilder(this.detectRequestFactory, this.rootUri,
 				this.messageConverters, this.requestFactory, uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -370,7 +399,7 @@ public class RestTemplateBuilder {
 		return new RestTemplateBuilder(this.detectRequestFactory, this.rootUri,
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -385,7 +414,7 @@ public class RestTemplateBuilder {
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				this.errorHandler, new BasicAuthorizationInterceptor(username, password),
 				this.restTemplateCustomizers, this.requestFactoryCustomizers,
-				this.interceptors);
+				this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -422,7 +451,7 @@ public class RestTemplateBuilder {
 				this.errorHandler, this.basicAuthorization,
 				Collections.unmodifiableSet(new LinkedHashSet<RestTemplateCustomizer>(
 						restTemplateCustomizers)),
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -455,7 +484,7 @@ public class RestTemplateBuilder {
 				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
 				this.errorHandler, this.basicAuthorization,
 				append(this.restTemplateCustomizers, customizers),
-				this.requestFactoryCustomizers, this.interceptors);
+				this.requestFactoryCustomizers, this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -470,7 +499,7 @@ public class RestTemplateBuilder {
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
 				append(this.requestFactoryCustomizers,
 						new ConnectTimeoutRequestFactoryCustomizer(connectTimeout)),
-				this.interceptors);
+				this.interceptors, this.connectionPool);
 	}
 
 	/**
@@ -485,7 +514,76 @@ public class RestTemplateBuilder {
 				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
 				append(this.requestFactoryCustomizers,
 						new ReadTimeoutRequestFactoryCustomizer(readTimeout)),
-				this.interceptors);
+				this.interceptors, this.connectionPool);
+	}
+
+	/**
+	 * Sets the maximum total number of connections that the underlying
+	 * {@link ClientHttpRequestFactory} keeps in its connection pool. Connection pool
+	 * settings are only applied when the request factory is
+	 * {@link #detectRequestFactory(boolean) detected} by this builder and is backed by
+	 * Apache HttpComponents or OkHttp 3. In that case every {@link RestTemplate} built
+	 * with the same connection pool settings shares a single pooled client, so
+	 * connections are reused across those templates and building a template does not
+	 * create a new pool. Request factories that are set explicitly are used as they are.
+	 * <p>
+	 * OkHttp 3 does not limit the number of connections used by synchronous requests so
+	 * this setting is ignored by OkHttp 3.
+	 * @param maxConnections the maximum number of connections
+	 * @return a new builder instance.
+	 * @since 2.0.0
+	 */
+	public RestTemplateBuilder setMaxConnections(int maxConnections) {
+		return connectionPool((pool) -> pool.maxConnections(maxConnections));
+	}
+
+	/**
+	 * Sets the maximum number of connections per route (host) that the underlying
+	 * {@link ClientHttpRequestFactory} keeps in its connection pool. Ignored by OkHttp 3.
+	 * @param maxConnectionsPerRoute the maximum number of connections per route
+	 * @return a new builder instance.
+	 * @since 2.0.0
+	 * @see #setMaxConnections(int)
+	 */
+	public RestTemplateBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		return connectionPool(
+				(pool) -> pool.maxConnectionsPerRoute(maxConnectionsPerRoute));
+	}
+
+	/**
+	 * Sets the time in milliseconds that a pooled connection of the underlying
+	 * {@link ClientHttpRequestFactory} can be reused for after it has been created.
+	 * Ignored by OkHttp 3.
+	 * @param connectionTimeToLive the connection time to live in milliseconds
+	 * @return a new builder instance.
+	 * @since 2.0.0
+	 * @see #setMaxConnections(int)
+	 */
+	public RestTemplateBuilder setConnectionTimeToLive(long connectionTimeToLive) {
+		return connectionPool((pool) -> pool.timeToLive(connectionTimeToLive));
+	}
+
+	/**
+	 * Sets the time in milliseconds after which an idle pooled connection of the
+	 * underlying {@link ClientHttpRequestFactory} is no longer reused.
+	 * @param idleConnectionTimeout the idle connection timeout in milliseconds
+	 * @return a new builder instance.
+	 * @since 2.0.0
+	 * @see #setMaxConnections(int)
+	 */
+	public RestTemplateBuilder setIdleConnectionTimeout(long idleConnectionTimeout) {
+		return connectionPool((pool) -> pool.idleTimeout(idleConnectionTimeout));
+	}
+
+	private RestTemplateBuilder connectionPool(
+			UnaryOperator<ConnectionPoolSettings> update) {
+		ConnectionPoolSettings connectionPool = update.apply(
+				this.connectionPool != null ? this.connectionPool
+						: new ConnectionPoolSettings());
+		return new RestTemplateBuilder(this.detectRequestFactory, this.rootUri,
+				this.messageConverters, this.requestFactory, this.uriTemplateHandler,
+				this.errorHandler, this.basicAuthorization, this.restTemplateCustomizers,
+				this.requestFactoryCustomizers, this.interceptors, connectionPool);
 	}
 
 	/**
@@ -586,6 +684,13 @@ public class RestTemplateBuilder {
 				.entrySet()) {
 			ClassLoader classLoader = getClass().getClassLoader();
 			if (ClassUtils.isPresent(candidate.getKey(), classLoader)) {
+				if (this.connectionPool != null) {
+					ClientHttpRequestFactory requestFactory = this.connectionPool
+							.createRequestFactory(candidate.getValue());
+					if (requestFactory != null) {
+						return requestFactory;
+					}
+				}
 				Class<?> factoryClass = ClassUtils.resolveClassName(candidate.getValue(),
 						classLoader);
 				return (ClientHttpRequestFactory) BeanUtils
@@ -674,4 +779,167 @@ public class RestTemplateBuilder {
 
 	}
 
+	/**
+	 * Connection pool settings used to create the request factory.
+	 */
+	private static class ConnectionPoolSettings {
+
+		private final int maxConnections;
+
+		private final int maxConnectionsPerRoute;
+
+		private final long timeToLive;
+
+		private final long idleTimeout;
+
+		private final Map<String, Object> clients = new ConcurrentHashMap<>();
+
+		ConnectionPoolSettings() {
+			this(-1, -1, -1, -1);
+		}
+
+		ConnectionPoolSettings(int maxConnections, int maxConnectionsPerRoute,
+				long timeToLive, long idleTimeout) {
+			this.maxConnections = maxConnections;
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			this.timeToLive = timeToLive;
+			this.idleTimeout = idleTimeout;
+		}
+
+		ConnectionPoolSettings maxConnections(int maxConnections) {
+			return new ConnectionPoolSettings(maxConnections,
+					this.maxConnectionsPerRoute, this.timeToLive, this.idleTimeout);
+		}
+
+		ConnectionPoolSettings maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			return new ConnectionPoolSettings(this.maxConnections,
+					maxConnectionsPerRoute, this.timeToLive, this.idleTimeout);
+		}
+
+		ConnectionPoolSettings timeToLive(long timeToLive) {
+			return new ConnectionPoolSettings(this.maxConnections,
+					this.maxConnectionsPerRoute, timeToLive, this.idleTimeout);
+		}
+
+		ConnectionPoolSettings idleTimeout(long idleTimeout) {
+			return new ConnectionPoolSettings(this.maxConnections,
+					this.maxConnectionsPerRoute, this.timeToLive, idleTimeout);
+		}
+
+		ClientHttpRequestFactory createRequestFactory(String factoryClassName) {
+			if (HTTP_COMPONENTS_REQUEST_FACTORY.equals(factoryClassName)) {
+				return HttpComponentsConnectionPool.createRequestFactory(
+						this.clients.computeIfAbsent(factoryClassName,
+								(name) -> HttpComponentsConnectionPool.createClient(this)));
+			}
+			if (OK_HTTP3_REQUEST_FACTORY.equals(factoryClassName)) {
+				return OkHttp3ConnectionPool.createRequestFactory(
+						this.clients.computeIfAbsent(factoryClassName,
+								(name) -> OkHttp3ConnectionPool.createClient(this)));
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * Creates {@link HttpComponentsClientHttpRequestFactory} instances that share a pooled
+	 * client. Expired and idle connections are closed when they would next be leased
+	 * rather than by a background thread so that nothing outlives the client.
+	 */
+	private static class HttpComponentsConnectionPool {
+
+		static ClientHttpRequestFactory createRequestFactory(Object client) {
+			return new HttpComponentsClientHttpRequestFactory((HttpClient) client) {
+
+				@Override
+				public void destroy() {
+					// The client is shared with other request factories
+				}
+
+			};
+		}
+
+		static HttpClient createClient(ConnectionPoolSettings pool) {
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+					RegistryBuilder.<ConnectionSocketFactory>create()
+							.register("http",
+									PlainConnectionSocketFactory.getSocketFactory())
+							.register("https",
+									SSLConnectionSocketFactory.getSystemSocketFactory())
+							.build(),
+					null, null, null, pool.timeToLive, TimeUnit.MILLISECONDS);
+			if (pool.maxConnections > 0) {
+				connectionManager.setMaxTotal(pool.maxConnections);
+			}
+			if (pool.maxConnectionsPerRoute > 0) {
+				connectionManager.setDefaultMaxPerRoute(pool.maxConnectionsPerRoute);
+			}
+			HttpClientBuilder builder = HttpClientBuilder.create().useSystemProperties()
+					.setConnectionManager(connectionManager);
+			if (pool.idleTimeout > 0) {
+				builder.setKeepAliveStrategy(new IdleTimeoutKeepAliveStrategy(
+						pool.idleTimeout));
+			}
+			return builder.build();
+		}
+
+	}
+
+	/**
+	 * {@link ConnectionKeepAliveStrategy} that keeps connections alive for no longer
+	 * than an idle timeout.
+	 */
+	private static class IdleTimeoutKeepAliveStrategy
+			implements ConnectionKeepAliveStrategy {
+
+		private final long idleTimeout;
+
+		IdleTimeoutKeepAliveStrategy(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+
+		@Override
+		public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+			long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+					.getKeepAliveDuration(response, context);
+			return (duration > 0 ? Math.min(duration, this.idleTimeout)
+					: this.idleTimeout);
+		}
+
+	}
+
+	/**
+	 * Creates {@link OkHttp3ClientHttpRequestFactory} instances that share a client and
+	 * its connection pool. OkHttp has no limit on the number of connections used by
+	 * synchronous requests so only the idle timeout is applied.
+	 */
+	private static class OkHttp3ConnectionPool {
+
+		private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+		private static final long DEFAULT_KEEP_ALIVE = TimeUnit.MINUTES.toMillis(5);
+
+		static ClientHttpRequestFactory createRequestFactory(Object client) {
+			return new OkHttp3ClientHttpRequestFactory((OkHttpClient) client) {
+
+				@Override
+				public void destroy() {
+					// The client is shared with other request factories
+				}
+
+			};
+		}
+
+		static OkHttpClient createClient(ConnectionPoolSettings pool) {
+			long keepAlive = (pool.idleTimeout > 0 ? pool.idleTimeout
+					: DEFAULT_KEEP_ALIVE);
+			return new OkHttpClient.Builder()
+					.connectionPool(new ConnectionPool(DEFAULT_MAX_IDLE_CONNECTIONS,
+							keepAlive, TimeUnit.MILLISECONDS))
+					.build();
+		}
+
+	}
+
 }
@@ -104,6 +104,8 @@ import org.springframework.util.StringUtils;
 public class JettyServletWebServerFactory extends AbstractServletWebServerFactory
 		implements ResourceLoaderAware {
 
+	private static final String PRECOMPRESSED_FORMATS = "br=.br,gzip=.gz";
+
 	private List<Configuration> configurations = new ArrayList<>();
 
 	private boolean useForwardHeaders;
@@ -228,6 +230,9 @@ public class JettyServletWebServerFactory extends AbstractServletWebServerFactor
 		GzipHandler handler = new GzipHandler();
 		Compression compression = getCompression();
 		handler.setMinGzipSize(compression.getMinResponseSize());
+		if (compression.getLevel() >= 0) {
+			handler.setCompressionLevel(compression.getLevel());
+		}
 		handler.setIncludedMimeTypes(compression.getMimeTypes());
 		if (compression.getExcludedUserAgents() != null) {
 			handler.setExcludedAgentPatterns(compression.getExcludedUserAgents());
@@ -427,6 +432,9 @@ public class JettyServletWebServerFactory extends AbstractServletWebServerFactor
 		holder.setName("default");
 		holder.setClassName("org.eclipse.jetty.servlet.DefaultServlet");
 		holder.setInitParameter("dirAllowed", "false");
+		if (getCompression() != null && getCompression().getPrecompressed()) {
+			holder.setInitParameter("precompressed", PRECOMPRESSED_FORMATS);
+		}
 		holder.setInitOrder(1);
 		context.getServletHandler().addServletWithMapping(holder, "/");
 		context.getServletHandler().getServletMapping("/").setDefault(true);
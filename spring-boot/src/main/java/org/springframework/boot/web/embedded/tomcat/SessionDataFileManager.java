@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.web.embedded.tomcat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.Manager;
+import org.apache.catalina.Session;
+import org.apache.catalina.session.PersistentManagerBase;
+import org.apache.catalina.session.StandardSession;
+
+import org.springframework.boot.web.servlet.server.SessionDataFile;
+import org.springframework.boot.web.servlet.server.SessionDataFile.StoredSession;
+
+/**
+ * {@link PersistentManagerBase Persistent manager} that stores sessions in a
+ * {@link SessionDataFile}. Stored sessions are loaded lazily when they are first
+ * requested rather than all at once when the context starts. When a write-behind
+ * interval is set, sessions that have been modified since they were last written are
+ * written to the store in the background at that interval, whether or not they are
+ * idle. The interval is checked each time the context's background processor runs.
+ *
+ * @author agent (agent@local)
+ */
+class SessionDataFileManager extends PersistentManagerBase {
+
+	private final long writeBehindInterval;
+
+	private long lastWriteBehind;
+
+	SessionDataFileManager(File file, int writeBehindInterval) {
+		setStore(new SessionDataFileStore(file));
+		this.writeBehindInterval = TimeUnit.SECONDS.toMillis(writeBehindInterval);
+		if (writeBehindInterval > 0) {
+			setProcessExpiresFrequency(1);
+		}
+	}
+
+	/**
+	 * Return the interval in seconds at which modified sessions are written to the
+	 * store.
+	 * @return the write-behind interval in seconds
+	 */
+	int getWriteBehindInterval() {
+		return (int) TimeUnit.MILLISECONDS.toSeconds(this.writeBehindInterval);
+	}
+
+	@Override
+	public void processPersistenceChecks() {
+		super.processPersistenceChecks();
+		if (this.writeBehindInterval > 0) {
+			long now = System.currentTimeMillis();
+			if (now - this.lastWriteBehind >= this.writeBehindInterval) {
+				this.lastWriteBehind = now;
+				writeModifiedSessions();
+			}
+		}
+	}
+
+	private void writeModifiedSessions() {
+		for (Session session : findSessions()) {
+			if (session instanceof StorableSession
+					&& ((StorableSession) session).isModified()) {
+				try {
+					writeSession(session);
+				}
+				catch (IOException ex) {
+					getContext().getLogger()
+							.error("Error writing session " + session.getIdInternal(), ex);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "SessionDataFileManager";
+	}
+
+	@Override
+	protected StandardSession getNewSession() {
+		return new StorableSession(this);
+	}
+
+	Session restoreSession(StoredSession storedSession) {
+		StorableSession session = (StorableSession) createEmptySession();
+		session.restore(storedSession);
+		return session;
+	}
+
+	StoredSession toStoredSession(Session session) {
+		return ((StorableSession) session).toStoredSession();
+	}
+
+	/**
+	 * {@link StandardSession} that can be converted to and restored from a
+	 * {@link StoredSession}.
+	 */
+	private static class StorableSession extends StandardSession {
+
+		private volatile boolean attributesModified = true;
+
+		private volatile long storedAccessedTime;
+
+		StorableSession(Manager manager) {
+			super(manager);
+		}
+
+		@Override
+		public void setAttribute(String name, Object value, boolean notify) {
+			super.setAttribute(name, value, notify);
+			this.attributesModified = true;
+		}
+
+		@Override
+		public void removeAttribute(String name, boolean notify) {
+			super.removeAttribute(name, notify);
+			this.attributesModified = true;
+		}
+
+		boolean isModified() {
+			return this.attributesModified
+					|| this.storedAccessedTime != this.lastAccessedTime;
+		}
+
+		StoredSession toStoredSession() {
+			this.attributesModified = false;
+			this.storedAccessedTime = this.lastAccessedTime;
+			Map<String, Object> attributes = new LinkedHashMap<>();
+			for (String name : keys()) {
+				Object value = this.attributes.get(name);
+				if (value != null && !exclude(name, value)
+						&& isAttributeDistributable(name, value)) {
+					attributes.put(name, value);
+				}
+			}
+			long expirationTime = (this.maxInactiveInterval > 0
+					? this.thisAccessedTime + this.maxInactiveInterval * 1000L
+					: Long.MAX_VALUE);
+			return new StoredSession(this.id, this.creationTime, this.lastAccessedTime,
+					this.maxInactiveInterval, expirationTime, attributes);
+		}
+
+		void restore(StoredSession storedSession) {
+			this.id = storedSession.getId();
+			this.creationTime = storedSession.getCreationTime();
+			this.lastAccessedTime = storedSession.getLastAccessedTime();
+			this.thisAccessedTime = storedSession.getLastAccessedTime();
+			this.maxInactiveInterval = storedSession.getMaxInactiveInterval();
+			this.isNew = false;
+			this.isValid = true;
+			this.attributes.putAll(storedSession.getAttributes());
+			this.attributesModified = false;
+			this.storedAccessedTime = this.lastAccessedTime;
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.web.embedded.tomcat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Loader;
+import org.apache.catalina.Session;
+import org.apache.catalina.session.StoreBase;
+
+import org.springframework.boot.web.servlet.server.SessionDataFile;
+import org.springframework.boot.web.servlet.server.SessionDataFile.StoredSession;
+
+/**
+ * {@link org.apache.catalina.Store} backed by a {@link SessionDataFile}. Expired sessions
+ * are removed using the expiration time held in the file's index so that sessions do not
+ * need to be loaded in order to be expired.
+ *
+ * @author agent (agent@local)
+ */
+class SessionDataFileStore extends StoreBase {
+
+	private final SessionDataFile file;
+
+	SessionDataFileStore(File file) {
+		this.file = new SessionDataFile(file);
+	}
+
+	@Override
+	public String getStoreName() {
+		return "SessionDataFileStore";
+	}
+
+	@Override
+	public int getSize() throws IOException {
+		return this.file.size();
+	}
+
+	@Override
+	public String[] keys() throws IOException {
+		Set<String> ids = this.file.getIds();
+		return ids.toArray(new String[ids.size()]);
+	}
+
+	@Override
+	public String[] expiredKeys() throws IOException {
+		Set<String> ids = this.file.getExpiredIds(System.currentTimeMillis());
+		return ids.toArray(new String[ids.size()]);
+	}
+
+	@Override
+	public Session load(String id) throws ClassNotFoundException, IOException {
+		StoredSession storedSession = this.file.load(id, getClassLoader());
+		if (storedSession == null) {
+			return null;
+		}
+		return getManager().restoreSession(storedSession);
+	}
+
+	private ClassLoader getClassLoader() {
+		Context context = getManager().getContext();
+		Loader loader = (context != null ? context.getLoader() : null);
+		return (loader != null ? loader.getClassLoader() : null);
+	}
+
+	@Override
+	public void save(Session session) throws IOException {
+		this.file.write(getManager().toStoredSession(session));
+	}
+
+	@Override
+	public void remove(String id) throws IOException {
+		this.file.remove(id);
+	}
+
+	@Override
+	public void clear() throws IOException {
+		this.file.delete();
+	}
+
+	@Override
+	public void processExpires() {
+		if (!getState().isAvailable()) {
+			return;
+		}
+		try {
+			for (String id : expiredKeys()) {
+				if (!getManager().isLoaded(id)) {
+					this.file.remove(id);
+				}
+			}
+			this.file.flush();
+		}
+		catch (IOException ex) {
+			getManager().getContext().getLogger()
+					.error("Error processing expired sessions in " + this.file.getFile(), ex);
+		}
+	}
+
+	@Override
+	protected synchronized void stopInternal() throws LifecycleException {
+		super.stopInternal();
+		try {
+			this.file.compact();
+			this.file.close();
+		}
+		catch (IOException ex) {
+			throw new LifecycleException(
+					"Unable to compact session data file " + this.file.getFile(), ex);
+		}
+	}
+
+	@Override
+	public SessionDataFileManager getManager() {
+		return (SessionDataFileManager) super.getManager();
+	}
+
+}
@@ -101,6 +101,8 @@ public class TomcatServletWebServerFactory extends AbstractServletWebServerFacto
 
 	private static final Set<Class<?>> NO_CLASSES = Collections.emptySet();
 
+	private static final String PRECOMPRESSED_FORMATS = "br=.br,gzip=.gz";
+
 	/**
 	 * The class name of default protocol used.
 	 */
@@ -243,6 +245,9 @@ public class TomcatServletWebServerFactory extends AbstractServletWebServerFacto
 		defaultServlet.setServletClass("org.apache.catalina.servlets.DefaultServlet");
 		defaultServlet.addInitParameter("debug", "0");
 		defaultServlet.addInitParameter("listings", "false");
+		if (getCompression() != null && getCompression().getPrecompressed()) {
+			defaultServlet.addInitParameter("precompressed", PRECOMPRESSED_FORMATS);
+		}
 		defaultServlet.setLoadOnStartup(1);
 		// Otherwise the default location of a Spring DispatcherServlet cannot be set
 		defaultServlet.setOverridable(true);
@@ -466,10 +471,13 @@ public class TomcatServletWebServerFactory extends AbstractServletWebServerFacto
 		if (isPersistSession()) {
 			Manager manager = context.getManager();
 			if (manager == null) {
-				manager = new StandardManager();
-				context.setManager(manager);
+				File file = new File(getValidSessionStoreDir(), "SESSIONS.data");
+				context.setManager(new SessionDataFileManager(file,
+						getSessionWriteBehindInterval()));
+			}
+			else {
+				configurePersistSession(manager);
 			}
-			configurePersistSession(manager);
 		}
 		else {
 			context.addLifecycleListener(new DisablePersistSessionListener());
@@ -17,23 +17,33 @@
 package org.springframework.boot.web.embedded.undertow;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
 import io.undertow.servlet.UndertowServletLogger;
 import io.undertow.servlet.api.SessionPersistenceManager;
 
-import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.boot.web.servlet.server.SessionDataFile;
+import org.springframework.boot.web.servlet.server.SessionDataFile.StoredSession;
 
 /**
- * {@link SessionPersistenceManager} that stores session information in a file.
+ * {@link SessionPersistenceManager} that stores session information in a file. Session
+ * data is stored in a {@link SessionDataFile} and, when a write-behind interval is
+ * configured, modified sessions are also written periodically whilst the server is
+ * running.
  *
  * @author Phillip Webb
  * @author Peter Leibiger
@@ -43,88 +53,93 @@ class FileSessionPersistence implements SessionPersistenceManager {
 
 	private final File dir;
 
+	private final int writeBehindInterval;
+
+	private final Map<String, SessionDataFile> files = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService executor;
+
 	FileSessionPersistence(File dir) {
+		this(dir, 0);
+	}
+
+	FileSessionPersistence(File dir, int writeBehindInterval) {
 		this.dir = dir;
+		this.writeBehindInterval = writeBehindInterval;
+	}
+
+	/**
+	 * Return a {@link SessionListener} that writes modified sessions of the given
+	 * deployment in the background.
+	 * @param deploymentName the name of the deployment
+	 * @return the write-behind listener
+	 */
+	SessionListener getWriteBehindListener(String deploymentName) {
+		return new WriteBehindListener(deploymentName);
 	}
 
 	@Override
 	public void persistSessions(String deploymentName,
 			Map<String, PersistentSession> sessionData) {
+		stopWriteBehind();
 		try {
-			save(sessionData, getSessionFile(deploymentName));
+			List<StoredSession> sessions = new ArrayList<>(sessionData.size());
+			for (Map.Entry<String, PersistentSession> entry : sessionData.entrySet()) {
+				PersistentSession session = entry.getValue();
+				sessions.add(new StoredSession(entry.getKey(), 0, 0, 0,
+						session.getExpiration().getTime(), session.getSessionData()));
+			}
+			getSessionFile(deploymentName).replace(sessions);
 		}
 		catch (Exception ex) {
 			UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(ex);
 		}
 	}
 
-	private void save(Map<String, PersistentSession> sessionData, File file)
-			throws IOException {
-		try (ObjectOutputStream stream = new ObjectOutputStream(
-				new FileOutputStream(file))) {
-			save(sessionData, stream);
-		}
-	}
-
-	private void save(Map<String, PersistentSession> sessionData,
-			ObjectOutputStream stream) throws IOException {
-		Map<String, Serializable> session = new LinkedHashMap<>();
-		for (Map.Entry<String, PersistentSession> entry : sessionData.entrySet()) {
-			session.put(entry.getKey(),
-					new SerializablePersistentSession(entry.getValue()));
-		}
-		stream.writeObject(session);
-	}
-
 	@Override
 	public Map<String, PersistentSession> loadSessionAttributes(String deploymentName,
 			final ClassLoader classLoader) {
+		SessionDataFile file = getSessionFile(deploymentName);
 		try {
-			File file = getSessionFile(deploymentName);
-			if (file.exists()) {
+			if (file.getFile().exists()) {
 				return load(file, classLoader);
 			}
 		}
 		catch (Exception ex) {
 			UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(ex);
 		}
-		return null;
-	}
-
-	private Map<String, PersistentSession> load(File file, ClassLoader classLoader)
-			throws IOException, ClassNotFoundException {
-		try (ObjectInputStream stream = new ConfigurableObjectInputStream(
-				new FileInputStream(file), classLoader)) {
-			return load(stream);
+		finally {
+			close(file);
 		}
+		return null;
 	}
 
-	private Map<String, PersistentSession> load(ObjectInputStream stream)
-			throws ClassNotFoundException, IOException {
-		Map<String, SerializablePersistentSession> session = readSession(stream);
+	private Map<String, PersistentSession> load(SessionDataFile file,
+			ClassLoader classLoader) throws IOException {
 		long time = System.currentTimeMillis();
+		Set<String> expired = file.getExpiredIds(time);
 		Map<String, PersistentSession> result = new LinkedHashMap<>();
-		for (Map.Entry<String, SerializablePersistentSession> entry : session
-				.entrySet()) {
-			PersistentSession entrySession = entry.getValue().getPersistentSession();
-			if (entrySession.getExpiration().getTime() > time) {
-				result.put(entry.getKey(), entrySession);
+		for (String id : file.getIds()) {
+			if (!expired.contains(id)) {
+				StoredSession session = file.load(id, classLoader);
+				result.put(id, new PersistentSession(
+						new Date(session.getExpirationTime()), session.getAttributes()));
 			}
 		}
 		return result;
 	}
 
-	@SuppressWarnings("unchecked")
-	private Map<String, SerializablePersistentSession> readSession(
-			ObjectInputStream stream) throws ClassNotFoundException, IOException {
-		return ((Map<String, SerializablePersistentSession>) stream.readObject());
-	}
-
-	private File getSessionFile(String deploymentName) {
-		if (!this.dir.exists()) {
-			this.dir.mkdirs();
+	private SessionDataFile getSessionFile(String deploymentName) {
+		SessionDataFile file = this.files.get(deploymentName);
+		if (file == null) {
+			if (!this.dir.exists()) {
+				this.dir.mkdirs();
+			}
+			file = new SessionDataFile(new File(this.dir, deploymentName + ".session"));
+			SessionDataFile existing = this.files.putIfAbsent(deploymentName, file);
+			file = (existing != null ? existing : file);
 		}
-		return new File(this.dir, deploymentName + ".session");
+		return file;
 	}
 
 	@Override
@@ -132,24 +147,153 @@ class FileSessionPersistence implements SessionPersistenceManager {
 		getSessionFile(deploymentName).delete();
 	}
 
+	private void close(SessionDataFile file) {
+		try {
+			file.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+	}
+
+	private synchronized ScheduledExecutorService getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+				Thread thread = new Thread(runnable, "session-write-behind");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return this.executor;
+	}
+
+	private synchronized void stopWriteBehind() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			try {
+				this.executor.awaitTermination(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.executor = null;
+		}
+	}
+
 	/**
-	 * Session data in a serializable form.
+	 * {@link SessionListener} that tracks modified sessions so that they can be written
+	 * to the session file in the background.
 	 */
-	static class SerializablePersistentSession implements Serializable {
+	private class WriteBehindListener implements SessionListener {
+
+		private final String deploymentName;
+
+		private final Map<String, Session> modified = new ConcurrentHashMap<>();
+
+		private final Set<String> removed = ConcurrentHashMap.newKeySet();
+
+		private ScheduledFuture<?> scheduled;
+
+		WriteBehindListener(String deploymentName) {
+			this.deploymentName = deploymentName;
+		}
+
+		@Override
+		public void sessionCreated(Session session, HttpServerExchange exchange) {
+			modified(session);
+		}
+
+		@Override
+		public void sessionDestroyed(Session session, HttpServerExchange exchange,
+				SessionDestroyedReason reason) {
+			if (reason != SessionDestroyedReason.UNDEPLOY) {
+				removed(session.getId());
+			}
+		}
+
+		@Override
+		public void attributeAdded(Session session, String name, Object value) {
+			modified(session);
+		}
+
+		@Override
+		public void attributeUpdated(Session session, String name, Object newValue,
+				Object oldValue) {
+			modified(session);
+		}
+
+		@Override
+		public void attributeRemoved(Session session, String name, Object oldValue) {
+			modified(session);
+		}
+
+		@Override
+		public void sessionIdChanged(Session session, String oldSessionId) {
+			removed(oldSessionId);
+			modified(session);
+		}
 
-		private static final long serialVersionUID = 0L;
+		private void modified(Session session) {
+			this.removed.remove(session.getId());
+			this.modified.put(session.getId(), session);
+			schedule();
+		}
 
-		private final Date expiration;
+		private void removed(String id) {
+			this.modified.remove(id);
+			this.removed.add(id);
+			schedule();
+		}
 
-		private final Map<String, Object> sessionData;
+		private synchronized void schedule() {
+			if (this.scheduled == null || this.scheduled.isDone()) {
+				this.scheduled = getExecutor().schedule(this::write,
+						FileSessionPersistence.this.writeBehindInterval, TimeUnit.SECONDS);
+			}
+		}
 
-		SerializablePersistentSession(PersistentSession session) {
-			this.expiration = session.getExpiration();
-			this.sessionData = new LinkedHashMap<>(session.getSessionData());
+		private void write() {
+			synchronized (this) {
+				this.scheduled = null;
+			}
+			SessionDataFile file = getSessionFile(this.deploymentName);
+			try {
+				for (String id : this.removed) {
+					this.removed.remove(id);
+					file.remove(id);
+				}
+				for (Session session : this.modified.values()) {
+					this.modified.remove(session.getId(), session);
+					StoredSession storedSession = getStoredSession(session);
+					if (storedSession != null) {
+						file.write(storedSession);
+					}
+				}
+				file.flush();
+			}
+			catch (Exception ex) {
+				UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(ex);
+			}
 		}
 
-		public PersistentSession getPersistentSession() {
-			return new PersistentSession(this.expiration, this.sessionData);
+		private StoredSession getStoredSession(Session session) {
+			try {
+				Map<String, Object> attributes = new LinkedHashMap<>();
+				for (String name : session.getAttributeNames()) {
+					attributes.put(name, session.getAttribute(name));
+				}
+				int maxInactiveInterval = session.getMaxInactiveInterval();
+				long expirationTime = (maxInactiveInterval > 0
+						? session.getLastAccessedTime() + maxInactiveInterval * 1000L
+						: Long.MAX_VALUE);
+				return new StoredSession(session.getId(), session.getCreationTime(),
+						session.getLastAccessedTime(), maxInactiveInterval,
+						expirationTime, attributes);
+			}
+			catch (IllegalStateException ex) {
+				// Session has been invalidated
+				return null;
+			}
 		}
 
 	}
@@ -210,7 +210,10 @@ public class UndertowServletWebServer implements WebServer {
 			return httpHandler;
 		}
 		ContentEncodingRepository repository = new ContentEncodingRepository();
-		repository.addEncodingHandler("gzip", new GzipEncodingProvider(), 50,
+		GzipEncodingProvider provider = (this.compression.getLevel() >= 0
+				? new GzipEncodingProvider(this.compression.getLevel())
+				: new GzipEncodingProvider());
+		repository.addEncodingHandler("gzip", provider, 50,
 				Predicates.and(getCompressionPredicates(this.compression)));
 		return new EncodingHandler(repository).setNext(httpHandler);
 	}
@@ -405,8 +405,7 @@ public class UndertowServletWebServerFactory extends AbstractServletWebServerFac
 			configureAccessLog(deployment);
 		}
 		if (isPersistSession()) {
-			File dir = getValidSessionStoreDir();
-			deployment.setSessionPersistenceManager(new FileSessionPersistence(dir));
+			configurePersistSession(deployment);
 		}
 		addLocaleMappings(deployment);
 		DeploymentManager manager = Servlets.newContainer().addDeployment(deployment);
@@ -417,6 +416,17 @@ public class UndertowServletWebServerFactory extends AbstractServletWebServerFac
 		return manager;
 	}
 
+	private void configurePersistSession(DeploymentInfo deployment) {
+		File dir = getValidSessionStoreDir();
+		FileSessionPersistence persistence = new FileSessionPersistence(dir,
+				getSessionWriteBehindInterval());
+		deployment.setSessionPersistenceManager(persistence);
+		if (getSessionWriteBehindInterval() > 0) {
+			deployment.addSessionListener(persistence
+					.getWriteBehindListener(deployment.getDeploymentName()));
+		}
+	}
+
 	private void configureAccessLog(DeploymentInfo deploymentInfo) {
 		deploymentInfo.addInitialHandlerChainWrapper(new HandlerWrapper() {
 
@@ -46,6 +46,18 @@ public class Compression {
 	 */
 	private int minResponseSize = 2048;
 
+	/**
+	 * Compression level (0-9) used when compressing responses on the fly. Use -1 for the
+	 * server's default level. Not supported by Tomcat.
+	 */
+	private int level = -1;
+
+	/**
+	 * If precompressed '.br' and '.gz' variants of static resources should be served to
+	 * clients that accept them. Not supported by Undertow.
+	 */
+	private boolean precompressed = false;
+
 	public boolean getEnabled() {
 		return this.enabled;
 	}
@@ -70,6 +82,22 @@ public class Compression {
 		this.minResponseSize = minSize;
 	}
 
+	public int getLevel() {
+		return this.level;
+	}
+
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
+	public boolean getPrecompressed() {
+		return this.precompressed;
+	}
+
+	public void setPrecompressed(boolean precompressed) {
+		this.precompressed = precompressed;
+	}
+
 	public String[] getExcludedUserAgents() {
 		return this.excludedUserAgents;
 	}
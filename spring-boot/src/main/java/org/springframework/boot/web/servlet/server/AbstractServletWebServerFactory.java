@@ -65,6 +65,8 @@ public abstract class AbstractServletWebServerFactory
 
 	private boolean persistSession;
 
+	private int sessionWriteBehindInterval;
+
 	private boolean registerDefaultServlet = true;
 
 	private MimeMappings mimeMappings = new MimeMappings(MimeMappings.DEFAULT);
@@ -183,6 +185,20 @@ public abstract class AbstractServletWebServerFactory
 		this.sessionStoreDir.setDirectory(sessionStoreDir);
 	}
 
+	/**
+	 * Return the interval in seconds at which modified session data is written to the
+	 * session store.
+	 * @return the write-behind interval in seconds
+	 */
+	public int getSessionWriteBehindInterval() {
+		return this.sessionWriteBehindInterval;
+	}
+
+	@Override
+	public void setSessionWriteBehindInterval(int sessionWriteBehindInterval) {
+		this.sessionWriteBehindInterval = sessionWriteBehindInterval;
+	}
+
 	/**
 	 * Flag to indicate that the default servlet should be registered.
 	 * @return true if the default servlet is to be registered
@@ -85,6 +85,15 @@ public interface ConfigurableServletWebServerFactory
 	 */
 	void setSessionStoreDir(File sessionStoreDir);
 
+	/**
+	 * The interval in seconds at which modified session data is written to the session
+	 * store when sessions are persisted. If 0 or negative then session data is only
+	 * written when the web server is stopped.
+	 * @param sessionWriteBehindInterval the write-behind interval
+	 * @since 2.0.0
+	 */
+	void setSessionWriteBehindInterval(int sessionWriteBehindInterval);
+
 	/**
 	 * Set if the DefaultServlet should be registered. Defaults to {@code true} so that
 	 * files from the {@link #setDocumentRoot(File) document root} will be served.
@@ -0,0 +1,672 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.web.servlet.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.util.Assert;
+
+/**
+ * A file that stores HTTP session data as compact, length-prefixed records. Records are
+ * appended as sessions are written or removed so that data can be persisted
+ * incrementally rather than only when the server stops. An index of session ids is built
+ * by reading only the record headers, allowing individual sessions to be decoded lazily
+ * when they are first accessed. Each attribute is encoded independently: common value
+ * types are written directly and only other values fall back to Java serialization.
+ * <p>
+ * Superseded and removed records are discarded when the file is {@link #compact()
+ * compacted}.
+ *
+ * @author agent (agent@local)
+ * @since 2.0.0
+ */
+public class SessionDataFile {
+
+	private static final Log logger = LogFactory.getLog(SessionDataFile.class);
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int MAGIC = 0x53425344;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_LENGTH = 5;
+
+	private static final byte SESSION_RECORD = 1;
+
+	private static final byte REMOVED_RECORD = 2;
+
+	private final File file;
+
+	private final Map<String, Entry> index = new LinkedHashMap<>();
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+	private boolean indexed;
+
+	private long length;
+
+	private long garbage;
+
+	private DataOutputStream output;
+
+	/**
+	 * Create a new {@link SessionDataFile} instance.
+	 * @param file the file used to store the session data
+	 */
+	public SessionDataFile(File file) {
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	/**
+	 * Return the underlying file.
+	 * @return the file
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Return the ids of all sessions stored in the file.
+	 * @return the session ids
+	 * @throws IOException if the file cannot be read
+	 */
+	public synchronized Set<String> getIds() throws IOException {
+		ensureIndexed();
+		return Collections.unmodifiableSet(new LinkedHashSet<>(this.index.keySet()));
+	}
+
+	/**
+	 * Return the ids of all stored sessions that have expired at the given time. Sessions
+	 * are not decoded in order to determine if they have expired.
+	 * @param time the time in milliseconds since the epoch
+	 * @return the expired session ids
+	 * @throws IOException if the file cannot be read
+	 */
+	public synchronized Set<String> getExpiredIds(long time) throws IOException {
+		ensureIndexed();
+		Set<String> expired = new LinkedHashSet<>();
+		for (Map.Entry<String, Entry> entry : this.index.entrySet()) {
+			if (entry.getValue().getExpirationTime() <= time) {
+				expired.add(entry.getKey());
+			}
+		}
+		return expired;
+	}
+
+	/**
+	 * Return the number of sessions stored in the file.
+	 * @return the number of sessions
+	 * @throws IOException if the file cannot be read
+	 */
+	public synchronized int size() throws IOException {
+		ensureIndexed();
+		return this.index.size();
+	}
+
+	/**
+	 * Load the session with the given id. Attributes that cannot be decoded are skipped.
+	 * @param id the session id
+	 * @param classLoader the class loader used to deserialize attribute values
+	 * @return the stored session or {@code null} if there is no session with the given
+	 * id
+	 * @throws IOException if the file cannot be read
+	 */
+	public synchronized StoredSession load(String id, ClassLoader classLoader)
+			throws IOException {
+		ensureIndexed();
+		Entry entry = this.index.get(id);
+		if (entry == null) {
+			return null;
+		}
+		flush();
+		byte[] record = new byte[entry.getLength()];
+		try (RandomAccessFile input = new RandomAccessFile(this.file, "r")) {
+			input.seek(entry.getPosition());
+			input.readFully(record);
+		}
+		return decode(new DataInputStream(new ByteArrayInputStream(record)),
+				classLoader);
+	}
+
+	/**
+	 * Write the given session, replacing any previously stored data for the same id.
+	 * Data is appended to the file and may be buffered until {@link #flush()} is
+	 * called.
+	 * @param session the session to write
+	 * @throws IOException if the session cannot be written
+	 */
+	public synchronized void write(StoredSession session) throws IOException {
+		Assert.notNull(session, "Session must not be null");
+		ensureIndexed();
+		byte[] record = encode(session);
+		long position = append(record);
+		addGarbage(this.index.put(session.getId(),
+				new Entry(position, record.length, session.getExpirationTime())));
+	}
+
+	/**
+	 * Remove the session with the given id.
+	 * @param id the session id
+	 * @throws IOException if the removal cannot be recorded
+	 */
+	public synchronized void remove(String id) throws IOException {
+		ensureIndexed();
+		if (this.index.containsKey(id)) {
+			this.buffer.reset();
+			DataOutputStream data = new DataOutputStream(this.buffer);
+			data.writeByte(REMOVED_RECORD);
+			data.writeUTF(id);
+			byte[] record = this.buffer.toByteArray();
+			long position = append(record);
+			addGarbage(this.index.remove(id));
+			addGarbage(new Entry(position, record.length, 0));
+		}
+	}
+
+	/**
+	 * Replace the entire contents of the file with the given sessions.
+	 * @param sessions the sessions to write
+	 * @throws IOException if the sessions cannot be written
+	 */
+	public synchronized void replace(Collection<StoredSession> sessions)
+			throws IOException {
+		close();
+		File temp = getTempFile();
+		try (DataOutputStream stream = openOutput(temp, false)) {
+			writeHeader(stream);
+			for (StoredSession session : sessions) {
+				byte[] record = encode(session);
+				stream.writeInt(record.length);
+				stream.write(record);
+			}
+		}
+		moveToFile(temp);
+	}
+
+	/**
+	 * Rewrite the file so that it only contains the latest record for each stored
+	 * session.
+	 * @throws IOException if the file cannot be compacted
+	 */
+	public synchronized void compact() throws IOException {
+		ensureIndexed();
+		flush();
+		if (this.garbage == 0) {
+			return;
+		}
+		File temp = getTempFile();
+		try (DataOutputStream stream = openOutput(temp, false);
+				RandomAccessFile input = new RandomAccessFile(this.file, "r")) {
+			writeHeader(stream);
+			for (Entry entry : this.index.values()) {
+				byte[] record = new byte[entry.getLength()];
+				input.seek(entry.getPosition());
+				input.readFully(record);
+				stream.writeInt(record.length);
+				stream.write(record);
+			}
+		}
+		close();
+		moveToFile(temp);
+	}
+
+	/**
+	 * Flush any buffered writes to the file.
+	 * @throws IOException if the data cannot be flushed
+	 */
+	public synchronized void flush() throws IOException {
+		if (this.output != null) {
+			this.output.flush();
+		}
+	}
+
+	/**
+	 * Flush and close the file. The file will be reopened if it is used again.
+	 * @throws IOException if the file cannot be closed
+	 */
+	public synchronized void close() throws IOException {
+		try {
+			if (this.output != null) {
+				this.output.close();
+			}
+		}
+		finally {
+			this.output = null;
+			this.index.clear();
+			this.indexed = false;
+		}
+	}
+
+	/**
+	 * Close and delete the file.
+	 */
+	public synchronized void delete() {
+		try {
+			close();
+		}
+		catch (IOException ex) {
+			logger.debug("Unable to close session data file " + this.file, ex);
+		}
+		this.file.delete();
+	}
+
+	private long append(byte[] record) throws IOException {
+		DataOutputStream output = getOutput();
+		output.writeInt(record.length);
+		output.write(record);
+		long position = this.length + 4;
+		this.length = position + record.length;
+		return position;
+	}
+
+	private void addGarbage(Entry entry) {
+		if (entry != null) {
+			this.garbage += entry.getLength() + 4;
+		}
+	}
+
+	private DataOutputStream getOutput() throws IOException {
+		if (this.output == null) {
+			boolean exists = this.file.length() > 0;
+			if (exists && this.file.length() > this.length) {
+				truncate();
+			}
+			this.output = openOutput(this.file, exists);
+			if (!exists) {
+				writeHeader(this.output);
+				this.length = HEADER_LENGTH;
+			}
+		}
+		return this.output;
+	}
+
+	private void truncate() throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file,
+				"rw")) {
+			randomAccessFile.setLength(this.length);
+		}
+	}
+
+	private DataOutputStream openOutput(File file, boolean append) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		return new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file, append)));
+	}
+
+	private void writeHeader(DataOutputStream stream) throws IOException {
+		stream.writeInt(MAGIC);
+		stream.writeByte(VERSION);
+	}
+
+	private File getTempFile() {
+		return new File(this.file.getAbsoluteFile().getParentFile(),
+				this.file.getName() + ".tmp");
+	}
+
+	private void moveToFile(File temp) throws IOException {
+		if (this.file.exists() && !this.file.delete()) {
+			throw new IOException("Unable to replace session data file " + this.file);
+		}
+		if (!temp.renameTo(this.file)) {
+			throw new IOException("Unable to rename " + temp + " to " + this.file);
+		}
+	}
+
+	private void ensureIndexed() throws IOException {
+		if (this.indexed) {
+			return;
+		}
+		this.index.clear();
+		this.length = 0;
+		this.garbage = 0;
+		if (this.file.length() > 0) {
+			readIndex();
+		}
+		this.indexed = true;
+	}
+
+	private void readIndex() throws IOException {
+		long fileLength = this.file.length();
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(this.file)))) {
+			if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+				throw new IOException(
+						"Unsupported session data file format in " + this.file);
+			}
+			long position = HEADER_LENGTH;
+			byte[] record = new byte[1024];
+			while (position + 4 <= fileLength) {
+				int length = input.readInt();
+				if (length < 0 || position + 4 + length > fileLength) {
+					break;
+				}
+				if (length > record.length) {
+					record = new byte[length];
+				}
+				input.readFully(record, 0, length);
+				position += 4;
+				DataInputStream data = new DataInputStream(
+						new ByteArrayInputStream(record, 0, length));
+				byte type = data.readByte();
+				String id = data.readUTF();
+				if (type == SESSION_RECORD) {
+					data.skipBytes(20);
+					long expirationTime = data.readLong();
+					addGarbage(this.index.put(id,
+							new Entry(position, length, expirationTime)));
+				}
+				else {
+					addGarbage(this.index.remove(id));
+					addGarbage(new Entry(position, length, 0));
+				}
+				position += length;
+			}
+			if (position != fileLength) {
+				logger.debug("Ignoring truncated record in session data file "
+						+ this.file);
+				this.garbage += fileLength - position;
+			}
+			this.length = position;
+		}
+		catch (EOFException ex) {
+			throw new IOException("Unexpected end of session data file " + this.file,
+					ex);
+		}
+	}
+
+	private byte[] encode(StoredSession session) throws IOException {
+		this.buffer.reset();
+		DataOutputStream data = new DataOutputStream(this.buffer);
+		data.writeByte(SESSION_RECORD);
+		data.writeUTF(session.getId());
+		data.writeLong(session.getCreationTime());
+		data.writeLong(session.getLastAccessedTime());
+		data.writeInt(session.getMaxInactiveInterval());
+		data.writeLong(session.getExpirationTime());
+		Map<String, byte[]> attributes = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> attribute : session.getAttributes().entrySet()) {
+			byte[] value = AttributeType.encode(attribute.getValue());
+			if (value != null) {
+				attributes.put(attribute.getKey(), value);
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("Skipping non-serializable session attribute '"
+						+ attribute.getKey() + "'");
+			}
+		}
+		data.writeInt(attributes.size());
+		for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+			data.writeUTF(attribute.getKey());
+			data.write(attribute.getValue());
+		}
+		data.flush();
+		return this.buffer.toByteArray();
+	}
+
+	private StoredSession decode(DataInputStream data, ClassLoader classLoader)
+			throws IOException {
+		data.readByte();
+		String id = data.readUTF();
+		long creationTime = data.readLong();
+		long lastAccessedTime = data.readLong();
+		int maxInactiveInterval = data.readInt();
+		long expirationTime = data.readLong();
+		int count = data.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count * 2);
+		for (int i = 0; i < count; i++) {
+			String name = data.readUTF();
+			byte type = data.readByte();
+			byte[] value = new byte[data.readInt()];
+			data.readFully(value);
+			try {
+				attributes.put(name, AttributeType.decode(type, value, classLoader));
+			}
+			catch (Exception ex) {
+				logger.warn("Unable to restore attribute '" + name + "' of session "
+						+ id, ex);
+			}
+		}
+		return new StoredSession(id, creationTime, lastAccessedTime,
+				maxInactiveInterval, expirationTime, attributes);
+	}
+
+	/**
+	 * The data of a single stored session.
+	 */
+	public static final class StoredSession {
+
+		private final String id;
+
+		private final long creationTime;
+
+		private final long lastAccessedTime;
+
+		private final int maxInactiveInterval;
+
+		private final long expirationTime;
+
+		private final Map<String, Object> attributes;
+
+		/**
+		 * Create a new {@link StoredSession} instance.
+		 * @param id the session id
+		 * @param creationTime the creation time in milliseconds since the epoch or
+		 * {@code 0} if not known
+		 * @param lastAccessedTime the last accessed time in milliseconds since the epoch
+		 * or {@code 0} if not known
+		 * @param maxInactiveInterval the max inactive interval in seconds
+		 * @param expirationTime the expiration time in milliseconds since the epoch or
+		 * {@link Long#MAX_VALUE} if the session never expires
+		 * @param attributes the session attributes
+		 */
+		public StoredSession(String id, long creationTime, long lastAccessedTime,
+				int maxInactiveInterval, long expirationTime,
+				Map<String, Object> attributes) {
+			Assert.hasLength(id, "Id must not be empty");
+			Assert.isTrue(expirationTime >= 0, "ExpirationTime must not be negative");
+			this.id = id;
+			this.creationTime = creationTime;
+			this.lastAccessedTime = lastAccessedTime;
+			this.maxInactiveInterval = maxInactiveInterval;
+			this.expirationTime = expirationTime;
+			this.attributes = (attributes != null
+					? Collections.unmodifiableMap(attributes)
+					: Collections.<String, Object>emptyMap());
+		}
+
+		public String getId() {
+			return this.id;
+		}
+
+		public long getCreationTime() {
+			return this.creationTime;
+		}
+
+		public long getLastAccessedTime() {
+			return this.lastAccessedTime;
+		}
+
+		public int getMaxInactiveInterval() {
+			return this.maxInactiveInterval;
+		}
+
+		public long getExpirationTime() {
+			return this.expirationTime;
+		}
+
+		public Map<String, Object> getAttributes() {
+			return this.attributes;
+		}
+
+	}
+
+	/**
+	 * Index entry for a stored session.
+	 */
+	private static final class Entry {
+
+		private final long position;
+
+		private final int length;
+
+		private final long expirationTime;
+
+		Entry(long position, int length, long expirationTime) {
+			this.position = position;
+			this.length = length;
+			this.expirationTime = expirationTime;
+		}
+
+		long getPosition() {
+			return this.position;
+		}
+
+		int getLength() {
+			return this.length;
+		}
+
+		long getExpirationTime() {
+			return this.expirationTime;
+		}
+
+	}
+
+	/**
+	 * The types used to encode attribute values. Each value is written as a type byte
+	 * followed by a length-prefixed payload.
+	 */
+	private enum AttributeType {
+
+		STRING, INTEGER, LONG, BOOLEAN, BYTES, SERIALIZED;
+
+		static byte[] encode(Object value) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream data = new DataOutputStream(bytes);
+			AttributeType type = forValue(value);
+			if (type == null) {
+				return null;
+			}
+			data.writeByte(type.ordinal());
+			data.writeInt(0);
+			switch (type) {
+			case STRING:
+				data.write(((String) value).getBytes(UTF_8));
+				break;
+			case INTEGER:
+				data.writeInt((Integer) value);
+				break;
+			case LONG:
+				data.writeLong((Long) value);
+				break;
+			case BOOLEAN:
+				data.writeBoolean((Boolean) value);
+				break;
+			case BYTES:
+				data.write((byte[]) value);
+				break;
+			default:
+				ObjectOutputStream objects = new ObjectOutputStream(data);
+				objects.writeObject(value);
+				objects.flush();
+			}
+			data.flush();
+			byte[] result = bytes.toByteArray();
+			int length = result.length - 5;
+			result[1] = (byte) (length >>> 24);
+			result[2] = (byte) (length >>> 16);
+			result[3] = (byte) (length >>> 8);
+			result[4] = (byte) length;
+			return result;
+		}
+
+		private static AttributeType forValue(Object value) {
+			if (value instanceof String) {
+				return STRING;
+			}
+			if (value instanceof Integer) {
+				return INTEGER;
+			}
+			if (value instanceof Long) {
+				return LONG;
+			}
+			if (value instanceof Boolean) {
+				return BOOLEAN;
+			}
+			if (value instanceof byte[]) {
+				return BYTES;
+			}
+			if (value instanceof Serializable) {
+				return SERIALIZED;
+			}
+			return null;
+		}
+
+		static Object decode(byte type, byte[] value, ClassLoader classLoader)
+				throws Exception {
+			DataInputStream data = new DataInputStream(new ByteArrayInputStream(value));
+			switch (values()[type]) {
+			case STRING:
+				return new String(value, UTF_8);
+			case INTEGER:
+				return data.readInt();
+			case LONG:
+				return data.readLong();
+			case BOOLEAN:
+				return data.readBoolean();
+			case BYTES:
+				return value;
+			default:
+				try (ObjectInputStream objects = new ConfigurableObjectInputStream(data,
+						classLoader)) {
+					return objects.readObject();
+				}
+			}
+		}
+
+	}
+
+}
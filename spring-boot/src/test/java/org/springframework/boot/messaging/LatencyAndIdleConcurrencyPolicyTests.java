@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LatencyAndIdleConcurrencyPolicy}.
+ *
+ * @author agent (agent@local)
+ */
+public class LatencyAndIdleConcurrencyPolicyTests {
+
+	private final LatencyAndIdleConcurrencyPolicy policy = new LatencyAndIdleConcurrencyPolicy();
+
+	@Test
+	public void busyConsumersAddConsumer() {
+		// 2 consumers, 180 messages of 50ms in 5s: 90% busy
+		assertThat(this.policy.getConsumers(load(2, 180, 50, 0, -1))).isEqualTo(3);
+	}
+
+	@Test
+	public void moderatelyBusyConsumersKeepConsumers() {
+		// 2 consumers, 100 messages of 50ms in 5s: 50% busy
+		assertThat(this.policy.getConsumers(load(2, 100, 50, 0, -1))).isEqualTo(2);
+	}
+
+	@Test
+	public void quietConsumersRemoveConsumer() {
+		// 2 consumers, 20 messages of 50ms in 5s: 10% busy
+		assertThat(this.policy.getConsumers(load(2, 20, 50, 0, -1))).isEqualTo(1);
+	}
+
+	@Test
+	public void shortPauseKeepsConsumers() {
+		assertThat(this.policy.getConsumers(load(2, 0, 0, 5000, -1))).isEqualTo(2);
+	}
+
+	@Test
+	public void idleTimeoutRemovesConsumer() {
+		this.policy.setIdleTimeout(10000);
+		assertThat(this.policy.getConsumers(load(2, 0, 0, 10000, -1))).isEqualTo(1);
+	}
+
+	@Test
+	public void queueDepthIsIgnoredByDefault() {
+		assertThat(this.policy.getConsumers(load(2, 100, 50, 0, 1000))).isEqualTo(2);
+	}
+
+	@Test
+	public void deepQueueAddsConsumer() {
+		this.policy.setQueueDepthPerConsumer(100);
+		assertThat(this.policy.getConsumers(load(2, 100, 50, 0, 201))).isEqualTo(3);
+		assertThat(this.policy.getConsumers(load(2, 100, 50, 0, 200))).isEqualTo(2);
+	}
+
+	@Test
+	public void waitingMessagesPreventRemoval() {
+		assertThat(this.policy.getConsumers(load(2, 20, 50, 0, 5))).isEqualTo(2);
+	}
+
+	@Test
+	public void customUtilizationThresholds() {
+		this.policy.setScaleUpUtilization(0.5);
+		this.policy.setScaleDownUtilization(0.05);
+		assertThat(this.policy.getConsumers(load(2, 100, 50, 0, -1))).isEqualTo(3);
+		assertThat(this.policy.getConsumers(load(2, 20, 50, 0, -1))).isEqualTo(2);
+	}
+
+	private ListenerLoad load(int consumers, long messageCount, double averageLatency,
+			long idleTime, long queueDepth) {
+		return new ListenerLoad(consumers, 1, 10, 5000, messageCount, averageLatency,
+				idleTime, queueDepth);
+	}
+
+}
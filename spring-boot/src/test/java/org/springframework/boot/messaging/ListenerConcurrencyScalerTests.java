@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.messaging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ListenerConcurrencyScaler}.
+ *
+ * @author agent (agent@local)
+ */
+public class ListenerConcurrencyScalerTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final TestTarget target = new TestTarget();
+
+	private final AtomicInteger desiredConsumers = new AtomicInteger(1);
+
+	private final List<ListenerLoad> loads = new ArrayList<>();
+
+	private final ListenerConcurrencyScaler scaler = new ListenerConcurrencyScaler(
+			"test", this.target, (load) -> {
+				this.loads.add(load);
+				return this.desiredConsumers.get();
+			}, 1, 4, this.clock::get);
+
+	@Test
+	public void evaluateMeasuresLoad() {
+		this.clock.set(1000);
+		this.scaler.recordMessage(TimeUnit.MILLISECONDS.toNanos(10));
+		this.scaler.recordMessage(TimeUnit.MILLISECONDS.toNanos(30));
+		this.clock.set(5000);
+		this.target.queueDepth = 7;
+		this.scaler.evaluate();
+		ListenerLoad load = this.loads.get(0);
+		assertThat(load.getConsumers()).isEqualTo(1);
+		assertThat(load.getMinConsumers()).isEqualTo(1);
+		assertThat(load.getMaxConsumers()).isEqualTo(4);
+		assertThat(load.getInterval()).isEqualTo(5000);
+		assertThat(load.getMessageCount()).isEqualTo(2);
+		assertThat(load.getAverageLatency()).isEqualTo(20);
+		assertThat(load.getIdleTime()).isEqualTo(4000);
+		assertThat(load.getQueueDepth()).isEqualTo(7);
+		assertThat(this.scaler.getLastLoad()).isSameAs(load);
+	}
+
+	@Test
+	public void evaluateResetsMeasurements() {
+		this.scaler.recordMessage(TimeUnit.MILLISECONDS.toNanos(10));
+		this.clock.set(5000);
+		this.scaler.evaluate();
+		this.clock.set(10000);
+		this.scaler.evaluate();
+		ListenerLoad load = this.loads.get(1);
+		assertThat(load.getInterval()).isEqualTo(5000);
+		assertThat(load.getMessageCount()).isEqualTo(0);
+		assertThat(load.getAverageLatency()).isEqualTo(0);
+		assertThat(load.getIdleTime()).isEqualTo(10000);
+	}
+
+	@Test
+	public void scaleUpAndDown() {
+		this.scaler.setScaleUpCooldown(0);
+		this.scaler.setScaleDownCooldown(0);
+		this.desiredConsumers.set(3);
+		assertThat(this.scaler.evaluate()).isEqualTo(3);
+		this.desiredConsumers.set(2);
+		assertThat(this.scaler.evaluate()).isEqualTo(2);
+		assertThat(this.target.changes).containsExactly(3, 2);
+		assertThat(this.scaler.getScaleUpCount()).isEqualTo(1);
+		assertThat(this.scaler.getScaleDownCount()).isEqualTo(1);
+		assertThat(this.loads.get(1).getConsumers()).isEqualTo(3);
+	}
+
+	@Test
+	public void consumersAreKeptWithinBounds() {
+		this.scaler.setScaleUpCooldown(0);
+		this.scaler.setScaleDownCooldown(0);
+		this.desiredConsumers.set(10);
+		assertThat(this.scaler.evaluate()).isEqualTo(4);
+		this.desiredConsumers.set(0);
+		assertThat(this.scaler.evaluate()).isEqualTo(1);
+		assertThat(this.target.changes).containsExactly(4, 1);
+	}
+
+	@Test
+	public void scaleUpWithinCooldownIsIgnored() {
+		this.scaler.setScaleUpCooldown(10000);
+		this.desiredConsumers.set(2);
+		this.clock.set(5000);
+		assertThat(this.scaler.evaluate()).isEqualTo(1);
+		this.clock.set(10000);
+		assertThat(this.scaler.evaluate()).isEqualTo(2);
+		this.desiredConsumers.set(3);
+		this.clock.set(15000);
+		assertThat(this.scaler.evaluate()).isEqualTo(2);
+		assertThat(this.target.changes).containsExactly(2);
+		assertThat(this.scaler.getScaleUpCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void scaleDownWithinCooldownIsIgnored() {
+		this.scaler.setScaleUpCooldown(0);
+		this.scaler.setScaleDownCooldown(60000);
+		this.desiredConsumers.set(3);
+		this.scaler.evaluate();
+		this.desiredConsumers.set(1);
+		this.clock.set(30000);
+		assertThat(this.scaler.evaluate()).isEqualTo(3);
+		this.clock.set(60000);
+		assertThat(this.scaler.evaluate()).isEqualTo(1);
+		assertThat(this.target.changes).containsExactly(3, 1);
+	}
+
+	@Test
+	public void stoppedContainerIsNotScaled() {
+		this.scaler.setScaleUpCooldown(0);
+		this.target.running = false;
+		this.desiredConsumers.set(3);
+		assertThat(this.scaler.evaluate()).isEqualTo(1);
+		assertThat(this.target.changes).isEmpty();
+		assertThat(this.scaler.getLastLoad()).isNotNull();
+	}
+
+	static class TestTarget implements ListenerConcurrencyScaler.Target {
+
+		private final List<Integer> changes = new ArrayList<>();
+
+		private boolean running = true;
+
+		private long queueDepth = -1;
+
+		@Override
+		public boolean isRunning() {
+			return this.running;
+		}
+
+		@Override
+		public void setConsumers(int consumers) {
+			this.changes.add(consumers);
+		}
+
+		@Override
+		public long getQueueDepth() {
+			return this.queueDepth;
+		}
+
+	}
+
+}
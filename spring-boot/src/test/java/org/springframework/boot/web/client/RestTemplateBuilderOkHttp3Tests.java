@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.web.client;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.boot.testsupport.runner.classpath.ClassPathExclusions;
+import org.springframework.boot.testsupport.runner.classpath.ModifiedClassPathRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RestTemplateBuilder} when OkHttp 3 is the detected client.
+ *
+ * @author agent (agent@local)
+ */
+@RunWith(ModifiedClassPathRunner.class)
+@ClassPathExclusions("httpclient-*.jar")
+public class RestTemplateBuilderOkHttp3Tests {
+
+	@Test
+	public void connectionPoolCanBeConfiguredOnDetectedOkHttp3RequestFactory() {
+		ClientHttpRequestFactory requestFactory = new RestTemplateBuilder()
+				.setMaxConnections(200).setIdleConnectionTimeout(10000)
+				.setReadTimeout(1234).build().getRequestFactory();
+		assertThat(requestFactory).isInstanceOf(OkHttp3ClientHttpRequestFactory.class);
+		OkHttpClient client = (OkHttpClient) ReflectionTestUtils.getField(requestFactory,
+				"client");
+		assertThat(ReflectionTestUtils.getField(client.connectionPool(),
+				"keepAliveDurationNs")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(client.readTimeoutMillis()).isEqualTo(1234);
+	}
+
+	@Test
+	public void eachRestTemplateHasItsOwnConnectionPool() {
+		RestTemplateBuilder builder = new RestTemplateBuilder()
+				.setIdleConnectionTimeout(10000);
+		OkHttpClient first = (OkHttpClient) ReflectionTestUtils
+				.getField(builder.build().getRequestFactory(), "client");
+		OkHttpClient second = (OkHttpClient) ReflectionTestUtils
+				.getField(builder.build().getRequestFactory(), "client");
+		assertThat(first.connectionPool()).isNotSameAs(second.connectionPool());
+	}
+
+}
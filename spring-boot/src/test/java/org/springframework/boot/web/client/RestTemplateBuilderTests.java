@@ -18,8 +18,12 @@ package org.springframework.boot.web.client;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -502,6 +506,69 @@ public class RestTemplateBuilderTests {
 				.isEqualTo(1234);
 	}
 
+	@Test
+	public void connectionPoolCanBeConfiguredOnDetectedHttpComponentsRequestFactory()
+			throws Exception {
+		HttpComponentsClientHttpRequestFactory requestFactory = (HttpComponentsClientHttpRequestFactory) this.builder
+				.setMaxConnections(200).setMaxConnectionsPerRoute(50)
+				.setConnectionTimeToLive(30000).setIdleConnectionTimeout(10000)
+				.setConnectTimeout(1234).build().getRequestFactory();
+		PoolingHttpClientConnectionManager connectionManager = getConnectionManager(
+				requestFactory);
+		assertThat(connectionManager.getMaxTotal()).isEqualTo(200);
+		assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(50);
+		assertThat(((RequestConfig) ReflectionTestUtils.getField(requestFactory,
+				"requestConfig")).getConnectTimeout()).isEqualTo(1234);
+	}
+
+	@Test
+	public void restTemplatesWithSameConnectionPoolSettingsShareClient()
+			throws Exception {
+		RestTemplateBuilder builder = this.builder.setMaxConnections(200);
+		HttpComponentsClientHttpRequestFactory first = (HttpComponentsClientHttpRequestFactory) builder
+				.build().getRequestFactory();
+		HttpComponentsClientHttpRequestFactory second = (HttpComponentsClientHttpRequestFactory) builder
+				.setConnectTimeout(1234).build().getRequestFactory();
+		assertThat(first).isNotSameAs(second);
+		assertThat(first.getHttpClient()).isSameAs(second.getHttpClient());
+		first.destroy();
+		assertThat(((AtomicBoolean) ReflectionTestUtils.getField(
+				getConnectionManager(second), "isShutDown")).get()).isFalse();
+	}
+
+	@Test
+	public void restTemplatesWithDifferentConnectionPoolSettingsHaveDifferentClients() {
+		RestTemplateBuilder builder = this.builder.setMaxConnections(200);
+		HttpComponentsClientHttpRequestFactory first = (HttpComponentsClientHttpRequestFactory) builder
+				.build().getRequestFactory();
+		HttpComponentsClientHttpRequestFactory second = (HttpComponentsClientHttpRequestFactory) builder
+				.setMaxConnectionsPerRoute(50).build().getRequestFactory();
+		assertThat(first.getHttpClient()).isNotSameAs(second.getHttpClient());
+		assertThat(getConnectionManager(second).getMaxTotal()).isEqualTo(200);
+	}
+
+	@Test
+	public void connectionPoolIsNotAppliedToRequestFactoryThatIsSetExplicitly() {
+		HttpClient httpClient = HttpClients.createDefault();
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+				httpClient);
+		this.builder.requestFactory(requestFactory).setMaxConnections(200).build();
+		assertThat(requestFactory.getHttpClient()).isSameAs(httpClient);
+	}
+
+	@Test
+	public void connectionPoolIsIgnoredBySimpleRequestFactory() {
+		ClientHttpRequestFactory requestFactory = this.builder.detectRequestFactory(false)
+				.setMaxConnections(200).build().getRequestFactory();
+		assertThat(requestFactory).isInstanceOf(SimpleClientHttpRequestFactory.class);
+	}
+
+	private PoolingHttpClientConnectionManager getConnectionManager(
+			HttpComponentsClientHttpRequestFactory requestFactory) {
+		return (PoolingHttpClientConnectionManager) ReflectionTestUtils
+				.getField(requestFactory.getHttpClient(), "connManager");
+	}
+
 	@Test
 	public void unwrappingDoesNotAffectRequestFactoryThatIsSetOnTheBuiltTemplate() {
 		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
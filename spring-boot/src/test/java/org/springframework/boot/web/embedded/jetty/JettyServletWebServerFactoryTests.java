@@ -35,6 +35,7 @@ import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.server.handler.HandlerCollection;
 import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.ThreadPool;
@@ -247,6 +248,31 @@ public class JettyServletWebServerFactoryTests
 		assertThat(getResponse(getLocalUrl("/hello"))).isEqualTo("Hello World");
 	}
 
+	@Test
+	public void compressionLevel() throws Exception {
+		JettyServletWebServerFactory factory = getFactory();
+		Compression compression = new Compression();
+		compression.setEnabled(true);
+		compression.setLevel(1);
+		factory.setCompression(compression);
+		this.webServer = factory.getWebServer();
+		GzipHandler handler = ((JettyWebServer) this.webServer).getServer()
+				.getChildHandlerByClass(GzipHandler.class);
+		assertThat(handler.getCompressionLevel()).isEqualTo(1);
+	}
+
+	@Test
+	public void precompressedResource() throws Exception {
+		JettyServletWebServerFactory factory = getFactory();
+		Compression compression = new Compression();
+		compression.setPrecompressed(true);
+		factory.setCompression(compression);
+		addPrecompressedTestTxtFile(factory);
+		this.webServer = factory.getWebServer();
+		this.webServer.start();
+		assertThat(getResponse(getLocalUrl("/test.txt"))).isEqualTo("precompressed");
+	}
+
 	@Test
 	public void basicSslClasspathKeyStore() throws Exception {
 		testBasicSslWithKeyStore("classpath:test.jks");
@@ -34,6 +34,7 @@ import org.apache.catalina.LifecycleEvent;
 import org.apache.catalina.LifecycleListener;
 import org.apache.catalina.LifecycleState;
 import org.apache.catalina.Service;
+import org.apache.catalina.Session;
 import org.apache.catalina.SessionIdGenerator;
 import org.apache.catalina.Valve;
 import org.apache.catalina.connector.Connector;
@@ -49,6 +50,7 @@ import org.junit.Test;
 import org.mockito.InOrder;
 
 import org.springframework.boot.testsupport.rule.OutputCapture;
+import org.springframework.boot.web.server.Compression;
 import org.springframework.boot.web.server.Ssl;
 import org.springframework.boot.web.server.WebServerException;
 import org.springframework.boot.web.servlet.server.AbstractServletWebServerFactory;
@@ -424,6 +426,55 @@ public class TomcatServletWebServerFactoryTests
 		assertThat(getCharset(Locale.FRENCH).toString()).isEqualTo("UTF-8");
 	}
 
+	@Test
+	public void persistSessionWithWriteBehindInterval() throws Exception {
+		TomcatServletWebServerFactory factory = getFactory();
+		factory.setPersistSession(true);
+		factory.setSessionStoreDir(this.temporaryFolder.newFolder());
+		factory.setSessionWriteBehindInterval(30);
+		this.webServer = factory.getWebServer();
+		this.webServer.start();
+		Tomcat tomcat = ((TomcatWebServer) this.webServer).getTomcat();
+		Context context = (Context) tomcat.getHost().findChildren()[0];
+		assertThat(context.getManager()).isInstanceOf(SessionDataFileManager.class);
+		SessionDataFileManager manager = (SessionDataFileManager) context.getManager();
+		assertThat(manager.getStore()).isInstanceOf(SessionDataFileStore.class);
+		assertThat(manager.getWriteBehindInterval()).isEqualTo(30);
+	}
+
+	@Test
+	public void persistSessionWithWriteBehindIntervalWritesActiveSessions()
+			throws Exception {
+		TomcatServletWebServerFactory factory = getFactory();
+		factory.setPersistSession(true);
+		factory.setSessionStoreDir(this.temporaryFolder.newFolder());
+		factory.setSessionWriteBehindInterval(30);
+		this.webServer = factory.getWebServer();
+		this.webServer.start();
+		Tomcat tomcat = ((TomcatWebServer) this.webServer).getTomcat();
+		Context context = (Context) tomcat.getHost().findChildren()[0];
+		SessionDataFileManager manager = (SessionDataFileManager) context.getManager();
+		Session session = manager.createSession(null);
+		session.access();
+		session.getSession().setAttribute("test", "value");
+		manager.processPersistenceChecks();
+		session.endAccess();
+		Session stored = manager.getStore().load(session.getId());
+		assertThat(stored.getSession().getAttribute("test")).isEqualTo("value");
+	}
+
+	@Test
+	public void precompressedResource() throws Exception {
+		TomcatServletWebServerFactory factory = getFactory();
+		Compression compression = new Compression();
+		compression.setPrecompressed(true);
+		factory.setCompression(compression);
+		addPrecompressedTestTxtFile(factory);
+		this.webServer = factory.getWebServer();
+		this.webServer.start();
+		assertThat(getResponse(getLocalUrl("/test.txt"))).isEqualTo("precompressed");
+	}
+
 	@Test
 	public void sessionIdGeneratorIsConfiguredWithAttributesFromTheManager() {
 		System.setProperty("jvmRoute", "test");
@@ -18,10 +18,14 @@ package org.springframework.boot.web.embedded.undertow;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import io.undertow.server.session.SessionListener.SessionDestroyedReason;
 import io.undertow.servlet.api.SessionPersistenceManager.PersistentSession;
 import org.junit.Before;
 import org.junit.Rule;
@@ -29,6 +33,8 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 /**
  * Tests for {@link FileSessionPersistence}.
@@ -101,4 +107,54 @@ public class FileSessionPersistenceTests {
 		assertThat(sessionFile.exists()).isFalse();
 	}
 
+	@Test
+	public void persistSkipsNonSerializableAttributes() throws Exception {
+		Map<String, PersistentSession> sessionData = new LinkedHashMap<>();
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("spring", "boot");
+		data.put("object", new Object());
+		sessionData.put("abc", new PersistentSession(this.expiration, data));
+		this.persistence.persistSessions("test", sessionData);
+		Map<String, PersistentSession> restored = this.persistence
+				.loadSessionAttributes("test", this.classLoader);
+		assertThat(restored.get("abc").getSessionData()).containsOnlyKeys("spring");
+	}
+
+	@Test
+	public void writeBehindListenerWritesModifiedSessions() throws Exception {
+		FileSessionPersistence persistence = new FileSessionPersistence(this.dir, 1);
+		SessionListener listener = persistence.getWriteBehindListener("test");
+		Session session = mockSession("abc");
+		listener.attributeAdded(session, "spring", "boot");
+		Map<String, PersistentSession> restored = awaitSessions(persistence, 1);
+		assertThat(restored.get("abc").getSessionData().get("spring")).isEqualTo("boot");
+		listener.sessionDestroyed(session, null, SessionDestroyedReason.INVALIDATED);
+		assertThat(awaitSessions(persistence, 0)).isEmpty();
+	}
+
+	private Session mockSession(String id) {
+		Session session = mock(Session.class);
+		given(session.getId()).willReturn(id);
+		given(session.getAttributeNames())
+				.willReturn(Collections.singleton("spring"));
+		given(session.getAttribute("spring")).willReturn("boot");
+		given(session.getLastAccessedTime()).willReturn(System.currentTimeMillis());
+		given(session.getMaxInactiveInterval()).willReturn(60);
+		return session;
+	}
+
+	private Map<String, PersistentSession> awaitSessions(
+			FileSessionPersistence persistence, int count) throws Exception {
+		long end = System.currentTimeMillis() + 10000;
+		Map<String, PersistentSession> sessions = null;
+		while (System.currentTimeMillis() < end) {
+			sessions = persistence.loadSessionAttributes("test", this.classLoader);
+			if (sessions != null && sessions.size() == count) {
+				return sessions;
+			}
+			Thread.sleep(100);
+		}
+		return sessions;
+	}
+
 }
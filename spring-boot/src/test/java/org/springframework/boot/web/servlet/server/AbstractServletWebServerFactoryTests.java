@@ -18,6 +18,7 @@ package org.springframework.boot.web.servlet.server;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
@@ -47,6 +48,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLException;
@@ -1042,6 +1044,19 @@ public abstract class AbstractServletWebServerFactoryTests {
 		factory.setDocumentRoot(this.temporaryFolder.getRoot());
 	}
 
+	protected void addPrecompressedTestTxtFile(AbstractServletWebServerFactory factory)
+			throws IOException {
+		char[] chars = new char[1000];
+		Arrays.fill(chars, 'F');
+		FileCopyUtils.copy(new String(chars),
+				new FileWriter(this.temporaryFolder.newFile("test.txt")));
+		factory.setDocumentRoot(this.temporaryFolder.getRoot());
+		try (GZIPOutputStream outputStream = new GZIPOutputStream(new FileOutputStream(
+				this.temporaryFolder.newFile("test.txt.gz")))) {
+			outputStream.write("precompressed".getBytes("UTF-8"));
+		}
+	}
+
 	protected String getLocalUrl(String resourcePath) {
 		return getLocalUrl("http", resourcePath);
 	}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.web.servlet.server;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.web.servlet.server.SessionDataFile.StoredSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SessionDataFile}.
+ *
+ * @author agent (agent@local)
+ */
+public class SessionDataFileTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	private File file;
+
+	@Before
+	public void setup() throws IOException {
+		this.file = new File(this.temp.newFolder(), "test.session");
+	}
+
+	@Test
+	public void writeAndLoad() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put("string", "boot");
+		attributes.put("integer", 1);
+		attributes.put("long", 2L);
+		attributes.put("boolean", true);
+		attributes.put("bytes", new byte[] { 1, 2, 3 });
+		attributes.put("date", new Date(1000));
+		dataFile.write(new StoredSession("abc", 1, 2, 3, 4, attributes));
+		dataFile.close();
+		StoredSession session = new SessionDataFile(this.file).load("abc",
+				this.classLoader);
+		assertThat(session.getId()).isEqualTo("abc");
+		assertThat(session.getCreationTime()).isEqualTo(1);
+		assertThat(session.getLastAccessedTime()).isEqualTo(2);
+		assertThat(session.getMaxInactiveInterval()).isEqualTo(3);
+		assertThat(session.getExpirationTime()).isEqualTo(4);
+		assertThat(session.getAttributes()).containsOnlyKeys("string", "integer",
+				"long", "boolean", "bytes", "date");
+		assertThat(session.getAttributes().get("string")).isEqualTo("boot");
+		assertThat(session.getAttributes().get("integer")).isEqualTo(1);
+		assertThat(session.getAttributes().get("long")).isEqualTo(2L);
+		assertThat(session.getAttributes().get("boolean")).isEqualTo(true);
+		assertThat((byte[]) session.getAttributes().get("bytes"))
+				.containsExactly(1, 2, 3);
+		assertThat(session.getAttributes().get("date")).isEqualTo(new Date(1000));
+	}
+
+	@Test
+	public void loadMissingSession() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		assertThat(dataFile.load("abc", this.classLoader)).isNull();
+		assertThat(dataFile.getIds()).isEmpty();
+	}
+
+	@Test
+	public void nonSerializableAttributesAreSkipped() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put("spring", "boot");
+		attributes.put("object", new Object());
+		dataFile.write(new StoredSession("abc", 0, 0, 0, 1, attributes));
+		assertThat(dataFile.load("abc", this.classLoader).getAttributes())
+				.containsOnlyKeys("spring");
+	}
+
+	@Test
+	public void laterWriteReplacesEarlierWrite() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		dataFile.write(session("abc", "spring", "one"));
+		dataFile.write(session("def", "spring", "two"));
+		dataFile.write(session("abc", "spring", "three"));
+		dataFile.close();
+		dataFile = new SessionDataFile(this.file);
+		assertThat(dataFile.getIds()).containsExactly("abc", "def");
+		assertThat(dataFile.load("abc", this.classLoader).getAttributes())
+				.containsEntry("spring", "three");
+	}
+
+	@Test
+	public void removeSession() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		dataFile.write(session("abc", "spring", "boot"));
+		dataFile.write(session("def", "spring", "boot"));
+		dataFile.remove("abc");
+		dataFile.close();
+		dataFile = new SessionDataFile(this.file);
+		assertThat(dataFile.getIds()).containsExactly("def");
+		assertThat(dataFile.load("abc", this.classLoader)).isNull();
+	}
+
+	@Test
+	public void getExpiredIds() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		dataFile.write(new StoredSession("abc", 0, 0, 0, 100, null));
+		dataFile.write(new StoredSession("def", 0, 0, 0, 200, null));
+		dataFile.write(new StoredSession("ghi", 0, 0, 0, Long.MAX_VALUE, null));
+		assertThat(dataFile.getExpiredIds(150)).containsExactly("abc");
+		assertThat(dataFile.getExpiredIds(200)).containsExactly("abc", "def");
+	}
+
+	@Test
+	public void compactRemovesSupersededRecords() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		for (int i = 0; i < 100; i++) {
+			dataFile.write(session("abc", "count", i));
+		}
+		dataFile.write(session("def", "spring", "boot"));
+		dataFile.remove("def");
+		dataFile.flush();
+		long length = this.file.length();
+		dataFile.compact();
+		assertThat(this.file.length()).isLessThan(length / 50);
+		assertThat(dataFile.getIds()).containsExactly("abc");
+		assertThat(dataFile.load("abc", this.classLoader).getAttributes())
+				.containsEntry("count", 99);
+	}
+
+	@Test
+	public void replace() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		dataFile.write(session("abc", "spring", "boot"));
+		dataFile.replace(Arrays.asList(session("def", "spring", "boot"),
+				session("ghi", "spring", "boot")));
+		assertThat(dataFile.getIds()).containsExactly("def", "ghi");
+	}
+
+	@Test
+	public void truncatedRecordIsIgnored() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		dataFile.write(session("abc", "spring", "boot"));
+		dataFile.write(session("def", "spring", "boot"));
+		dataFile.close();
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file,
+				"rw")) {
+			randomAccessFile.setLength(randomAccessFile.length() - 3);
+		}
+		dataFile = new SessionDataFile(this.file);
+		assertThat(dataFile.getIds()).containsExactly("abc");
+		dataFile.write(session("ghi", "spring", "boot"));
+		dataFile.close();
+		assertThat(new SessionDataFile(this.file).getIds()).containsExactly("abc",
+				"ghi");
+	}
+
+	@Test
+	public void unsupportedFormat() throws Exception {
+		try (FileOutputStream outputStream = new FileOutputStream(this.file)) {
+			outputStream.write(new byte[] { 1, 2, 3, 4, 5, 6 });
+		}
+		this.thrown.expect(IOException.class);
+		this.thrown.expectMessage("Unsupported session data file format");
+		new SessionDataFile(this.file).getIds();
+	}
+
+	@Test
+	public void delete() throws Exception {
+		SessionDataFile dataFile = new SessionDataFile(this.file);
+		dataFile.write(session("abc", "spring", "boot"));
+		dataFile.delete();
+		assertThat(this.file).doesNotExist();
+		assertThat(dataFile.getIds()).isEmpty();
+	}
+
+	private StoredSession session(String id, String name, Object value) {
+		return new StoredSession(id, 0, 0, 0, Long.MAX_VALUE,
+				Collections.singletonMap(name, value));
+	}
+
+}